@@ -0,0 +1,44 @@
+package com.murat.kafkaconsumer.benchmark;
+
+import com.murat.kafkaconsumer.model.Rate;
+import com.murat.ratecodec.model.RateMessage;
+import com.murat.ratecodec.serialization.RateMessageCodec;
+import com.murat.ratecodec.serialization.RateMessageDeserializer;
+import com.murat.kafkaconsumer.service.KafkaConsumerService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turning a Kafka record into a {@link Rate} entity (formerly {@code KafkaConsumerService.stringToRate}), for
+ * records in the text and in the binary format.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RateMessageDecodeBenchmark {
+
+    @Param({"TEXT", "BINARY"})
+    public RateMessageCodec.Format format;
+
+    private final RateMessageDeserializer deserializer = new RateMessageDeserializer();
+
+    // Donusum repository kullanmaz
+    private final KafkaConsumerService consumerService = new KafkaConsumerService(null, null);
+
+    private byte[] record;
+
+    @Setup
+    public void setUp() {
+        RateMessage message = new RateMessage("PF2", "USDTRY", 34.80, 35.10, "2024-12-16T16:07:16.504");
+        record = RateMessageCodec.encode(message, format);
+    }
+
+    @Benchmark
+    public Rate recordToRate() {
+        return consumerService.messageToRate(deserializer.deserialize("test-topic", record));
+    }
+}
@@ -2,13 +2,22 @@ package com.murat.kafkaconsumer.config;
 
 import java.util.HashMap;
 import java.util.Map;
+
+import com.murat.ratecodec.model.RateMessage;
+import com.murat.ratecodec.serialization.RateMessageDeserializer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.util.backoff.BackOff;
+import org.springframework.util.backoff.ExponentialBackOff;
 
 /**
  * Kafka consumer configuration class for setting up Kafka listener containers and consumer factory.
@@ -16,26 +25,53 @@ import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
  * <p>This configuration enables the application to consume messages from Kafka topics
  * using the specified consumer properties such as broker address, group ID, and deserializers.</p>
  *
- * <p>It provides two beans:</p>
+ * <p>It provides three beans:</p>
  * <ul>
- *   <li>{@code ConsumerFactory<String, String>} - Used to create Kafka consumers.</li>
- *   <li>{@code ConcurrentKafkaListenerContainerFactory<String, String>} - Used by Spring to create listener containers.</li>
+ *   <li>{@code ConsumerFactory<String, RateMessage>} - Used to create Kafka consumers.</li>
+ *   <li>{@code ConcurrentKafkaListenerContainerFactory<String, RateMessage>} - Used by Spring to create listener containers.</li>
+ *   <li>{@code batchKafkaListenerContainerFactory} - Creates containers which pass a whole poll to the listener
+ *   and commit offsets only when the listener acknowledges it, retrying a failed batch until it is stored.</li>
  * </ul>
  *
- * <p>Messages are expected to have String keys and String values.</p>
+ * <p>Messages are expected to have String keys and {@link RateMessage} values in the text or binary format,
+ * read by {@link RateMessageDeserializer}. {@link ErrorHandlingDeserializer} keeps a value which cannot be read
+ * from stopping the consumer: a batch listener receives it as a {@code null} value, a single record listener is not
+ * called for it and the container's error handler logs and skips it.</p>
  *
  */
 @Configuration
 public class KafkaConsumerConfig {
 
+    /**
+     * Number of consumer threads of a listener. Messages are keyed by rate, so each thread receives
+     * whole partitions and the ticks of a rate stay in order. Threads above the partition count stay idle.
+     */
+    @Value("${rate.consumer.concurrency:3}")
+    private int concurrency;
+
+    @Value("${rate.consumer.batch.max-poll-records:2000}")
+    private int maxPollRecords;
+
+    /**
+     * Wait (ms) before the first retry of a failed batch, doubled on every retry
+     */
+    @Value("${rate.consumer.batch.retry.initial-interval-ms:1000}")
+    private long retryInitialIntervalMs;
+
+    /**
+     * Longest wait (ms) between two retries of a failed batch
+     */
+    @Value("${rate.consumer.batch.retry.max-interval-ms:60000}")
+    private long retryMaxIntervalMs;
+
     /**
      * Creates a {@link ConsumerFactory} bean with configuration properties for connecting
      * to the Kafka broker and deserializing messages.
      *
-     * @return a configured {@code ConsumerFactory} for String key/value pairs
+     * @return a configured {@code ConsumerFactory} for String keys and {@link RateMessage} values
      */
     @Bean
-    public ConsumerFactory<String, String> consumerFactory() {
+    public ConsumerFactory<String, RateMessage> consumerFactory() {
         Map<String, Object> props = new HashMap<>();
         // Kafka broker adresi
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
@@ -43,7 +79,11 @@ public class KafkaConsumerConfig {
         props.put(ConsumerConfig.GROUP_ID_CONFIG, "rate-group");
         // Mesajların deserializer ayarları
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        props.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, RateMessageDeserializer.class);
+        // Offset'ler listener tarafindan, kayitlar veritabanina yazildiktan sonra commit edilir
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
 
 
         return new DefaultKafkaConsumerFactory<>(props);
@@ -57,10 +97,63 @@ public class KafkaConsumerConfig {
      * @return a configured {@code ConcurrentKafkaListenerContainerFactory} for handling Kafka listeners
      */
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+    public ConcurrentKafkaListenerContainerFactory<String, RateMessage> kafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, RateMessage> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(concurrency);
         return factory;
     }
+
+    /**
+     * Creates a listener container factory for batch listeners.
+     *
+     * <p>The listener receives every record of a poll at once and must call
+     * {@link org.springframework.kafka.support.Acknowledgment#acknowledge()} after the records are stored.
+     * If the listener throws instead, the offsets are not committed and {@link #batchErrorHandler()} passes the same
+     * batch to the listener again until it is stored.</p>
+     *
+     * @return a configured {@code ConcurrentKafkaListenerContainerFactory} for batch listeners
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, RateMessage> batchKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, RateMessage> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(concurrency);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setCommonErrorHandler(batchErrorHandler());
+        return factory;
+    }
+
+    /**
+     * Creates the error handler of the batch listeners.
+     *
+     * <p>The default {@link DefaultErrorHandler} retries a failed batch 9 times without waiting, then logs it and
+     * commits its offsets, so a database outage of a few milliseconds would lose the batch. This handler retries
+     * with {@link #batchRetryBackOff(long, long)}, which never gives up: the partitions are paused meanwhile and the
+     * batch is stored once the database is back.</p>
+     *
+     * @return the error handler of {@code batchKafkaListenerContainerFactory}
+     */
+    @Bean
+    public DefaultErrorHandler batchErrorHandler() {
+        return new DefaultErrorHandler(batchRetryBackOff(retryInitialIntervalMs, retryMaxIntervalMs));
+    }
+
+    /**
+     * Returns a back-off doubling the wait from {@code initialIntervalMs} up to {@code maxIntervalMs}, without a
+     * limit on the number of attempts or the elapsed time.
+     *
+     * @param initialIntervalMs the wait before the first retry
+     * @param maxIntervalMs the longest wait between two retries
+     * @return the back-off
+     */
+    static BackOff batchRetryBackOff(long initialIntervalMs, long maxIntervalMs) {
+        ExponentialBackOff backOff = new ExponentialBackOff(initialIntervalMs, 2);
+        backOff.setMaxInterval(maxIntervalMs);
+        backOff.setMaxElapsedTime(Long.MAX_VALUE);
+        return backOff;
+    }
 }
@@ -0,0 +1,96 @@
+package com.murat.kafkaconsumer.repository;
+
+import com.murat.kafkaconsumer.model.Rate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Writes many {@link Rate}s to the "rates" table with multi-row {@code INSERT} statements.
+ *
+ * <p>Used by the batch listener of {@link com.murat.kafkaconsumer.service.KafkaConsumerService}. Saving the rates
+ * one by one through {@link RateRepository} costs one round trip per rate, because Hibernate cannot batch inserts
+ * of entities with {@code GenerationType.IDENTITY} ids. Here the ids are still generated by the database, but up
+ * to {@code rate.consumer.batch.rows-per-statement} rates are sent in a single statement.</p>
+ *
+ * <p>All statements of one call run in the same transaction, so either every rate of a poll is stored or none.</p>
+ *
+ * @see Rate
+ */
+@Repository
+public class RateBatchWriter {
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO rates (rate_name, bid, ask, rate_update_time, db_update_time) VALUES ";
+
+    private static final int COLUMN_COUNT = 5;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final int rowsPerStatement;
+
+    private final String fullStatementSql;
+
+    /**
+     * @param jdbcTemplate the template of the application's data source
+     * @param rowsPerStatement maximum number of rows of one {@code INSERT} statement
+     */
+    public RateBatchWriter(JdbcTemplate jdbcTemplate,
+                           @Value("${rate.consumer.batch.rows-per-statement:1000}") int rowsPerStatement) {
+        this.jdbcTemplate = jdbcTemplate;
+        // PostgreSQL bir ifadede en fazla 32767 parametre kabul eder
+        this.rowsPerStatement = Math.max(1, Math.min(rowsPerStatement, Short.MAX_VALUE / COLUMN_COUNT));
+        this.fullStatementSql = insertSql(this.rowsPerStatement);
+    }
+
+    /**
+     * Inserts the given rates. {@code dbUpdateTime} of every rate is set to the current time.
+     *
+     * @param rates the rates to insert
+     * @return the number of inserted rows
+     */
+    @Transactional
+    public int insertAll(List<Rate> rates) {
+        if (rates.isEmpty()) {
+            return 0;
+        }
+
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        int inserted = 0;
+        for (int from = 0; from < rates.size(); from += rowsPerStatement) {
+            List<Rate> chunk = rates.subList(from, Math.min(from + rowsPerStatement, rates.size()));
+            Object[] args = new Object[chunk.size() * COLUMN_COUNT];
+            int i = 0;
+            for (Rate rate : chunk) {
+                rate.setDbUpdateTime(now);
+                args[i++] = rate.getRateName();
+                args[i++] = rate.getBid();
+                args[i++] = rate.getAsk();
+                args[i++] = rate.getTimestamp();
+                args[i++] = now;
+            }
+            String sql = chunk.size() == rowsPerStatement ? fullStatementSql : insertSql(chunk.size());
+            inserted += jdbcTemplate.update(sql, args);
+        }
+        return inserted;
+    }
+
+    /**
+     * @return an {@code INSERT} statement with {@code rows} value tuples
+     */
+    static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows * 18);
+        sql.append(INSERT_PREFIX);
+        for (int row = 0; row < rows; row++) {
+            if (row > 0) {
+                sql.append(',');
+            }
+            sql.append("(?,?,?,?,?)");
+        }
+        return sql.toString();
+    }
+}
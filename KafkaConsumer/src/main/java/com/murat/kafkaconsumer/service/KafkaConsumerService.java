@@ -1,11 +1,20 @@
 package com.murat.kafkaconsumer.service;
 
 import com.murat.kafkaconsumer.model.Rate;
+import com.murat.ratecodec.model.RateMessage;
+import com.murat.kafkaconsumer.repository.RateBatchWriter;
 import com.murat.kafkaconsumer.repository.RateRepository;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+
 
 /**
  * Service class responsible for consuming messages from Kafka and
@@ -13,22 +22,31 @@ import org.springframework.stereotype.Service;
  *
  * <p>This class listens to Kafka messages from the topic {@code "test-topic"}
  * using the consumer group {@code "rate-group"}. When a message is received,
- * it is parsed and transformed into a {@code Rate} object which is then saved
- * to the database via the {@link RateRepository}.</p>
+ * it is decoded by {@link com.murat.ratecodec.serialization.RateMessageDeserializer} and transformed into a
+ * {@code Rate} object which is then saved to the database via the {@link RateRepository}.</p>
+ *
+ * <p>With {@code rate.consumer.mode=batch} the batch listener {@link #listenBatch(List, Acknowledgment)} is started
+ * instead, which stores every record of a poll with {@link RateBatchWriter}.</p>
  *
  */
 @Service
 public class KafkaConsumerService {
 
+    private static final Logger logger = LoggerFactory.getLogger(KafkaConsumerService.class);
+
     private final RateRepository rateRepository;
 
+    private final RateBatchWriter rateBatchWriter;
+
     /**
      * Constructs a new {@code KafkaConsumerService} with the given repository.
      *
      * @param rateRepository the repository used to persist {@link Rate} entities
+     * @param rateBatchWriter the writer used to persist the rates of a whole poll
      */
-    public KafkaConsumerService(RateRepository rateRepository) {
+    public KafkaConsumerService(RateRepository rateRepository, RateBatchWriter rateBatchWriter) {
         this.rateRepository = rateRepository;
+        this.rateBatchWriter = rateBatchWriter;
     }
 
 
@@ -36,55 +54,70 @@ public class KafkaConsumerService {
      * Kafka listener method that is triggered when a new message is received
      * on the topic {@code "test-topic"}.
      *
-     * <p>The incoming message is expected to be in a delimited string format (e.g., {@code "PF2_USDTRY|34.80|35.10|2024-12-16T16:07:16.504"}).
-     * It is parsed and mapped to a {@link Rate} object which is then persisted.</p>
+     * <p>The incoming message is sent either in a delimited string format (e.g., {@code "PF2_USDTRY|34.80|35.10|2024-12-16T16:07:16.504"})
+     * or in the binary format. It is mapped to a {@link Rate} object which is then persisted.</p>
      *
-     * @param message the raw string message received from Kafka
+     * @param message the message received from Kafka
      */
-    @KafkaListener(topics = "test-topic", groupId = "rate-group")
-    public void listen(String message) {
-        System.out.println("Alınan mesaj: " + message);
-        Rate rate = stringToRate(message);
+    @KafkaListener(topics = "${kafka.topic.name:test-topic}", groupId = "rate-group",
+            autoStartup = "#{'${rate.consumer.mode:single}' != 'batch'}")
+    public void listen(RateMessage message) {
+        // Her mesaj icin sadece DEBUG seviyesinde, mesaj log kapaliyken formatlanmaz
+        logger.debug("Alınan mesaj: {}", message);
+        Rate rate = messageToRate(message);
         rateRepository.save(rate);
     }
 
     /**
-     * Converts a Kafka message string into a {@link Rate} entity.
+     * Batch Kafka listener which is started instead of {@link #listen(RateMessage)} when
+     * {@code rate.consumer.mode=batch}.
      *
-     * <p>The expected input format is a pipe-separated string:
-     * {@code "PF2_USDTRY|34.80|35.10|2024-12-16T16:07:16.504"}</p>
+     * <p>Every record of a poll is parsed and all rates are inserted in a single transaction.
+     * Offsets are committed only after the transaction is committed; if the insert fails the
+     * exception is propagated without acknowledging, and the error handler of
+     * {@code batchKafkaListenerContainerFactory} passes the same records again after a back-off until they are
+     * stored.</p>
      *
-     * <p>Prefix {@code PF1_} or {@code PF2_} will be stripped from the rate name,
-     * and bid/ask values will be parsed as {@code double}.</p>
+     * <p>Records which cannot be decoded are logged and skipped, so that they do not block the partition.</p>
      *
-     * @param formattedRate the string message received from Kafka
-     * @return a populated {@link Rate} object ready to be persisted
-     * @see Rate
+     * @param records the records of one poll
+     * @param acknowledgment used to commit the offsets of the poll
      */
-    public Rate stringToRate(String formattedRate)
-    {
-        // "PF2_USDTRY|34.80|35.10|2024-12-16T16:07:16.504" gibi bir input bekleniyor
-        String[] parts = formattedRate.split("\\|");
-
-        // rateName alanı üzerinde "PF2_" kontrolü
-        String rateName = parts[0];
-        if (rateName.startsWith("PF2_") || rateName.startsWith("PF1_")) {
-            rateName = rateName.substring(4);
+    @KafkaListener(topics = "${kafka.topic.name:test-topic}", groupId = "rate-group",
+            containerFactory = "batchKafkaListenerContainerFactory",
+            autoStartup = "#{'${rate.consumer.mode:single}' == 'batch'}")
+    public void listenBatch(List<ConsumerRecord<String, RateMessage>> records, Acknowledgment acknowledgment) {
+        List<Rate> rates = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, RateMessage> record : records) {
+            if (record.value() == null) {
+                // ErrorHandlingDeserializer okunamayan kayitlari null olarak iletir
+                logger.warn("Geçersiz mesaj atlandı (partition {}, offset {})", record.partition(), record.offset());
+                continue;
+            }
+            rates.add(messageToRate(record.value()));
         }
 
-        // Bid ve Ask değerlerinin double'a çevrilmesi
-        double bid = Double.parseDouble(parts[1]);
-        double ask = Double.parseDouble(parts[2]);
-
-        // Zaman bilgisini direkt String olarak alıyoruz, gerekirse LocalDateTime olarak da işlenebilir
-        String timestamp = parts[3];
+        rateBatchWriter.insertAll(rates);
+        acknowledgment.acknowledge();
+    }
 
-        // Rate nesnesini oluşturup ilgili alanlara atama yapıyoruz
+    /**
+     * Converts a Kafka message into a {@link Rate} entity.
+     *
+     * <p>The platform of raw rates (e.g. {@code PF1}) is not stored, rates of all platforms
+     * are stored with their plain rate name like {@code USDTRY}.</p>
+     *
+     * @param message the message received from Kafka
+     * @return a populated {@link Rate} object ready to be persisted
+     * @see Rate
+     */
+    public Rate messageToRate(RateMessage message)
+    {
         Rate rate = new Rate();
-        rate.setRateName(rateName);
-        rate.setBid(bid);
-        rate.setAsk(ask);
-        rate.setTimestamp(timestamp);
+        rate.setRateName(message.getRateName());
+        rate.setBid(message.getBid());
+        rate.setAsk(message.getAsk());
+        rate.setTimestamp(message.getTimestamp());
 
         return rate;
 
@@ -0,0 +1,23 @@
+package com.murat.kafkaconsumer.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.backoff.BackOffExecution;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KafkaConsumerConfigTest {
+
+    @Test
+    void batchRetryBackOffNeverGivesUp() {
+        BackOffExecution execution = KafkaConsumerConfig.batchRetryBackOff(1000, 60000).start();
+
+        assertEquals(1000, execution.nextBackOff());
+        assertEquals(2000, execution.nextBackOff());
+        // Bir gunluk kesinti: bekleme en fazla max-interval olur, STOP donmez
+        for (int i = 0; i < 24 * 60; i++) {
+            assertTrue(execution.nextBackOff() <= 60000);
+        }
+        assertEquals(60000, execution.nextBackOff());
+    }
+}
@@ -0,0 +1,45 @@
+package com.murat.kafkaconsumer.repository;
+
+import com.murat.kafkaconsumer.model.Rate;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.*;
+
+class RateBatchWriterTest {
+
+    @Test
+    void insertAllSplitsRatesIntoMultiRowStatements() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        RateBatchWriter writer = new RateBatchWriter(jdbcTemplate, 2);
+
+        List<Rate> rates = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            rates.add(new Rate(null, "USDTRY", 35.0 + i, 36.0 + i, "2024-12-16T16:07:16.504", null));
+        }
+        writer.insertAll(rates);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(3)).update(sql.capture(), args.capture());
+
+        assertEquals(RateBatchWriter.insertSql(2), sql.getAllValues().get(0));
+        assertEquals(RateBatchWriter.insertSql(1), sql.getAllValues().get(2));
+        assertEquals(10, args.getAllValues().get(0).length);
+        assertEquals(5, args.getAllValues().get(2).length);
+        assertEquals(39.0, args.getAllValues().get(2)[1]);
+        assertNotNull(rates.get(4).getDbUpdateTime());
+    }
+
+    @Test
+    void insertSqlHasOneTuplePerRow() {
+        assertEquals("INSERT INTO rates (rate_name, bid, ask, rate_update_time, db_update_time) VALUES "
+                + "(?,?,?,?,?),(?,?,?,?,?)", RateBatchWriter.insertSql(2));
+    }
+}
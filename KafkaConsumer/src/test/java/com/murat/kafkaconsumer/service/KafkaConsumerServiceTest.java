@@ -0,0 +1,44 @@
+package com.murat.kafkaconsumer.service;
+
+import com.murat.kafkaconsumer.repository.RateBatchWriter;
+import com.murat.kafkaconsumer.repository.RateRepository;
+import com.murat.ratecodec.model.RateMessage;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class KafkaConsumerServiceTest {
+
+    private final RateBatchWriter rateBatchWriter = mock(RateBatchWriter.class);
+    private final Acknowledgment acknowledgment = mock(Acknowledgment.class);
+    private final KafkaConsumerService service = new KafkaConsumerService(mock(RateRepository.class), rateBatchWriter);
+
+    private final List<ConsumerRecord<String, RateMessage>> records = List.of(
+            new ConsumerRecord<>("test-topic", 0, 10, "USDTRY",
+                    new RateMessage("PF1", "USDTRY", 35.02, 36.02, "2024-12-16T16:07:16.504")),
+            new ConsumerRecord<>("test-topic", 0, 11, "USDTRY", null));
+
+    @Test
+    void batchIsAcknowledgedAfterItIsStored() {
+        service.listenBatch(records, acknowledgment);
+
+        verify(rateBatchWriter).insertAll(argThat(rates -> rates.size() == 1));
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void failedBatchIsNotAcknowledged() {
+        doThrow(new DataAccessResourceFailureException("database is down")).when(rateBatchWriter).insertAll(anyList());
+
+        assertThrows(DataAccessResourceFailureException.class, () -> service.listenBatch(records, acknowledgment));
+
+        verify(acknowledgment, never()).acknowledge();
+    }
+}
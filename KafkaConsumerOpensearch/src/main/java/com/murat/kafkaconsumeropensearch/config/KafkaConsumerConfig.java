@@ -2,13 +2,18 @@ package com.murat.kafkaconsumeropensearch.config;
 
 import java.util.HashMap;
 import java.util.Map;
+
+import com.murat.ratecodec.model.RateMessage;
+import com.murat.ratecodec.serialization.RateMessageDeserializer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 
 /**
  * Kafka consumer configuration class for setting up Kafka listener containers and consumer factory.
@@ -18,24 +23,33 @@ import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
  *
  * <p>It provides two beans:</p>
  * <ul>
- *   <li>{@code ConsumerFactory<String, String>} - Used to create Kafka consumers.</li>
- *   <li>{@code ConcurrentKafkaListenerContainerFactory<String, String>} - Used by Spring to create listener containers.</li>
+ *   <li>{@code ConsumerFactory<String, RateMessage>} - Used to create Kafka consumers.</li>
+ *   <li>{@code ConcurrentKafkaListenerContainerFactory<String, RateMessage>} - Used by Spring to create listener containers.</li>
  * </ul>
  *
- * <p>Messages are expected to have String keys and String values.</p>
+ * <p>Messages are expected to have String keys and {@link RateMessage} values in the text or binary format,
+ * read by {@link RateMessageDeserializer}. Values which cannot be read are handed to the container's error
+ * handler by {@link ErrorHandlingDeserializer} instead of stopping the consumer.</p>
  *
  */
 @Configuration
 public class KafkaConsumerConfig {
 
+    /**
+     * Number of consumer threads of a listener. Messages are keyed by rate, so each thread receives
+     * whole partitions and the ticks of a rate stay in order. Threads above the partition count stay idle.
+     */
+    @Value("${rate.consumer.concurrency:3}")
+    private int concurrency;
+
     /**
      * Creates a {@link ConsumerFactory} bean with configuration properties for connecting
      * to the Kafka broker and deserializing messages.
      *
-     * @return a configured {@code ConsumerFactory} for String key/value pairs
+     * @return a configured {@code ConsumerFactory} for String keys and {@link RateMessage} values
      */
     @Bean
-    public ConsumerFactory<String, String> consumerFactory() {
+    public ConsumerFactory<String, RateMessage> consumerFactory() {
         Map<String, Object> props = new HashMap<>();
         // Kafka broker adresi
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
@@ -43,7 +57,8 @@ public class KafkaConsumerConfig {
         props.put(ConsumerConfig.GROUP_ID_CONFIG, "rate-group");
         // Mesajların deserializer ayarları
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        props.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, RateMessageDeserializer.class);
 
 
         return new DefaultKafkaConsumerFactory<>(props);
@@ -56,10 +71,11 @@ public class KafkaConsumerConfig {
      * @return a configured {@code ConcurrentKafkaListenerContainerFactory} for handling Kafka listeners
      */
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+    public ConcurrentKafkaListenerContainerFactory<String, RateMessage> kafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, RateMessage> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(concurrency);
         return factory;
     }
 }
\ No newline at end of file
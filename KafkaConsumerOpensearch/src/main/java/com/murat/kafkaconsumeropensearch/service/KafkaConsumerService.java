@@ -1,5 +1,6 @@
 package com.murat.kafkaconsumeropensearch.service;
 
+import com.murat.ratecodec.model.RateMessage;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.kafka.annotation.KafkaListener;
@@ -31,12 +32,13 @@ public class KafkaConsumerService {
      * Kafka listener method that is triggered when a new message is received
      * from the {@code "test-topic"}.
      *
-     * <p>The message is logged via the custom {@code KafkaLogger} at {@code INFO} level.</p>
+     * <p>The message is logged via the custom {@code KafkaLogger} at {@code INFO} level,
+     * in the text format whichever format it was sent in.</p>
      *
-     * @param message the raw message received from the Kafka topic
+     * @param message the message received from the Kafka topic
      */
-    @KafkaListener(topics = "test-topic", groupId = "rate-group-2")
-    public void listen(String message) {
+    @KafkaListener(topics = "${kafka.topic.name:test-topic}", groupId = "rate-group-2")
+    public void listen(RateMessage message) {
         kafkaLogger.info(message);
     }
 }
@@ -0,0 +1,71 @@
+package com.murat.mainapp.benchmark;
+
+import com.murat.mainapp.calculator.batch.BatchRateKernel;
+import com.murat.mainapp.calculator.batch.ScalarRateKernel;
+import com.murat.mainapp.calculator.batch.VectorRateKernel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batch calculation of {@code count} USD/TRY averages and EUR/TRY crosses with the scalar and vector kernels.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BatchRateKernelBenchmark {
+
+    @Param({"scalar", "vector"})
+    public String kernelName;
+
+    @Param({"500", "100000"})
+    public int count;
+
+    private BatchRateKernel kernel;
+
+    private double[] bids1;
+    private double[] asks1;
+    private double[] bids2;
+    private double[] asks2;
+    private double[] crossBids;
+    private double[] crossAsks;
+    private double[] usdBids;
+    private double[] usdAsks;
+    private double[] outBids;
+    private double[] outAsks;
+
+    @Setup
+    public void setUp() {
+        kernel = "vector".equals(kernelName) ? new VectorRateKernel() : new ScalarRateKernel();
+        Random random = new Random(42);
+        bids1 = prices(random, 35.02);
+        asks1 = prices(random, 36.02);
+        bids2 = prices(random, 35.04);
+        asks2 = prices(random, 36.01);
+        crossBids = prices(random, 1.0832);
+        crossAsks = prices(random, 1.2932);
+        usdBids = new double[count];
+        usdAsks = new double[count];
+        outBids = new double[count];
+        outAsks = new double[count];
+    }
+
+    @Benchmark
+    public double[] averageAndCross() {
+        kernel.average(bids1, asks1, bids2, asks2, usdBids, usdAsks, count);
+        kernel.cross(usdBids, usdAsks, crossBids, crossAsks, outBids, outAsks, count);
+        return outAsks;
+    }
+
+    private double[] prices(Random random, double around) {
+        double[] prices = new double[count];
+        for (int i = 0; i < count; i++) {
+            prices[i] = around * (1 + (random.nextDouble() - 0.5) / 100);
+        }
+        return prices;
+    }
+}
@@ -0,0 +1,33 @@
+package com.murat.mainapp.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the MainApp benchmarks with allocation profiling.
+ *
+ * <p>Started by {@code mvn -Pbenchmark test-compile exec:exec}. The first argument is a regular expression
+ * selecting the benchmarks, {@code -Djmh.include=TcpFrameParser} for example. Besides the time per operation,
+ * {@link GCProfiler} reports the bytes allocated per operation ({@code gc.alloc.rate.norm}). The results are
+ * written to {@code target/jmh-result.json} so that two builds can be compared.</p>
+ *
+ * <p>Logging is reduced to warnings with {@code log4j2-benchmark.xml}, so the benchmarks do not measure the
+ * log file. The Vector API module is added so that the batch kernels can be compared.</p>
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : ".*")
+                .addProfiler(GCProfiler.class)
+                .jvmArgsAppend("-Dlog4j.configurationFile=log4j2-benchmark.xml", "--add-modules=jdk.incubator.vector")
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-result.json")
+                .build();
+        new Runner(options).run();
+    }
+}
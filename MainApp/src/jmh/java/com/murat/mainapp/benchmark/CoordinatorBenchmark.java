@@ -0,0 +1,130 @@
+package com.murat.mainapp.benchmark;
+
+import com.murat.mainapp.coordinator.Coordinator;
+import com.murat.mainapp.coordinator.RecalculationScheduler;
+import com.murat.mainapp.journal.TickJournal;
+import com.murat.mainapp.metrics.RateMetrics;
+import com.murat.mainapp.model.Rate;
+import com.murat.mainapp.model.RateFields;
+import com.murat.ratecodec.model.RateMessage;
+import com.murat.mainapp.pipeline.TickPipeline;
+import com.murat.mainapp.ratebook.ConsolidatedQuoteBook;
+import com.murat.mainapp.ratebook.RateBook;
+import com.murat.mainapp.ratebook.RedisRateMirror;
+import com.murat.mainapp.service.CurrencyService;
+import com.murat.mainapp.service.KafkaProducerService;
+import com.murat.mainapp.validation.TickValidatorChain;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The path of a rate update through {@link Coordinator#onRateUpdate(String, String, RateFields)}: tick validation
+ * check, {@link RateBook} update, {@link TickJournal} append, Redis mirroring and Kafka publishing.
+ *
+ * <p>Redis is replaced by an in-memory {@link ConcurrentMapCacheManager} and Kafka by a template which completes
+ * every send immediately, so only MainApp's own work is measured. The journal is written into a temporary directory. With {@code calculationMode=event} the update
+ * also marks the derived rates dirty for recalculation.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CoordinatorBenchmark {
+
+    @Param({"timer", "event"})
+    public String calculationMode;
+
+    private Coordinator coordinator;
+
+    private RedisRateMirror redisRateMirror;
+
+    private RecalculationScheduler recalculationScheduler;
+
+    private TickJournal tickJournal;
+
+    private Path journalDirectory;
+
+    private final RateFields[] updates = {
+            new RateFields("USDTRY", 35.02, 36.02, "2024-12-16T16:07:16.504"),
+            new RateFields("USDTRY", 35.03, 36.03, "2024-12-16T16:07:16.604")
+    };
+
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        journalDirectory = Files.createTempDirectory("journal-benchmark");
+        RateBook rateBook = new RateBook(4096);
+        tickJournal = new TickJournal(true, journalDirectory.toString(), 16 << 20, 0);
+        redisRateMirror = new RedisRateMirror(new ConcurrentMapCacheManager(), 100);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        KafkaProducerService kafkaProducerService =
+                new KafkaProducerService(new CompletingKafkaTemplate(), meterRegistry, "test-topic");
+        CurrencyService currencyService = new CurrencyService("com.murat.mainapp.calculator.JavaRateCalculator",
+                "formulas.yml", "crossrates.yml");
+        recalculationScheduler = new RecalculationScheduler(200);
+
+        coordinator = new Coordinator(rateBook, new ConsolidatedQuoteBook(16, 5000, 1000), redisRateMirror, tickJournal,
+                new TickValidatorChain(rateBook, "validation.yml", 100), kafkaProducerService,
+                new TickPipeline(kafkaProducerService, false, 1024, "blocking"),
+                new RateMetrics(meterRegistry), currencyService, recalculationScheduler, calculationMode, 1);
+        recalculationScheduler.addDependency("USDTRY", "USDTRY");
+        recalculationScheduler.addDependency("USDTRY", "EURTRY");
+        recalculationScheduler.setHandler(coordinator::recalculate);
+
+        coordinator.onRateAvailable("PF1", "USDTRY", new Rate("USDTRY", 35.02, 36.02, "2024-12-16T16:07:16.404"));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        redisRateMirror.shutdown();
+        recalculationScheduler.shutdown();
+        deleteJournal(journalDirectory);
+    }
+
+    static void deleteJournal(Path directory) throws IOException {
+        try (var files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public void onRateUpdate() {
+        coordinator.onRateUpdate("PF1", "USDTRY", updates[next]);
+        next ^= 1;
+    }
+
+    /**
+     * A {@link KafkaTemplate} which completes every send without a broker.
+     */
+    private static class CompletingKafkaTemplate extends KafkaTemplate<String, RateMessage> {
+
+        private static final CompletableFuture<SendResult<String, RateMessage>> SENT =
+                CompletableFuture.completedFuture(null);
+
+        CompletingKafkaTemplate() {
+            super(new DefaultKafkaProducerFactory<>(Map.of()));
+        }
+
+        @Override
+        public CompletableFuture<SendResult<String, RateMessage>> send(String topic, String key, RateMessage data) {
+            return SENT;
+        }
+    }
+}
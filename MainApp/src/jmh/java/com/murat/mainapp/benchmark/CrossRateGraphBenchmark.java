@@ -0,0 +1,66 @@
+package com.murat.mainapp.benchmark;
+
+import com.murat.mainapp.calculator.formula.FormulaRateCalculator;
+import com.murat.mainapp.calculator.graph.CrossRateGraph;
+import com.murat.mainapp.calculator.graph.RawRateSource;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluation of every node of {@code crossrates.yml}, with the formulas of the node types ({@code type})
+ * or with the compiled formulas of {@code formulas.yml} ({@code formula}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CrossRateGraphBenchmark {
+
+    @Param({"type", "formula"})
+    public String formulas;
+
+    private CrossRateGraph graph;
+
+    private final BitSet allNodes = new BitSet();
+
+    private final RawRateSource source = (rateName, bidAsk) -> {
+        switch (rateName) {
+            case "USDTRY" -> {
+                bidAsk[0] = 35.03;
+                bidAsk[1] = 36.015;
+            }
+            case "EURUSD" -> {
+                bidAsk[0] = 1.0833;
+                bidAsk[1] = 1.2931;
+            }
+            default -> {
+                bidAsk[0] = 1.2641;
+                bidAsk[1] = 1.2702;
+            }
+        }
+        return true;
+    };
+
+    @Setup
+    public void setUp() throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("/crossrates.yml")) {
+            graph = CrossRateGraph.load(in, "formula".equals(formulas) ? new FormulaRateCalculator() : null);
+        }
+        graph.mark(graph.rateNames(), allNodes);
+    }
+
+    @Benchmark
+    public void evaluate(Blackhole blackhole) {
+        graph.evaluate(allNodes, source, (rateName, bid, ask) -> {
+            blackhole.consume(bid);
+            blackhole.consume(ask);
+        });
+    }
+}
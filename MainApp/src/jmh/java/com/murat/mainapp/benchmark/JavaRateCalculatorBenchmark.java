@@ -0,0 +1,43 @@
+package com.murat.mainapp.benchmark;
+
+import com.murat.mainapp.calculator.JavaRateCalculator;
+import com.murat.mainapp.model.Rate;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calculation of the derived rates by {@link JavaRateCalculator}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JavaRateCalculatorBenchmark {
+
+    private final JavaRateCalculator calculator = new JavaRateCalculator();
+
+    private final Rate pf1UsdTry = new Rate("USDTRY", 35.02, 36.02, "2024-12-16T16:07:16.504");
+    private final Rate pf2UsdTry = new Rate("USDTRY", 35.04, 36.01, "2024-12-16T16:07:16.512");
+    private final Rate pf1EurUsd = new Rate("EURUSD", 1.0832, 1.2932, "2024-12-16T16:07:16.504");
+    private final Rate pf2EurUsd = new Rate("EURUSD", 1.0834, 1.2930, "2024-12-16T16:07:16.512");
+
+    private Rate usdTry;
+
+    @Setup
+    public void setUp() {
+        usdTry = calculator.calculateUSDTRY(pf1UsdTry, pf2UsdTry);
+    }
+
+    @Benchmark
+    public Rate calculateUSDTRY() {
+        return calculator.calculateUSDTRY(pf1UsdTry, pf2UsdTry);
+    }
+
+    @Benchmark
+    public Rate calculateEURTRY() {
+        return calculator.calculateEURTRY(usdTry, pf1EurUsd, pf2EurUsd);
+    }
+}
@@ -0,0 +1,81 @@
+package com.murat.mainapp.benchmark;
+
+import com.murat.mainapp.logging.TickLogSampler;
+import com.murat.ratecodec.model.RateMessage;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the per-tick {@code Rate update} log line of the Coordinator on the thread delivering the tick.
+ *
+ * <ul>
+ *     <li>{@code sync}: the pattern and synchronous file appender of {@code log4j2.xml}, including the method
+ *     name ({@code %M}) which needs a stack trace per line</li>
+ *     <li>{@code async}: the AsyncLogger and garbage-free file appender of {@code log4j2-async.xml}; the line is
+ *     formatted and written by the logger thread, when it falls behind lines are discarded
+ *     ({@code log4j2.component.properties})</li>
+ * </ul>
+ *
+ * <p>{@code sampleRate} is {@code tick-log.sample-rate}. The console appender is left out in both cases.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LoggingBenchmark {
+
+    @Param({"sync", "async"})
+    private String config;
+
+    @Param({"1", "100"})
+    private int sampleRate;
+
+    private Path directory;
+
+    private Logger logger;
+
+    private TickLogSampler sampler;
+
+    private final RateMessage message = new RateMessage("PF1", "USDTRY", 35.02, 36.02, "2024-12-16T16:07:16.504");
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, URISyntaxException {
+        directory = Files.createTempDirectory("logging-benchmark");
+        System.setProperty("benchmark.log.file", directory.resolve("app.log").toString());
+        Configurator.reconfigure(Objects.requireNonNull(
+                getClass().getResource("/log4j2-tick-" + config + ".xml")).toURI());
+        logger = LogManager.getLogger("com.murat.mainapp.coordinator.Coordinator");
+        sampler = new TickLogSampler(sampleRate);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException, URISyntaxException {
+        // Asenkron logger'in kuyrugu bosaltilir ve dosya kapatilir
+        Configurator.reconfigure(Objects.requireNonNull(getClass().getResource("/log4j2-benchmark.xml")).toURI());
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public void logTick() {
+        message.setBid(message.getBid() + 0.0001);
+        if (sampler.sample()) {
+            logger.info("Rate update: {}", message);
+        }
+    }
+}
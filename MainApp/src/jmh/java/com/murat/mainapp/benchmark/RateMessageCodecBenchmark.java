@@ -0,0 +1,47 @@
+package com.murat.mainapp.benchmark;
+
+import com.murat.ratecodec.model.RateMessage;
+import com.murat.ratecodec.serialization.RateMessageCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding of the Kafka messages in the text format (formerly {@code Coordinator.formatRate}) and the binary format,
+ * and decoding of both formats as done by the consumers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RateMessageCodecBenchmark {
+
+    private final RateMessage message =
+            new RateMessage("PF1", "USDTRY", 35.02312312312, 36.02312312312, "2024-12-16T16:07:16.504");
+
+    private final byte[] text = RateMessageCodec.encode(message, RateMessageCodec.Format.TEXT);
+
+    private final byte[] binary = RateMessageCodec.encode(message, RateMessageCodec.Format.BINARY);
+
+    @Benchmark
+    public byte[] encodeText() {
+        return RateMessageCodec.encode(message, RateMessageCodec.Format.TEXT);
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() {
+        return RateMessageCodec.encode(message, RateMessageCodec.Format.BINARY);
+    }
+
+    @Benchmark
+    public RateMessage decodeText() {
+        return RateMessageCodec.decode(text);
+    }
+
+    @Benchmark
+    public RateMessage decodeBinary() {
+        return RateMessageCodec.decode(binary);
+    }
+}
@@ -0,0 +1,33 @@
+package com.murat.mainapp.benchmark;
+
+import com.murat.mainapp.fetcher.TcpFrame;
+import com.murat.mainapp.fetcher.TcpFrameParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of a rate frame received from the TCP platform, see {@link TcpFrameParser}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TcpFrameParserBenchmark {
+
+    private final byte[] line = "PF1_USDTRY|22:number:35.02312312312|25:number:36.02312312312|5:timestamp:2024-12-16T16:07:16.504"
+            .getBytes(StandardCharsets.ISO_8859_1);
+
+    private final TcpFrameParser parser = new TcpFrameParser();
+
+    private final TcpFrame frame = new TcpFrame();
+
+    @Benchmark
+    public TcpFrame parse() {
+        parser.parse(line, 0, line.length, frame);
+        return frame;
+    }
+}
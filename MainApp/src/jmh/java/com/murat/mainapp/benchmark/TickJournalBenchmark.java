@@ -0,0 +1,44 @@
+package com.murat.mainapp.benchmark;
+
+import com.murat.mainapp.journal.TickJournal;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One {@link TickJournal} append, including the segment rolls it causes (16 MB segments).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TickJournalBenchmark {
+
+    private TickJournal journal;
+
+    private Path directory;
+
+    private double bid = 35.02;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("journal-benchmark");
+        journal = new TickJournal(true, directory.toString(), 16 << 20, 0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        CoordinatorBenchmark.deleteJournal(directory);
+    }
+
+    @Benchmark
+    public void appendAccepted() {
+        bid += 0.0001;
+        journal.appendAccepted("PF1_USDTRY", bid, bid + 1, "2024-12-16T16:07:16.504");
+    }
+}
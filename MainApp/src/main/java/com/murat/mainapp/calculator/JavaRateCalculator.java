@@ -1,5 +1,8 @@
 package com.murat.mainapp.calculator;
 
+import com.murat.mainapp.calculator.graph.CrossRateFormula;
+import com.murat.mainapp.calculator.graph.CrossRateFormulas;
+import com.murat.mainapp.calculator.graph.CrossRateType;
 import com.murat.mainapp.model.Rate;
 
 import java.time.LocalDateTime;
@@ -11,11 +14,68 @@ import java.time.format.DateTimeFormatter;
  * Responsible for calculating derived rates such as USD/TRY,
  * EUR/TRY, and GBP/TRY based on provided base and cross rates.
  * </p>
+ * <p>
+ * The same calculations are the formulas of the {@link com.murat.mainapp.calculator.graph.CrossRateGraph} nodes by
+ * their type: {@link CrossRateType#AVERAGE} nodes like USD/TRY, {@link CrossRateType#CROSS} nodes like EUR/TRY.
+ * They compute into the result array of the graph without allocating.
+ * </p>
  */
-public class JavaRateCalculator implements RateCalculator {
+public class JavaRateCalculator implements RateCalculator, CrossRateFormulas {
 
     private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS");
 
+    /**
+     * {@link #calculateUSDTRY(Rate, Rate)} of one averaged source rate
+     */
+    private static final CrossRateFormula AVERAGE = new CrossRateFormula() {
+        @Override
+        public boolean usesBase() {
+            return false;
+        }
+
+        @Override
+        public boolean evaluate(double sourceBid, double sourceAsk, double baseBid, double baseAsk, double[] bidAsk) {
+            bidAsk[0] = sourceBid;
+            bidAsk[1] = sourceAsk;
+            return Double.isFinite(sourceBid) && Double.isFinite(sourceAsk);
+        }
+    };
+
+    /**
+     * {@link #calculateEURTRY(Rate, Rate, Rate)} of one averaged source rate, the base being USD/TRY
+     */
+    private static final CrossRateFormula CROSS = new CrossRateFormula() {
+        @Override
+        public boolean usesBase() {
+            return true;
+        }
+
+        @Override
+        public boolean evaluate(double sourceBid, double sourceAsk, double baseBid, double baseAsk, double[] bidAsk) {
+            double baseMid = mid(baseBid, baseAsk);
+            bidAsk[0] = baseMid * sourceBid;
+            bidAsk[1] = baseMid * sourceAsk;
+            return Double.isFinite(bidAsk[0]) && Double.isFinite(bidAsk[1]);
+        }
+    };
+
+    /**
+     * Returns the formula of the node's type; {@link CrossRateType#INVERSE_CROSS} nodes have no method in this
+     * calculator and keep the formula of their type.
+     */
+    @Override
+    public CrossRateFormula formulaOf(String rateName, CrossRateType type) {
+        return switch (type) {
+            case AVERAGE -> AVERAGE;
+            case CROSS -> CROSS;
+            case INVERSE_CROSS -> null;
+        };
+    }
+
+    private static double mid(double bid, double ask) {
+        return (bid + ask) / 2.0;
+    }
+
     /**
      * Calculates the USD/TRY exchange rate using two given base rates.
      *
@@ -59,7 +119,7 @@ public class JavaRateCalculator implements RateCalculator {
 
         if( rate2 == null )
         {
-            double usdMid = (rateUSDTRY.getAsk() + rateUSDTRY.getBid()) / 2.0;
+            double usdMid = mid(rateUSDTRY.getBid(), rateUSDTRY.getAsk());
             double bid = usdMid * rate1.getBid();
             double ask = usdMid * rate1.getAsk();
             String timestamp = LocalDateTime.now().format(formatter);
@@ -71,7 +131,7 @@ public class JavaRateCalculator implements RateCalculator {
 
             return calculatedRate;
         }
-        double usdMid = (rateUSDTRY.getAsk() + rateUSDTRY.getBid()) / 2.0;
+        double usdMid = mid(rateUSDTRY.getBid(), rateUSDTRY.getAsk());
         double bid = usdMid * ((rate1.getBid() + rate2.getBid())/2.0);
         double ask = usdMid * ((rate1.getAsk() + rate2.getAsk())/2.0);
         String timestamp = LocalDateTime.now().format(formatter);
@@ -98,20 +158,20 @@ public class JavaRateCalculator implements RateCalculator {
         Rate calculatedRate = new Rate();
         if( rate2 == null )
         {
-            double usdMid = (rateUSDTRY.getAsk() + rateUSDTRY.getBid()) / 2.0;
+            double usdMid = mid(rateUSDTRY.getBid(), rateUSDTRY.getAsk());
             double bid = usdMid * rate1.getBid();
             double ask = usdMid * rate1.getAsk();
             String timestamp = LocalDateTime.now().format(formatter);
 
             calculatedRate.setBid(bid);
             calculatedRate.setAsk(ask);
-            calculatedRate.setRateName("EURTRY");
+            calculatedRate.setRateName("GBPTRY");
             calculatedRate.setTimestamp(timestamp);
 
             return calculatedRate;
         }
 
-        double usdMid = (rateUSDTRY.getAsk() + rateUSDTRY.getBid()) / 2.0;
+        double usdMid = mid(rateUSDTRY.getBid(), rateUSDTRY.getAsk());
         double bid = usdMid * ((rate1.getBid() + rate2.getBid())/2.0);
         double ask = usdMid * ((rate1.getAsk() + rate2.getAsk())/2.0);
         String timestamp = LocalDateTime.now().format(formatter);
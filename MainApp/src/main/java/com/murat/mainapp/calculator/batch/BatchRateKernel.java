@@ -0,0 +1,45 @@
+package com.murat.mainapp.calculator.batch;
+
+/**
+ * Calculates derived rates for many symbols at once from structure-of-arrays inputs.
+ *
+ * <p>Element {@code i} of every array belongs to the same symbol (or the same time step in a backtest).
+ * Results are written into the output arrays given by the caller, nothing is allocated. Only the first
+ * {@code count} elements are read and written; an output array may be the same array as an input.</p>
+ *
+ * <p>The formulas are the ones of {@link com.murat.mainapp.calculator.JavaRateCalculator} and
+ * {@link com.murat.mainapp.calculator.graph.CrossRateType}.</p>
+ */
+public interface BatchRateKernel {
+
+    /**
+     * {@code out = (rate1 + rate2) / 2} for bid and ask, e.g. the USD/TRY of two platforms.
+     */
+    void average(double[] bids1, double[] asks1, double[] bids2, double[] asks2,
+                 double[] outBids, double[] outAsks, int count);
+
+    /**
+     * {@code out = mid(base) * rate} for bid and ask with the same base for every symbol,
+     * e.g. every XXX/TRY from the XXX/USD rates and one USD/TRY.
+     */
+    void cross(double baseBid, double baseAsk, double[] bids, double[] asks,
+               double[] outBids, double[] outAsks, int count);
+
+    /**
+     * {@code out = mid(base[i]) * rate[i]} for bid and ask, e.g. a EUR/TRY series from USD/TRY and EUR/USD series.
+     */
+    void cross(double[] baseBids, double[] baseAsks, double[] bids, double[] asks,
+               double[] outBids, double[] outAsks, int count);
+
+    /**
+     * {@code outBid = mid(base) / ask, outAsk = mid(base) / bid} with the same base for every symbol,
+     * e.g. every XXX/TRY from the USD/XXX rates and one USD/TRY.
+     */
+    void inverseCross(double baseBid, double baseAsk, double[] bids, double[] asks,
+                      double[] outBids, double[] outAsks, int count);
+
+    /**
+     * @return a short name for logs, e.g. {@code scalar}
+     */
+    String name();
+}
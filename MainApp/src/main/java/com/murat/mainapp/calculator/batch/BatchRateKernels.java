@@ -0,0 +1,33 @@
+package com.murat.mainapp.calculator.batch;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Chooses the {@link BatchRateKernel} implementation at runtime.
+ */
+public final class BatchRateKernels {
+
+    private static final Logger logger = LogManager.getLogger(BatchRateKernels.class);
+
+    private BatchRateKernels() {
+    }
+
+    /**
+     * Returns {@link VectorRateKernel} if the Vector API module is available, {@link ScalarRateKernel} otherwise.
+     *
+     * @return the kernel to use
+     */
+    public static BatchRateKernel best() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            logger.info("Vector API is not available (--add-modules jdk.incubator.vector), using the scalar batch kernel");
+            return new ScalarRateKernel();
+        }
+        try {
+            return new VectorRateKernel();
+        } catch (LinkageError e) {
+            logger.warn("Couldn't load the vector batch kernel, using the scalar one: {}", e.toString());
+            return new ScalarRateKernel();
+        }
+    }
+}
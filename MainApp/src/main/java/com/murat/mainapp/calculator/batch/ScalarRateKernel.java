@@ -0,0 +1,75 @@
+package com.murat.mainapp.calculator.batch;
+
+/**
+ * {@link BatchRateKernel} implementation with plain loops, used when the Vector API is not available.
+ * The static range methods also calculate the tail of {@link VectorRateKernel}.
+ */
+public class ScalarRateKernel implements BatchRateKernel {
+
+    @Override
+    public void average(double[] bids1, double[] asks1, double[] bids2, double[] asks2,
+                        double[] outBids, double[] outAsks, int count) {
+        averageRange(bids1, asks1, bids2, asks2, outBids, outAsks, 0, count);
+    }
+
+    @Override
+    public void cross(double baseBid, double baseAsk, double[] bids, double[] asks,
+                      double[] outBids, double[] outAsks, int count) {
+        crossRange((baseBid + baseAsk) / 2.0, bids, asks, outBids, outAsks, 0, count);
+    }
+
+    @Override
+    public void cross(double[] baseBids, double[] baseAsks, double[] bids, double[] asks,
+                      double[] outBids, double[] outAsks, int count) {
+        crossRange(baseBids, baseAsks, bids, asks, outBids, outAsks, 0, count);
+    }
+
+    @Override
+    public void inverseCross(double baseBid, double baseAsk, double[] bids, double[] asks,
+                             double[] outBids, double[] outAsks, int count) {
+        inverseCrossRange((baseBid + baseAsk) / 2.0, bids, asks, outBids, outAsks, 0, count);
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+
+    static void averageRange(double[] bids1, double[] asks1, double[] bids2, double[] asks2,
+                             double[] outBids, double[] outAsks, int from, int to) {
+        for (int i = from; i < to; i++) {
+            outBids[i] = (bids1[i] + bids2[i]) / 2.0;
+            outAsks[i] = (asks1[i] + asks2[i]) / 2.0;
+        }
+    }
+
+    static void crossRange(double mid, double[] bids, double[] asks,
+                           double[] outBids, double[] outAsks, int from, int to) {
+        for (int i = from; i < to; i++) {
+            outBids[i] = mid * bids[i];
+            outAsks[i] = mid * asks[i];
+        }
+    }
+
+    static void crossRange(double[] baseBids, double[] baseAsks, double[] bids, double[] asks,
+                           double[] outBids, double[] outAsks, int from, int to) {
+        for (int i = from; i < to; i++) {
+            double mid = (baseBids[i] + baseAsks[i]) / 2.0;
+            // Cikti girdiyle ayni dizi olabilir, once ikisini de oku
+            double bid = bids[i];
+            double ask = asks[i];
+            outBids[i] = mid * bid;
+            outAsks[i] = mid * ask;
+        }
+    }
+
+    static void inverseCrossRange(double mid, double[] bids, double[] asks,
+                                  double[] outBids, double[] outAsks, int from, int to) {
+        for (int i = from; i < to; i++) {
+            double bid = bids[i];
+            double ask = asks[i];
+            outBids[i] = mid / ask;
+            outAsks[i] = mid / bid;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.murat.mainapp.calculator.batch;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link BatchRateKernel} implementation with the JDK Vector API ({@code jdk.incubator.vector}).
+ *
+ * <p>Every loop processes {@link #SPECIES} lanes per iteration (e.g. 4 doubles with AVX2, 8 with AVX-512) and the
+ * remaining elements with {@link ScalarRateKernel}. The operations are the same as the scalar ones, so both kernels
+ * give bit-identical results.</p>
+ *
+ * <p>The class can only be loaded if the JVM is started with {@code --add-modules jdk.incubator.vector};
+ * use {@link BatchRateKernels#best()} instead of referring to it directly.</p>
+ */
+public class VectorRateKernel implements BatchRateKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public void average(double[] bids1, double[] asks1, double[] bids2, double[] asks2,
+                        double[] outBids, double[] outAsks, int count) {
+        int bound = SPECIES.loopBound(count);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, bids1, i).add(DoubleVector.fromArray(SPECIES, bids2, i)).mul(0.5)
+                    .intoArray(outBids, i);
+            DoubleVector.fromArray(SPECIES, asks1, i).add(DoubleVector.fromArray(SPECIES, asks2, i)).mul(0.5)
+                    .intoArray(outAsks, i);
+        }
+        ScalarRateKernel.averageRange(bids1, asks1, bids2, asks2, outBids, outAsks, i, count);
+    }
+
+    @Override
+    public void cross(double baseBid, double baseAsk, double[] bids, double[] asks,
+                      double[] outBids, double[] outAsks, int count) {
+        double mid = (baseBid + baseAsk) / 2.0;
+        int bound = SPECIES.loopBound(count);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, bids, i).mul(mid).intoArray(outBids, i);
+            DoubleVector.fromArray(SPECIES, asks, i).mul(mid).intoArray(outAsks, i);
+        }
+        ScalarRateKernel.crossRange(mid, bids, asks, outBids, outAsks, i, count);
+    }
+
+    @Override
+    public void cross(double[] baseBids, double[] baseAsks, double[] bids, double[] asks,
+                      double[] outBids, double[] outAsks, int count) {
+        int bound = SPECIES.loopBound(count);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector mid = DoubleVector.fromArray(SPECIES, baseBids, i)
+                    .add(DoubleVector.fromArray(SPECIES, baseAsks, i)).mul(0.5);
+            DoubleVector bid = DoubleVector.fromArray(SPECIES, bids, i);
+            DoubleVector ask = DoubleVector.fromArray(SPECIES, asks, i);
+            mid.mul(bid).intoArray(outBids, i);
+            mid.mul(ask).intoArray(outAsks, i);
+        }
+        ScalarRateKernel.crossRange(baseBids, baseAsks, bids, asks, outBids, outAsks, i, count);
+    }
+
+    @Override
+    public void inverseCross(double baseBid, double baseAsk, double[] bids, double[] asks,
+                             double[] outBids, double[] outAsks, int count) {
+        double mid = (baseBid + baseAsk) / 2.0;
+        DoubleVector mids = DoubleVector.broadcast(SPECIES, mid);
+        int bound = SPECIES.loopBound(count);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector bid = DoubleVector.fromArray(SPECIES, bids, i);
+            DoubleVector ask = DoubleVector.fromArray(SPECIES, asks, i);
+            mids.div(ask).intoArray(outBids, i);
+            mids.div(bid).intoArray(outAsks, i);
+        }
+        ScalarRateKernel.inverseCrossRange(mid, bids, asks, outBids, outAsks, i, count);
+    }
+
+    @Override
+    public String name() {
+        return "vector(" + SPECIES.length() + " lanes)";
+    }
+}
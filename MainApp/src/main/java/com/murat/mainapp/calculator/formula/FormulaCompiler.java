@@ -0,0 +1,346 @@
+package com.murat.mainapp.calculator.formula;
+
+import com.murat.mainapp.exception.InvalidFormulaException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compiles a rate formula into a {@link MethodHandle} tree of type {@code (double, double, double, double) double},
+ * the arguments being {@code source.bid, source.ask, base.bid, base.ask}.
+ *
+ * <p>The formula is parsed once; evaluating the handle does not parse or look up anything. Every operator is a
+ * static method combined with {@link MethodHandles#collectArguments} and {@link MethodHandles#permuteArguments}.
+ * The JVM turns the combined handle into bytecode after a few calls. The handle is held in a field of
+ * {@link Compiled}, not in a constant, so the JIT calls it through the handle rather than inlining the formula into
+ * the caller; a formula is therefore somewhat slower than the same expression written in Java, see
+ * {@code CrossRateGraphBenchmark}.</p>
+ *
+ * <p>Grammar:</p>
+ * <pre>
+ * expression := term (('+' | '-') term)*
+ * term       := factor (('*' | '/') factor)*
+ * factor     := '-' factor | number | '(' expression ')' | rate '.' ('bid' | 'ask')
+ *             | ('avg' | 'min' | 'max') '(' expression (',' expression)* ')'
+ *             | ('mid' | 'spread') '(' rate ')'
+ * rate       := 'source' | 'base'
+ * </pre>
+ *
+ * <p>{@code avg} ignores {@code NaN} arguments, so {@code avg(a, b)} is {@code a} when {@code b} is missing.
+ * {@code mid(r)} is {@code (r.bid + r.ask) / 2} and {@code spread(r)} is {@code r.ask - r.bid}.</p>
+ */
+public final class FormulaCompiler {
+
+    static final int SOURCE_BID = 0;
+    static final int SOURCE_ASK = 1;
+    static final int BASE_BID = 2;
+    static final int BASE_ASK = 3;
+
+    static final MethodType FORMULA_TYPE =
+            MethodType.methodType(double.class, double.class, double.class, double.class, double.class);
+
+    private static final MethodType BINARY_TYPE = MethodType.methodType(double.class, double.class, double.class);
+    private static final MethodType UNARY_TYPE = MethodType.methodType(double.class, double.class);
+
+    private static final MethodHandle ADD = operator("add", BINARY_TYPE);
+    private static final MethodHandle SUBTRACT = operator("subtract", BINARY_TYPE);
+    private static final MethodHandle MULTIPLY = operator("multiply", BINARY_TYPE);
+    private static final MethodHandle DIVIDE = operator("divide", BINARY_TYPE);
+    private static final MethodHandle MIN = operator("min", BINARY_TYPE);
+    private static final MethodHandle MAX = operator("max", BINARY_TYPE);
+    private static final MethodHandle NEGATE = operator("negate", UNARY_TYPE);
+    private static final MethodHandle ADD_VALUE = operator("addValue", BINARY_TYPE);
+    private static final MethodHandle ADD_PRESENT = operator("addPresent", BINARY_TYPE);
+
+    private final String formula;
+    private int position;
+    private boolean usesBase;
+
+    private FormulaCompiler(String formula) {
+        this.formula = formula;
+    }
+
+    /**
+     * Compiles a formula.
+     *
+     * @param formula the formula, e.g. {@code mid(base) * source.bid}
+     * @return the compiled formula
+     * @throws InvalidFormulaException if the formula cannot be parsed
+     */
+    public static Compiled compile(String formula) {
+        if (formula == null || formula.isBlank()) {
+            throw new InvalidFormulaException("Formula is empty");
+        }
+        FormulaCompiler compiler = new FormulaCompiler(formula);
+        MethodHandle handle = compiler.expression();
+        compiler.skipSpaces();
+        if (compiler.position != formula.length()) {
+            throw compiler.error("Unexpected '" + formula.charAt(compiler.position) + "'");
+        }
+        return new Compiled(formula, handle, compiler.usesBase);
+    }
+
+    /**
+     * A compiled formula.
+     *
+     * @param formula the source text
+     * @param handle the {@code (source.bid, source.ask, base.bid, base.ask) double} handle
+     * @param usesBase {@code true} if the formula reads {@code base}
+     */
+    public record Compiled(String formula, MethodHandle handle, boolean usesBase) {
+
+        /**
+         * Evaluates the formula.
+         *
+         * @return the result
+         */
+        public double evaluate(double sourceBid, double sourceAsk, double baseBid, double baseAsk) {
+            try {
+                return (double) handle.invokeExact(sourceBid, sourceAsk, baseBid, baseAsk);
+            } catch (Throwable e) {
+                // Operatorler exception firlatmaz
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private MethodHandle expression() {
+        MethodHandle result = term();
+        while (true) {
+            if (accept('+')) {
+                result = combine(ADD, result, term());
+            } else if (accept('-')) {
+                result = combine(SUBTRACT, result, term());
+            } else {
+                return result;
+            }
+        }
+    }
+
+    private MethodHandle term() {
+        MethodHandle result = factor();
+        while (true) {
+            if (accept('*')) {
+                result = combine(MULTIPLY, result, factor());
+            } else if (accept('/')) {
+                result = combine(DIVIDE, result, factor());
+            } else {
+                return result;
+            }
+        }
+    }
+
+    private MethodHandle factor() {
+        skipSpaces();
+        if (accept('-')) {
+            return MethodHandles.filterReturnValue(factor(), NEGATE);
+        }
+        if (accept('(')) {
+            MethodHandle result = expression();
+            expect(')');
+            return result;
+        }
+        if (position < formula.length() && (Character.isDigit(formula.charAt(position)) || formula.charAt(position) == '.')) {
+            return constant(number());
+        }
+
+        int start = position;
+        String name = identifier();
+        switch (name) {
+            case "source", "base" -> {
+                expect('.');
+                String field = identifier();
+                if (!field.equals("bid") && !field.equals("ask")) {
+                    throw error("Unknown field " + name + "." + field);
+                }
+                return argument(name, field);
+            }
+            case "avg", "min", "max" -> {
+                List<MethodHandle> arguments = arguments();
+                return switch (name) {
+                    case "avg" -> average(arguments);
+                    case "min" -> reduce(MIN, arguments);
+                    default -> reduce(MAX, arguments);
+                };
+            }
+            case "mid", "spread" -> {
+                expect('(');
+                String rate = identifier();
+                if (!rate.equals("source") && !rate.equals("base")) {
+                    throw error(name + " needs source or base");
+                }
+                expect(')');
+                MethodHandle bid = argument(rate, "bid");
+                MethodHandle ask = argument(rate, "ask");
+                return name.equals("mid")
+                        ? combine(DIVIDE, combine(ADD, bid, ask), constant(2))
+                        : combine(SUBTRACT, ask, bid);
+            }
+            default -> {
+                position = start;
+                throw error("Unknown name '" + name + "'");
+            }
+        }
+    }
+
+    private List<MethodHandle> arguments() {
+        expect('(');
+        List<MethodHandle> arguments = new ArrayList<>();
+        do {
+            arguments.add(expression());
+        } while (accept(','));
+        expect(')');
+        return arguments;
+    }
+
+    /**
+     * {@code sum(valueOrZero(x)) / count(present(x))}, {@code NaN} if every argument is {@code NaN}.
+     *
+     * <p>Every argument is evaluated once: its value is folded into a running {@code (sum, count)} pair passed on
+     * to the handle of the next argument, so nested averages stay linear in the size of the formula.</p>
+     */
+    private static MethodHandle average(List<MethodHandle> arguments) {
+        // (sum, count, a0..a3) -> sum / count, sondan basa dogru her arguman bir adim ekler
+        MethodHandle rest = MethodHandles.dropArguments(DIVIDE, 2, FORMULA_TYPE.parameterList());
+        MethodType stepType = rest.type().insertParameterTypes(2, double.class);
+        for (int i = arguments.size() - 1; i >= 0; i--) {
+            // (sum, x, count, x, a0..a3) -> rest(addValue(sum, x), addPresent(count, x), a0..a3)
+            MethodHandle step = MethodHandles.collectArguments(rest, 0, ADD_VALUE);
+            step = MethodHandles.collectArguments(step, 2, ADD_PRESENT);
+            // (sum, count, x, a0..a3), x argumanin tek degerlendirmesi
+            step = MethodHandles.permuteArguments(step, stepType, 0, 2, 1, 2, 3, 4, 5, 6);
+            rest = MethodHandles.foldArguments(step, 2, arguments.get(i));
+        }
+        return MethodHandles.insertArguments(rest, 0, 0.0, 0.0);
+    }
+
+    private static MethodHandle reduce(MethodHandle operator, List<MethodHandle> arguments) {
+        MethodHandle result = arguments.get(0);
+        for (int i = 1; i < arguments.size(); i++) {
+            result = combine(operator, result, arguments.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Feeds the four formula arguments to both operands and their results to the operator.
+     */
+    private static MethodHandle combine(MethodHandle operator, MethodHandle left, MethodHandle right) {
+        MethodHandle collected = MethodHandles.collectArguments(operator, 0, left);
+        collected = MethodHandles.collectArguments(collected, FORMULA_TYPE.parameterCount(), right);
+        return MethodHandles.permuteArguments(collected, FORMULA_TYPE, 0, 1, 2, 3, 0, 1, 2, 3);
+    }
+
+    private static MethodHandle constant(double value) {
+        return MethodHandles.dropArguments(MethodHandles.constant(double.class, value), 0, FORMULA_TYPE.parameterList());
+    }
+
+    private MethodHandle argument(String rate, String field) {
+        int index;
+        if (rate.equals("source")) {
+            index = field.equals("bid") ? SOURCE_BID : SOURCE_ASK;
+        } else {
+            usesBase = true;
+            index = field.equals("bid") ? BASE_BID : BASE_ASK;
+        }
+        return MethodHandles.permuteArguments(MethodHandles.identity(double.class), FORMULA_TYPE, index);
+    }
+
+    private double number() {
+        int start = position;
+        while (position < formula.length()
+                && (Character.isDigit(formula.charAt(position)) || formula.charAt(position) == '.')) {
+            position++;
+        }
+        try {
+            return Double.parseDouble(formula.substring(start, position));
+        } catch (NumberFormatException e) {
+            position = start;
+            throw error("Invalid number");
+        }
+    }
+
+    private String identifier() {
+        skipSpaces();
+        int start = position;
+        while (position < formula.length() && Character.isLetter(formula.charAt(position))) {
+            position++;
+        }
+        if (start == position) {
+            throw error("Expected a name");
+        }
+        return formula.substring(start, position);
+    }
+
+    private boolean accept(char c) {
+        skipSpaces();
+        if (position < formula.length() && formula.charAt(position) == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) {
+        if (!accept(c)) {
+            throw error("Expected '" + c + "'");
+        }
+    }
+
+    private void skipSpaces() {
+        while (position < formula.length() && Character.isWhitespace(formula.charAt(position))) {
+            position++;
+        }
+    }
+
+    private InvalidFormulaException error(String message) {
+        return new InvalidFormulaException(message + " at position " + position + " of formula: " + formula);
+    }
+
+    private static MethodHandle operator(String name, MethodType type) {
+        try {
+            return MethodHandles.lookup().findStatic(FormulaCompiler.class, name, type);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static double add(double a, double b) {
+        return a + b;
+    }
+
+    private static double subtract(double a, double b) {
+        return a - b;
+    }
+
+    private static double multiply(double a, double b) {
+        return a * b;
+    }
+
+    private static double divide(double a, double b) {
+        return a / b;
+    }
+
+    private static double min(double a, double b) {
+        return Math.min(a, b);
+    }
+
+    private static double max(double a, double b) {
+        return Math.max(a, b);
+    }
+
+    private static double negate(double a) {
+        return -a;
+    }
+
+    private static double addValue(double sum, double a) {
+        return Double.isNaN(a) ? sum : sum + a;
+    }
+
+    private static double addPresent(double count, double a) {
+        return Double.isNaN(a) ? count : count + 1;
+    }
+}
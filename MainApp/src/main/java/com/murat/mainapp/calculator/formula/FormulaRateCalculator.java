@@ -0,0 +1,189 @@
+package com.murat.mainapp.calculator.formula;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.murat.mainapp.calculator.RateCalculator;
+import com.murat.mainapp.calculator.graph.CrossRateFormula;
+import com.murat.mainapp.calculator.graph.CrossRateFormulas;
+import com.murat.mainapp.calculator.graph.CrossRateType;
+import com.murat.mainapp.config.ConfigFiles;
+import com.murat.mainapp.config.FormulaConfig;
+import com.murat.mainapp.config.FormulasConfig;
+import com.murat.mainapp.exception.CurrencyNotFoundException;
+import com.murat.mainapp.exception.InvalidFormulaException;
+import com.murat.mainapp.model.Rate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link RateCalculator} implementation whose formulas are read from a YAML file instead of being written in Java.
+ * <p>
+ * The file is read once and every formula is compiled by {@link FormulaCompiler}, so a formula can be changed
+ * by editing the file and restarting the application without a rebuild. The file is given by the
+ * {@code calculator.formula-file} property, {@code formulas.yml} on the classpath by default:
+ * </p>
+ * <pre>
+ * formulas:
+ *   USDTRY:
+ *     bid: "source.bid"
+ *     ask: "source.ask"
+ *   EURTRY:
+ *     bid: "mid(base) * source.bid"
+ *     ask: "mid(base) * source.ask"
+ * </pre>
+ * <p>
+ * {@code source} is the average of the platform rates and {@code base} is the rate the derived rate is crossed with
+ * (USD/TRY for EUR/TRY and GBP/TRY). The formulas are also used for the nodes of the
+ * {@link com.murat.mainapp.calculator.graph.CrossRateGraph} having the same name.
+ * </p>
+ */
+public class FormulaRateCalculator implements RateCalculator, CrossRateFormulas {
+
+    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS");
+
+    private final Map<String, RateFormula> formulas = new HashMap<>();
+
+    /**
+     * Loads the formulas from {@code formulas.yml} on the classpath.
+     */
+    public FormulaRateCalculator() {
+        this("formulas.yml");
+    }
+
+    /**
+     * Loads the formulas from a file. Used by {@link com.murat.mainapp.service.CurrencyService} with
+     * {@code calculator.formula-file} when {@code calculator.class} is this class.
+     *
+     * @param formulaFile the formula file, a file path or a classpath resource
+     * @throws InvalidFormulaException if the file cannot be read or a formula cannot be compiled
+     */
+    public FormulaRateCalculator(String formulaFile) {
+        this(readFormulas(formulaFile));
+    }
+
+    /**
+     * Compiles the given formulas.
+     *
+     * @param formulas derived rate name - formulas
+     * @throws InvalidFormulaException if a formula is missing or cannot be compiled
+     */
+    public FormulaRateCalculator(Map<String, FormulaConfig> formulas) {
+        formulas.forEach((rateName, config) -> {
+            if (config == null) {
+                throw new InvalidFormulaException("Formulas of " + rateName + " are missing");
+            }
+            this.formulas.put(rateName, new RateFormula(FormulaCompiler.compile(config.getBid()),
+                    FormulaCompiler.compile(config.getAsk())));
+        });
+    }
+
+    private static Map<String, FormulaConfig> readFormulas(String formulaFile) {
+        try (InputStream in = ConfigFiles.open(formulaFile)) {
+            if (in == null) {
+                throw new InvalidFormulaException("Couldn't find the formula file " + formulaFile);
+            }
+            FormulasConfig config = new ObjectMapper(new YAMLFactory()).readValue(in, FormulasConfig.class);
+            if (config.getFormulas() == null) {
+                throw new InvalidFormulaException("Formula file " + formulaFile + " has no formulas");
+            }
+            return config.getFormulas();
+        } catch (IOException e) {
+            throw new InvalidFormulaException("Couldn't read the formula file " + formulaFile + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the formula configured for the node in the formula file, whatever its type.
+     */
+    @Override
+    public CrossRateFormula formulaOf(String rateName, CrossRateType type) {
+        return formulas.get(rateName);
+    }
+
+    /**
+     * Calculates the USD/TRY exchange rate with the {@code USDTRY} formulas.
+     *
+     * @param rate1 the first rate involved in the USD/TRY calculation
+     * @param rate2 the second rate involved in the USD/TRY calculation, can be null
+     * @return the calculated USD/TRY {@link Rate}
+     */
+    @Override
+    public Rate calculateUSDTRY(Rate rate1, Rate rate2) {
+        return calculate("USDTRY", null, rate1, rate2);
+    }
+
+    /**
+     * Calculates the EUR/TRY exchange rate with the {@code EURTRY} formulas, {@code base} being USD/TRY.
+     *
+     * @param rateUSDTRY the existing USD/TRY {@link Rate}
+     * @param rate1      the first rate involved in the EUR/TRY calculation
+     * @param rate2      the second rate involved in the EUR/TRY calculation, can be null
+     * @return the calculated EUR/TRY {@link Rate}
+     */
+    @Override
+    public Rate calculateEURTRY(Rate rateUSDTRY, Rate rate1, Rate rate2) {
+        return calculate("EURTRY", rateUSDTRY, rate1, rate2);
+    }
+
+    /**
+     * Calculates the GBP/TRY exchange rate with the {@code GBPTRY} formulas, {@code base} being USD/TRY.
+     *
+     * @param rateUSDTRY the existing USD/TRY {@link Rate}
+     * @param rate1      the first rate involved in the GBP/TRY calculation
+     * @param rate2      the second rate involved in the GBP/TRY calculation, can be null
+     * @return the calculated GBP/TRY {@link Rate}
+     */
+    @Override
+    public Rate calculateGBPTRY(Rate rateUSDTRY, Rate rate1, Rate rate2) {
+        return calculate("GBPTRY", rateUSDTRY, rate1, rate2);
+    }
+
+    private Rate calculate(String rateName, Rate base, Rate rate1, Rate rate2) {
+        RateFormula formula = formulas.get(rateName);
+        if (formula == null) {
+            throw new CurrencyNotFoundException("There is no formula for " + rateName);
+        }
+
+        double sourceBid = rate2 == null ? rate1.getBid() : (rate1.getBid() + rate2.getBid()) / 2.0;
+        double sourceAsk = rate2 == null ? rate1.getAsk() : (rate1.getAsk() + rate2.getAsk()) / 2.0;
+        double[] bidAsk = new double[2];
+        if (!formula.evaluate(sourceBid, sourceAsk, base == null ? Double.NaN : base.getBid(),
+                base == null ? Double.NaN : base.getAsk(), bidAsk)) {
+            throw new CurrencyNotFoundException("Couldn't calculate " + rateName + " with the formulas " + formula);
+        }
+        return new Rate(rateName, bidAsk[0], bidAsk[1], LocalDateTime.now().format(formatter));
+    }
+
+    /**
+     * Compiled bid and ask formulas of a rate.
+     */
+    private record RateFormula(FormulaCompiler.Compiled bid, FormulaCompiler.Compiled ask) implements CrossRateFormula {
+
+        @Override
+        public boolean usesBase() {
+            return bid.usesBase() || ask.usesBase();
+        }
+
+        @Override
+        public boolean evaluate(double sourceBid, double sourceAsk, double baseBid, double baseAsk, double[] bidAsk) {
+            double calculatedBid = bid.evaluate(sourceBid, sourceAsk, baseBid, baseAsk);
+            double calculatedAsk = ask.evaluate(sourceBid, sourceAsk, baseBid, baseAsk);
+            if (!Double.isFinite(calculatedBid) || !Double.isFinite(calculatedAsk)) {
+                return false;
+            }
+            bidAsk[0] = calculatedBid;
+            bidAsk[1] = calculatedAsk;
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return "bid = " + bid.formula() + ", ask = " + ask.formula();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.murat.mainapp.calculator.graph;
+
+/**
+ * Custom calculation of a {@link CrossRateGraph} node, replacing the formula of its {@link CrossRateType}.
+ */
+public interface CrossRateFormula {
+
+    /**
+     * @return {@code true} if the formula reads the base node, only allowed for nodes having a base
+     */
+    boolean usesBase();
+
+    /**
+     * Calculates the node.
+     *
+     * @param sourceBid average bid of the source raw rate
+     * @param sourceAsk average ask of the source raw rate
+     * @param baseBid bid of the base node, {@code NaN} if the node has no base
+     * @param baseAsk ask of the base node, {@code NaN} if the node has no base
+     * @param bidAsk array of length 2 receiving the bid at index 0 and the ask at index 1
+     * @return {@code false} if the result is not a finite number
+     */
+    boolean evaluate(double sourceBid, double sourceAsk, double baseBid, double baseAsk, double[] bidAsk);
+}
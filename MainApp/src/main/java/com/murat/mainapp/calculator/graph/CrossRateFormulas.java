@@ -0,0 +1,19 @@
+package com.murat.mainapp.calculator.graph;
+
+/**
+ * Implemented by a {@link com.murat.mainapp.calculator.RateCalculator} which provides its own formulas
+ * for the nodes of the {@link CrossRateGraph}. Nodes of a calculator without them use the formula of their
+ * {@link CrossRateType}, see {@link com.murat.mainapp.service.CurrencyService}.
+ *
+ * <p>A formula is chosen from the configuration of the node, its {@link CrossRateType} or a formula configured for
+ * its name, so a new or renamed node of the graph file gets the formula of its type.</p>
+ */
+public interface CrossRateFormulas {
+
+    /**
+     * @param rateName the derived rate name
+     * @param type the configured type of the node
+     * @return the formula of the rate, or {@code null} to use the formula of {@code type}
+     */
+    CrossRateFormula formulaOf(String rateName, CrossRateType type);
+}
@@ -0,0 +1,305 @@
+package com.murat.mainapp.calculator.graph;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.murat.mainapp.config.CrossRateConfig;
+import com.murat.mainapp.config.CrossRatesConfig;
+import com.murat.mainapp.exception.CrossRateConfigException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+/**
+ * Evaluation plan of the derived rates, compiled once from a declarative {@link CrossRatesConfig}.
+ *
+ * <p>Nodes are sorted topologically when the graph is compiled, so a node is always evaluated after its base.
+ * For every raw rate the set of nodes depending on it, directly or through their base, is precomputed as a
+ * {@link BitSet}; when a raw rate changes only these nodes are evaluated again.</p>
+ *
+ * <p>The last bid / ask of every node is kept between evaluations, a node whose inputs did not change
+ * reuses the previous value of its base. A node which cannot be calculated (missing raw rate or invalid base)
+ * is invalid and so are the nodes depending on it.</p>
+ *
+ * <p>The formula of a node is given by its {@link CrossRateType}, unless the {@link CrossRateFormulas} passed to
+ * {@link #compile(List, CrossRateFormulas)} provides a {@link CrossRateFormula} for it.</p>
+ *
+ * <p>Adding a derived rate only needs a new node in the configuration file, e.g.</p>
+ * <pre>
+ * rates:
+ *   - name: "USDTRY"
+ *     type: AVERAGE
+ *     source: "USDTRY"
+ *   - name: "EURTRY"
+ *     type: CROSS
+ *     base: "USDTRY"
+ *     source: "EURUSD"
+ * </pre>
+ */
+public final class CrossRateGraph {
+
+    /**
+     * Receives the nodes calculated by {@link #evaluate(BitSet, RawRateSource, Listener)}.
+     */
+    @FunctionalInterface
+    public interface Listener {
+
+        /**
+         * @param rateName the derived rate name
+         * @param bid the calculated bid
+         * @param ask the calculated ask
+         */
+        void onCalculated(String rateName, double bid, double ask);
+    }
+
+    // Nodes in evaluation order, a node's base always has a smaller index
+    private final String[] names;
+    private final CrossRateType[] types;
+    private final String[] sources;
+    private final int[] bases;
+    private final CrossRateFormula[] formulas;
+
+    private final Map<String, Integer> indexes = new HashMap<>();
+
+    /**
+     * raw rate name - nodes to evaluate when it changes
+     */
+    private final Map<String, BitSet> affectedByRaw = new LinkedHashMap<>();
+
+    // Last evaluated values, guarded by this
+    private final double[] bids;
+    private final double[] asks;
+    private final boolean[] valid;
+    private final double[] scratch = new double[2];
+
+    private CrossRateGraph(List<CrossRateConfig> ordered, CrossRateFormulas custom) {
+        int size = ordered.size();
+        names = new String[size];
+        types = new CrossRateType[size];
+        sources = new String[size];
+        bases = new int[size];
+        formulas = new CrossRateFormula[size];
+        bids = new double[size];
+        asks = new double[size];
+        valid = new boolean[size];
+
+        for (int i = 0; i < size; i++) {
+            CrossRateConfig node = ordered.get(i);
+            names[i] = node.getName();
+            types[i] = node.getType();
+            sources[i] = node.getSource();
+            bases[i] = node.getType().hasBase() ? indexes.get(node.getBase()) : -1;
+            indexes.put(node.getName(), i);
+
+            formulas[i] = custom == null ? null : custom.formulaOf(node.getName(), node.getType());
+            if (formulas[i] != null && formulas[i].usesBase() && bases[i] < 0) {
+                throw new CrossRateConfigException("Formula of " + node.getName() + " uses a base but the rate has none");
+            }
+        }
+
+        // Bir dugumun etkiledigi dugumler: kendisi ve onu base olarak kullananlarin etkiledikleri
+        BitSet[] downstream = new BitSet[size];
+        for (int i = size - 1; i >= 0; i--) {
+            downstream[i] = new BitSet(size);
+            downstream[i].set(i);
+            for (int j = i + 1; j < size; j++) {
+                if (bases[j] == i) {
+                    downstream[i].or(downstream[j]);
+                }
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            affectedByRaw.computeIfAbsent(sources[i], k -> new BitSet(size)).or(downstream[i]);
+        }
+    }
+
+    /**
+     * Reads a graph from a YAML file in the {@link CrossRatesConfig} format and compiles it.
+     *
+     * @param in the YAML content
+     * @param formulas custom node formulas, can be null
+     * @return the compiled graph
+     * @throws CrossRateConfigException if the content cannot be read or the graph is invalid
+     */
+    public static CrossRateGraph load(InputStream in, CrossRateFormulas formulas) {
+        try {
+            ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
+            CrossRatesConfig config = mapper.readValue(in, CrossRatesConfig.class);
+            return compile(config.getRates(), formulas);
+        } catch (IOException e) {
+            throw new CrossRateConfigException("Couldn't read the cross rate graph: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Validates the nodes and sorts them into an evaluation order.
+     *
+     * @param nodes the derived rates, in any order
+     * @return the compiled graph
+     * @throws CrossRateConfigException if a node is incomplete, a name is used twice, a base is unknown
+     * or the nodes form a cycle
+     */
+    public static CrossRateGraph compile(List<CrossRateConfig> nodes) {
+        return compile(nodes, null);
+    }
+
+    /**
+     * Validates the nodes, sorts them into an evaluation order and attaches the custom formulas.
+     *
+     * @param nodes the derived rates, in any order
+     * @param formulas custom node formulas, can be null
+     * @return the compiled graph
+     * @throws CrossRateConfigException if the graph is invalid or a formula uses the base of a node without one
+     */
+    public static CrossRateGraph compile(List<CrossRateConfig> nodes, CrossRateFormulas formulas) {
+        if (nodes == null || nodes.isEmpty()) {
+            throw new CrossRateConfigException("Cross rate graph has no rates");
+        }
+
+        Map<String, CrossRateConfig> byName = new LinkedHashMap<>();
+        for (CrossRateConfig node : nodes) {
+            if (node.getName() == null || node.getType() == null || node.getSource() == null) {
+                throw new CrossRateConfigException("Cross rate " + node.getName() + " needs a name, a type and a source");
+            }
+            if (node.getType().hasBase() == (node.getBase() == null)) {
+                throw new CrossRateConfigException("Cross rate " + node.getName() + " of type " + node.getType()
+                        + (node.getType().hasBase() ? " needs a base" : " can't have a base"));
+            }
+            if (byName.put(node.getName(), node) != null) {
+                throw new CrossRateConfigException("Cross rate " + node.getName() + " is defined twice");
+            }
+        }
+
+        // Kahn: base'i siralanmis olan dugumler siraya eklenir
+        Map<String, List<CrossRateConfig>> dependents = new HashMap<>();
+        Deque<CrossRateConfig> ready = new ArrayDeque<>();
+        for (CrossRateConfig node : byName.values()) {
+            if (node.getBase() == null) {
+                ready.add(node);
+            } else if (!byName.containsKey(node.getBase())) {
+                throw new CrossRateConfigException("Cross rate " + node.getName() + " has unknown base " + node.getBase());
+            } else {
+                dependents.computeIfAbsent(node.getBase(), k -> new ArrayList<>()).add(node);
+            }
+        }
+
+        List<CrossRateConfig> ordered = new ArrayList<>(byName.size());
+        while (!ready.isEmpty()) {
+            CrossRateConfig node = ready.poll();
+            ordered.add(node);
+            ready.addAll(dependents.getOrDefault(node.getName(), List.of()));
+        }
+
+        if (ordered.size() != byName.size()) {
+            List<String> cyclic = new ArrayList<>(byName.keySet());
+            ordered.forEach(node -> cyclic.remove(node.getName()));
+            throw new CrossRateConfigException("Cross rates " + cyclic + " form a cycle");
+        }
+        return new CrossRateGraph(ordered, formulas);
+    }
+
+    /**
+     * @return the raw rate names used by the graph
+     */
+    public Set<String> rawRates() {
+        return Collections.unmodifiableSet(affectedByRaw.keySet());
+    }
+
+    /**
+     * @return the derived rate names in evaluation order
+     */
+    public List<String> rateNames() {
+        return List.of(names);
+    }
+
+    /**
+     * Returns the derived rates to evaluate again when a raw rate changes.
+     *
+     * @param rawRate the raw rate name
+     * @return the derived rate names in evaluation order, empty if the raw rate is not used
+     */
+    public List<String> affectedBy(String rawRate) {
+        BitSet affected = affectedByRaw.get(rawRate);
+        if (affected == null) {
+            return List.of();
+        }
+        List<String> result = new ArrayList<>(affected.cardinality());
+        affected.stream().forEach(i -> result.add(names[i]));
+        return result;
+    }
+
+    /**
+     * Adds the nodes depending on a raw rate to {@code target}.
+     *
+     * @param rawRate the raw rate name
+     * @param target the set of nodes to evaluate
+     */
+    public void markAffected(String rawRate, BitSet target) {
+        BitSet affected = affectedByRaw.get(rawRate);
+        if (affected != null) {
+            target.or(affected);
+        }
+    }
+
+    /**
+     * Adds the given derived rates to {@code target}, unknown names are ignored.
+     *
+     * @param rateNames the derived rate names
+     * @param target the set of nodes to evaluate
+     */
+    public void mark(Collection<String> rateNames, BitSet target) {
+        for (String rateName : rateNames) {
+            Integer index = indexes.get(rateName);
+            if (index != null) {
+                target.set(index);
+            }
+        }
+    }
+
+    /**
+     * Evaluates the given nodes in topological order and passes every calculated node to the listener.
+     *
+     * <p>Nodes which are not in {@code nodes} keep their previous value and are only read as a base.</p>
+     *
+     * @param nodes the nodes to evaluate, from {@link #markAffected(String, BitSet)} or {@link #mark(Collection, BitSet)}
+     * @param source supplies the platform averages of the raw rates
+     * @param listener receives every valid result
+     */
+    public synchronized void evaluate(BitSet nodes, RawRateSource source, Listener listener) {
+        for (int i = nodes.nextSetBit(0); i >= 0; i = nodes.nextSetBit(i + 1)) {
+            valid[i] = false;
+            if (!source.average(sources[i], scratch)) {
+                continue;
+            }
+
+            double bid = scratch[0];
+            double ask = scratch[1];
+            int base = bases[i];
+            if (base >= 0 && !valid[base]) {
+                continue;
+            }
+            if (formulas[i] != null) {
+                if (!formulas[i].evaluate(scratch[0], scratch[1],
+                        base >= 0 ? bids[base] : Double.NaN, base >= 0 ? asks[base] : Double.NaN, scratch)) {
+                    continue;
+                }
+                bid = scratch[0];
+                ask = scratch[1];
+            } else if (base >= 0) {
+                double mid = (bids[base] + asks[base]) / 2;
+                if (types[i] == CrossRateType.CROSS) {
+                    bid = mid * scratch[0];
+                    ask = mid * scratch[1];
+                } else {
+                    bid = mid / scratch[1];
+                    ask = mid / scratch[0];
+                }
+            }
+
+            bids[i] = bid;
+            asks[i] = ask;
+            valid[i] = true;
+            listener.onCalculated(names[i], bid, ask);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.murat.mainapp.calculator.graph;
+
+/**
+ * How a node of the {@link CrossRateGraph} is calculated.
+ *
+ * <p>{@code avg(source)} is the average bid / ask of the source raw rate over all platforms
+ * and {@code mid(base)} is {@code (bid + ask) / 2} of the base node.</p>
+ */
+public enum CrossRateType {
+
+    /**
+     * {@code bid = avg(source).bid, ask = avg(source).ask}, e.g. USDTRY
+     */
+    AVERAGE,
+
+    /**
+     * {@code bid = mid(base) * avg(source).bid, ask = mid(base) * avg(source).ask}, e.g. EURTRY = USDTRY mid x EURUSD
+     */
+    CROSS,
+
+    /**
+     * {@code bid = mid(base) / avg(source).ask, ask = mid(base) / avg(source).bid}, e.g. JPYTRY = USDTRY mid / USDJPY
+     */
+    INVERSE_CROSS;
+
+    /**
+     * @return {@code true} if the type needs a base node
+     */
+    public boolean hasBase() {
+        return this != AVERAGE;
+    }
+}
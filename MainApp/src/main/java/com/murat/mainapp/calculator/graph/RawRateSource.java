@@ -0,0 +1,19 @@
+package com.murat.mainapp.calculator.graph;
+
+/**
+ * Supplies the raw rate inputs of a {@link CrossRateGraph} evaluation.
+ */
+@FunctionalInterface
+public interface RawRateSource {
+
+    /**
+     * Writes the bid and ask of a raw rate, averaged over all platforms, into {@code bidAsk}.
+     * The Coordinator weighs the latest quote of each platform by its age, see
+     * {@link com.murat.mainapp.ratebook.ConsolidatedQuoteBook}.
+     *
+     * @param rateName the raw rate name, e.g. {@code EURUSD}
+     * @param bidAsk array of length 2 receiving the bid at index 0 and the ask at index 1
+     * @return {@code false} if no platform has a value for the rate
+     */
+    boolean average(String rateName, double[] bidAsk);
+}
@@ -0,0 +1,30 @@
+package com.murat.mainapp.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Opens configuration files which can be overridden outside the jar.
+ */
+public final class ConfigFiles {
+
+    private ConfigFiles() {
+    }
+
+    /**
+     * Opens a file from the file system, or from the classpath if there is no such file.
+     *
+     * @param location a file path or a classpath resource, e.g. {@code crossrates.yml}
+     * @return the content, or {@code null} if the file is not found
+     * @throws IOException if the file cannot be opened
+     */
+    public static InputStream open(String location) throws IOException {
+        Path path = Path.of(location);
+        if (Files.isRegularFile(path)) {
+            return Files.newInputStream(path);
+        }
+        return ConfigFiles.class.getResourceAsStream(location.startsWith("/") ? location : "/" + location);
+    }
+}
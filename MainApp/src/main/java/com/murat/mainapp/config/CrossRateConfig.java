@@ -0,0 +1,35 @@
+package com.murat.mainapp.config;
+
+import com.murat.mainapp.calculator.graph.CrossRateType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Configuration of a single derived rate of the cross-rate graph.
+ *
+ * <p>Example: {@code EURTRY} is a {@link CrossRateType#CROSS} of the {@code EURUSD} raw rate
+ * over the {@code USDTRY} derived rate.</p>
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class CrossRateConfig {
+
+    /**
+     * Name of the derived rate, e.g. {@code EURTRY}
+     */
+    private String name;
+
+    private CrossRateType type;
+
+    /**
+     * Raw rate averaged over all platforms, e.g. {@code EURUSD}
+     */
+    private String source;
+
+    /**
+     * Derived rate whose mid price is used, only for {@link CrossRateType#CROSS} and {@link CrossRateType#INVERSE_CROSS}
+     */
+    private String base;
+}
@@ -0,0 +1,24 @@
+package com.murat.mainapp.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Configuration class for holding the {@link CrossRateConfig} nodes of the cross-rate graph.
+ * <p>
+ * The nodes can be listed in any order, they are sorted when the graph is compiled.
+ * </p>
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CrossRatesConfig {
+
+    /**
+     * A list of derived rates
+     */
+    private List<CrossRateConfig> rates;
+}
@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Configuration object for initializing a data fetcher for a specific platform.
@@ -26,6 +27,11 @@ public class FetcherConfig {
     private List<String> currencyPairs;
     private String baseUrl;
 
+    /**
+     * Fetcher specific settings, e.g. the file and speed of {@link com.murat.mainapp.fetcher.ReplayDataFetcher}
+     */
+    private Map<String, String> options;
+
     //Portu implemente et
 
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.murat.mainapp.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bid and ask formulas of a derived rate, see {@link com.murat.mainapp.calculator.formula.FormulaCompiler}
+ * for the syntax.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class FormulaConfig {
+
+    /**
+     * e.g. {@code mid(base) * source.bid}
+     */
+    private String bid;
+
+    /**
+     * e.g. {@code mid(base) * source.ask}
+     */
+    private String ask;
+}
@@ -0,0 +1,22 @@
+package com.murat.mainapp.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Configuration class holding the {@link FormulaConfig} of every derived rate calculated by
+ * {@link com.murat.mainapp.calculator.formula.FormulaRateCalculator}.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class FormulasConfig {
+
+    /**
+     * derived rate name - formulas
+     */
+    private Map<String, FormulaConfig> formulas;
+}
@@ -1,7 +1,11 @@
 package com.murat.mainapp.config;
 
+import com.murat.ratecodec.model.RateMessage;
+import com.murat.ratecodec.serialization.RateMessageCodec;
+import com.murat.ratecodec.serialization.RateMessageSerializer;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
@@ -20,29 +24,75 @@ import java.util.Map;
  * </p>
  *
  * <p>
- * It uses basic String serialization for both keys and values and sets up a connection
+ * It uses String serialization for keys and {@link RateMessageSerializer} for values and sets up a connection
  * to a Kafka broker defined by the {@code bootstrap.servers} configuration.
  * </p>
+ *
+ * <p>
+ * The wire format of the values is selected with {@code rate.wire.format} ({@code text} or {@code binary}).
+ * </p>
+ *
+ * <p>
+ * Batching and compression are set with the {@code kafka.producer.*} properties. Their defaults are the defaults of
+ * the Kafka client; {@code application.properties} sets a high-throughput profile which waits a few milliseconds
+ * to send ticks in larger, compressed batches. Idempotence stays enabled so retries neither duplicate nor reorder
+ * the ticks of a partition.
+ * </p>
  */
 @Configuration
 public class KafkaProducerConfig {
 
+    @Value("${rate.wire.format:text}")
+    private String wireFormat;
+
+    @Value("${kafka.producer.acks:all}")
+    private String acks;
+
+    @Value("${kafka.producer.linger-ms:0}")
+    private int lingerMs;
+
+    @Value("${kafka.producer.batch-size:16384}")
+    private int batchSize;
+
+    @Value("${kafka.producer.compression-type:none}")
+    private String compressionType;
+
+    @Value("${kafka.producer.buffer-memory:33554432}")
+    private long bufferMemory;
+
+    @Value("${kafka.producer.enable-idempotence:true}")
+    private boolean enableIdempotence;
+
+    @Value("${kafka.producer.max-in-flight-requests-per-connection:5}")
+    private int maxInFlightRequests;
+
+    @Value("${kafka.producer.delivery-timeout-ms:120000}")
+    private int deliveryTimeoutMs;
+
     /**
      * Creates a {@link ProducerFactory} that sets up configuration for Kafka producers.
      * <p>
-     * This factory uses String serializers for both keys and values and connects to a Kafka broker
+     * This factory uses a String serializer for keys and a {@link RateMessageSerializer} for values and connects to a Kafka broker
      * running at {@code localhost:9092}.
      * </p>
      *
      * @return a configured {@link ProducerFactory} instance
      */
     @Bean
-    public ProducerFactory<String, String> producerFactory() {
+    public ProducerFactory<String, RateMessage> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
-        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        return new DefaultKafkaProducerFactory<>(configProps);
+        configProps.put(ProducerConfig.ACKS_CONFIG, acks);
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        configProps.put(ProducerConfig.BUFFER_MEMORY_CONFIG, bufferMemory);
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, enableIdempotence);
+        // Idempotent producer en fazla 5 istek ile sirayi korur
+        configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, maxInFlightRequests);
+        configProps.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, deliveryTimeoutMs);
+        return new DefaultKafkaProducerFactory<>(configProps, new StringSerializer(),
+                new RateMessageSerializer(RateMessageCodec.Format.of(wireFormat)));
     }
 
     /**
@@ -51,7 +101,7 @@ public class KafkaProducerConfig {
      * @return a {@link KafkaTemplate} instance configured with the producer factory
      */
     @Bean
-    public KafkaTemplate<String, String> kafkaTemplate() {
+    public KafkaTemplate<String, RateMessage> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.murat.mainapp.config;
 
 import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -11,19 +12,33 @@ import org.springframework.context.annotation.Configuration;
  * This configuration defines a {@link NewTopic} bean, which ensures the topic is created
  * if it does not already exist on the Kafka broker.
  * </p>
+ * <p>
+ * Messages are keyed by rate (see {@link com.murat.mainapp.service.KafkaProducerService}), so every rate stays in
+ * one partition and the partition count is the upper limit of consumer threads which still see the ticks of a
+ * rate in order. The count can only be increased on an existing topic, which moves keys to other partitions.
+ * </p>
  *
  * @see NewTopic
  */
 @Configuration
 public class KafkaTopicConfig {
 
+    @Value("${kafka.topic.name:test-topic}")
+    private String topicName;
+
+    @Value("${kafka.topic.partitions:3}")
+    private int partitions;
+
+    @Value("${kafka.topic.replication-factor:1}")
+    private short replicationFactor;
+
     /**
-     * Defines a new Kafka topic named {@code test-topic} with 3 partitions and a replication factor of 1.
+     * Defines the rate topic, {@code test-topic} with 3 partitions and a replication factor of 1 by default.
      *
      * @return a {@link NewTopic} instance.
      */
     @Bean
     public NewTopic newTopic() {
-        return new NewTopic("test-topic", 3, (short) 1);
+        return new NewTopic(topicName, partitions, replicationFactor);
     }
-}
\ No newline at end of file
+}
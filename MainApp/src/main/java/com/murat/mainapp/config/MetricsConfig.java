@@ -0,0 +1,28 @@
+package com.murat.mainapp.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class providing the {@link MeterRegistry} used for the application's metrics.
+ *
+ * <p>MainApp does not use Spring Boot Actuator, so no registry is configured automatically. A
+ * {@link PrometheusMeterRegistry} keeps the meters in memory and renders them in the Prometheus format for
+ * {@link com.murat.mainapp.metrics.MetricsHttpServer}.</p>
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * @return a Prometheus {@link MeterRegistry}, unless another registry is defined
+     */
+    @Bean
+    @ConditionalOnMissingBean(MeterRegistry.class)
+    public PrometheusMeterRegistry meterRegistry() {
+        return new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+    }
+}
@@ -0,0 +1,30 @@
+package com.murat.mainapp.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configuration class for holding the tick validation chains, read from {@code validation.yml}.
+ * <p>
+ * A raw rate is checked by the chain of its rate name, or by the default chain if it has none.
+ * </p>
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ValidationConfig {
+
+    /**
+     * The chain of the rates without their own chain
+     */
+    private List<ValidatorConfig> defaults;
+
+    /**
+     * Rate name (e.g. {@code USDTRY}) - its chain
+     */
+    private Map<String, List<ValidatorConfig>> rates;
+}
@@ -0,0 +1,30 @@
+package com.murat.mainapp.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Configuration of a single validator of a tick validation chain.
+ *
+ * <p>Example: {@code type: percent-jump} with {@code options: {max-percent: "1"}} rejects a bid which moved more
+ * than 1% from the previous accepted bid of the platform.</p>
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ValidatorConfig {
+
+    /**
+     * {@code crossed-market}, {@code percent-jump}, {@code z-score}, {@code stale-timestamp} or
+     * {@code cross-platform-deviation}
+     */
+    private String type;
+
+    /**
+     * Validator specific settings, e.g. the window of {@code z-score}
+     */
+    private Map<String, String> options;
+}
@@ -2,32 +2,45 @@ package com.murat.mainapp.coordinator;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.murat.mainapp.calculator.graph.CrossRateGraph;
 import com.murat.mainapp.callback.PlatformDataCallback;
 import com.murat.mainapp.config.FetcherConfig;
 import com.murat.mainapp.config.FetchersConfig;
 import com.murat.mainapp.exception.ConnectionNotFoundException;
 import com.murat.mainapp.fetcher.PlatformDataFetcherAbstract;
+import com.murat.mainapp.journal.TickJournal;
+import com.murat.mainapp.logging.TickLogSampler;
+import com.murat.mainapp.metrics.RateMetrics;
 import com.murat.mainapp.model.Rate;
 import com.murat.mainapp.model.RateFields;
+import com.murat.ratecodec.model.RateMessage;
 import com.murat.mainapp.model.RateStatus;
+import com.murat.mainapp.pipeline.TickEvent;
+import com.murat.mainapp.pipeline.TickPipeline;
+import com.murat.mainapp.ratebook.ConsolidatedQuoteBook;
+import com.murat.mainapp.ratebook.RateBook;
+import com.murat.mainapp.ratebook.RedisRateMirror;
 import com.murat.mainapp.service.CurrencyService;
 import com.murat.mainapp.service.KafkaProducerService;
+import com.murat.mainapp.validation.TickValidatorChain;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.Cache;
-import org.springframework.cache.CacheManager;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The {@code Coordinator} class orchestrates the dynamic loading and management of platform data fetchers,
  * processes currency rate data, calculates derived currency rates, and publishes rate updates to Kafka topics.
- * It utilizes a cache for temporary data storage and handles abnormal rate change detection.
+ * It keeps the latest rates in an in-process {@link RateBook} mirrored to Redis, and validates every raw rate with the {@link TickValidatorChain}.
  *
  * <p>This component is annotated with {@code @Component} for Spring dependency injection and implements
  * {@link PlatformDataCallback} to receive data-related events from the fetchers.</p>
@@ -36,57 +49,150 @@ import java.util.*;
  * <ul>
  *     <li>Dynamically loading fetchers from YML configuration using reflection</li>
  *     <li>Handling connection and disconnection to/from data platforms</li>
- *     <li>Storing and retrieving rate data using {@link CacheManager}</li>
- *     <li>Detecting abnormal rate changes</li>
- *     <li>Performing rate calculations using {@link CurrencyService}</li>
+ *     <li>Storing and retrieving rate data using {@link RateBook}, mirrored to Redis by {@link RedisRateMirror}</li>
+ *     <li>Consolidating the quotes of every platform in the {@link ConsolidatedQuoteBook} used by the calculation</li>
+ *     <li>Rejecting invalid raw rates (abnormal changes, crossed markets, stale ticks...) with the
+ *     {@link TickValidatorChain}</li>
+ *     <li>Recording every accepted and rejected raw rate in the {@link TickJournal}</li>
+ *     <li>Performing rate calculations using {@link CurrencyService}, either periodically or on every
+ *     accepted raw rate through {@link RecalculationScheduler}</li>
  *     <li>Publishing formatted rates to Kafka using {@link KafkaProducerService}</li>
+ *     <li>Processing the ticks of every fetcher on the single thread of the {@link TickPipeline}</li>
+ *     <li>Recording tick, rejection, latency and connection metrics in {@link RateMetrics}</li>
  * </ul>
+ *
+ * <p>With {@code pipeline.enabled=true} the fetcher callbacks only publish the ticks to the {@link TickPipeline}.
+ * Its thread validates and stores them, recalculates the derived rates affected by a whole batch of ticks once at
+ * the end of the batch (or runs the periodic sweep in timer mode) and passes the messages to the Kafka stage, so
+ * ticks are handled in one deterministic order without locks between the fetchers.</p>
+ *
+ * <p>Raw and calculated rates are logged at {@code INFO} through a {@link TickLogSampler}, so under load only one
+ * of every {@code tick-log.sample-rate} ticks is formatted; the metrics still count every tick.</p>
  */
 @Component
 public class Coordinator implements PlatformDataCallback {
 
     private static final Logger logger = LogManager.getLogger(Coordinator.class);
 
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS");
+
     // Dinamik olarak yüklenecek fetcher'lar
     private List<PlatformDataFetcherAbstract> fetchers = new ArrayList<>();
 
     private List<FetcherConfig> fetchersConfigs = new ArrayList<>();
 
 
-    private final CacheManager cacheManager;
+    /**
+     * Source of truth for the latest raw rates
+     */
+    private final RateBook rateBook;
+
+    /**
+     * Best bid / offer and staleness-weighted quote of every raw rate over the platforms, input of the calculation
+     */
+    private final ConsolidatedQuoteBook consolidatedQuoteBook;
+
+    /**
+     * Writes raw and calculated rates to Redis asynchronously
+     */
+    private final RedisRateMirror redisRateMirror;
+
+    /**
+     * Durable record of every raw rate received, accepted or rejected
+     */
+    private final TickJournal tickJournal;
+
+    /**
+     * Validators every raw rate has to pass before it is stored
+     */
+    private final TickValidatorChain tickValidatorChain;
 
     //     Kafka ile haberleşme (KafkaTemplate de Spring Boot tarafından konfigüre edilmiş olmalı)
     private final KafkaProducerService kafkaProducerService;
 
+    /**
+     * Single-writer ingest and Kafka publish stages, used if {@link TickPipeline#isEnabled()}
+     */
+    private final TickPipeline tickPipeline;
 
-    private final Timer timer = new Timer();
+    /**
+     * Derived rates affected by the ticks of the current pipeline batch, only used by the pipeline thread
+     */
+    private final BitSet pendingNodes = new BitSet();
 
     /**
-     * Used when calculating the calculated rates
+     * Tick rate, rejection, latency, rate book and connection meters
      */
-    private final Set<String> platformNames = new HashSet<>();
+    private final RateMetrics rateMetrics;
 
-    private final Map<String,String> ratePlatformNames = new HashMap<>();
+    private final Timer timer = new Timer();
 
     /**
      * Used when calculating the calculated rates
      */
-    private final Set<String> rateNames = new HashSet<>();
+    private final Set<String> platformNames = ConcurrentHashMap.newKeySet();
 
     private final CurrencyService currencyService;
 
+    /**
+     * Derived rates and the raw rates they depend on, from {@link CurrencyService#getCrossRateGraph()}; its nodes are
+     * calculated by the configured {@code calculator.class}
+     */
+    private final CrossRateGraph crossRateGraph;
+
+    /**
+     * Used for recalculating only the derived rates affected by an incoming raw rate
+     * when {@link #eventDriven} is enabled
+     */
+    private final RecalculationScheduler recalculationScheduler;
+
+    /**
+     * {@code true} if derived rates are recalculated on every accepted raw rate ({@code calculation.mode=event}),
+     * {@code false} if they are recalculated by the periodic {@link #timer} sweep ({@code calculation.mode=timer})
+     */
+    private final boolean eventDriven;
+
+    /**
+     * Selects the raw and calculated rates that are logged
+     */
+    private final TickLogSampler tickLogSampler;
 
     /**
      * Constructor for dependency injection.
      *
-     * @param cacheManager the cache manager used for storing raw and calculated rate data
+     * @param rateBook the in-process book holding the latest raw rates
+     * @param consolidatedQuoteBook the consolidated quotes of the raw rates over the platforms
+     * @param redisRateMirror the write-behind mirror of raw and calculated rates into Redis
+     * @param tickJournal the journal of the received raw rates
+     * @param tickValidatorChain the validators of the raw rates
      * @param kafkaProducerService the Kafka producer service used to publish messages
+     * @param tickPipeline the pipeline between the fetchers, the Coordinator and Kafka
+     * @param rateMetrics the meters of the rate pipeline
      * @param currencyService the service used to perform rate calculations
+     * @param recalculationScheduler the scheduler used for event-driven recalculation
+     * @param calculationMode {@code event} or {@code timer}
+     * @param tickLogSampleRate one of every {@code tickLogSampleRate} rates is logged
      */
-    public Coordinator(CacheManager cacheManager, KafkaProducerService kafkaProducerService, CurrencyService currencyService) {
-        this.cacheManager = cacheManager;
+    public Coordinator(RateBook rateBook, ConsolidatedQuoteBook consolidatedQuoteBook, RedisRateMirror redisRateMirror, TickJournal tickJournal,
+                       TickValidatorChain tickValidatorChain,
+                       KafkaProducerService kafkaProducerService, TickPipeline tickPipeline, RateMetrics rateMetrics,
+                       CurrencyService currencyService,
+                       RecalculationScheduler recalculationScheduler,
+                       @Value("${calculation.mode:timer}") String calculationMode,
+                       @Value("${tick-log.sample-rate:1}") int tickLogSampleRate) {
+        this.rateBook = rateBook;
+        this.consolidatedQuoteBook = consolidatedQuoteBook;
+        this.redisRateMirror = redisRateMirror;
+        this.tickJournal = tickJournal;
+        this.tickValidatorChain = tickValidatorChain;
         this.kafkaProducerService = kafkaProducerService;
+        this.tickPipeline = tickPipeline;
+        this.rateMetrics = rateMetrics;
         this.currencyService = currencyService;
+        this.crossRateGraph = currencyService.getCrossRateGraph();
+        this.recalculationScheduler = recalculationScheduler;
+        this.eventDriven = "event".equalsIgnoreCase(calculationMode);
+        this.tickLogSampler = new TickLogSampler(tickLogSampleRate);
     }
 
     /**
@@ -96,7 +202,14 @@ public class Coordinator implements PlatformDataCallback {
     @PostConstruct
     public void init(){
         logger.info("Initializing Coordinator");
-        setCalculateTimer();
+        if (tickPipeline.isEnabled()) {
+            tickPipeline.start(this::onTick);
+        }
+        if (!eventDriven) {
+            setCalculateTimer();
+        } else if (!tickPipeline.isEnabled()) {
+            setRecalculationDependencies();
+        }
 
         try{
             // fetchers.yml dosyasını classpath'ten oku
@@ -125,24 +238,25 @@ public class Coordinator implements PlatformDataCallback {
                 fetcher.setPlatformName(fc.getPlatformName());
                 fetcher.setUserId(fc.getUserId());
                 fetcher.setPassword(fc.getPassword());
+                fetcher.setOptions(fc.getOptions() == null ? Map.of() : fc.getOptions());
 
                 fetchers.add(fetcher);
 
                 //Bağlantıyı kur
-                logger.info("Connecting to platform " + fc.getPlatformName());
+                logger.info("Connecting to platform {}", fc.getPlatformName());
 
                 try {
                     fetcher.connect(fc.getPlatformName(), fc.getUserId(), fc.getPassword());
-                    logger.info("Connected to platform " + fc.getPlatformName());
+                    logger.info("Connected to platform {}", fc.getPlatformName());
 
-                    logger.info("Adding fetcher " + fc.getClassName());
+                    logger.info("Adding fetcher {}", fc.getClassName());
 
                 }
                 catch(ConnectionNotFoundException e){
                     logger.error(e.getMessage());
                 }
                 catch(Exception e){
-                    logger.error("Something went wrong while connecting to platform " + fc.getPlatformName());
+                    logger.error("Something went wrong while connecting to platform {}", fc.getPlatformName());
                 }
 
             }
@@ -165,111 +279,96 @@ public class Coordinator implements PlatformDataCallback {
 
 
     /**
-     * Formats a {@link Rate} object into a standardized string.
+     * Converts a {@link Rate} object into the {@link RateMessage} sent to Kafka.
+     *
+     * <p>The message is encoded by the Kafka serializer, either in the text format platform_rate|bid|ask|timestamp
+     * or in the binary format, see {@link com.murat.ratecodec.serialization.RateMessageCodec}.</p>
      *
      * @param platformName the name of the platform (can be null)
      * @param rateName the name of the rate
-     * @param rate the rate object to format
-     * @return a string in the format platform|bid|ask|timestamp
+     * @param rate the rate object to convert
+     * @return the message to send
      */
-    private String formatRate(String platformName, String rateName, Rate rate) {
-
-        // İstenen format örneğinde sayılar farklı basamakta olabilir. Burada örnek olarak bid/ask değerlerini 2 ondalık basamakla formatladık.
-        String formattedBid = String.format("%.2f", rate.getBid());
-        String formattedAsk = String.format("%.2f", rate.getAsk());
-
-        if(platformName!=null) {
-            return platformName + "_"+ rateName +"|" + formattedBid + "|" + formattedAsk + "|" + rate.getTimestamp();
-        }
-
-        return rateName +"|" + formattedBid + "|" + formattedAsk + "|" + rate.getTimestamp();
-
+    private RateMessage toRateMessage(String platformName, String rateName, Rate rate) {
+        return new RateMessage(platformName, rateName, rate.getBid(), rate.getAsk(), rate.getTimestamp());
     }
 
 
 
     /**
-     * Attempts to calculate new currency rates from the raw cached rates.
-     * Sends the results to Kafka if successful.
+     * Attempts to calculate new currency rates from the raw rates received since the previous call.
+     * Only the derived rates depending on these raw rates are calculated, from the {@link ConsolidatedQuoteBook},
+     * and the results are sent to Kafka.
+     * <p>Called by the timer, or on the {@link TickPipeline} thread when the pipeline is enabled.</p>
      */
     public void tryCalculate() {
-        Cache cache = cacheManager.getCache("raw_rates");
-
-        if(cache ==null)
-            return;
-
-        List<Rate> rates = new ArrayList<>();
-
-        platformNames.forEach(platformName -> {
-            rateNames.forEach(name -> {
-                Rate rate = cache.get(platformName + "_" +name , Rate.class);
-                if (rate != null) {
-                    cache.evict(platformName + "_" +name );
-                    rates.add(rate);
+        BitSet affected = new BitSet();
+        for (String platformName : platformNames) {
+            for (String rawRate : crossRateGraph.rawRates()) {
+                if (rateBook.takeFresh(rateBook.idOf(platformName, rawRate))) {
+                    crossRateGraph.markAffected(rawRate, affected);
                 }
-            });
-        });
-
-        if (rates.isEmpty())
-            return;
-
-        List<Rate> rateUSDTRY = rates.stream().filter(rate -> rate.getRateName().contains("USDTRY")).toList();
-        List<Rate> rateEURUSD = rates.stream().filter(rate -> rate.getRateName().contains("EURUSD")).toList();
-        // rateGBPUSD ?
+            }
+        }
 
-        Rate usdTRY;
-        Rate eurTRY;
+        if (!affected.isEmpty()) {
+            evaluate(affected);
+        }
+    }
 
-        Cache calculatedCache = cacheManager.getCache("calculated_rates");
-        if(rateUSDTRY.size()>1){
-            usdTRY  = currencyService.calculateUSDTRY(rateUSDTRY.get(0),rateUSDTRY.get(1));
+    /**
+     * Recalculates only the given derived rates from the latest accepted raw rates
+     * and sends the results to Kafka.
+     * <p>Called by {@link RecalculationScheduler} when {@link #eventDriven} is enabled. Every raw rate in the
+     * {@link ConsolidatedQuoteBook} is used whether or not it was used before, so a derived rate is always calculated
+     * from the latest quote of every platform.</p>
+     *
+     * @param dirtyRates the derived rate names whose inputs have changed
+     */
+    public void recalculate(Set<String> dirtyRates) {
+        BitSet nodes = new BitSet();
+        crossRateGraph.mark(dirtyRates, nodes);
+        evaluate(nodes);
+    }
 
-            calculatedCache.put(usdTRY.getRateName(), usdTRY);
-            String formattedUSDTRY = formatRate(null,usdTRY.getRateName(),usdTRY);
-            logger.info("Calculated Rate available: {}", formattedUSDTRY);
-            kafkaProducerService.sendMessage(formattedUSDTRY);
+    /**
+     * Evaluates the given nodes of the {@link CrossRateGraph} and publishes the calculated rates.
+     *
+     * @param nodes the nodes to evaluate
+     */
+    private void evaluate(BitSet nodes) {
+        String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMATTER);
+        crossRateGraph.evaluate(nodes, this::consolidatedRawRate,
+                (rateName, bid, ask) -> publishCalculatedRate(new Rate(rateName, bid, ask, timestamp)));
+    }
 
-            if(rateEURUSD.size()>1){
-                eurTRY = currencyService.calculateEURTRY(usdTRY,rateEURUSD.get(0),rateEURUSD.get(1));
-                calculatedCache.put(eurTRY.getRateName(), eurTRY);
-                String formattedEURTRY = formatRate(null,eurTRY.getRateName(),eurTRY);
-                logger.info("Calculated Rate available: {}", formattedEURTRY);
-                kafkaProducerService.sendMessage(formattedEURTRY);
-            }
-            else if (rateEURUSD.size()==1){
-                eurTRY = currencyService.calculateEURTRY(usdTRY,rateEURUSD.get(0),null);
-                calculatedCache.put(eurTRY.getRateName(), eurTRY);
-                String formattedEURTRY = formatRate(null,eurTRY.getRateName(),eurTRY);
-                logger.info("Calculated Rate available: {}", formattedEURTRY);
-                kafkaProducerService.sendMessage(formattedEURTRY);
-            }
+    /**
+     * Reads the staleness-weighted bid and ask of {@code rateName} over the platforms from the
+     * {@link ConsolidatedQuoteBook}. A platform missing a tick keeps contributing its latest quote with a weight
+     * decreasing with its age, until the quote is older than {@code quotebook.max-age-ms}.
+     *
+     * @param rateName the raw rate name
+     * @param bidAsk receives the weighted bid and ask
+     * @return {@code false} if no platform has a recent quote of the rate
+     */
+    private boolean consolidatedRawRate(String rateName, double[] bidAsk) {
+        boolean found = consolidatedQuoteBook.read(rateName, System.nanoTime(), bidAsk);
+        rateMetrics.rateBookRead(found);
+        return found;
+    }
 
+    /**
+     * Mirrors a calculated rate to {@code calculated_rates} cache and sends it to Kafka.
+     *
+     * @param calculatedRate the calculated rate
+     */
+    private void publishCalculatedRate(Rate calculatedRate) {
+        redisRateMirror.mirror("calculated_rates", calculatedRate.getRateName(), calculatedRate);
+        RateMessage message = toRateMessage(null, calculatedRate.getRateName(), calculatedRate);
+        if (tickLogSampler.sample()) {
+            logger.info("Calculated Rate available: {}", message);
         }
-        else if (rateUSDTRY.size() ==1){
-            usdTRY = currencyService.calculateUSDTRY(rateUSDTRY.get(0),null);
-            calculatedCache.put(usdTRY.getRateName(), usdTRY);
-            String formattedUSDTRY = formatRate(null,usdTRY.getRateName(),usdTRY);
-            logger.info("Calculated Rate available: {}", formattedUSDTRY);
-            kafkaProducerService.sendMessage(formattedUSDTRY);
-
-            if(rateEURUSD.size()>1){
-                eurTRY = currencyService.calculateEURTRY(usdTRY,rateEURUSD.get(0),rateEURUSD.get(1));
-                calculatedCache.put(eurTRY.getRateName(), eurTRY);
-                String formattedEURTRY = formatRate(null,eurTRY.getRateName(),eurTRY);
-                logger.info("Calculated Rate available: {}", formattedEURTRY);
-                kafkaProducerService.sendMessage(formattedEURTRY);
-            }
-            else if (rateEURUSD.size()==1){
-                eurTRY = currencyService.calculateEURTRY(usdTRY,rateEURUSD.get(0),null);
-                calculatedCache.put(eurTRY.getRateName(), eurTRY);
-                String formattedEURTRY = formatRate(null,eurTRY.getRateName(),eurTRY);
-                logger.info("Calculated Rate available: {}", formattedEURTRY);
-                kafkaProducerService.sendMessage(formattedEURTRY);
-            }
-            
-        }
-
-
+        send(message);
     }
 
 
@@ -281,12 +380,29 @@ public class Coordinator implements PlatformDataCallback {
         TimerTask task = new TimerTask() {
             @Override
             public void run() {
+                if (tickPipeline.isEnabled()) {
+                    tickPipeline.requestCalculation();
+                } else {
                     tryCalculate();
+                }
             }
         };
         timer.scheduleAtFixedRate(task, 30000, 10000);
     }
 
+    /**
+     * Registers which derived rates depend on which raw rates, as compiled in the {@link CrossRateGraph}, and sets {@link #recalculate(Set)}
+     * as the handler of {@link #recalculationScheduler}.
+     */
+    private void setRecalculationDependencies() {
+        for (String rawRate : crossRateGraph.rawRates()) {
+            for (String derivedRate : crossRateGraph.affectedBy(rawRate)) {
+                recalculationScheduler.addDependency(rawRate, derivedRate);
+            }
+        }
+        recalculationScheduler.setHandler(this::recalculate);
+    }
+
 
 
     /**
@@ -299,8 +415,9 @@ public class Coordinator implements PlatformDataCallback {
     @Override
     public void onConnect(String platformName, boolean status) {
         if(status){
-            logger.info("Connected to platform " + platformName);
+            logger.info("Connected to platform {}", platformName);
             platformNames.add(platformName);
+            rateMetrics.connectionState(platformName, true);
             fetchersConfigs.stream().filter(config -> config.getPlatformName().equals(platformName)).findFirst()
                     .ifPresent(config -> {
                         //Abone ol
@@ -312,15 +429,15 @@ public class Coordinator implements PlatformDataCallback {
                                 PlatformDataFetcherAbstract fetcher = fetcherOptional.get();
                                 for (String currency : config.getCurrencyPairs()) {
                                     fetcher.subscribe(config.getPlatformName(), currency);
-                                    logger.info("Subscribed to platform {} , currency {} " + config.getPlatformName(),currency);
+                                    logger.info("Subscribed to platform {} , currency {}", config.getPlatformName(), currency);
                                 }
-                                logger.info("Registered Fetcher " + config.getClassName());
+                                logger.info("Registered Fetcher {}", config.getClassName());
                             }
                             else{
-                                logger.error("Error subscribing to platform " + config.getPlatformName());
+                                logger.error("Error subscribing to platform {}", config.getPlatformName());
                             }
                         }catch (Exception e){
-                            logger.error("Error subscribing to platform " + config.getPlatformName());
+                            logger.error("Error subscribing to platform {}", config.getPlatformName());
                         }
                     });
         }
@@ -341,11 +458,14 @@ public class Coordinator implements PlatformDataCallback {
     public void onDisconnect(String platformName, boolean status) {
         logger.info("Disconnected from platform {} with status {}", platformName, status);
         platformNames.remove(platformName);
+        consolidatedQuoteBook.removePlatform(platformName);
+        rateMetrics.connectionState(platformName, false);
     }
 
     /**
      * Called when a new rate is received from a platform.
-     * Stores the rate in cache and sends the formatted rate to Kafka.
+     * Validates the rate with the {@link TickValidatorChain}, stores it in the {@link RateBook} and the {@link TickJournal}
+     * and sends the formatted rate to Kafka.
      *
      * @param platformName the name of the platform
      * @param rateName the name of the rate
@@ -353,31 +473,50 @@ public class Coordinator implements PlatformDataCallback {
      */
     @Override
     public void onRateAvailable(String platformName, String rateName, Rate rate) {
+        if (tickPipeline.isEnabled()) {
+            tickPipeline.publishAvailable(platformName, rateName, rate.getBid(), rate.getAsk(), rate.getTimestamp());
+        } else {
+            handleRateAvailable(platformName, rateName, rate, System.nanoTime());
+        }
+    }
 
-        rateNames.add(rateName);
-
-        Cache cache = cacheManager.getCache("raw_rates");
-        Cache rateCheckCache = cacheManager.getCache("rate_check");
-        if(cache != null && rateCheckCache != null) {
-            String key = String.format("%s_%s", platformName, rateName);
-            cache.put(key, rate);
-            rateCheckCache.put(key, rate);
+    /**
+     * Processes a new rate on the fetcher thread or the pipeline thread, see {@link #onRateAvailable}.
+     *
+     * @param startNanos {@link System#nanoTime()} when the rate was received
+     */
+    private void handleRateAvailable(String platformName, String rateName, Rate rate, long startNanos) {
+        int id = rateBook.idOf(platformName, rateName);
+        String rejectedBy = tickValidatorChain.validate(id, platformName, rateName, rate.getBid(), rate.getAsk(),
+                rate.getTimestamp());
+        if (rejectedBy != null) {
+            reject(id, platformName, rate, rejectedBy);
+            return;
         }
-        else{
-            logger.error("Rate available but no cache found for platform {}", platformName);
+
+        rateBook.update(id, rate);
+        consolidatedQuoteBook.update(platformName, rateName, rate.getBid(), rate.getAsk(), System.nanoTime());
+        tickJournal.appendAccepted(rateBook.keyOf(id), rate.getBid(), rate.getAsk(), rate.getTimestamp());
+        mirrorRawRate(id, rate);
+
+        if (eventDriven) {
+            markDirty(rateName);
         }
 
         // Gelen veriyi ortak formata çevir
-        String formattedRate = formatRate(platformName, rateName, rate);
-        logger.info("Rate available: {}", formattedRate);
+        RateMessage message = toRateMessage(platformName, rateName, rate);
+        if (tickLogSampler.sample()) {
+            logger.info("Rate available: {}", message);
+        }
 
         // Kafka’ya gönder (örneğin "rates_topic" adlı topic’e)
-        kafkaProducerService.sendMessage(formattedRate);
+        send(message);
+        rateMetrics.platform(platformName).accepted(startNanos);
     }
 
     /**
      * Called when a rate update is received from a platform.
-     * Checks if the change is abnormal {@link #isRateChangeAbnormal(Rate, Rate)}, and if not, stores and sends the updated rate.
+     * Validates the rate with the {@link TickValidatorChain}, and if it is valid, stores and sends the updated rate.
      *
      * @param platformName the name of the platform
      * @param rateName the name of the rate
@@ -385,33 +524,100 @@ public class Coordinator implements PlatformDataCallback {
      */
     @Override
     public void onRateUpdate(String platformName, String rateName, RateFields rateFields) {
+        if (tickPipeline.isEnabled()) {
+            tickPipeline.publishUpdate(platformName, rateName, rateFields.getBid(), rateFields.getAsk(),
+                    rateFields.getTimestamp());
+        } else {
+            handleRateUpdate(platformName, rateName, rateFields.toRate(), System.nanoTime());
+        }
+    }
 
-        Rate rate = rateFields.toRate();
+    /**
+     * Processes a rate update on the fetcher thread or the pipeline thread, see {@link #onRateUpdate}.
+     *
+     * @param startNanos {@link System#nanoTime()} when the rate was received
+     */
+    private void handleRateUpdate(String platformName, String rateName, Rate rate, long startNanos) {
+        int id = rateBook.idOf(platformName, rateName);
+        boolean hasOldRate = rateBook.hasValue(id);
+        double oldBid = rateBook.bid(id);
+        double oldAsk = rateBook.ask(id);
+
+        String rejectedBy = tickValidatorChain.validate(id, platformName, rateName, rate.getBid(), rate.getAsk(),
+                rate.getTimestamp());
+        if (rejectedBy != null) {
+            reject(id, platformName, rate, rejectedBy);
+            return;
+        }
 
-        Cache cache = cacheManager.getCache("raw_rates");
-        Cache rateCheckCache = cacheManager.getCache("rate_check");
-        if(cache != null && rateCheckCache != null) {
-            String key = String.format("%s_%s", platformName, rateName);
-            Rate oldRate = rateCheckCache.get(key,Rate.class);
+        rateBook.update(id, rate);
+        consolidatedQuoteBook.update(platformName, rateName, rate.getBid(), rate.getAsk(), System.nanoTime());
+        tickJournal.appendAccepted(rateBook.keyOf(id), rate.getBid(), rate.getAsk(), rate.getTimestamp());
+        mirrorRawRate(id, rate);
 
-            if(isRateChangeAbnormal(oldRate,rate)){
-                logger.info("Rate {} change abnormal for platform {} old value : {} new value : {}",rateName, platformName,oldRate.getBid(),rate.getBid());
-                return;
-            }
+        // Ayni degerle gelen tekrar tick'ler hesaplamayi tetiklemez
+        if (eventDriven && (!hasOldRate || oldBid != rate.getBid() || oldAsk != rate.getAsk())) {
+            markDirty(rateName);
+        }
 
-            cache.put(key, rate);
-            rateCheckCache.put(key, rate);
+        RateMessage message = toRateMessage(platformName, rateName, rate);
+        if (tickLogSampler.sample()) {
+            logger.info("Rate update: {}", message);
         }
-        else{
-            logger.error("Rate available but no cache found for platform {}", platformName);
+
+        // Kafka’ya gönder
+        send(message);
+        rateMetrics.platform(platformName).accepted(startNanos);
+
+    }
+
+    /**
+     * Handles a tick of the {@link TickPipeline} on its thread. The derived rates affected by the ticks of a batch
+     * are recalculated once, after its last tick.
+     *
+     * @param event the tick
+     * @param endOfBatch {@code true} for the last tick currently in the ring buffer
+     */
+    private void onTick(TickEvent event, boolean endOfBatch) {
+        switch (event.getType()) {
+            case RATE_AVAILABLE -> handleRateAvailable(event.getPlatformName(), event.getRateName(), event.toRate(),
+                    event.getReceivedNanos());
+            case RATE_UPDATE -> handleRateUpdate(event.getPlatformName(), event.getRateName(), event.toRate(),
+                    event.getReceivedNanos());
+            case CALCULATE -> tryCalculate();
         }
 
-        String formattedRate = formatRate(platformName, rateName, rate);
-        logger.info("Rate update: {}", formattedRate);
+        if (endOfBatch && !pendingNodes.isEmpty()) {
+            evaluate(pendingNodes);
+            pendingNodes.clear();
+        }
+    }
 
-        // Kafka’ya gönder
-        kafkaProducerService.sendMessage(formattedRate);
+    /**
+     * Marks the derived rates depending on an accepted raw rate, for the end of the pipeline batch or for the
+     * {@link RecalculationScheduler}.
+     *
+     * @param rateName the raw rate name
+     */
+    private void markDirty(String rateName) {
+        if (tickPipeline.isEnabled()) {
+            crossRateGraph.markAffected(rateName, pendingNodes);
+        } else {
+            recalculationScheduler.markDirty(rateName);
+        }
+    }
 
+    /**
+     * Sends a message to Kafka, through the publish stage of the {@link TickPipeline} if it is enabled.
+     *
+     * @param message the message
+     */
+    private void send(RateMessage message) {
+        if (tickPipeline.isEnabled()) {
+            tickPipeline.publish(message);
+        } else {
+            kafkaProducerService.sendMessage(message);
+        }
     }
 
     /**
@@ -429,21 +635,28 @@ public class Coordinator implements PlatformDataCallback {
     }
 
     /**
-     * Checks whether the change between two rates is abnormal by comparing bid values.
+     * Mirrors an accepted raw rate to the {@code raw_rates} and {@code rate_check} caches.
      *
-     * @param oldRate the previous rate
-     * @param newRate the updated rate
-     * @return true if the rate change exceeds 1%, false otherwise
+     * @param id the {@link RateBook} id of the rate
+     * @param rate the accepted rate
      */
-    private boolean isRateChangeAbnormal(Rate oldRate, Rate newRate) {
-        double oldBid = oldRate.getBid();
-        double newBid = newRate.getBid();
-
-        double difference = newBid - oldBid;
-
-        double percentChange = difference / Math.abs(oldBid);
-
-        return Math.abs(percentChange) > 0.01;
+    private void mirrorRawRate(int id, Rate rate) {
+        String key = rateBook.keyOf(id);
+        redisRateMirror.mirror("raw_rates", key, rate);
+        redisRateMirror.mirror("rate_check", key, rate);
+    }
 
+    /**
+     * Records a raw rate rejected by the {@link TickValidatorChain} in the {@link TickJournal} and the metrics. The
+     * chain logs a sample of the rejections.
+     *
+     * @param id the {@link RateBook} id of the rate
+     * @param platformName the platform name
+     * @param rate the rejected rate
+     * @param reason the name of the validator which rejected it
+     */
+    private void reject(int id, String platformName, Rate rate, String reason) {
+        tickJournal.appendRejected(rateBook.keyOf(id), rate.getBid(), rate.getAsk(), rate.getTimestamp());
+        rateMetrics.platform(platformName).rejected(reason).increment();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,146 @@
+package com.murat.mainapp.coordinator;
+
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * The {@code RecalculationScheduler} drives dependency-based recalculation of derived rates.
+ *
+ * <p>Each raw rate (e.g. {@code USDTRY}) is registered with the derived rates that depend on it
+ * (e.g. {@code USDTRY}, {@code EURTRY}). When a raw tick is accepted, {@link #markDirty(String)} marks
+ * only those derived rates as dirty and schedules a single drain after the configured coalescing window.
+ * Every tick arriving inside the window is folded into the same drain, so a burst of ticks results
+ * in one calculation per derived rate instead of one per tick.</p>
+ *
+ * <p>The drain runs on a dedicated thread and hands the dirty set to the handler registered with
+ * {@link #setHandler(Consumer)}.</p>
+ */
+@Component
+public class RecalculationScheduler {
+
+    private static final Logger logger = LogManager.getLogger(RecalculationScheduler.class);
+
+    /**
+     * How long, in microseconds, to wait after the first dirty mark before draining.
+     * {@code 0} drains as soon as the recalculation thread picks up the task.
+     */
+    private final long coalesceWindowMicros;
+
+    /**
+     * Raw rate name - derived rate names that have to be recalculated when it changes
+     */
+    private final Map<String, Set<String>> dependents = new ConcurrentHashMap<>();
+
+    /**
+     * Derived rates waiting for the next drain
+     */
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "recalculation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Consumer<Set<String>> handler = derived -> { };
+
+    /**
+     * Constructs a {@code RecalculationScheduler} with the coalescing window read from application properties.
+     *
+     * @param coalesceWindowMicros the micro-window in which dirty marks are coalesced into one drain
+     */
+    public RecalculationScheduler(@Value("${calculation.coalesce-window-micros:200}") long coalesceWindowMicros) {
+        this.coalesceWindowMicros = Math.max(0, coalesceWindowMicros);
+    }
+
+    /**
+     * Registers that {@code derivedRate} has to be recalculated whenever {@code inputRate} changes.
+     *
+     * @param inputRate   the raw rate name (e.g. {@code EURUSD})
+     * @param derivedRate the derived rate name (e.g. {@code EURTRY})
+     */
+    public void addDependency(String inputRate, String derivedRate) {
+        dependents.computeIfAbsent(inputRate, k -> ConcurrentHashMap.newKeySet()).add(derivedRate);
+    }
+
+    /**
+     * Sets the handler which receives the set of dirty derived rates on every drain.
+     *
+     * @param handler the recalculation handler
+     */
+    public void setHandler(Consumer<Set<String>> handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Marks every derived rate depending on {@code inputRate} as dirty and schedules a drain
+     * if none is pending.
+     *
+     * @param inputRate the raw rate name which has changed
+     */
+    public void markDirty(String inputRate) {
+        Set<String> derived = dependents.get(inputRate);
+        if (derived == null || derived.isEmpty()) {
+            return;
+        }
+
+        dirty.addAll(derived);
+
+        if (drainScheduled.compareAndSet(false, true)) {
+            if (coalesceWindowMicros == 0) {
+                executor.execute(this::drain);
+            } else {
+                executor.schedule(this::drain, coalesceWindowMicros, TimeUnit.MICROSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Takes every dirty derived rate and passes them to the handler.
+     * <p>The scheduled flag is cleared before the dirty set is read, so a mark racing with the drain
+     * is either picked up here or schedules the next drain.</p>
+     */
+    private void drain() {
+        drainScheduled.set(false);
+
+        Set<String> batch = new HashSet<>();
+        for (Iterator<String> it = dirty.iterator(); it.hasNext(); ) {
+            batch.add(it.next());
+            it.remove();
+        }
+
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            handler.accept(batch);
+        } catch (Exception e) {
+            logger.error("Error while recalculating {}: {}", batch, e.getMessage());
+        }
+    }
+
+    /**
+     * Stops the recalculation thread.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,16 @@
+package com.murat.mainapp.exception;
+
+/**
+ * Exception thrown when the cross-rate graph configuration cannot be loaded or is invalid,
+ * e.g. a node refers to an unknown base or the nodes form a cycle.
+ */
+public class CrossRateConfigException extends RuntimeException {
+    /**
+     * Constructs a new {@code CrossRateConfigException} with the specified detail message.
+     *
+     * @param message the detail message describing the cause of the exception
+     */
+    public CrossRateConfigException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.murat.mainapp.exception;
+
+/**
+ * Exception thrown when a rate formula cannot be parsed or compiled.
+ */
+public class InvalidFormulaException extends RuntimeException {
+    /**
+     * Constructs a new {@code InvalidFormulaException} with the specified detail message.
+     *
+     * @param message the detail message describing the cause of the exception
+     */
+    public InvalidFormulaException(String message) {
+        super(message);
+    }
+}
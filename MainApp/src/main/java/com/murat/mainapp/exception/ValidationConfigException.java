@@ -0,0 +1,16 @@
+package com.murat.mainapp.exception;
+
+/**
+ * Exception thrown when the tick validation configuration cannot be loaded or is invalid,
+ * e.g. a validator has an unknown type or an option is not a number.
+ */
+public class ValidationConfigException extends RuntimeException {
+    /**
+     * Constructs a new {@code ValidationConfigException} with the specified detail message.
+     *
+     * @param message the detail message describing the cause of the exception
+     */
+    public ValidationConfigException(String message) {
+        super(message);
+    }
+}
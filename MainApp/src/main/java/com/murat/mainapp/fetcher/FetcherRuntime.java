@@ -0,0 +1,136 @@
+package com.murat.mainapp.fetcher;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Threads shared by all {@link PlatformDataFetcherAbstract}s.
+ *
+ * <p>Blocking work (socket readers, REST requests, replays) runs on virtual threads, which only occupy an OS
+ * thread while they are running and not while they wait for I/O. Delayed and periodic tasks are timed by a single
+ * scheduler thread that hands them to a virtual thread when they are due, so the scheduler is never blocked by a
+ * slow platform.</p>
+ *
+ * <p>Connecting N platforms with M subscriptions therefore costs one scheduler thread plus the carrier threads of
+ * the virtual threads (one per CPU core) instead of N timers, N readers and M executors.</p>
+ */
+public final class FetcherRuntime {
+
+    private static final Logger logger = LogManager.getLogger(FetcherRuntime.class);
+
+    private static final FetcherRuntime SHARED = new FetcherRuntime();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "fetcher-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ExecutorService workers = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("fetcher-", 0).factory());
+
+    /**
+     * @return the runtime used by the fetchers created by the Coordinator
+     */
+    public static FetcherRuntime shared() {
+        return SHARED;
+    }
+
+    /**
+     * @return an executor running every task on a new virtual thread, e.g. for the callbacks of an asynchronous client
+     */
+    public Executor executor() {
+        return workers;
+    }
+
+    /**
+     * Starts a long-running task, e.g. a socket reader, on its own virtual thread.
+     *
+     * @param name the thread name
+     * @param task the task
+     * @return the started thread, can be interrupted to stop the task
+     */
+    public Thread start(String name, Runnable task) {
+        return Thread.ofVirtual().name(name).start(guarded(name, task));
+    }
+
+    /**
+     * Runs a task once on a virtual thread after a delay.
+     *
+     * @param task the task
+     * @param delay the delay
+     * @param unit the unit of the delay
+     * @return completed when the task has run, cancelling it before the delay ends prevents the task
+     */
+    public CompletableFuture<Void> schedule(Runnable task, long delay, TimeUnit unit) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        ScheduledFuture<?> timing = scheduler.schedule(() -> workers.execute(() -> {
+            if (done.isDone()) {
+                return;
+            }
+            try {
+                task.run();
+                done.complete(null);
+            } catch (RuntimeException e) {
+                done.completeExceptionally(e);
+            }
+        }), delay, unit);
+        done.whenComplete((result, e) -> {
+            if (done.isCancelled()) {
+                timing.cancel(false);
+            }
+        });
+        return done;
+    }
+
+    /**
+     * Runs a task periodically on virtual threads.
+     *
+     * <p>A run is skipped if the previous one has not finished yet, so a platform that stops answering
+     * never accumulates requests.</p>
+     *
+     * @param task the task
+     * @param initialDelay the delay of the first run
+     * @param period the period between the starts of two runs
+     * @param unit the unit of the delay and period
+     * @return the future of the periodic task, cancel it to stop the task
+     */
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        AtomicBoolean running = new AtomicBoolean(false);
+        Runnable guardedTask = guarded("periodic task", task);
+        return scheduler.scheduleAtFixedRate(() -> {
+            // Onceki calisma bitmediyse bu periyot atlanir
+            if (running.compareAndSet(false, true)) {
+                workers.execute(() -> {
+                    try {
+                        guardedTask.run();
+                    } finally {
+                        running.set(false);
+                    }
+                });
+            }
+        }, initialDelay, period, unit);
+    }
+
+    /**
+     * An exception would cancel a periodic task silently, it is logged instead.
+     */
+    private static Runnable guarded(String name, Runnable task) {
+        return () -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                logger.error("Fetcher {} failed: {}", name, e.getMessage());
+            }
+        };
+    }
+}
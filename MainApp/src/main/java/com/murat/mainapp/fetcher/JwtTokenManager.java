@@ -0,0 +1,193 @@
+package com.murat.mainapp.fetcher;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Caches the JWT token of a platform and renews it before it expires.
+ *
+ * <p>The expiry is read from the {@code exp} claim of the token (the signature is not verified, the platform does
+ * that). A new token is requested {@code refreshBefore} ahead of it on a virtual thread of the {@link FetcherRuntime},
+ * so requests never see an expired token in normal operation. If the request fails the old token is kept and the
+ * refresh is tried again a few seconds later.</p>
+ *
+ * <p>{@link #token()} only reads a volatile field. A request rejected with {@code 401} calls
+ * {@link #refresh(String)} with the token it used; concurrent callers share a single token request and a caller
+ * whose token was already replaced gets the new one without any request, so a burst of {@code 401}s costs the
+ * platform one token.</p>
+ */
+public class JwtTokenManager {
+
+    private static final Logger logger = LogManager.getLogger(JwtTokenManager.class);
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Delay before a failed refresh is tried again
+     */
+    private static final long RETRY_MILLIS = 5_000;
+
+    private final Supplier<String> tokenRequest;
+    private final FetcherRuntime runtime;
+    private final long refreshBeforeMillis;
+
+    // synchronized sanal thread'i carrier thread'e sabitler, bu yuzden ReentrantLock
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile String token;
+    private volatile boolean closed;
+    private Future<?> scheduledRefresh;
+
+    /**
+     * @param tokenRequest requests a new token from the platform, returns {@code null} or throws if it fails
+     * @param runtime runs the background refresh
+     * @param refreshBefore how long before the expiry a new token is requested
+     */
+    public JwtTokenManager(Supplier<String> tokenRequest, FetcherRuntime runtime, Duration refreshBefore) {
+        this.tokenRequest = tokenRequest;
+        this.runtime = runtime;
+        this.refreshBeforeMillis = refreshBefore.toMillis();
+    }
+
+    /**
+     * Requests the first token and schedules its refresh.
+     *
+     * @return the token, {@code null} if the platform didn't return one
+     */
+    public String start() {
+        lock.lock();
+        try {
+            token = tokenRequest.get();
+            if (token != null) {
+                scheduleRefresh(token);
+            }
+            return token;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the cached token
+     */
+    public String token() {
+        return token;
+    }
+
+    /**
+     * Replaces a token rejected by the platform.
+     *
+     * @param rejectedToken the token sent with the rejected request
+     * @return the new token, or the current one if it was already replaced or the request failed
+     */
+    public String refresh(String rejectedToken) {
+        lock.lock();
+        try {
+            // Baska bir istek token'i zaten yenilediyse tekrar istenmez
+            if (closed || token == null || !token.equals(rejectedToken)) {
+                return token;
+            }
+            requestToken();
+            return token;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops the background refresh.
+     */
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            if (scheduledRefresh != null) {
+                scheduledRefresh.cancel(false);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return milliseconds since epoch at which the token expires, {@code -1} if it has no {@code exp} claim
+     */
+    static long expiresAtMillis(String token) {
+        String[] parts = token.split("\\.");
+        if (parts.length < 2) {
+            return -1;
+        }
+        try {
+            JsonNode claims = mapper.readTree(Base64.getUrlDecoder().decode(parts[1]));
+            JsonNode exp = claims.get("exp");
+            return exp != null && exp.canConvertToLong() ? exp.asLong() * 1000 : -1;
+        } catch (IOException | IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private void backgroundRefresh() {
+        lock.lock();
+        try {
+            if (!closed) {
+                requestToken();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Requests a new token, keeping the old one if the request fails. Called with {@link #lock} held.
+     */
+    private void requestToken() {
+        String newToken;
+        try {
+            newToken = tokenRequest.get();
+        } catch (RuntimeException e) {
+            logger.error("Couldn't refresh the token: {}", e.getMessage());
+            newToken = null;
+        }
+
+        if (newToken == null) {
+            scheduleRetry();
+            return;
+        }
+        token = newToken;
+        logger.info("Token refreshed");
+        scheduleRefresh(newToken);
+    }
+
+    private void scheduleRefresh(String current) {
+        long expiresAt = expiresAtMillis(current);
+        if (expiresAt < 0) {
+            logger.warn("Token has no expiry, it is only refreshed when it is rejected");
+            return;
+        }
+        long delay = Math.max(0, expiresAt - refreshBeforeMillis - System.currentTimeMillis());
+        schedule(delay);
+    }
+
+    private void scheduleRetry() {
+        schedule(RETRY_MILLIS);
+    }
+
+    private void schedule(long delayMillis) {
+        if (scheduledRefresh != null) {
+            scheduledRefresh.cancel(false);
+        }
+        if (!closed) {
+            scheduledRefresh = runtime.schedule(this::backgroundRefresh, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+}
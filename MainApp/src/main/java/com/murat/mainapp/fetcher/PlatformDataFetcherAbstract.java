@@ -4,6 +4,8 @@ import com.murat.mainapp.callback.PlatformDataCallback;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.util.Map;
+
 /**
  * Abstract class for fetching platform-specific data and handling subscription-based data streams.
  * <p>
@@ -27,6 +29,16 @@ public abstract class PlatformDataFetcherAbstract {
     protected String userId;
     protected String password;
 
+    /**
+     * Fetcher specific settings from the {@code options} of {@code fetchers.yml}, never null
+     */
+    protected Map<String, String> options = Map.of();
+
+    /**
+     * Threads of the fetcher, shared by all fetchers so that a platform does not cost its own threads
+     */
+    protected FetcherRuntime runtime = FetcherRuntime.shared();
+
     /**
      * Sets the callback interface to be used for data events and connection updates.
      *
@@ -0,0 +1,266 @@
+package com.murat.mainapp.fetcher;
+
+import com.murat.mainapp.callback.PlatformDataCallback;
+import com.murat.mainapp.config.ConfigFiles;
+import com.murat.mainapp.exception.ConnectionNotFoundException;
+import com.murat.mainapp.model.Rate;
+import com.murat.mainapp.model.RateFields;
+import com.murat.ratecodec.serialization.RateMessageCodec;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Child of {@link PlatformDataFetcherAbstract} that replays ticks recorded in a file instead of connecting to a platform.
+ * <p>
+ * Every line of the file is a tick in the text format of the Kafka messages,
+ * {@code PF1_USDTRY|35.0231|36.0231|2024-12-16T16:07:16.504}; empty lines and lines starting with {@code #}
+ * are skipped. Only the ticks of this fetcher's platform and of the subscribed rates are sent to the callback,
+ * the first one of a rate with {@code onRateAvailable()} and the others with {@code onRateUpdate()}, exactly like a
+ * live fetcher. A recording can therefore hold several platforms, each replayed by its own fetcher.
+ * </p>
+ * <p>
+ * Registered in {@code fetchers.yml} with these {@code options}:
+ * </p>
+ * <ul>
+ *     <li>{@code file}: the recording, a file path or a classpath resource (required)</li>
+ *     <li>{@code speed}: {@code 1} for the original pace given by the timestamps, {@code N} for N times faster,
+ *     {@code max} for as fast as possible (default {@code 1})</li>
+ *     <li>{@code loop}: {@code true} to start again at the end of the file (default {@code false})</li>
+ * </ul>
+ * <p>
+ * With {@code speed: max} the replay measures the throughput of the whole Coordinator, calculation and Kafka
+ * pipeline; the number of ticks per second is logged when the file ends.
+ * </p>
+ */
+public class ReplayDataFetcher extends PlatformDataFetcherAbstract {
+
+    private static final Logger logger = LogManager.getLogger(ReplayDataFetcher.class);
+
+    private final Set<String> subscribedRates = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Rates already sent once, the next ticks of these rates are updates
+     */
+    private final Set<String> availableRates = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean running = false;
+
+    /**
+     * Replay speed, 0 for as fast as possible
+     */
+    private double speed;
+
+    private boolean loop;
+
+    private Thread replayThread;
+
+    /**
+     * Sets the callback interface to be used for data events and connection updates.
+     *
+     * @param callback the callback instance implementing {@link PlatformDataCallback}
+     */
+    @Override
+    public void setCallback(PlatformDataCallback callback) {
+        this.callback = callback;
+    }
+
+    /**
+     * Not used, a replay has no connection.
+     *
+     * @param port the port from the configuration
+     */
+    @Override
+    public void setPort(String port) {
+        this.port = port == null ? 0 : Integer.parseInt(port);
+    }
+
+    /**
+     * Not used, a replay has no connection.
+     *
+     * @param baseUrl the base URL from the configuration
+     */
+    @Override
+    public void setBaseUrl(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * Checks that the recording exists and starts replaying it in a virtual thread of {@link #runtime}.
+     * Subscriptions made from {@code onConnect()} are in place before the first tick is read.
+     *
+     * @param platformName the name of the platform
+     * @param userId       not used
+     * @param password     not used
+     */
+    @Override
+    public void connect(String platformName, String userId, String password) {
+        String file = options.get("file");
+        boolean found;
+        try (InputStream in = file == null ? null : ConfigFiles.open(file)) {
+            found = in != null;
+        } catch (IOException e) {
+            found = false;
+        }
+
+        if (!found) {
+            logger.error("Couldn't find the replay file {} of platform {}", file, platformName);
+            callback.onConnect(platformName, false);
+            return;
+        }
+
+        String speedOption = options.getOrDefault("speed", "1");
+        try {
+            speed = "max".equalsIgnoreCase(speedOption) ? 0 : Double.parseDouble(speedOption);
+        } catch (NumberFormatException e) {
+            speed = -1;
+        }
+        if (speed < 0 || Double.isNaN(speed) || (speed == 0 && !"max".equalsIgnoreCase(speedOption))) {
+            logger.error("Invalid replay speed {} of platform {}, use a positive number or max", speedOption, platformName);
+            callback.onConnect(platformName, false);
+            return;
+        }
+        loop = Boolean.parseBoolean(options.getOrDefault("loop", "false"));
+
+        running = true;
+        callback.onConnect(platformName, true);
+
+        replayThread = runtime.start("replay-" + platformName, () -> replay(file));
+    }
+
+    /**
+     * Stops the replay.
+     *
+     * @param platformName the name of the platform
+     * @param userId       not used
+     * @param password     not used
+     */
+    @Override
+    public void disconnect(String platformName, String userId, String password) {
+        if (!running) {
+            logger.warn("Already disconnected from {}", platformName);
+            return;
+        }
+        running = false;
+        replayThread.interrupt();
+        subscribedRates.clear();
+        callback.onDisconnect(platformName, true);
+        logger.info("Disconnected from {}", platformName);
+    }
+
+    /**
+     * Starts sending the recorded ticks of the rate.
+     *
+     * @param platformName the platform name
+     * @param rateName     the rate name
+     * @throws ConnectionNotFoundException if the replay is not running
+     */
+    @Override
+    public void subscribe(String platformName, String rateName) {
+        if (!running) {
+            throw new ConnectionNotFoundException("Cannot subscribe, not connected to platform: " + platformName);
+        }
+        if (!subscribedRates.add(rateName)) {
+            logger.warn("Already subscribed to {} {}", platformName, rateName);
+        }
+    }
+
+    /**
+     * Stops sending the recorded ticks of the rate.
+     *
+     * @param platformName the platform name
+     * @param rateName     the rate name
+     */
+    @Override
+    public void unsubscribe(String platformName, String rateName) {
+        if (!subscribedRates.remove(rateName)) {
+            logger.warn("No active subscription found for {}", rateName);
+        }
+    }
+
+    /**
+     * Reads the file until it ends (or forever with {@code loop}) and sends the ticks at the configured speed.
+     *
+     * @param file the recording
+     */
+    private void replay(String file) {
+        boolean maxSpeed = speed == 0;
+        String prefix = platformName + "_";
+
+        logger.info("Replaying {} for platform {} at speed {}", file, platformName, maxSpeed ? "max" : speed);
+
+        long ticks = 0;
+        long startNanos = System.nanoTime();
+        // Kayittaki zaman ile gercek zaman arasindaki eslesme, her dongude kayit bastan baslar
+        long replayStartNanos = startNanos;
+        long lastOffsetNanos = 0;
+
+        do {
+            long firstTickNanos = Long.MIN_VALUE;
+            try (InputStream in = ConfigFiles.open(file);
+                 BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                String line;
+                while (running && (line = reader.readLine()) != null) {
+                    if (line.isBlank() || line.startsWith("#") || !line.startsWith(prefix)) {
+                        continue;
+                    }
+
+                    String[] parts = line.split("\\|");
+                    if (parts.length != 4) {
+                        logger.warn("Skipping invalid replay line: {}", line);
+                        continue;
+                    }
+                    String rateName = parts[0].substring(prefix.length());
+                    if (!subscribedRates.contains(rateName)) {
+                        continue;
+                    }
+
+                    if (!maxSpeed) {
+                        long tickNanos = RateMessageCodec.toEpochNanos(parts[3]);
+                        if (tickNanos != Long.MIN_VALUE) {
+                            if (firstTickNanos == Long.MIN_VALUE) {
+                                firstTickNanos = tickNanos;
+                            }
+                            lastOffsetNanos = (long) ((tickNanos - firstTickNanos) / speed);
+                            waitUntil(replayStartNanos + lastOffsetNanos);
+                        }
+                    }
+
+                    send(rateName, Double.parseDouble(parts[1]), Double.parseDouble(parts[2]), parts[3]);
+                    ticks++;
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.error("Replay of {} failed: {}", file, e.toString());
+                break;
+            }
+            replayStartNanos += lastOffsetNanos;
+        } while (running && loop);
+
+        long elapsedNanos = System.nanoTime() - startNanos;
+        logger.info("Replayed {} ticks of platform {} in {} ms ({} ticks/s)", ticks, platformName,
+                elapsedNanos / 1_000_000, elapsedNanos == 0 ? 0 : ticks * 1_000_000_000L / elapsedNanos);
+    }
+
+    private void send(String rateName, double bid, double ask, String timestamp) {
+        if (availableRates.add(rateName)) {
+            callback.onRateAvailable(platformName, rateName, new Rate(rateName, bid, ask, timestamp));
+        } else {
+            callback.onRateUpdate(platformName, rateName, new RateFields(rateName, bid, ask, timestamp));
+        }
+    }
+
+    private void waitUntil(long deadlineNanos) {
+        long remaining;
+        while (running && (remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
@@ -1,22 +1,41 @@
 package com.murat.mainapp.fetcher;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.murat.mainapp.callback.PlatformDataCallback;
 import com.murat.mainapp.exception.ConnectionNotFoundException;
 import com.murat.mainapp.model.Rate;
+import com.murat.mainapp.model.RateBatch;
 import com.murat.mainapp.model.RateFields;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Iterator;
 import java.util.Map;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Child of {@link PlatformDataFetcherAbstract} that communicates with a REST-FULL data provider.
@@ -24,7 +43,39 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * This class handles authentication, periodic data fetching, subscription management, and
  * dispatching rate updates via {@link PlatformDataCallback}.
  * </p>
- *
+ * <p>
+ * Two clients can poll the rates, chosen with the {@code client} option of {@code fetchers.yml}:
+ * </p>
+ * <ul>
+ *     <li>{@code blocking}: {@link RestTemplate}, one virtual thread waits for every request (default)</li>
+ *     <li>{@code async}: the JDK {@link HttpClient} with {@code sendAsync()}, no thread waits for a response.
+ *     The client keeps the connections to the platform alive and reuses them for every symbol, so hundreds of
+ *     symbols can be polled concurrently over a few connections.</li>
+ * </ul>
+ * <p>
+ * Other {@code options} (milliseconds):
+ * </p>
+ * <ul>
+ *     <li>{@code poll-interval-ms}: interval between two requests of a symbol (default {@code 30000})</li>
+ *     <li>{@code initial-delay-ms}: delay of the first request (default {@code 25000})</li>
+ *     <li>{@code jitter-ms}: random extra delay of the first request, so the symbols are not polled at the same
+ *     instant (default {@code 0})</li>
+ *     <li>{@code request-timeout-ms}: timeout of an {@code async} request (default {@code 5000})</li>
+ *     <li>{@code connect-timeout-ms}: timeout of an {@code async} connection (default {@code 2000})</li>
+ *     <li>{@code token-refresh-before-ms}: how long before its expiry the JWT token is renewed in the background
+ *     (default {@code 60000}), see {@link JwtTokenManager}. A request rejected with {@code 401} is sent again once
+ *     with a new token.</li>
+ *     <li>{@code bulk}: {@code true} to poll all subscribed rates with one request to {@code api/rates?pairs=...}
+ *     instead of one request per rate (default {@code false}). The request is sent with the {@link HttpClient} of
+ *     the {@code async} mode and the {@code ETag} of the previous response, the platform only returns the rates
+ *     updated since then.</li>
+ *     <li>{@code stream}: {@code true} to receive the rates as soon as the platform creates them from the
+ *     server-sent event stream {@code api/rates/stream} instead of polling (default {@code false}). A virtual
+ *     thread reads the stream; when it is closed it is opened again after {@code reconnect-delay-ms}
+ *     (default {@code 1000}) with the {@code Last-Event-ID} of the last received rate, so the platform
+ *     resends the rates updated in between. {@code bulk} and {@code stream} cannot both be {@code true}, such a
+ *     platform is not connected.</li>
+ * </ul>
  */
 @Component
 public class RestDataFetcher extends PlatformDataFetcherAbstract{
@@ -36,28 +87,65 @@ public class RestDataFetcher extends PlatformDataFetcherAbstract{
     private String platformName;
     private String userId;
     private String password;
-    private boolean connected = false;
+    private volatile boolean connected = false;
 
     /**
-     * Used for holding JWT token and making a request with it
+     * Caches the JWT token and renews it before it expires
      */
-    private HttpEntity<String> requestEntity;
+    private JwtTokenManager tokenManager;
 
     /**
-     * A {@link Timer} which is used for sending an async request to RESTDataProducer periodically
-     *
+     * Used for making HTTP requests
      */
-    private final Timer timer = new Timer();
+    private final RestTemplate restTemplate = new RestTemplate();
 
     /**
-     * Used for making HTTP requests
+     * Non-blocking client of the {@code async} mode, created on connect
      */
-    private final RestTemplate restTemplate = new RestTemplate();
+    private HttpClient httpClient;
 
     /**
-     * Map of {@link TimerTask}s is used for holding information of subscriptions to make periodic requests.
+     * Ignores unknown fields like the converter of {@link RestTemplate}
      */
-    private final Map<String, TimerTask> subscriptionTasks = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private boolean async;
+    private long pollIntervalMillis;
+    private long initialDelayMillis;
+    private long jitterMillis;
+    private Duration requestTimeout;
+
+    private boolean bulk;
+    private boolean stream;
+    private long reconnectDelayMillis;
+
+    /**
+     * Reads the event stream in the {@code stream} mode
+     */
+    private Thread streamThread;
+
+    /**
+     * Rates received by the bulk request or the stream, rateName - {@code true} until the first rate is received
+     */
+    private final Map<String, AtomicBoolean> platformRates = new ConcurrentHashMap<>();
+
+    /**
+     * The single periodic request of the {@code bulk} mode
+     */
+    private ScheduledFuture<?> bulkTask;
+
+    private final AtomicBoolean bulkInFlight = new AtomicBoolean(false);
+
+    /**
+     * {@code ETag} of the last bulk response, sent back as {@code If-None-Match}
+     */
+    private volatile String bulkETag;
+
+    /**
+     * Map of the periodic requests to RESTDataProducer, run on the virtual threads of {@link #runtime}.
+     */
+    private final Map<String, ScheduledFuture<?>> subscriptionTasks = new ConcurrentHashMap<>();
 
 
     /**
@@ -100,17 +188,56 @@ public class RestDataFetcher extends PlatformDataFetcherAbstract{
      */
     @Override
     public void connect(String platformName, String userId, String password) {
+        this.platformName = platformName;
+
+        Duration connectTimeout;
+        Duration tokenRefreshBefore;
+        try {
+            bulk = Boolean.parseBoolean(options.getOrDefault("bulk", "false"));
+            stream = Boolean.parseBoolean(options.getOrDefault("stream", "false"));
+            reconnectDelayMillis = Long.parseLong(options.getOrDefault("reconnect-delay-ms", "1000"));
+            async = "async".equalsIgnoreCase(options.getOrDefault("client", "blocking"));
+            pollIntervalMillis = Long.parseLong(options.getOrDefault("poll-interval-ms", "30000"));
+            initialDelayMillis = Long.parseLong(options.getOrDefault("initial-delay-ms", "25000"));
+            jitterMillis = Long.parseLong(options.getOrDefault("jitter-ms", "0"));
+            requestTimeout = Duration.ofMillis(Long.parseLong(options.getOrDefault("request-timeout-ms", "5000")));
+            connectTimeout = Duration.ofMillis(Long.parseLong(options.getOrDefault("connect-timeout-ms", "2000")));
+            tokenRefreshBefore = Duration.ofMillis(Long.parseLong(options.getOrDefault("token-refresh-before-ms", "60000")));
+        } catch (NumberFormatException e) {
+            logger.error("Invalid options {} of platform {}: {}", options, platformName, e.getMessage());
+            callback.onConnect(platformName, false);
+            return;
+        }
+        if (bulk && stream) {
+            // Stream acikken toplu istek hic gonderilmez, sessizce yok saymak yerine ayar reddedilir
+            logger.error("Options bulk and stream of platform {} cannot both be true", platformName);
+            callback.onConnect(platformName, false);
+            return;
+        }
 
-        String token = sendTokenRequest();
+        tokenManager = new JwtTokenManager(this::sendTokenRequest, runtime, tokenRefreshBefore);
+        String token = tokenManager.start();
 
         if(token != null) {
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization","Bearer " +token );
-            requestEntity = new HttpEntity<>(headers);
+            if (async || bulk || stream) {
+                // Cevaplar sanal thread'lerde islenir, baglantilar keep-alive ile tekrar kullanilir
+                httpClient = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .connectTimeout(connectTimeout)
+                        .executor(runtime.executor())
+                        .build();
+            }
             connected = true;
+            if (stream) {
+                streamThread = runtime.start("rate-stream-" + platformName, this::readStream);
+            } else if (bulk) {
+                bulkTask = runtime.scheduleAtFixedRate(this::fetchBulk, initialDelayMillis + jitter(),
+                        pollIntervalMillis, TimeUnit.MILLISECONDS);
+            }
             callback.onConnect(platformName,true);
         }
         else{
+            tokenManager.close();
             connected = false;
             callback.onConnect(platformName,false);
         }
@@ -118,8 +245,7 @@ public class RestDataFetcher extends PlatformDataFetcherAbstract{
     }
 
     /**
-     * Disconnects from the platform by canceling all active subscriptions {@link #subscriptionTasks} and stopping the timer
-     * {@link #timer}.
+     * Disconnects from the platform by canceling all active subscriptions {@link #subscriptionTasks}.
      *
      * @param platformName the name of the platform
      * @param userId       the user ID (optional)
@@ -134,13 +260,27 @@ public class RestDataFetcher extends PlatformDataFetcherAbstract{
 
         // Tum abonelikleri iptal et
         subscriptionTasks.forEach((rateName, task) -> {
-            task.cancel();
+            task.cancel(false);
             logger.info("Unsubscribed from {}", rateName);
         });
 
         subscriptionTasks.clear();
-        timer.cancel();
+        if (bulkTask != null) {
+            bulkTask.cancel(false);
+            bulkTask = null;
+        }
+        platformRates.clear();
+        bulkETag = null;
         connected = false;
+        if (streamThread != null) {
+            streamThread.interrupt();
+            streamThread = null;
+        }
+        if (httpClient != null) {
+            httpClient.shutdownNow();
+            httpClient = null;
+        }
+        tokenManager.close();
         callback.onDisconnect(platformName,true);
         logger.info("Disconnected from {}", platformName);
     }
@@ -163,60 +303,352 @@ public class RestDataFetcher extends PlatformDataFetcherAbstract{
         }
 
         // Eğer aynı rateName için zaten bir abonelik varsa, tekrar abone olmaya gerek yok
-        if (subscriptionTasks.containsKey(rateName)) {
+        if (subscriptionTasks.containsKey(rateName) || platformRates.containsKey(rateName)) {
             logger.warn("Already subscribed to {} {}",platformName, rateName);
             return;
         }
         // İlk çağrı kontrolü için AtomicBoolean
         logger.info("Subscribing to {} {}",platformName, rateName);
 
+        if (bulk || stream) {
+            // Bir sonraki toplu istek yeni rate'i de ister, ETag sifirlanir ki tum rate'ler donsun
+            platformRates.put(rateName, new AtomicBoolean(true));
+            bulkETag = null;
+            return;
+        }
+
         final AtomicBoolean firstCall = new AtomicBoolean(true);
+        final AtomicBoolean inFlight = new AtomicBoolean(false);
+
+        Runnable request = async
+                ? () -> fetchAsync(platformName, rateName, firstCall, inFlight)
+                : () -> fetchBlocking(platformName, rateName, firstCall);
+
+        long delay = initialDelayMillis + jitter();
+
+        // Istegi hem planla hem de map'e ekle
+        subscriptionTasks.put(rateName, runtime.scheduleAtFixedRate(request, delay, pollIntervalMillis, TimeUnit.MILLISECONDS));
+
+    }
 
-        TimerTask task = new TimerTask() {
-            @Override
-            public void run() {
+    /**
+     * Requests the rate with {@link #restTemplate}, the calling thread waits for the response.
+     * A request rejected with {@code 401} is sent again once with a new token.
+     */
+    private void fetchBlocking(String platformName, String rateName, AtomicBoolean firstCall) {
+        try {
+            String url = baseUrl + "api/rates/" + platformName + "_" + rateName;
+            try {
+                String token = tokenManager.token();
+                Rate rate;
                 try {
-                    String url = baseUrl + "api/rates/" + platformName + "_" + rateName;
+                    rate = restTemplate.exchange(url, HttpMethod.GET, authorized(token), Rate.class).getBody();
+                } catch (HttpClientErrorException.Unauthorized ex) {
+                    logger.warn("Token of {} was rejected, retrying {} with a new one", platformName, rateName);
+                    rate = restTemplate.exchange(url, HttpMethod.GET, authorized(tokenManager.refresh(token)), Rate.class)
+                            .getBody();
+                }
+
+                dispatch(platformName, rateName, rate, firstCall);
+            } catch (HttpClientErrorException ex) {
+                if (ex.getStatusCode() == HttpStatus.NOT_FOUND) {
+                    logger.warn("Rate {} not found. Unsubscribing...", rateName);
+                    unsubscribe(platformName, rateName);
+                } else {
+                    logger.error("Error fetching data for {}: {}", rateName, ex.getMessage());
+                }
+            }
+        }catch (ResourceAccessException ex){
+            logger.error("Error fetching data for {}: {}", rateName, ex.getMessage());
+        }
+    }
+
+    /**
+     * Sends the request of the rate with {@link #httpClient} and returns, the response is handled when it arrives.
+     * A request is not sent while the previous one of the same rate is still waiting for its response.
+     */
+    private void fetchAsync(String platformName, String rateName, AtomicBoolean firstCall, AtomicBoolean inFlight) {
+        if (!inFlight.compareAndSet(false, true)) {
+            logger.warn("Previous request of {} {} has not been answered yet, skipping", platformName, rateName);
+            return;
+        }
+
+        URI uri = URI.create(baseUrl + "api/rates/" + platformName + "_" + rateName);
+        sendAuthorized(token -> HttpRequest.newBuilder(uri)
+                .timeout(requestTimeout)
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build())
+                .whenComplete((response, ex) -> {
                     try {
-                        Rate rate = restTemplate.exchange(
-                                url,
-                                HttpMethod.GET,
-                                        requestEntity,
-                                Rate.class)
-                                .getBody();
-
-                        if (rate != null) {
-                            if (firstCall.getAndSet(false)) {
-                                // İlk veri geldiğinde
-                                callback.onRateAvailable(platformName, rateName, rate);
-                            } else {
-                                // Sonraki verilerde
-                                // Burada Rate'in RateFields ile uyumlu olduğunu varsayıyoruz.
-                                RateFields rateFields = rate.toRateFields();
-                                callback.onRateUpdate(platformName, rateName, rateFields);
-                            }
-                        } else {
-                            logger.warn("No data received for {}. Unsubscribing...", rateName);
-                            unsubscribe(platformName, rateName);
+                        if (ex != null) {
+                            logger.error("Error fetching data for {}: {}", rateName, ex.getMessage());
+                            return;
                         }
-                    } catch (HttpClientErrorException ex) {
-                        if (ex.getStatusCode() == HttpStatus.NOT_FOUND) {
+
+                        if (response.statusCode() == HttpStatus.NOT_FOUND.value()) {
                             logger.warn("Rate {} not found. Unsubscribing...", rateName);
                             unsubscribe(platformName, rateName);
-                        } else {
-                            logger.error("Error fetching data for {}: {}", rateName, ex.getMessage());
+                            return;
+                        }
+                        if (response.statusCode() != HttpStatus.OK.value()) {
+                            logger.error("Error fetching data for {}: HTTP {}", rateName, response.statusCode());
+                            return;
+                        }
+
+                        try {
+                            byte[] body = response.body();
+                            Rate rate = body.length == 0 ? null : objectMapper.readValue(body, Rate.class);
+                            dispatch(platformName, rateName, rate, firstCall);
+                        } catch (IOException e) {
+                            logger.error("Couldn't read the rate {}: {}", rateName, e.getMessage());
+                        }
+                    } finally {
+                        // Cevap islenmeden sonraki istek gonderilmez, boylece rate'ler sirayla iletilir
+                        inFlight.set(false);
+                    }
+                });
+    }
+
+    /**
+     * Requests every subscribed rate with one request, only the rates updated since the previous response are returned.
+     * A request is not sent while the previous one is still waiting for its response.
+     */
+    private void fetchBulk() {
+        if (platformRates.isEmpty()) {
+            return;
+        }
+        if (!bulkInFlight.compareAndSet(false, true)) {
+            logger.warn("Previous bulk request of {} has not been answered yet, skipping", platformName);
+            return;
+        }
+
+        String pairs = platformRates.keySet().stream()
+                .map(rateName -> platformName + "_" + rateName)
+                .collect(Collectors.joining(","));
+        URI uri = URI.create(baseUrl + "api/rates?pairs=" + URLEncoder.encode(pairs, StandardCharsets.UTF_8));
+        String eTag = bulkETag;
+
+        sendAuthorized(token -> {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                    .timeout(requestTimeout)
+                    .header("Authorization", "Bearer " + token)
+                    .GET();
+            if (eTag != null) {
+                builder.header("If-None-Match", eTag);
+            }
+            return builder.build();
+        })
+                .whenComplete((response, ex) -> {
+                    try {
+                        if (ex != null) {
+                            logger.error("Error fetching rates {}: {}", pairs, ex.getMessage());
+                            return;
+                        }
+
+                        if (response.statusCode() == HttpStatus.NOT_MODIFIED.value()) {
+                            return;
+                        }
+                        if (response.statusCode() != HttpStatus.OK.value()) {
+                            logger.error("Error fetching rates {}: HTTP {}", pairs, response.statusCode());
+                            return;
+                        }
+
+                        try {
+                            RateBatch batch = objectMapper.readValue(response.body(), RateBatch.class);
+                            bulkETag = response.headers().firstValue("ETag").orElse(null);
+                            String prefix = platformName + "_";
+                            for (Rate rate : batch.getRates()) {
+                                String rateName = rate.getRateName().startsWith(prefix)
+                                        ? rate.getRateName().substring(prefix.length()) : rate.getRateName();
+                                AtomicBoolean firstCall = platformRates.get(rateName);
+                                // Istek sirasinda abonelikten cikilmis olabilir
+                                if (firstCall != null) {
+                                    dispatch(platformName, rateName, rate, firstCall);
+                                }
+                            }
+                        } catch (IOException e) {
+                            logger.error("Couldn't read the rates {}: {}", pairs, e.getMessage());
+                        }
+                    } finally {
+                        // Cevap islenmeden sonraki istek gonderilmez, boylece rate'ler sirayla iletilir
+                        bulkInFlight.set(false);
+                    }
+                });
+    }
+
+    /**
+     * Sends a request with the cached token; if it is rejected with {@code 401} the token is renewed and the
+     * request is sent once more. The renewal runs on a virtual thread, other requests are not blocked by it.
+     *
+     * @param request builds the request with the given token
+     * @return the response
+     */
+    private CompletableFuture<HttpResponse<byte[]>> sendAuthorized(Function<String, HttpRequest> request) {
+        HttpClient client = httpClient;
+        String token = tokenManager.token();
+        return client.sendAsync(request.apply(token), HttpResponse.BodyHandlers.ofByteArray())
+                .thenCompose(response -> {
+                    if (response.statusCode() != HttpStatus.UNAUTHORIZED.value()) {
+                        return CompletableFuture.completedFuture(response);
+                    }
+                    logger.warn("Token of {} was rejected, retrying with a new one", platformName);
+                    return CompletableFuture.supplyAsync(() -> tokenManager.refresh(token), runtime.executor())
+                            .thenCompose(newToken -> client.sendAsync(request.apply(newToken),
+                                    HttpResponse.BodyHandlers.ofByteArray()));
+                });
+    }
+
+    /**
+     * @return a request entity carrying the token
+     */
+    private static HttpEntity<String> authorized(String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization","Bearer " +token );
+        return new HttpEntity<>(headers);
+    }
+
+    /**
+     * Reads the event stream of the platform until the fetcher is disconnected, opening it again whenever it is closed.
+     * Every platform rate is streamed, the ones which are not subscribed are ignored.
+     */
+    private void readStream() {
+        HttpClient client = httpClient;
+        String lastEventId = null;
+        long retryMillis = reconnectDelayMillis;
+
+        while (connected) {
+            String token = tokenManager.token();
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + "api/rates/stream"))
+                    .header("Authorization", "Bearer " + token)
+                    .header("Accept", "text/event-stream")
+                    .GET();
+            if (lastEventId != null) {
+                builder.header("Last-Event-ID", lastEventId);
+            }
+
+            try {
+                HttpResponse<Stream<String>> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofLines());
+                if (response.statusCode() == HttpStatus.UNAUTHORIZED.value()) {
+                    // Token suresi dolmus olabilir, bir sonraki deneme yeni token ile yapilir
+                    response.body().close();
+                    logger.warn("Rate stream of {} is unauthorized, requesting a new token", platformName);
+                    tokenManager.refresh(token);
+                } else if (response.statusCode() != HttpStatus.OK.value()) {
+                    response.body().close();
+                    logger.error("Couldn't open the rate stream of {}: HTTP {}", platformName, response.statusCode());
+                } else {
+                    logger.info("Rate stream of {} opened{}", platformName,
+                            lastEventId == null ? "" : ", resuming after event " + lastEventId);
+                    try (Stream<String> lines = response.body()) {
+                        String id = null;
+                        StringBuilder data = new StringBuilder();
+                        Iterator<String> iterator = lines.iterator();
+                        while (connected && iterator.hasNext()) {
+                            String line = iterator.next();
+                            if (line.isEmpty()) {
+                                // Bos satir event'i bitirir
+                                if (!data.isEmpty()) {
+                                    onStreamedRate(data.toString());
+                                    if (id != null) {
+                                        lastEventId = id;
+                                    }
+                                }
+                                data.setLength(0);
+                            } else if (line.startsWith("data:")) {
+                                if (!data.isEmpty()) {
+                                    data.append('\n');
+                                }
+                                data.append(fieldValue(line));
+                            } else if (line.startsWith("id:")) {
+                                id = fieldValue(line);
+                            } else if (line.startsWith("retry:")) {
+                                try {
+                                    retryMillis = Long.parseLong(fieldValue(line));
+                                } catch (NumberFormatException e) {
+                                    logger.warn("Invalid retry of the rate stream of {}: {}", platformName, line);
+                                }
+                            }
                         }
                     }
-                }catch (ResourceAccessException ex){
-                    logger.error("Error fetching data for {}: {}", rateName, ex.getMessage());
                 }
+            } catch (IOException | UncheckedIOException | RestClientException e) {
+                if (connected) {
+                    logger.warn("Rate stream of {} closed: {}", platformName, e.getMessage());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
             }
-        };
 
-        // TimerTask'i hem planla hem de map'e ekle
-        subscriptionTasks.put(rateName, task);
-        timer.scheduleAtFixedRate(task, 25000, 30000);
+            if (connected) {
+                logger.info("Reopening the rate stream of {} in {} ms", platformName, retryMillis);
+                try {
+                    Thread.sleep(retryMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends the rate of a stream event to the callback if it is subscribed.
+     *
+     * @param data the JSON rate of the event
+     */
+    private void onStreamedRate(String data) {
+        try {
+            Rate rate = objectMapper.readValue(data, Rate.class);
+            String prefix = platformName + "_";
+            String rateName = rate.getRateName().startsWith(prefix)
+                    ? rate.getRateName().substring(prefix.length()) : rate.getRateName();
+            AtomicBoolean firstCall = platformRates.get(rateName);
+            if (firstCall != null) {
+                dispatch(platformName, rateName, rate, firstCall);
+            }
+        } catch (IOException e) {
+            logger.error("Couldn't read the streamed rate {}: {}", data, e.getMessage());
+        }
+    }
+
+    /**
+     * @return the value of an event stream field, {@code "id: 42"} gives {@code "42"}
+     */
+    private static String fieldValue(String line) {
+        int start = line.indexOf(':') + 1;
+        if (start < line.length() && line.charAt(start) == ' ') {
+            start++;
+        }
+        return line.substring(start);
+    }
 
+    /**
+     * @return a random extra delay below {@link #jitterMillis}, so the requests are not sent at the same instant
+     */
+    private long jitter() {
+        return jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis) : 0;
+    }
+
+    /**
+     * Sends a received rate to the callback, {@code onRateAvailable()} the first time and {@code onRateUpdate()} after.
+     */
+    private void dispatch(String platformName, String rateName, Rate rate, AtomicBoolean firstCall) {
+        if (rate != null) {
+            if (firstCall.getAndSet(false)) {
+                // İlk veri geldiğinde
+                callback.onRateAvailable(platformName, rateName, rate);
+            } else {
+                // Sonraki verilerde
+                // Burada Rate'in RateFields ile uyumlu olduğunu varsayıyoruz.
+                RateFields rateFields = rate.toRateFields();
+                callback.onRateUpdate(platformName, rateName, rateFields);
+            }
+        } else {
+            logger.warn("No data received for {}. Unsubscribing...", rateName);
+            unsubscribe(platformName, rateName);
+        }
     }
 
     /**
@@ -227,10 +659,15 @@ public class RestDataFetcher extends PlatformDataFetcherAbstract{
      */
     @Override
     public void unsubscribe(String platformName, String rateName) {
-        TimerTask task = subscriptionTasks.get(rateName);
+        if (platformRates.remove(rateName) != null) {
+            logger.info("Unsubscribed from {}", rateName);
+            return;
+        }
+
+        ScheduledFuture<?> task = subscriptionTasks.get(rateName);
 
         if (task != null) {
-            task.cancel();
+            task.cancel(false);
             subscriptionTasks.remove(rateName);
             logger.info("Unsubscribed from {}", rateName);
         } else {
@@ -261,7 +698,7 @@ public class RestDataFetcher extends PlatformDataFetcherAbstract{
         );
         String token = responseEntity.getBody();
 
-        System.out.println(token);
+        logger.info("Received a token from {}", url);
         return token;
     }
 }
@@ -9,13 +9,9 @@ import org.apache.logging.log4j.Logger;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
 import java.io.PrintWriter;
 import java.net.Socket;
 import java.util.Map;
-import java.util.Timer;
-import java.util.TimerTask;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -24,10 +20,10 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * It extends {@link PlatformDataFetcherAbstract} and implements functionalities such as connecting
  * to the platform, reading data, subscribing to rates, and unsubscribing.
  *
- * <p>Note: This class uses a {@link Timer} and {@link TimerTask} for scheduling subscriptions.</p>
+ * <p>Note: The reader and the subscription commands run on the virtual threads of the shared {@link FetcherRuntime},
+ * the fetcher has no thread of its own.</p>
  *
- * @see Timer
- * @see TimerTask
+ * @see FetcherRuntime
  */
 @Component
 public class TcpDataFetcher extends PlatformDataFetcherAbstract {
@@ -39,7 +35,16 @@ public class TcpDataFetcher extends PlatformDataFetcherAbstract {
     private String baseUrl;
     private Socket socket;
     private PrintWriter out;
-    private BufferedReader in;
+
+    /**
+     * Reads the TCP stream line by line into a reusable buffer
+     */
+    private TcpFrameReader in;
+
+    /**
+     * Parses rate frames in place, used only by the reader thread
+     */
+    private final TcpFrameParser frameParser = new TcpFrameParser();
 
     private PlatformDataCallback callback;
     private String platformName;
@@ -47,13 +52,12 @@ public class TcpDataFetcher extends PlatformDataFetcherAbstract {
     private String password;
     private boolean connected = false;
 
-    private final Timer timer = new Timer();
     private final RestTemplate restTemplate = new RestTemplate();
 
     /**
-     * Map of {@link TimerTask}s is used for holding information of subscriptions.
+     * Map of the scheduled subscribe commands is used for holding information of subscriptions.
      */
-    private final Map<String, TimerTask> subscriptionTasks = new ConcurrentHashMap<>();
+    private final Map<String, Future<?>> subscriptionTasks = new ConcurrentHashMap<>();
 
     // Abone olunan rate'leri işaretlemek için
     private final Map<String, Boolean> subscribedRates = new ConcurrentHashMap<>();
@@ -110,16 +114,15 @@ public class TcpDataFetcher extends PlatformDataFetcherAbstract {
         try {
             socket = new Socket("localhost", port);
             out = new PrintWriter(socket.getOutputStream(), true);
-            in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+            in = new TcpFrameReader(socket.getInputStream());
 
             // Gönderilen kullanıcı bilgileri
             out.println(userId);
             out.println(password);
 
-            String response;
             // Sunucudan "OK" gelene kadar bekle
-            while ((response = in.readLine()) != null) {
-                if (response.equalsIgnoreCase("OK")) {
+            while (in.readLine()) {
+                if (in.lineEqualsIgnoreCase("OK")) {
                     connected = true;
                     break;
                 }
@@ -134,31 +137,32 @@ public class TcpDataFetcher extends PlatformDataFetcherAbstract {
     }
 
     /**
-     * Starts a thread that continuously reads data from the TCP stream.
+     * Starts a virtual thread that continuously reads data from the TCP stream.
+     * <p>Frames are parsed in place by {@link TcpFrameParser} into a single reused {@link TcpFrame}.</p>
      */
     private void startReaderThread() {
         if (readerThreadStarted.compareAndSet(false, true)) {
-            new Thread(() -> {
+            runtime.start("tcp-reader-" + platformName, () -> {
+                TcpFrame frame = new TcpFrame();
                 try {
-                    String response;
-                    while (connected && (response = in.readLine()) != null) {
-                        String[] tokens = response.split("\\|");
-                        if (tokens.length < 4) {
-                            logger.info(response);
+                    while (connected && in.readLine()) {
+                        if (!parseFrame(frame)) {
+                            logger.info(in.lineAsString());
                             continue;
                         }
-                        Rate rate = parseRateFromMessage(tokens);
                         if(responseCount < 2){
+                            Rate rate = new Rate(frame.getRateName(), frame.getBid(), frame.getAsk(), frame.getTimestamp());
                             callback.onRateAvailable(platformName,rate.getRateName(),rate);
                             responseCount++;
                         }else{
-                        callback.onRateUpdate(platformName, rate.getRateName(), rate.toRateFields());
+                        callback.onRateUpdate(platformName, frame.getRateName(),
+                                new RateFields(frame.getRateName(), frame.getBid(), frame.getAsk(), frame.getTimestamp()));
                         }
                     }
                 } catch (Exception e) {
                     logger.error("Error in reader thread: {}", e.getMessage());
                 }
-            }).start();
+            });
         }
     }
 
@@ -180,12 +184,11 @@ public class TcpDataFetcher extends PlatformDataFetcherAbstract {
 
         subscriptionTasks.forEach((rateName, task) -> {
             unsubscribe(platformName, rateName);
-            task.cancel();
+            task.cancel(false);
         });
 
         subscriptionTasks.clear();
         subscribedRates.clear();
-        timer.cancel();
         connected = false;
         out.println("exit");
         logger.info("Disconnected from {}", platformName);
@@ -213,60 +216,39 @@ public class TcpDataFetcher extends PlatformDataFetcherAbstract {
         logger.info("Subscribing to {}", rateName);
 
         // Subscribe komutunu yalnızca 1 kere göndermek için
-        TimerTask task = new TimerTask() {
-            @Override
-            public void run() {
-                try {
-                    out.println("subscribe|" + platformName + "_" + rateName);
-                    logger.info("Sent subscribe command for rate: {}", rateName);
-                    subscribedRates.put(rateName, true);
-                } catch (Exception e) {
-                    logger.error("Error during subscribe: {}", e.getMessage());
-                }
-                // Gönderim tamamlandıktan sonra task iptal edilir.
-                this.cancel();
+        Future<?> task = runtime.schedule(() -> {
+            try {
+                out.println("subscribe|" + platformName + "_" + rateName);
+                logger.info("Sent subscribe command for rate: {}", rateName);
+                subscribedRates.put(rateName, true);
+            } catch (Exception e) {
+                logger.error("Error during subscribe: {}", e.getMessage());
             }
-        };
+        }, 1, TimeUnit.MILLISECONDS);
 
         subscriptionTasks.put(rateName, task);
-        timer.schedule(task, 1);  // 5 saniye gecikmeyle gönderilir.
     }
 
 
     /**
-     * Parses a received message and converts it into a {@link Rate} object.
+     * Parses the current line of {@link #in} into {@code frame}.
      *
-     * @param tokens the message split into tokens
-     * @return the parsed {@link Rate} object
+     * @param frame the reused frame holder
+     * @return {@code false} if the line is not a rate frame or cannot be parsed, {@code true} otherwise
      */
-    private Rate parseRateFromMessage(String[] tokens) {
+    private boolean parseFrame(TcpFrame frame) {
         try {
-            // Token 0: "PF1_EURUSD"
-            String[] nameParts = tokens[0].split("_");
-            // Platform kısmı tokens[0]'ın ilk kısmı; rateName tokens[0]'ın ikinci kısmı
-            String incomingPlatform = nameParts[0];
-            String rateName = nameParts.length > 1 ? nameParts[1] : "";
+            if (!frameParser.parse(in.buffer(), in.lineStart(), in.lineEnd(), frame)) {
+                return false;
+            }
             // Eğer gelen platform ismi beklenenden farklı ise loglama yapabiliriz
-            if (!incomingPlatform.equals(platformName)) {
-                logger.warn("Incoming platform {} does not match expected platform {}", incomingPlatform, platformName);
+            if (!frame.getPlatformName().equals(platformName)) {
+                logger.warn("Incoming platform {} does not match expected platform {}", frame.getPlatformName(), platformName);
             }
-
-            // Token 1: "22:number:<bid>"
-            String[] bidParts = tokens[1].split(":");
-            double bid = bidParts.length >= 3 ? Double.parseDouble(bidParts[2]) : 0.0;
-
-            // Token 2: "25:number:<ask>"
-            String[] askParts = tokens[2].split(":");
-            double ask = askParts.length >= 3 ? Double.parseDouble(askParts[2]) : 0.0;
-
-            // Token 3: "5:timestamp:<timestamp>"
-            String[] tsParts = tokens[3].split(":");
-            String timestamp = tsParts.length >= 4 ? tsParts[2] +":" + tsParts[3]+":" + tsParts[4]  : "";
-
-            return new Rate(rateName, bid, ask, timestamp);
+            return true;
         } catch (Exception e) {
             logger.error("Error parsing rate message: {}", e.getMessage());
-            return new Rate();
+            return false;
         }
     }
 
@@ -291,8 +273,7 @@ public class TcpDataFetcher extends PlatformDataFetcherAbstract {
 
         logger.info("Unsubscribing from platform {} rate {} ",platformName, rateName);
 
-        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
-        Future<?> future = executor.schedule(() -> {
+        Future<?> future = runtime.schedule(() -> {
             try {
                 out.println("unsubscribe|" + platformName + "_" + rateName);
                 logger.info("Sent unsubscribe command for rate: {}", rateName);
@@ -307,8 +288,6 @@ public class TcpDataFetcher extends PlatformDataFetcherAbstract {
             future.get();
         } catch (Exception e) {
             logger.error("Couldn't unsubscribe from {}_{}", platformName, rateName);
-        } finally {
-            executor.shutdown();
         }
     }
 }
@@ -0,0 +1,40 @@
+package com.murat.mainapp.fetcher;
+
+import lombok.Getter;
+
+/**
+ * Reusable holder for a rate frame parsed by {@link TcpFrameParser}.
+ *
+ * <p>A single instance is filled again for every frame read from the TCP stream, so it must not be
+ * kept after the next call to {@link TcpFrameParser#parse(byte[], int, int, TcpFrame)}.</p>
+ */
+@Getter
+public class TcpFrame {
+
+    /**
+     * Platform part of the frame name (e.g. {@code PF1}), interned by the parser
+     */
+    private String platformName;
+
+    /**
+     * Rate part of the frame name (e.g. {@code USDTRY}), interned by the parser
+     */
+    private String rateName;
+
+    private double bid;
+
+    private double ask;
+
+    /**
+     * Timestamp as sent by the platform (e.g. {@code 2024-12-16T16:07:16.504})
+     */
+    private String timestamp;
+
+    void set(String platformName, String rateName, double bid, double ask, String timestamp) {
+        this.platformName = platformName;
+        this.rateName = rateName;
+        this.bid = bid;
+        this.ask = ask;
+        this.timestamp = timestamp;
+    }
+}
@@ -0,0 +1,218 @@
+package com.murat.mainapp.fetcher;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Parses rate frames sent by the TCP platform directly from a byte buffer.
+ *
+ * <p>Expected frame format:</p>
+ * <pre>
+ * PF1_USDTRY|22:number:35.02|25:number:36.02|5:timestamp:2024-12-16T16:07:16.504
+ * </pre>
+ *
+ * <p>The frame is scanned in place: bid and ask are parsed from the digits without creating intermediate
+ * {@link String}s, platform and rate names are interned so the same {@link String} instance is returned for every
+ * frame of the same rate. The only object created per frame is the timestamp {@link String}, which is needed by
+ * {@link com.murat.mainapp.model.Rate}; it is converted to epoch time where it is used, see
+ * {@link com.murat.ratecodec.serialization.RateMessageCodec#toEpochNanos(String)}.</p>
+ *
+ * <p>Numbers with up to 15 significant digits are parsed exactly. Longer numbers, such as the 16-17 digit
+ * output of {@link Double#toString(double)}, may differ from {@link Double#parseDouble(String)} by one ulp.
+ * Numbers in exponent notation fall back to {@link Double#parseDouble(String)}.</p>
+ *
+ * <p>This class is not thread-safe, it is meant to be used by the single reader thread of a connection.</p>
+ */
+public class TcpFrameParser {
+
+    private static final int INTERN_TABLE_SIZE = 256;
+
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1.0;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10.0;
+        }
+    }
+
+    private final byte[][] internKeys = new byte[INTERN_TABLE_SIZE][];
+    private final String[] internValues = new String[INTERN_TABLE_SIZE];
+
+    /**
+     * Parses a frame into {@code frame}.
+     *
+     * @param buffer the buffer holding the frame
+     * @param start the index of the first byte of the frame
+     * @param end the index after the last byte of the frame
+     * @param frame the holder to fill
+     * @return {@code false} if the line is not a rate frame (e.g. a server message), {@code true} otherwise
+     * @throws NumberFormatException if bid or ask is not a number
+     */
+    public boolean parse(byte[] buffer, int start, int end, TcpFrame frame) {
+        // Token 0: "PF1_EURUSD"
+        int nameEnd = indexOf(buffer, start, end, (byte) '|');
+        if (nameEnd < 0) {
+            return false;
+        }
+        // Token 1: "22:number:<bid>"
+        int bidEnd = indexOf(buffer, nameEnd + 1, end, (byte) '|');
+        if (bidEnd < 0) {
+            return false;
+        }
+        // Token 2: "25:number:<ask>"
+        int askEnd = indexOf(buffer, bidEnd + 1, end, (byte) '|');
+        if (askEnd < 0) {
+            return false;
+        }
+        // Token 3: "5:timestamp:<timestamp>"
+        int timestampEnd = indexOf(buffer, askEnd + 1, end, (byte) '|');
+        if (timestampEnd < 0) {
+            timestampEnd = end;
+        }
+
+        String platformName;
+        String rateName;
+        int separator = indexOf(buffer, start, nameEnd, (byte) '_');
+        if (separator < 0) {
+            platformName = intern(buffer, start, nameEnd);
+            rateName = "";
+        } else {
+            platformName = intern(buffer, start, separator);
+            rateName = intern(buffer, separator + 1, nameEnd);
+        }
+
+        double bid = parseValue(buffer, nameEnd + 1, bidEnd);
+        double ask = parseValue(buffer, bidEnd + 1, askEnd);
+
+        int timestampStart = afterSecondColon(buffer, askEnd + 1, timestampEnd);
+        String timestamp = timestampStart < 0 ? ""
+                : new String(buffer, timestampStart, timestampEnd - timestampStart, StandardCharsets.ISO_8859_1);
+
+        frame.set(platformName, rateName, bid, ask, timestamp);
+        return true;
+    }
+
+    /**
+     * Parses the value of a {@code <id>:<type>:<value>} field.
+     *
+     * @return the value, or {@code 0.0} if the field has no value
+     */
+    private static double parseValue(byte[] buffer, int start, int end) {
+        int valueStart = afterSecondColon(buffer, start, end);
+        return valueStart < 0 ? 0.0 : parseDouble(buffer, valueStart, end);
+    }
+
+    /**
+     * Parses a decimal number without creating a {@link String}.
+     *
+     * @param buffer the buffer holding the number
+     * @param start the index of the first character
+     * @param end the index after the last character
+     * @return the parsed number
+     * @throws NumberFormatException if the text is not a decimal number
+     */
+    static double parseDouble(byte[] buffer, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (buffer[i] == '-' || buffer[i] == '+')) {
+            negative = buffer[i] == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int significantDigits = 0;
+        int scale = 0;
+        boolean seenDigit = false;
+        boolean seenPoint = false;
+
+        for (; i < end; i++) {
+            byte c = buffer[i];
+            if (c >= '0' && c <= '9') {
+                seenDigit = true;
+                if (significantDigits < 18) {
+                    if (mantissa != 0 || c != '0') {
+                        significantDigits++;
+                    }
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (seenPoint) {
+                        scale++;
+                    }
+                } else if (!seenPoint) {
+                    // 18 haneden uzun tam kisim: hassas yol ile coz
+                    return fallbackParse(buffer, start, end);
+                }
+            } else if (c == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                // Ustel gosterim (1.0E-5) veya gecersiz karakter
+                return fallbackParse(buffer, start, end);
+            }
+        }
+
+        if (!seenDigit) {
+            throw new NumberFormatException("Not a number: " + new String(buffer, start, end - start, StandardCharsets.ISO_8859_1));
+        }
+        if (scale >= POWERS_OF_TEN.length) {
+            return fallbackParse(buffer, start, end);
+        }
+
+        // mantissa <= 2^53 ve 10^scale <= 10^22 iken ikisi de double olarak tam ifade edilir ve bolme dogru yuvarlanir.
+        // Daha buyuk mantissa'da long -> double donusumu bir kez daha yuvarlar (en fazla bir ulp fark)
+        double value = mantissa / POWERS_OF_TEN[scale];
+        return negative ? -value : value;
+    }
+
+    private static double fallbackParse(byte[] buffer, int start, int end) {
+        return Double.parseDouble(new String(buffer, start, end - start, StandardCharsets.ISO_8859_1));
+    }
+
+    private static int indexOf(byte[] buffer, int start, int end, byte value) {
+        for (int i = start; i < end; i++) {
+            if (buffer[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the index after the second {@code ':'} of the field, or {@code -1} if there is none
+     */
+    private static int afterSecondColon(byte[] buffer, int start, int end) {
+        int first = indexOf(buffer, start, end, (byte) ':');
+        if (first < 0) {
+            return -1;
+        }
+        int second = indexOf(buffer, first + 1, end, (byte) ':');
+        return second < 0 ? -1 : second + 1;
+    }
+
+    /**
+     * Returns the same {@link String} instance for the same bytes, creating it only the first time.
+     */
+    private String intern(byte[] buffer, int start, int end) {
+        int hash = 1;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + buffer[i];
+        }
+        int index = (hash ^ (hash >>> 16)) & (INTERN_TABLE_SIZE - 1);
+
+        for (int probe = 0; probe < INTERN_TABLE_SIZE; probe++) {
+            byte[] key = internKeys[index];
+            if (key == null) {
+                String value = new String(buffer, start, end - start, StandardCharsets.ISO_8859_1);
+                internKeys[index] = Arrays.copyOfRange(buffer, start, end);
+                internValues[index] = value;
+                return value;
+            }
+            if (Arrays.equals(key, 0, key.length, buffer, start, end)) {
+                return internValues[index];
+            }
+            index = (index + 1) & (INTERN_TABLE_SIZE - 1);
+        }
+
+        // Tablo dolu
+        return new String(buffer, start, end - start, StandardCharsets.ISO_8859_1);
+    }
+}
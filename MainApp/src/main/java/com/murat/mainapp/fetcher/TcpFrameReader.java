@@ -0,0 +1,153 @@
+package com.murat.mainapp.fetcher;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads newline-terminated lines from a TCP stream into a single reusable byte buffer.
+ *
+ * <p>Unlike {@link java.io.BufferedReader#readLine()} no {@link String} is created for a line.
+ * After {@link #readLine()} returns {@code true}, the line is available in {@link #buffer()} between
+ * {@link #lineStart()} (inclusive) and {@link #lineEnd()} (exclusive) until the next call.
+ * Trailing {@code \r} is not part of the line.</p>
+ *
+ * <p>This class is not thread-safe, it is meant to be used by the single reader thread of a connection.</p>
+ */
+public class TcpFrameReader {
+
+    private static final int MAX_LINE_LENGTH = 1 << 20;
+
+    private final InputStream in;
+
+    private byte[] buffer;
+
+    /**
+     * Start of the data which is not returned as a line yet
+     */
+    private int position;
+
+    /**
+     * End of the data read from the stream
+     */
+    private int limit;
+
+    private int lineStart;
+    private int lineEnd;
+
+    /**
+     * Constructs a {@code TcpFrameReader} with an 8 KB buffer.
+     *
+     * @param in the input stream of the TCP socket
+     */
+    public TcpFrameReader(InputStream in) {
+        this(in, 8192);
+    }
+
+    /**
+     * Constructs a {@code TcpFrameReader}.
+     *
+     * @param in the input stream of the TCP socket
+     * @param bufferSize the initial buffer size, the buffer grows only if a single line does not fit in it
+     */
+    public TcpFrameReader(InputStream in, int bufferSize) {
+        this.in = in;
+        this.buffer = new byte[bufferSize];
+    }
+
+    /**
+     * Reads the next line.
+     *
+     * @return {@code false} if the end of the stream is reached, {@code true} otherwise
+     * @throws IOException if the stream cannot be read or a line is longer than 1 MB
+     */
+    public boolean readLine() throws IOException {
+        int scan = position;
+        while (true) {
+            for (int i = scan; i < limit; i++) {
+                if (buffer[i] == '\n') {
+                    lineStart = position;
+                    lineEnd = (i > position && buffer[i - 1] == '\r') ? i - 1 : i;
+                    position = i + 1;
+                    return true;
+                }
+            }
+            scan = limit;
+
+            // Tamamlanmamis satiri buffer'in basina tasi
+            if (position > 0) {
+                System.arraycopy(buffer, position, buffer, 0, limit - position);
+                scan -= position;
+                limit -= position;
+                position = 0;
+            }
+            if (limit == buffer.length) {
+                if (buffer.length >= MAX_LINE_LENGTH) {
+                    throw new IOException("Line is longer than " + MAX_LINE_LENGTH + " bytes");
+                }
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+
+            int read = in.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                if (limit > position) {
+                    lineStart = position;
+                    lineEnd = limit;
+                    position = limit;
+                    return true;
+                }
+                return false;
+            }
+            limit += read;
+        }
+    }
+
+    /**
+     * @return the buffer holding the current line
+     */
+    public byte[] buffer() {
+        return buffer;
+    }
+
+    /**
+     * @return the index of the first byte of the current line
+     */
+    public int lineStart() {
+        return lineStart;
+    }
+
+    /**
+     * @return the index after the last byte of the current line
+     */
+    public int lineEnd() {
+        return lineEnd;
+    }
+
+    /**
+     * Compares the current line with an ASCII text ignoring case, without creating a {@link String}.
+     *
+     * @param text the text to compare
+     * @return {@code true} if the line equals {@code text} ignoring case
+     */
+    public boolean lineEqualsIgnoreCase(String text) {
+        if (lineEnd - lineStart != text.length()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.toLowerCase((char) buffer[lineStart + i]) != Character.toLowerCase(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates a {@link String} of the current line. Meant for logging lines which are not rate frames.
+     *
+     * @return the current line
+     */
+    public String lineAsString() {
+        return new String(buffer, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,45 @@
+package com.murat.mainapp.journal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A tick read back from the {@link TickJournal} by {@link TickJournalReader}.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class JournalEntry {
+
+    /**
+     * {@code true} if the Coordinator accepted the tick, {@code false} if it was rejected by the tick validation
+     */
+    private boolean accepted;
+
+    /**
+     * Platform and rate name, e.g. {@code PF1_USDTRY}
+     */
+    private String key;
+
+    private double bid;
+
+    private double ask;
+
+    /**
+     * Timestamp sent by the platform
+     */
+    private String timestamp;
+
+    /**
+     * Time the tick was received by MainApp, milliseconds since epoch
+     */
+    private long receivedMillis;
+
+    /**
+     * @return the tick in the format read by {@link com.murat.mainapp.fetcher.ReplayDataFetcher}
+     */
+    public String toReplayLine() {
+        return key + "|" + bid + "|" + ask + "|" + timestamp;
+    }
+}
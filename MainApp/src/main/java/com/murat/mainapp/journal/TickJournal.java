@@ -0,0 +1,283 @@
+package com.murat.mainapp.journal;
+
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Append-only journal of every raw tick received by the {@link com.murat.mainapp.coordinator.Coordinator},
+ * accepted or rejected.
+ *
+ * <p>Ticks are written into memory-mapped segment files ({@code ticks-00000000000000000001.dat}, ...), so an append
+ * is a few memory writes without a system call; the operating system writes the pages to disk in the background,
+ * and the data survives a crash of the JVM. When a segment is full it is forced to disk and the next one is mapped.
+ * A start of the application continues the last segment after its last complete record, if it has the configured
+ * size, and only begins a new segment when that one is full.</p>
+ *
+ * <p>{@code journal.max-segments} limits the disk space: after a new segment is mapped, the oldest ones beyond the
+ * limit are deleted. The buffer of a full segment is dropped when the next one is mapped; Java has no supported way
+ * to unmap it, so the mapping (and the disk space of a deleted segment) is released when the garbage collector
+ * collects the buffer.</p>
+ *
+ * <p>Record layout (little endian):</p>
+ * <pre>
+ * int    length of the record, 0 marks the end of the written data
+ * byte   1 accepted, 2 rejected
+ * byte   key length, then the key (PF1_USDTRY) in ASCII
+ * double bid
+ * double ask
+ * long   received time, milliseconds since epoch
+ * byte   timestamp length, then the platform timestamp in ASCII
+ * </pre>
+ *
+ * <p>Records are padded to 4 bytes. The length is written last with release semantics, so a reader never sees
+ * a partly written record. Records are read back with {@link TickJournalReader}.</p>
+ */
+@Component
+public class TickJournal {
+
+    private static final Logger logger = LogManager.getLogger(TickJournal.class);
+
+    static final String SEGMENT_PREFIX = "ticks-";
+    static final String SEGMENT_SUFFIX = ".dat";
+
+    static final byte ACCEPTED = 1;
+    static final byte REJECTED = 2;
+
+    private static final int MAX_NAME_LENGTH = 255;
+
+    static final VarHandle LENGTH = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    // length, type, key length, bid, ask, received time, timestamp length
+    private static final int FIXED_LENGTH = 4 + 1 + 1 + 8 + 8 + 8 + 1;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentBytes;
+
+    /**
+     * Number of segment files kept, 0 keeps every segment
+     */
+    private final int maxSegments;
+
+    // Asagidakiler this ile korunur
+    private MappedByteBuffer segment;
+    private long segmentIndex;
+    private int position;
+
+    /**
+     * Constructs a journal writing into {@code directory}.
+     *
+     * @param enabled {@code false} to turn the journal off, appends are then ignored
+     * @param directory the directory of the segment files, created if missing
+     * @param segmentBytes the size of a segment file
+     * @param maxSegments the number of segment files kept, older ones are deleted, 0 keeps every segment
+     */
+    public TickJournal(@Value("${journal.enabled:true}") boolean enabled,
+                       @Value("${journal.dir:journal}") String directory,
+                       @Value("${journal.segment-bytes:67108864}") int segmentBytes,
+                       @Value("${journal.max-segments:16}") int maxSegments) {
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = Math.max(0, maxSegments);
+        if (segmentBytes < 2 * (FIXED_LENGTH + 2 * MAX_NAME_LENGTH)) {
+            throw new IllegalArgumentException("journal.segment-bytes is too small: " + segmentBytes);
+        }
+
+        if (enabled) {
+            try {
+                Files.createDirectories(this.directory);
+                if (!continueLastSegment()) {
+                    segmentIndex = TickJournalReader.lastSegmentIndex(this.directory);
+                    nextSegment();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Couldn't open the tick journal in " + directory, e);
+            }
+        }
+    }
+
+    /**
+     * Records a tick accepted by the Coordinator.
+     *
+     * @param key platform and rate name, e.g. {@code PF1_USDTRY}
+     * @param bid the bid
+     * @param ask the ask
+     * @param timestamp the timestamp sent by the platform
+     */
+    public void appendAccepted(String key, double bid, double ask, String timestamp) {
+        append(ACCEPTED, key, bid, ask, timestamp);
+    }
+
+    /**
+     * Records a tick rejected by the Coordinator.
+     *
+     * @param key platform and rate name, e.g. {@code PF1_USDTRY}
+     * @param bid the bid
+     * @param ask the ask
+     * @param timestamp the timestamp sent by the platform
+     */
+    public void appendRejected(String key, double bid, double ask, String timestamp) {
+        append(REJECTED, key, bid, ask, timestamp);
+    }
+
+    private void append(byte type, String key, double bid, double ask, String timestamp) {
+        if (!enabled) {
+            return;
+        }
+        String safeTimestamp = timestamp == null ? "" : timestamp;
+        int keyLength = Math.min(key.length(), MAX_NAME_LENGTH);
+        int timestampLength = Math.min(safeTimestamp.length(), MAX_NAME_LENGTH);
+        int length = (FIXED_LENGTH + keyLength + timestampLength + 3) & ~3;
+        long receivedMillis = System.currentTimeMillis();
+
+        synchronized (this) {
+            // Sonraki kaydin uzunluk alani (0) icin de yer kalmali
+            if (position + length + 4 > segmentBytes) {
+                try {
+                    nextSegment();
+                } catch (IOException e) {
+                    logger.error("Couldn't roll the tick journal, tick {} is not journaled: {}", key, e.getMessage());
+                    return;
+                }
+            }
+
+            MappedByteBuffer buffer = segment;
+            int offset = position + 4;
+            buffer.put(offset++, type);
+            buffer.put(offset++, (byte) keyLength);
+            offset = putAscii(buffer, offset, key, keyLength);
+            buffer.putDouble(offset, bid);
+            buffer.putDouble(offset + 8, ask);
+            buffer.putLong(offset + 16, receivedMillis);
+            offset += 24;
+            buffer.put(offset++, (byte) timestampLength);
+            putAscii(buffer, offset, safeTimestamp, timestampLength);
+
+            LENGTH.setRelease(buffer, position, length);
+            position += length;
+        }
+    }
+
+    private static int putAscii(MappedByteBuffer buffer, int offset, String value, int length) {
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            buffer.put(offset + i, c < 128 ? (byte) c : (byte) '?');
+        }
+        return offset + length;
+    }
+
+    /**
+     * Maps the last segment file and moves after its last complete record.
+     *
+     * @return {@code false} if there is no segment, or the last one has a different size than {@code segmentBytes}
+     */
+    private boolean continueLastSegment() throws IOException {
+        List<Path> segments = TickJournalReader.segmentFiles(directory);
+        if (segments.isEmpty()) {
+            return false;
+        }
+        Path file = segments.get(segments.size() - 1);
+        if (Files.size(file) != segmentBytes) {
+            return false;
+        }
+
+        MappedByteBuffer last;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            last = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+        last.order(ByteOrder.LITTLE_ENDIAN);
+
+        // Uzunluk alani en son yazildigi icin 0 olan ilk alan yazilan verinin sonudur
+        int end = 0;
+        while (end + 4 <= segmentBytes) {
+            int length = (int) LENGTH.getAcquire(last, end);
+            if (length <= 0 || end + length > segmentBytes) {
+                break;
+            }
+            end += length;
+        }
+
+        segment = last;
+        segmentIndex = TickJournalReader.segmentIndex(file);
+        position = end;
+        logger.info("Tick journal continues segment {} at byte {}", file, end);
+        return true;
+    }
+
+    /**
+     * Forces the current segment to disk and maps the next one. Called with the lock held.
+     */
+    private void nextSegment() throws IOException {
+        if (segment != null) {
+            segment.force();
+        }
+        segmentIndex++;
+        Path file = directory.resolve(TickJournalReader.segmentName(segmentIndex));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // Kanal kapansa da mapping gecerli kalir
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+        segment.order(ByteOrder.LITTLE_ENDIAN);
+        position = 0;
+        logger.info("Tick journal segment {}", file);
+
+        deleteOldSegments();
+    }
+
+    /**
+     * Deletes the oldest segment files beyond {@link #maxSegments}. Called with the lock held.
+     */
+    private void deleteOldSegments() {
+        if (maxSegments == 0) {
+            return;
+        }
+        try {
+            List<Path> segments = TickJournalReader.segmentFiles(directory);
+            for (int i = 0; i < segments.size() - maxSegments; i++) {
+                Files.deleteIfExists(segments.get(i));
+                logger.info("Deleted tick journal segment {}", segments.get(i));
+            }
+        } catch (IOException e) {
+            logger.error("Couldn't delete old tick journal segments: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Forces the written ticks to disk. Not needed for durability against a JVM crash, only against a crash
+     * of the operating system.
+     */
+    public synchronized void force() {
+        if (segment != null) {
+            segment.force();
+        }
+    }
+
+    /**
+     * @return the directory of the segment files
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @PreDestroy
+    public void close() {
+        force();
+    }
+}
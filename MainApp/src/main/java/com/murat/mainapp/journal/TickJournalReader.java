@@ -0,0 +1,146 @@
+package com.murat.mainapp.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Reads the ticks written by {@link TickJournal}, segment by segment in the order they were written.
+ *
+ * <p>Can be used while the journal is being written; {@link #next(JournalEntry)} returns {@code false} at the end
+ * of the data written so far.</p>
+ *
+ * <p>{@link #main(String[])} prints a journal in the format of {@link com.murat.mainapp.fetcher.ReplayDataFetcher},
+ * e.g. to replay what MainApp received: {@code java -cp MainApp.jar ... TickJournalReader journal > ticks.txt}.</p>
+ */
+public class TickJournalReader implements Closeable {
+
+    private final Iterator<Path> segments;
+
+    private MappedByteBuffer segment;
+    private int position;
+
+    /**
+     * Opens every segment of a journal directory.
+     *
+     * @param directory the journal directory
+     * @throws IOException if the directory cannot be listed
+     */
+    public TickJournalReader(Path directory) throws IOException {
+        this.segments = segmentFiles(directory).iterator();
+    }
+
+    /**
+     * Reads the next tick.
+     *
+     * @param entry the entry to fill
+     * @return {@code false} if there is no more tick
+     * @throws IOException if a segment cannot be mapped
+     */
+    public boolean next(JournalEntry entry) throws IOException {
+        while (true) {
+            if (segment != null && position + 4 <= segment.capacity()) {
+                int length = (int) TickJournal.LENGTH.getAcquire(segment, position);
+                if (length > 0) {
+                    read(position + 4, entry);
+                    position += length;
+                    return true;
+                }
+            }
+            if (!segments.hasNext()) {
+                return false;
+            }
+            open(segments.next());
+        }
+    }
+
+    private void read(int offset, JournalEntry entry) {
+        entry.setAccepted(segment.get(offset++) == TickJournal.ACCEPTED);
+        int keyLength = segment.get(offset++) & 0xFF;
+        entry.setKey(ascii(offset, keyLength));
+        offset += keyLength;
+        entry.setBid(segment.getDouble(offset));
+        entry.setAsk(segment.getDouble(offset + 8));
+        entry.setReceivedMillis(segment.getLong(offset + 16));
+        offset += 24;
+        int timestampLength = segment.get(offset++) & 0xFF;
+        entry.setTimestamp(ascii(offset, timestampLength));
+    }
+
+    private String ascii(int offset, int length) {
+        byte[] bytes = new byte[length];
+        segment.get(offset, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    private void open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        segment.order(ByteOrder.LITTLE_ENDIAN);
+        position = 0;
+    }
+
+    @Override
+    public void close() {
+        segment = null;
+    }
+
+    static String segmentName(long index) {
+        return String.format("%s%020d%s", TickJournal.SEGMENT_PREFIX, index, TickJournal.SEGMENT_SUFFIX);
+    }
+
+    /**
+     * @return the segment files of a journal sorted by index (the zero padded names sort by index)
+     */
+    static List<Path> segmentFiles(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(TickJournalReader::isSegment).sorted().toList();
+        }
+    }
+
+    static long lastSegmentIndex(Path directory) throws IOException {
+        List<Path> segments = segmentFiles(directory);
+        return segments.isEmpty() ? 0 : segmentIndex(segments.get(segments.size() - 1));
+    }
+
+    /**
+     * @return the index of a segment file, e.g. {@code 1} for {@code ticks-00000000000000000001.dat}
+     */
+    static long segmentIndex(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(TickJournal.SEGMENT_PREFIX.length(), name.length() - TickJournal.SEGMENT_SUFFIX.length()));
+    }
+
+    private static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(TickJournal.SEGMENT_PREFIX) && name.endsWith(TickJournal.SEGMENT_SUFFIX)
+                && name.length() == TickJournal.SEGMENT_PREFIX.length() + 20 + TickJournal.SEGMENT_SUFFIX.length();
+    }
+
+    /**
+     * Prints the ticks of a journal, accepted ones as replay lines and rejected ones as comments.
+     *
+     * @param args the journal directory, {@code journal} by default
+     */
+    public static void main(String[] args) throws IOException {
+        JournalEntry entry = new JournalEntry();
+        try (TickJournalReader reader = new TickJournalReader(Path.of(args.length > 0 ? args[0] : "journal"))) {
+            while (reader.next(entry)) {
+                System.out.println(entry.isAccepted() ? entry.toReplayLine() : "# rejected " + entry.toReplayLine());
+            }
+        }
+    }
+}
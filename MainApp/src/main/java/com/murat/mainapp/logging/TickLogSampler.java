@@ -0,0 +1,38 @@
+package com.murat.mainapp.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides which ticks are logged when logging every tick would cost more than processing it.
+ *
+ * <p>With a sample rate of {@code N} the first tick and then every {@code N}th tick is logged, the others are
+ * only counted. A rate of {@code 1} (or less) logs every tick. The check is a single atomic increment, so the
+ * ticks which are not logged don't build a message at all.</p>
+ */
+public final class TickLogSampler {
+
+    private final int sampleRate;
+
+    private final AtomicLong ticks = new AtomicLong();
+
+    /**
+     * @param sampleRate one of every {@code sampleRate} ticks is logged
+     */
+    public TickLogSampler(int sampleRate) {
+        this.sampleRate = Math.max(1, sampleRate);
+    }
+
+    /**
+     * @return {@code true} if the current tick should be logged
+     */
+    public boolean sample() {
+        return sampleRate == 1 || ticks.getAndIncrement() % sampleRate == 0;
+    }
+
+    /**
+     * @return the sample rate
+     */
+    public int getSampleRate() {
+        return sampleRate;
+    }
+}
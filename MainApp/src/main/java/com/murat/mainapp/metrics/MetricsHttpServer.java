@@ -0,0 +1,96 @@
+package com.murat.mainapp.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves the meters of the {@link PrometheusMeterRegistry} at {@code http://host:metrics.port/metrics} in the
+ * Prometheus text format.
+ *
+ * <p>MainApp is not a web application, so the JDK {@link HttpServer} is used instead of Spring MVC and Actuator.
+ * Every scrape is handled on a virtual thread.</p>
+ */
+@Component
+public class MetricsHttpServer {
+
+    private static final Logger logger = LogManager.getLogger(MetricsHttpServer.class);
+
+    private final PrometheusMeterRegistry registry;
+    private final boolean enabled;
+    private final int port;
+
+    private HttpServer server;
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param registry the registry to serve
+     * @param enabled {@code false} to not start the server
+     * @param port the port of the server
+     */
+    public MetricsHttpServer(PrometheusMeterRegistry registry,
+                             @Value("${metrics.enabled:true}") boolean enabled,
+                             @Value("${metrics.port:9464}") int port) {
+        this.registry = registry;
+        this.enabled = enabled;
+        this.port = port;
+    }
+
+    /**
+     * Starts the server, a port which is already in use is logged and does not stop the application.
+     */
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            server = HttpServer.create(new InetSocketAddress(port), 0);
+            server.createContext("/metrics", this::scrape);
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            server.start();
+            logger.info("Serving metrics on port {}", port);
+        } catch (IOException e) {
+            logger.error("Couldn't start the metrics server on port {}: {}", port, e.getMessage());
+        }
+    }
+
+    /**
+     * Stops the server.
+     */
+    @PreDestroy
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    /**
+     * @return the port the server listens on, {@code -1} if it is not running
+     */
+    public int getPort() {
+        return server == null ? -1 : server.getAddress().getPort();
+    }
+
+    private void scrape(HttpExchange exchange) throws IOException {
+        byte[] body = registry.scrape().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.murat.mainapp.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Meters of the rate pipeline, registered in the application's {@link MeterRegistry}.
+ *
+ * <ul>
+ *     <li>{@code rate.ticks{platform}}: raw rates accepted from a platform</li>
+ *     <li>{@code rate.rejected{platform,reason}}: raw rates rejected by the validator {@code reason} of the
+ *     {@link com.murat.mainapp.validation.TickValidatorChain}</li>
+ *     <li>{@code rate.pipeline.latency{platform}}: time from the fetcher callback (the parsed rate) until the rate
+ *     is handed to the Kafka producer, as Prometheus histogram buckets between 500 ns and 100 ms, so percentiles
+ *     can be aggregated over instances with {@code histogram_quantile}</li>
+ *     <li>{@code ratebook.reads{result=hit|miss}}: raw rates with or without a recent quote in the
+ *     {@link com.murat.mainapp.ratebook.ConsolidatedQuoteBook} while calculating</li>
+ *     <li>{@code fetcher.connected{platform}}: 1 while the platform is connected, 0 otherwise</li>
+ * </ul>
+ *
+ * <p>The Kafka send latency is measured by {@link com.murat.mainapp.service.KafkaProducerService}. Meters of a
+ * platform are created once and cached, recording a tick does not look anything up in the registry.</p>
+ */
+@Component
+public class RateMetrics {
+
+    private final MeterRegistry registry;
+
+    private final Map<String, PlatformMeters> platforms = new ConcurrentHashMap<>();
+
+    private final Map<String, AtomicInteger> connectionStates = new ConcurrentHashMap<>();
+
+    private final Counter rateBookHits;
+    private final Counter rateBookMisses;
+
+    /**
+     * Meters of one platform.
+     */
+    public final class PlatformMeters {
+
+        private final String platformName;
+
+        private final Counter ticks;
+
+        private final Timer latency;
+
+        /**
+         * Rejection reason - rejected raw rates
+         */
+        private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+
+        private PlatformMeters(String platformName, Counter ticks, Timer latency) {
+            this.platformName = platformName;
+            this.ticks = ticks;
+            this.latency = latency;
+        }
+
+        /**
+         * @param reason the name of the validator which rejected the rate
+         * @return the counter of the rates of the platform rejected for the reason
+         */
+        public Counter rejected(String reason) {
+            Counter counter = rejections.get(reason);
+            return counter != null ? counter : rejections.computeIfAbsent(reason, key -> Counter.builder("rate.rejected")
+                    .description("Raw rates rejected by the tick validation")
+                    .tag("platform", platformName)
+                    .tag("reason", key)
+                    .register(registry));
+        }
+
+        /**
+         * Records an accepted raw rate.
+         *
+         * @param startNanos {@link System#nanoTime()} when the rate was received
+         */
+        public void accepted(long startNanos) {
+            ticks.increment();
+            latency.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * @param registry the registry of the application
+     */
+    public RateMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.rateBookHits = Counter.builder("ratebook.reads")
+                .description("Raw rates with a recent consolidated quote while calculating")
+                .tag("result", "hit")
+                .register(registry);
+        this.rateBookMisses = Counter.builder("ratebook.reads")
+                .description("Raw rates with a recent consolidated quote while calculating")
+                .tag("result", "miss")
+                .register(registry);
+    }
+
+    /**
+     * @param platformName the platform name
+     * @return the meters of the platform, created on first use
+     */
+    public PlatformMeters platform(String platformName) {
+        PlatformMeters meters = platforms.get(platformName);
+        return meters != null ? meters : platforms.computeIfAbsent(platformName, this::createMeters);
+    }
+
+    /**
+     * Records a {@link com.murat.mainapp.ratebook.RateBook} read.
+     *
+     * @param hit {@code true} if the rate was found
+     */
+    public void rateBookRead(boolean hit) {
+        (hit ? rateBookHits : rateBookMisses).increment();
+    }
+
+    /**
+     * Updates the {@code fetcher.connected} gauge of a platform.
+     *
+     * @param platformName the platform name
+     * @param connected {@code true} if the platform is connected
+     */
+    public void connectionState(String platformName, boolean connected) {
+        connectionStates.computeIfAbsent(platformName, name -> {
+            AtomicInteger state = new AtomicInteger();
+            Gauge.builder("fetcher.connected", state, AtomicInteger::get)
+                    .description("1 while the platform is connected")
+                    .tag("platform", name)
+                    .register(registry);
+            return state;
+        }).set(connected ? 1 : 0);
+    }
+
+    private PlatformMeters createMeters(String platformName) {
+        Counter ticks = Counter.builder("rate.ticks")
+                .description("Raw rates accepted from the platform")
+                .tag("platform", platformName)
+                .register(registry);
+        Timer latency = Timer.builder("rate.pipeline.latency")
+                .description("Time from the fetcher callback until the rate is handed to the Kafka producer")
+                .tag("platform", platformName)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(500))
+                .maximumExpectedValue(Duration.ofMillis(100))
+                .register(registry);
+        return new PlatformMeters(platformName, ticks, latency);
+    }
+}
@@ -0,0 +1,23 @@
+package com.murat.mainapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response of the bulk rate endpoint of RESTDataProducer, {@code GET api/rates?pairs=...}.
+ *
+ * <p>{@code sequence} is the latest update sequence number of the platform, only the rates updated after the
+ * sequence sent by the client are in {@code rates}.</p>
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class RateBatch {
+
+    private long sequence;
+
+    private List<Rate> rates;
+}
@@ -0,0 +1,76 @@
+package com.murat.mainapp.pipeline;
+
+import com.murat.mainapp.model.Rate;
+import lombok.Getter;
+
+/**
+ * Preallocated slot of the {@link TickPipeline} ring buffer.
+ *
+ * <p>The ring buffer creates its events once at start-up; a fetcher thread claims the next slot, copies the tick
+ * into it and publishes it, so publishing a tick allocates nothing. An event is reused when the ring wraps and must
+ * not be kept by the {@link TickHandler} after {@link TickHandler#onTick(TickEvent, boolean)} returns.</p>
+ */
+@Getter
+public class TickEvent {
+
+    /**
+     * What the event asks the {@link TickHandler} to do
+     */
+    public enum Type {
+        /**
+         * First rate of a platform - rate pair, see {@code onRateAvailable}
+         */
+        RATE_AVAILABLE,
+        /**
+         * Later rate of a platform - rate pair, see {@code onRateUpdate}
+         */
+        RATE_UPDATE,
+        /**
+         * Periodic recalculation of the derived rates, carries no rate
+         */
+        CALCULATE
+    }
+
+    private Type type;
+
+    private String platformName;
+
+    private String rateName;
+
+    private double bid;
+
+    private double ask;
+
+    private String timestamp;
+
+    /**
+     * {@link System#nanoTime()} when the fetcher published the tick
+     */
+    private long receivedNanos;
+
+    void set(Type type, String platformName, String rateName, double bid, double ask, String timestamp) {
+        this.type = type;
+        this.platformName = platformName;
+        this.rateName = rateName;
+        this.bid = bid;
+        this.ask = ask;
+        this.timestamp = timestamp;
+        this.receivedNanos = System.nanoTime();
+    }
+
+    /**
+     * Drops the references of the handled tick, so the ring buffer does not keep them alive.
+     */
+    void clear() {
+        platformName = null;
+        rateName = null;
+        timestamp = null;
+    }
+
+    /**
+     * @return a new {@link Rate} with the values of the tick, safe to keep after the event is reused
+     */
+    public Rate toRate() {
+        return new Rate(rateName, bid, ask, timestamp);
+    }
+}
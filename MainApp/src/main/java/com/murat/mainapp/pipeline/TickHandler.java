@@ -0,0 +1,17 @@
+package com.murat.mainapp.pipeline;
+
+/**
+ * Consumer of the {@link TickPipeline}, called on the single pipeline thread.
+ */
+@FunctionalInterface
+public interface TickHandler {
+
+    /**
+     * Handles a tick.
+     *
+     * @param event the tick, only valid during the call
+     * @param endOfBatch {@code true} for the last event currently available in the ring buffer; work which can be
+     *                   shared by every tick of the batch, like recalculating derived rates, is done here
+     */
+    void onTick(TickEvent event, boolean endOfBatch);
+}
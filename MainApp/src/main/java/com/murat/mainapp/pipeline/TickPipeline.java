@@ -0,0 +1,237 @@
+package com.murat.mainapp.pipeline;
+
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.BusySpinWaitStrategy;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.ExceptionHandler;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.TimeoutException;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.YieldingWaitStrategy;
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+import com.murat.ratecodec.model.RateMessage;
+import com.murat.mainapp.service.KafkaProducerService;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Two-stage ring buffer pipeline between the fetchers, the {@link com.murat.mainapp.coordinator.Coordinator} and
+ * Kafka, built on the LMAX Disruptor.
+ *
+ * <ol>
+ *     <li><b>Ingest</b>: every fetcher thread publishes its ticks into one multi-producer ring buffer of preallocated
+ *     {@link TickEvent}s. A single {@code tick-pipeline} thread hands them to the {@link TickHandler} in the order
+ *     they were published, so validation, the rate book, the journal and the calculation of derived rates are only
+ *     ever touched by one thread.</li>
+ *     <li><b>Publish</b>: the messages created by the handler are passed through a single-producer ring buffer to a
+ *     {@code kafka-publisher} thread which hands them to {@link KafkaProducerService}. Serializing and handing a
+ *     record to the Kafka producer never delays the next tick; the producer groups the records of a batch into
+ *     record batches ({@code kafka.producer.linger-ms}).</li>
+ * </ol>
+ *
+ * <p>A full ring buffer makes the publishing thread wait, which slows down a fetcher instead of dropping ticks.
+ * With {@code pipeline.enabled=false} nothing is started and the fetchers call the Coordinator directly.</p>
+ */
+@Component
+public class TickPipeline {
+
+    private static final Logger logger = LogManager.getLogger(TickPipeline.class);
+
+    private final KafkaProducerService kafkaProducerService;
+
+    private final boolean enabled;
+
+    private final int ringSize;
+
+    private final String waitStrategy;
+
+    private Disruptor<TickEvent> ingest;
+
+    private Disruptor<OutgoingMessage> publish;
+
+    private RingBuffer<TickEvent> ticks;
+
+    private RingBuffer<OutgoingMessage> messages;
+
+    /**
+     * Slot of the publish ring buffer
+     */
+    private static final class OutgoingMessage {
+        private RateMessage message;
+    }
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param kafkaProducerService the service the publish stage sends the messages with
+     * @param enabled {@code false} to process the ticks on the fetcher threads
+     * @param ringSize the number of slots of each ring buffer, a power of 2
+     * @param waitStrategy how the pipeline threads wait for events: {@code blocking} (default), {@code yielding} or
+     *                     {@code busy-spin}; the last two keep a core busy for lower latency
+     */
+    public TickPipeline(KafkaProducerService kafkaProducerService,
+                        @Value("${pipeline.enabled:true}") boolean enabled,
+                        @Value("${pipeline.ring-size:65536}") int ringSize,
+                        @Value("${pipeline.wait-strategy:blocking}") String waitStrategy) {
+        this.kafkaProducerService = kafkaProducerService;
+        this.enabled = enabled;
+        this.ringSize = ringSize;
+        this.waitStrategy = waitStrategy;
+    }
+
+    /**
+     * @return {@code true} if ticks have to be published to the pipeline
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts both stages.
+     *
+     * @param handler the consumer of the ticks
+     * @throws IllegalArgumentException if the ring size is not a power of 2 or the wait strategy is unknown
+     */
+    public synchronized void start(TickHandler handler) {
+        if (!enabled || ingest != null) {
+            return;
+        }
+
+        publish = new Disruptor<>(OutgoingMessage::new, ringSize, threadFactory("kafka-publisher"),
+                ProducerType.SINGLE, waitStrategy());
+        publish.handleEventsWith((EventHandler<OutgoingMessage>) (event, sequence, endOfBatch) -> {
+            RateMessage message = event.message;
+            event.message = null;
+            kafkaProducerService.sendMessage(message);
+        });
+        publish.setDefaultExceptionHandler(new LoggingExceptionHandler<>());
+        messages = publish.start();
+
+        ingest = new Disruptor<>(TickEvent::new, ringSize, threadFactory("tick-pipeline"),
+                ProducerType.MULTI, waitStrategy());
+        ingest.handleEventsWith((EventHandler<TickEvent>) (event, sequence, endOfBatch) -> {
+            try {
+                handler.onTick(event, endOfBatch);
+            } finally {
+                event.clear();
+            }
+        });
+        ingest.setDefaultExceptionHandler(new LoggingExceptionHandler<>());
+        ticks = ingest.start();
+
+        logger.info("Tick pipeline started, ring size {}, {} wait strategy", ringSize, waitStrategy);
+    }
+
+    /**
+     * Publishes the first rate of a platform - rate pair. Called by any fetcher thread.
+     */
+    public void publishAvailable(String platformName, String rateName, double bid, double ask, String timestamp) {
+        publishTick(TickEvent.Type.RATE_AVAILABLE, platformName, rateName, bid, ask, timestamp);
+    }
+
+    /**
+     * Publishes a later rate of a platform - rate pair. Called by any fetcher thread.
+     */
+    public void publishUpdate(String platformName, String rateName, double bid, double ask, String timestamp) {
+        publishTick(TickEvent.Type.RATE_UPDATE, platformName, rateName, bid, ask, timestamp);
+    }
+
+    /**
+     * Asks the pipeline thread to recalculate the derived rates, e.g. from a timer.
+     */
+    public void requestCalculation() {
+        publishTick(TickEvent.Type.CALCULATE, null, null, Double.NaN, Double.NaN, null);
+    }
+
+    /**
+     * Passes a message to the publish stage. Must only be called by the {@link TickHandler}, i.e. on the pipeline
+     * thread, since the publish ring buffer has a single producer.
+     *
+     * @param message the message to send to Kafka
+     */
+    public void publish(RateMessage message) {
+        long sequence = messages.next();
+        try {
+            messages.get(sequence).message = message;
+        } finally {
+            messages.publish(sequence);
+        }
+    }
+
+    /**
+     * Stops both stages after the events already published are handled.
+     */
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (ingest == null) {
+            return;
+        }
+        halt(ingest, "tick-pipeline");
+        halt(publish, "kafka-publisher");
+        ingest = null;
+    }
+
+    private void publishTick(TickEvent.Type type, String platformName, String rateName,
+                             double bid, double ask, String timestamp) {
+        long sequence = ticks.next();
+        try {
+            ticks.get(sequence).set(type, platformName, rateName, bid, ask, timestamp);
+        } finally {
+            ticks.publish(sequence);
+        }
+    }
+
+    private WaitStrategy waitStrategy() {
+        return switch (waitStrategy) {
+            case "blocking" -> new BlockingWaitStrategy();
+            case "yielding" -> new YieldingWaitStrategy();
+            case "busy-spin" -> new BusySpinWaitStrategy();
+            default -> throw new IllegalArgumentException("Unknown pipeline wait strategy: " + waitStrategy);
+        };
+    }
+
+    private static void halt(Disruptor<?> disruptor, String name) {
+        try {
+            disruptor.shutdown(5, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("Stage {} did not drain in time, halting it", name);
+            disruptor.halt();
+        }
+    }
+
+    private static ThreadFactory threadFactory(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Logs a failed event and continues with the next one; the default handler would stop the stage.
+     */
+    private static final class LoggingExceptionHandler<T> implements ExceptionHandler<T> {
+
+        @Override
+        public void handleEventException(Throwable e, long sequence, T event) {
+            logger.error("Error while handling pipeline event {}: {}", sequence, e.toString());
+        }
+
+        @Override
+        public void handleOnStartException(Throwable e) {
+            logger.error("Error while starting the pipeline: {}", e.toString());
+        }
+
+        @Override
+        public void handleOnShutdownException(Throwable e) {
+            logger.error("Error while stopping the pipeline: {}", e.toString());
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.murat.mainapp.ratebook;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Consolidated view of a rate over every platform: the latest quote of each platform with its age, the best bid,
+ * the best offer and a staleness-weighted bid, ask and mid.
+ *
+ * <p>An update of a platform quote recomputes the consolidated values of its rate only, in O(platforms); no other
+ * rate is touched. Each quote is weighted by {@code 2^(-age / half-life)}, so a platform which stopped sending
+ * fades out instead of weighing as much as a live one, and quotes older than {@code max-age} are left out. Because
+ * the decay is exponential, letting time pass multiplies every weight by the same factor and the weighted values
+ * computed at the last update stay exact; they are only recomputed on read once their oldest quote expires.</p>
+ *
+ * <p>Ages are measured with {@link System#nanoTime()} from the moment the quote was accepted, not from the
+ * platform timestamp, so clock differences between the platforms don't matter.</p>
+ */
+@Component
+public class ConsolidatedQuoteBook {
+
+    private static final double LN2 = Math.log(2);
+
+    private final int maxPlatforms;
+    private final long maxAgeNanos;
+
+    /**
+     * {@code ln(2) / half-life} in 1/ns, 0 to weigh every quote equally
+     */
+    private final double decayPerNano;
+
+    private final ConcurrentHashMap<String, Integer> platformIds = new ConcurrentHashMap<>();
+    private final AtomicInteger nextPlatformId = new AtomicInteger();
+    private final String[] platformNames;
+
+    private final ConcurrentHashMap<String, Quotes> quotes = new ConcurrentHashMap<>();
+
+    /**
+     * A consolidated quote.
+     *
+     * @param rateName the rate name
+     * @param bestBid the highest bid of the platforms
+     * @param bestBidPlatform the platform quoting {@code bestBid}
+     * @param bestAsk the lowest ask of the platforms
+     * @param bestAskPlatform the platform quoting {@code bestAsk}
+     * @param bid the staleness-weighted bid
+     * @param ask the staleness-weighted ask
+     * @param platforms the number of platforms with a quote younger than {@code max-age}
+     */
+    public record Quote(String rateName, double bestBid, String bestBidPlatform, double bestAsk,
+                        String bestAskPlatform, double bid, double ask, int platforms) {
+
+        /**
+         * @return the staleness-weighted mid
+         */
+        public double mid() {
+            return (bid + ask) / 2;
+        }
+    }
+
+    /**
+     * Latest quotes of one rate, indexed by platform id, and their consolidated values.
+     * Guarded by {@link #lock}; a fetcher thread may update while the calculation reads.
+     */
+    private static final class Quotes {
+
+        // synchronized sanal thread'i carrier thread'e sabitler, bu yuzden ReentrantLock
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private final double[] bids;
+        private final double[] asks;
+        private final long[] updateNanos;
+        private final boolean[] present;
+
+        private double bestBid;
+        private int bestBidPlatform;
+        private double bestAsk;
+        private int bestAskPlatform;
+        private double weightedBid;
+        private double weightedAsk;
+        private int count;
+
+        /**
+         * Update time of the oldest quote in the consolidated values
+         */
+        private long oldestNanos;
+
+        private Quotes(int maxPlatforms) {
+            bids = new double[maxPlatforms];
+            asks = new double[maxPlatforms];
+            updateNanos = new long[maxPlatforms];
+            present = new boolean[maxPlatforms];
+        }
+    }
+
+    /**
+     * @param maxPlatforms the maximum number of platforms
+     * @param maxAgeMillis quotes older than this are left out, must be above the update interval of the slowest
+     *                     platform or its quote is left out between two of its ticks
+     * @param halfLifeMillis age at which a quote weighs half as much as a new one, 0 to weigh every quote equally
+     */
+    public ConsolidatedQuoteBook(@Value("${quotebook.max-platforms:16}") int maxPlatforms,
+                                 @Value("${quotebook.max-age-ms:65000}") long maxAgeMillis,
+                                 @Value("${quotebook.half-life-ms:30000}") long halfLifeMillis) {
+        this.maxPlatforms = maxPlatforms;
+        this.maxAgeNanos = maxAgeMillis * 1_000_000;
+        this.decayPerNano = halfLifeMillis > 0 ? LN2 / (halfLifeMillis * 1_000_000.0) : 0;
+        this.platformNames = new String[maxPlatforms];
+    }
+
+    /**
+     * Replaces the quote of a platform and recomputes the consolidated values of the rate.
+     *
+     * @param platformName the platform name
+     * @param rateName the rate name
+     * @param bid the bid
+     * @param ask the ask
+     * @param nowNanos {@link System#nanoTime()} of the update
+     * @throws IllegalStateException if there are more than {@code max-platforms} platforms
+     */
+    public void update(String platformName, String rateName, double bid, double ask, long nowNanos) {
+        int platform = platformId(platformName);
+        Quotes rate = quotes.computeIfAbsent(rateName, k -> new Quotes(maxPlatforms));
+        rate.lock.lock();
+        try {
+            rate.bids[platform] = bid;
+            rate.asks[platform] = ask;
+            rate.updateNanos[platform] = nowNanos;
+            rate.present[platform] = true;
+            consolidate(rate, nowNanos);
+        } finally {
+            rate.lock.unlock();
+        }
+    }
+
+    /**
+     * Removes every quote of a platform, e.g. when it disconnects.
+     *
+     * @param platformName the platform name
+     */
+    public void removePlatform(String platformName) {
+        Integer platform = platformIds.get(platformName);
+        if (platform == null) {
+            return;
+        }
+        long nowNanos = System.nanoTime();
+        for (Quotes rate : quotes.values()) {
+            rate.lock.lock();
+            try {
+                if (rate.present[platform]) {
+                    rate.present[platform] = false;
+                    consolidate(rate, nowNanos);
+                }
+            } finally {
+                rate.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Reads the staleness-weighted bid and ask of a rate without allocating.
+     *
+     * @param rateName the rate name
+     * @param nowNanos {@link System#nanoTime()} of the read
+     * @param bidAsk receives the weighted bid and ask
+     * @return {@code false} if no platform has a quote younger than {@code max-age}
+     */
+    public boolean read(String rateName, long nowNanos, double[] bidAsk) {
+        Quotes rate = quotes.get(rateName);
+        if (rate == null) {
+            return false;
+        }
+        rate.lock.lock();
+        try {
+            refresh(rate, nowNanos);
+            if (rate.count == 0) {
+                return false;
+            }
+            bidAsk[0] = rate.weightedBid;
+            bidAsk[1] = rate.weightedAsk;
+            return true;
+        } finally {
+            rate.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the consolidated quote of a rate.
+     *
+     * @param rateName the rate name
+     * @param nowNanos {@link System#nanoTime()} of the read
+     * @return the quote, or {@code null} if no platform has a quote younger than {@code max-age}
+     */
+    public Quote get(String rateName, long nowNanos) {
+        Quotes rate = quotes.get(rateName);
+        if (rate == null) {
+            return null;
+        }
+        rate.lock.lock();
+        try {
+            refresh(rate, nowNanos);
+            if (rate.count == 0) {
+                return null;
+            }
+            return new Quote(rateName, rate.bestBid, platformNames[rate.bestBidPlatform], rate.bestAsk,
+                    platformNames[rate.bestAskPlatform], rate.weightedBid, rate.weightedAsk, rate.count);
+        } finally {
+            rate.lock.unlock();
+        }
+    }
+
+    /**
+     * Recomputes the consolidated values if their oldest quote has expired since they were computed.
+     * Called with the lock of {@code rate} held.
+     */
+    private void refresh(Quotes rate, long nowNanos) {
+        if (rate.count > 0 && nowNanos - rate.oldestNanos > maxAgeNanos) {
+            consolidate(rate, nowNanos);
+        }
+    }
+
+    /**
+     * Computes the best bid, best ask and weighted values from the quotes of every platform.
+     * Called with the lock of {@code rate} held.
+     */
+    private void consolidate(Quotes rate, long nowNanos) {
+        double bestBid = Double.NaN;
+        double bestAsk = Double.NaN;
+        int bestBidPlatform = -1;
+        int bestAskPlatform = -1;
+        double bidSum = 0;
+        double askSum = 0;
+        double weightSum = 0;
+        int count = 0;
+        long oldestNanos = nowNanos;
+
+        int platforms = Math.min(nextPlatformId.get(), maxPlatforms);
+        for (int platform = 0; platform < platforms; platform++) {
+            if (!rate.present[platform]) {
+                continue;
+            }
+            long age = nowNanos - rate.updateNanos[platform];
+            if (age > maxAgeNanos) {
+                continue;
+            }
+
+            double bid = rate.bids[platform];
+            double ask = rate.asks[platform];
+            if (bestBidPlatform < 0 || bid > bestBid) {
+                bestBid = bid;
+                bestBidPlatform = platform;
+            }
+            if (bestAskPlatform < 0 || ask < bestAsk) {
+                bestAsk = ask;
+                bestAskPlatform = platform;
+            }
+
+            double weight = decayPerNano == 0 ? 1 : Math.exp(-decayPerNano * Math.max(0, age));
+            bidSum += weight * bid;
+            askSum += weight * ask;
+            weightSum += weight;
+            count++;
+            oldestNanos = Math.min(oldestNanos, rate.updateNanos[platform]);
+        }
+
+        rate.bestBid = bestBid;
+        rate.bestBidPlatform = bestBidPlatform;
+        rate.bestAsk = bestAsk;
+        rate.bestAskPlatform = bestAskPlatform;
+        rate.weightedBid = count == 0 ? Double.NaN : bidSum / weightSum;
+        rate.weightedAsk = count == 0 ? Double.NaN : askSum / weightSum;
+        rate.count = count;
+        rate.oldestNanos = oldestNanos;
+    }
+
+    private int platformId(String platformName) {
+        Integer id = platformIds.get(platformName);
+        if (id != null) {
+            return id;
+        }
+        return platformIds.computeIfAbsent(platformName, k -> {
+            int newId = nextPlatformId.getAndIncrement();
+            if (newId >= maxPlatforms) {
+                throw new IllegalStateException("Quote book is full, max platforms " + maxPlatforms);
+            }
+            platformNames[newId] = platformName;
+            return newId;
+        });
+    }
+}
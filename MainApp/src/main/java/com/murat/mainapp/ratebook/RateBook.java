@@ -0,0 +1,274 @@
+package com.murat.mainapp.ratebook;
+
+import com.murat.mainapp.model.Rate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * In-process book holding the latest rate of every (platform, rate name) pair.
+ *
+ * <p>Every pair is interned once into an integer id with {@link #idOf(String, String)}. The bid, ask
+ * and update time of an id live in primitive slots which are updated without locks: each slot is
+ * guarded by a sequence number that is odd while a write is in progress, and readers retry until
+ * they observe the same even sequence before and after reading (seqlock).</p>
+ *
+ * <p>The book is the source of truth for the {@link com.murat.mainapp.coordinator.Coordinator};
+ * Redis is only kept up to date asynchronously through {@link RedisRateMirror}.</p>
+ */
+@Component
+public class RateBook {
+
+    // Slot layout : sequence, bid bits, ask bits, update time (System.nanoTime)
+    private static final int STRIDE = 4;
+    private static final int SEQUENCE = 0;
+    private static final int BID = 1;
+    private static final int ASK = 2;
+    private static final int UPDATE_NANOS = 3;
+
+    private final int capacity;
+
+    /**
+     * platformName - (rateName - id)
+     */
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, Integer>> ids = new ConcurrentHashMap<>();
+
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    private final AtomicLongArray slots;
+
+    private final AtomicReferenceArray<String> timestamps;
+
+    /**
+     * 1 if the slot was updated since the last {@link #takeFresh(int)} call
+     */
+    private final AtomicIntegerArray fresh;
+
+    private final String[] platformNames;
+    private final String[] rateNames;
+    private final String[] keys;
+
+    /**
+     * Constructs a {@code RateBook} with the given number of (platform, rate name) slots.
+     *
+     * @param capacity the maximum number of pairs the book can hold
+     */
+    public RateBook(@Value("${ratebook.capacity:4096}") int capacity) {
+        this.capacity = capacity;
+        this.slots = new AtomicLongArray(capacity * STRIDE);
+        this.timestamps = new AtomicReferenceArray<>(capacity);
+        this.fresh = new AtomicIntegerArray(capacity);
+        this.platformNames = new String[capacity];
+        this.rateNames = new String[capacity];
+        this.keys = new String[capacity];
+    }
+
+    /**
+     * Returns the id of the given pair, registering it on first use.
+     *
+     * @param platformName the name of the platform
+     * @param rateName the name of the rate
+     * @return the id of the pair
+     * @throws IllegalStateException if the book is full
+     */
+    public int idOf(String platformName, String rateName) {
+        ConcurrentHashMap<String, Integer> platformIds = ids.get(platformName);
+        if (platformIds != null) {
+            Integer id = platformIds.get(rateName);
+            if (id != null) {
+                return id;
+            }
+        }
+        return ids.computeIfAbsent(platformName, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(rateName, k -> register(platformName, rateName));
+    }
+
+    private int register(String platformName, String rateName) {
+        int id = nextId.getAndIncrement();
+        if (id >= capacity) {
+            throw new IllegalStateException("Rate book is full, capacity " + capacity);
+        }
+        platformNames[id] = platformName;
+        rateNames[id] = rateName;
+        keys[id] = platformName + "_" + rateName;
+        return id;
+    }
+
+    /**
+     * Stores the latest values of a pair.
+     *
+     * @param id the id of the pair
+     * @param bid the bid value
+     * @param ask the ask value
+     * @param timestamp the timestamp of the rate
+     */
+    public void update(int id, double bid, double ask, String timestamp) {
+        int base = id * STRIDE;
+
+        // Ayni slota yazan baska bir thread varsa bitene kadar bekle
+        long sequence;
+        do {
+            sequence = slots.get(base + SEQUENCE);
+        } while ((sequence & 1) != 0 || !slots.compareAndSet(base + SEQUENCE, sequence, sequence + 1));
+
+        slots.set(base + BID, Double.doubleToRawLongBits(bid));
+        slots.set(base + ASK, Double.doubleToRawLongBits(ask));
+        slots.set(base + UPDATE_NANOS, System.nanoTime());
+        timestamps.set(id, timestamp);
+
+        slots.set(base + SEQUENCE, sequence + 2);
+        fresh.set(id, 1);
+    }
+
+    /**
+     * Stores the latest values of a pair.
+     *
+     * @param id the id of the pair
+     * @param rate the rate to store
+     */
+    public void update(int id, Rate rate) {
+        update(id, rate.getBid(), rate.getAsk(), rate.getTimestamp());
+    }
+
+    /**
+     * Reads a consistent snapshot of a pair into {@code target}.
+     *
+     * @param id the id of the pair
+     * @param target the rate to fill
+     * @return {@code false} if the pair has never been updated, {@code true} otherwise
+     */
+    public boolean read(int id, Rate target) {
+        int base = id * STRIDE;
+        long before;
+        long bid;
+        long ask;
+        String timestamp;
+        do {
+            before = slots.get(base + SEQUENCE);
+            if ((before & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            bid = slots.get(base + BID);
+            ask = slots.get(base + ASK);
+            timestamp = timestamps.get(id);
+            if (slots.get(base + SEQUENCE) == before) {
+                if (before == 0) {
+                    return false;
+                }
+                target.setRateName(rateNames[id]);
+                target.setBid(Double.longBitsToDouble(bid));
+                target.setAsk(Double.longBitsToDouble(ask));
+                target.setTimestamp(timestamp);
+                return true;
+            }
+        } while (true);
+    }
+
+    /**
+     * Returns a snapshot of a pair.
+     *
+     * @param id the id of the pair
+     * @return a new {@link Rate}, or {@code null} if the pair has never been updated
+     */
+    public Rate get(int id) {
+        Rate rate = new Rate();
+        return read(id, rate) ? rate : null;
+    }
+
+    /**
+     * Returns a snapshot of a pair.
+     *
+     * @param platformName the name of the platform
+     * @param rateName the name of the rate
+     * @return a new {@link Rate}, or {@code null} if the pair has never been updated
+     */
+    public Rate get(String platformName, String rateName) {
+        return get(idOf(platformName, rateName));
+    }
+
+    /**
+     * @param id the id of the pair
+     * @return {@code true} if the pair has been updated at least once
+     */
+    public boolean hasValue(int id) {
+        return slots.get(id * STRIDE + SEQUENCE) != 0;
+    }
+
+    /**
+     * @param id the id of the pair
+     * @return the latest bid of the pair
+     */
+    public double bid(int id) {
+        return Double.longBitsToDouble(slots.get(id * STRIDE + BID));
+    }
+
+    /**
+     * @param id the id of the pair
+     * @return the latest ask of the pair
+     */
+    public double ask(int id) {
+        return Double.longBitsToDouble(slots.get(id * STRIDE + ASK));
+    }
+
+    /**
+     * @param id the id of the pair
+     * @return {@link System#nanoTime()} of the latest update
+     */
+    public long updateNanos(int id) {
+        return slots.get(id * STRIDE + UPDATE_NANOS);
+    }
+
+    /**
+     * Clears and returns the fresh flag of a pair.
+     *
+     * @param id the id of the pair
+     * @return {@code true} if the pair was updated since the previous call
+     */
+    public boolean takeFresh(int id) {
+        return fresh.getAndSet(id, 0) == 1;
+    }
+
+    /**
+     * @param id the id of the pair
+     * @return the key of the pair in {@code platformName_rateName} format
+     */
+    public String keyOf(int id) {
+        return keys[id];
+    }
+
+    /**
+     * @param id the id of the pair
+     * @return the platform name of the pair
+     */
+    public String platformOf(int id) {
+        return platformNames[id];
+    }
+
+    /**
+     * @param id the id of the pair
+     * @return the rate name of the pair
+     */
+    public String rateNameOf(int id) {
+        return rateNames[id];
+    }
+
+    /**
+     * @return the maximum number of pairs, ids are always below it
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the number of registered pairs
+     */
+    public int size() {
+        return Math.min(nextId.get(), capacity);
+    }
+}
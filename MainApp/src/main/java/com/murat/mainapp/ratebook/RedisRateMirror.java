@@ -0,0 +1,125 @@
+package com.murat.mainapp.ratebook;
+
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous write-behind mirror of the {@link RateBook} into Redis.
+ *
+ * <p>{@link #mirror(String, String, Object)} only records the latest value of a key in memory. A background
+ * thread writes the pending values to the corresponding {@link Cache} every
+ * {@code ratebook.redis.flush-interval-ms} milliseconds. Several updates of the same key between two
+ * flushes are coalesced into a single Redis write, and Redis latency or outages never reach the
+ * thread calling {@link #mirror(String, String, Object)}.</p>
+ */
+@Component
+public class RedisRateMirror {
+
+    private static final Logger logger = LogManager.getLogger(RedisRateMirror.class);
+
+    /**
+     * How long {@link #shutdown()} waits for a running flush
+     */
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    private final CacheManager cacheManager;
+
+    /**
+     * cacheName - (key - latest value waiting to be written)
+     */
+    private final Map<String, Map<String, Object>> pending = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "redis-mirror");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructs a {@code RedisRateMirror} and starts the periodic flush.
+     *
+     * @param cacheManager the Redis cache manager
+     * @param flushIntervalMs the interval between two flushes in milliseconds
+     */
+    public RedisRateMirror(CacheManager cacheManager,
+                           @Value("${ratebook.redis.flush-interval-ms:100}") long flushIntervalMs) {
+        this.cacheManager = cacheManager;
+        executor.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Records {@code value} to be written to {@code cacheName} under {@code key} on the next flush.
+     *
+     * @param cacheName the name of the cache (e.g. {@code raw_rates})
+     * @param key the cache key
+     * @param value the latest value
+     */
+    public void mirror(String cacheName, String key, Object value) {
+        pending.computeIfAbsent(cacheName, k -> new ConcurrentHashMap<>()).put(key, value);
+    }
+
+    /**
+     * Writes every pending value to Redis.
+     */
+    public void flush() {
+        pending.forEach((cacheName, values) -> {
+            if (values.isEmpty()) {
+                return;
+            }
+
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache == null) {
+                logger.error("No cache found for {}", cacheName);
+                values.clear();
+                return;
+            }
+
+            for (Map.Entry<String, Object> entry : values.entrySet()) {
+                String key = entry.getKey();
+                Object value = entry.getValue();
+                // Sadece yazilan deger hala en guncel ise kaldir, arada gelen guncelleme bir sonraki flush'ta yazilir
+                if (!values.remove(key, value)) {
+                    continue;
+                }
+                try {
+                    cache.put(key, value);
+                } catch (Exception e) {
+                    // Redis'e ulasilamiyorsa degeri geri koy ve bu cache'i bir sonraki flush'a birak
+                    values.putIfAbsent(key, value);
+                    logger.error("Couldn't mirror rates to cache {}: {}", cacheName, e.getMessage());
+                    return;
+                }
+            }
+        });
+    }
+
+    /**
+     * Stops the flush thread, waits for a flush in progress to finish and writes the remaining values.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            // Devam eden flush ile ayni anda yazmamak icin once thread'in bitmesi beklenir
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warn("Redis mirror flush didn't finish in {} seconds", SHUTDOWN_TIMEOUT_SECONDS);
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        flush();
+    }
+}
@@ -1,7 +1,13 @@
 package com.murat.mainapp.service;
 
 import com.murat.mainapp.calculator.RateCalculator;
+import com.murat.mainapp.calculator.batch.BatchRateKernel;
+import com.murat.mainapp.calculator.batch.BatchRateKernels;
+import com.murat.mainapp.calculator.graph.CrossRateFormulas;
+import com.murat.mainapp.calculator.graph.CrossRateGraph;
+import com.murat.mainapp.config.ConfigFiles;
 import com.murat.mainapp.exception.CalculatorNotFoundException;
+import com.murat.mainapp.exception.CrossRateConfigException;
 import com.murat.mainapp.exception.CurrencyNotFoundException;
 import com.murat.mainapp.model.Rate;
 import org.apache.logging.log4j.LogManager;
@@ -9,6 +15,10 @@ import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+
 /**
  * The {@code CurrencyService} class is responsible for calculating currency exchange rates
  * such as USD/TRY, EUR/TRY, and GBP/TRY using a dynamically loaded {@link RateCalculator} implementation.
@@ -16,11 +26,26 @@ import org.springframework.stereotype.Service;
  * This service loads the appropriate rate calculator implementation at runtime based on
  * the provided class name, enabling flexible calculation strategies.
  * </p>
+ * <p>
+ * The derived rates published by the {@link com.murat.mainapp.coordinator.Coordinator} are described by the
+ * {@link CrossRateGraph} loaded from {@code calculation.graph-file}, so a new derived rate is a configuration change.
+ * The graph takes the formulas of its nodes from the configured calculator if it implements {@link CrossRateFormulas},
+ * chosen by the configured type of each node (or, for {@link com.murat.mainapp.calculator.formula.FormulaRateCalculator},
+ * by the formula configured for the node); nodes without one, and every node of a calculator without formulas, use
+ * the formula of their {@link com.murat.mainapp.calculator.graph.CrossRateType}.
+ * </p>
+ * <p>
+ * For recalculating many symbols at once (end of interval, backtests) the batch methods take structure-of-arrays
+ * inputs and write into arrays of the caller, using the Vector API when the JVM has it
+ * (see {@link BatchRateKernels#best()}).
+ * </p>
  *
  */
 @Service
 public class CurrencyService {
     private RateCalculator rateCalculator;
+    private final CrossRateGraph crossRateGraph;
+    private final BatchRateKernel batchKernel;
     private static final Logger logger = LogManager.getLogger(CurrencyService.class);
 
 
@@ -29,15 +54,72 @@ public class CurrencyService {
      * based on the class name provided via application properties.
      *
      * @param className the fully qualified class name of a {@link RateCalculator} implementation.
+     * @param formulaFile passed to the calculator if it has a constructor taking the path of its formula file,
+     *                    e.g. {@link com.murat.mainapp.calculator.formula.FormulaRateCalculator}.
+     * @param graphFile the cross-rate graph file, a file path or a classpath resource.
      * @throws CalculatorNotFoundException if the class cannot be loaded or instantiated.
+     * @throws CrossRateConfigException if the graph cannot be loaded or is invalid.
      */
-    public CurrencyService(@Value("${calculator.class}")String className) {
+    public CurrencyService(@Value("${calculator.class}")String className,
+                           @Value("${calculator.formula-file:formulas.yml}") String formulaFile,
+                           @Value("${calculation.graph-file:crossrates.yml}") String graphFile) {
         try{
             Class<?> clazz = Class.forName(className);
-            rateCalculator = (RateCalculator) clazz.getDeclaredConstructor().newInstance();
+            rateCalculator = (RateCalculator) newCalculator(clazz, formulaFile);
+        } catch (InvocationTargetException e) {
+            // Hesaplayicinin kendi hatasi (ornegin gecersiz formul) gizlenmesin
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new CalculatorNotFoundException("Couldn't load the calculator class " + className);
         } catch (Exception e) {
             throw new CalculatorNotFoundException("Couldn't load the calculator class " + className);
         }
+        CrossRateFormulas formulas = null;
+        if (rateCalculator instanceof CrossRateFormulas calculatorFormulas) {
+            formulas = calculatorFormulas;
+        } else {
+            logger.warn("Calculator {} doesn't implement CrossRateFormulas, the derived rates use the formulas of "
+                    + "their types", className);
+        }
+        crossRateGraph = loadGraph(graphFile, formulas);
+        logger.info("Cross rate graph loaded from {}, evaluation order {}", graphFile, crossRateGraph.rateNames());
+        batchKernel = BatchRateKernels.best();
+        logger.info("Batch calculations use the {} kernel", batchKernel.name());
+    }
+
+    /**
+     * Creates the calculator with its {@code (String formulaFile)} constructor if it has one, otherwise with the
+     * no-argument constructor.
+     */
+    private static Object newCalculator(Class<?> clazz, String formulaFile) throws ReflectiveOperationException {
+        try {
+            return clazz.getDeclaredConstructor(String.class).newInstance(formulaFile);
+        } catch (NoSuchMethodException e) {
+            return clazz.getDeclaredConstructor().newInstance();
+        }
+    }
+
+    /**
+     * Loads the graph from the file system, or from the classpath if there is no such file.
+     * Nodes use the formulas of the calculator if it provides them.
+     */
+    private static CrossRateGraph loadGraph(String graphFile, CrossRateFormulas formulas) {
+        try (InputStream in = ConfigFiles.open(graphFile)) {
+            if (in == null) {
+                throw new CrossRateConfigException("Couldn't find the cross rate graph " + graphFile);
+            }
+            return CrossRateGraph.load(in, formulas);
+        } catch (IOException e) {
+            throw new CrossRateConfigException("Couldn't read the cross rate graph " + graphFile);
+        }
+    }
+
+    /**
+     * @return the compiled graph of the derived rates
+     */
+    public CrossRateGraph getCrossRateGraph() {
+        return crossRateGraph;
     }
 
     /**
@@ -124,4 +206,90 @@ public class CurrencyService {
 
         return rateCalculator.calculateGBPTRY(rateUSDTRY,rate1,rate2);
     }
+
+    /**
+     * Averages two platform rates for {@code count} symbols, e.g. USD/TRY as in {@link #calculateUSDTRY(Rate, Rate)}.
+     *
+     * @param bids1 bids of the first platform
+     * @param asks1 asks of the first platform
+     * @param bids2 bids of the second platform
+     * @param asks2 asks of the second platform
+     * @param outBids receives the calculated bids
+     * @param outAsks receives the calculated asks
+     * @param count the number of symbols
+     * @throws IllegalArgumentException if an array is shorter than {@code count}
+     */
+    public void calculateAverages(double[] bids1, double[] asks1, double[] bids2, double[] asks2,
+                                  double[] outBids, double[] outAsks, int count) {
+        checkLength(count, bids1, asks1, bids2, asks2, outBids, outAsks);
+        batchKernel.average(bids1, asks1, bids2, asks2, outBids, outAsks, count);
+    }
+
+    /**
+     * Calculates {@code count} cross rates against the same base, e.g. XXX/TRY = mid(USD/TRY) * XXX/USD
+     * as in {@link #calculateEURTRY(Rate, Rate, Rate)}.
+     *
+     * @param base the base rate, e.g. the calculated USD/TRY
+     * @param bids bids of the crossed rates, e.g. XXX/USD
+     * @param asks asks of the crossed rates
+     * @param outBids receives the calculated bids
+     * @param outAsks receives the calculated asks
+     * @param count the number of symbols
+     * @throws CurrencyNotFoundException if {@code base} is {@code null}
+     * @throws IllegalArgumentException if an array is shorter than {@code count}
+     */
+    public void calculateCrosses(Rate base, double[] bids, double[] asks, double[] outBids, double[] outAsks, int count) {
+        if (base == null) {
+            throw new CurrencyNotFoundException("Couldn't calculate rates, base is null");
+        }
+        checkLength(count, bids, asks, outBids, outAsks);
+        batchKernel.cross(base.getBid(), base.getAsk(), bids, asks, outBids, outAsks, count);
+    }
+
+    /**
+     * Calculates {@code count} cross rates each with its own base, e.g. a EUR/TRY series from USD/TRY
+     * and EUR/USD series in a backtest.
+     *
+     * @param baseBids bids of the base rates
+     * @param baseAsks asks of the base rates
+     * @param bids bids of the crossed rates
+     * @param asks asks of the crossed rates
+     * @param outBids receives the calculated bids
+     * @param outAsks receives the calculated asks
+     * @param count the number of elements
+     * @throws IllegalArgumentException if an array is shorter than {@code count}
+     */
+    public void calculateCrosses(double[] baseBids, double[] baseAsks, double[] bids, double[] asks,
+                                 double[] outBids, double[] outAsks, int count) {
+        checkLength(count, baseBids, baseAsks, bids, asks, outBids, outAsks);
+        batchKernel.cross(baseBids, baseAsks, bids, asks, outBids, outAsks, count);
+    }
+
+    /**
+     * Calculates {@code count} inverse cross rates against the same base, e.g. XXX/TRY = mid(USD/TRY) / USD/XXX.
+     *
+     * @param base the base rate, e.g. the calculated USD/TRY
+     * @param bids bids of the inverted rates, e.g. USD/XXX
+     * @param asks asks of the inverted rates
+     * @param outBids receives the calculated bids
+     * @param outAsks receives the calculated asks
+     * @param count the number of symbols
+     * @throws CurrencyNotFoundException if {@code base} is {@code null}
+     * @throws IllegalArgumentException if an array is shorter than {@code count}
+     */
+    public void calculateInverseCrosses(Rate base, double[] bids, double[] asks, double[] outBids, double[] outAsks, int count) {
+        if (base == null) {
+            throw new CurrencyNotFoundException("Couldn't calculate rates, base is null");
+        }
+        checkLength(count, bids, asks, outBids, outAsks);
+        batchKernel.inverseCross(base.getBid(), base.getAsk(), bids, asks, outBids, outAsks, count);
+    }
+
+    private static void checkLength(int count, double[]... arrays) {
+        for (double[] array : arrays) {
+            if (array == null || array.length < count || count < 0) {
+                throw new IllegalArgumentException("Batch arrays must hold " + count + " elements");
+            }
+        }
+    }
 }
@@ -1,38 +1,137 @@
 package com.murat.mainapp.service;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import com.murat.ratecodec.model.RateMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
- * Service class responsible for sending messages to test-topic.
+ * Service class responsible for sending messages to the rate topic.
+ * <p>
+ * This service provides functionality to send messages to the Kafka topic configured with {@code kafka.topic.name}
+ * ({@code test-topic} by default) using the {@link KafkaTemplate}. It abstracts the communication with Kafka from
+ * other layers of the application.
+ * </p>
  * <p>
- * This service provides functionality to send messages to a predefined Kafka topic named "test-topic" using the
- * {@link KafkaTemplate}. It abstracts the communication with Kafka from other layers of the application.
+ * Every message is keyed by its rate, e.g. {@code PF1_USDTRY} for a raw rate and {@code USDTRY} for a calculated
+ * one. Kafka sends all messages with the same key to the same partition, so consumers can read the partitions in
+ * parallel and still receive the ticks of each rate in order.
  * </p>
+ * <p>
+ * Sends are asynchronous. Their completion is tracked with the following meters, tagged with the rate key:
+ * </p>
+ * <ul>
+ *   <li>{@code rate.kafka.send} - timer from {@link #sendMessage(RateMessage)} until the broker acknowledged the
+ *   message; its count is the number of delivered messages.</li>
+ *   <li>{@code rate.kafka.send.failures} - messages which could not be delivered.</li>
+ *   <li>{@code rate.kafka.send.in-flight} - messages sent but not yet acknowledged (not tagged).</li>
+ * </ul>
  */
 @Service
 public class KafkaProducerService {
+
+    private static final Logger logger = LogManager.getLogger(KafkaProducerService.class);
+
     /**
      * The name of the Kafka topic to which messages will be sent.
      */
-    private static final String TOPIC = "test-topic";
+    private final String topic;
 
     /**
      * The {@link KafkaTemplate} instance used for sending messages to Kafka.
      */
-    @Autowired
-    private KafkaTemplate<String, String> kafkaTemplate;
+    private final KafkaTemplate<String, RateMessage> kafkaTemplate;
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Meters per rate key, created on the first message of a rate.
+     */
+    private final Map<String, SendMeters> sendMeters = new ConcurrentHashMap<>();
+
+    private final AtomicLong inFlight = new AtomicLong();
+
+    public KafkaProducerService(KafkaTemplate<String, RateMessage> kafkaTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${kafka.topic.name:test-topic}") String topic) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.meterRegistry = meterRegistry;
+        this.topic = topic;
+        meterRegistry.gauge("rate.kafka.send.in-flight", inFlight);
+    }
 
 
     /**
      * <p>
-     * This method sends the provided message to the Kafka topic {@link #TOPIC}.
+     * This method sends the provided message to the Kafka topic, keyed by {@link #keyOf(RateMessage)}.
+     * The message is encoded in the format configured with {@code rate.wire.format}.
+     * </p>
+     * <p>
+     * The method does not wait for the broker. Latency and failures of the send are recorded when it completes.
      * </p>
      *
      * @param message the message to send to the Kafka topic
      */
-    public void sendMessage(String message) {
-        kafkaTemplate.send(TOPIC, message);
+    public void sendMessage(RateMessage message) {
+        String key = keyOf(message);
+        SendMeters meters = sendMeters.computeIfAbsent(key, this::createMeters);
+        long start = System.nanoTime();
+        inFlight.incrementAndGet();
+
+        try {
+            kafkaTemplate.send(topic, key, message).whenComplete((result, exception) -> {
+                inFlight.decrementAndGet();
+                if (exception == null) {
+                    meters.latency().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                } else {
+                    onFailure(key, meters, exception);
+                }
+            });
+        } catch (RuntimeException e) {
+            // Serializer hatasi veya buffer dolu iken max.block.ms asimi
+            inFlight.decrementAndGet();
+            onFailure(key, meters, e);
+        }
+    }
+
+    /**
+     * @return {@code platform_rate} for raw rates, the rate name for calculated rates
+     */
+    static String keyOf(RateMessage message) {
+        if (message.getPlatformName() == null) {
+            return message.getRateName();
+        }
+        return message.getPlatformName() + "_" + message.getRateName();
+    }
+
+    private void onFailure(String key, SendMeters meters, Throwable exception) {
+        meters.failures().increment();
+        logger.error("Could not send {} to Kafka: {}", key, exception.getMessage());
+    }
+
+    private SendMeters createMeters(String key) {
+        Timer latency = Timer.builder("rate.kafka.send")
+                .description("Time until a rate message is acknowledged by Kafka")
+                .tag("rate", key)
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(meterRegistry);
+        Counter failures = Counter.builder("rate.kafka.send.failures")
+                .description("Rate messages which could not be sent to Kafka")
+                .tag("rate", key)
+                .register(meterRegistry);
+        return new SendMeters(latency, failures);
+    }
+
+    private record SendMeters(Timer latency, Counter failures) {
     }
 }
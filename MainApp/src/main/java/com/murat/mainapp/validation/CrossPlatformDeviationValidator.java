@@ -0,0 +1,90 @@
+package com.murat.mainapp.validation;
+
+import com.murat.mainapp.ratebook.RateBook;
+
+import java.util.Arrays;
+
+/**
+ * Rejects a tick whose mid price deviates more than {@code max-percent} from the average mid price of the same rate
+ * on the other platforms.
+ *
+ * <p>The ids of the same rate on the other platforms are looked up once per pair and again only when new pairs are
+ * registered in the {@link RateBook}, so a check costs O(platforms). A tick is accepted if no other platform has the
+ * rate yet.</p>
+ */
+public class CrossPlatformDeviationValidator implements TickValidator {
+
+    private static final int[] NONE = new int[0];
+
+    private final RateBook rateBook;
+
+    private final double maxRatio;
+
+    /**
+     * Ids of the same rate on the other platforms, per pair
+     */
+    private final int[][] siblings;
+
+    /**
+     * {@link RateBook#size()} when {@link #siblings} of the pair was computed
+     */
+    private final int[] siblingsComputedAt;
+
+    /**
+     * @param rateBook the book holding the accepted rates
+     * @param maxPercent the largest accepted deviation in percent
+     */
+    public CrossPlatformDeviationValidator(RateBook rateBook, double maxPercent) {
+        this.rateBook = rateBook;
+        this.maxRatio = maxPercent / 100;
+        this.siblings = new int[rateBook.capacity()][];
+        this.siblingsComputedAt = new int[rateBook.capacity()];
+    }
+
+    @Override
+    public String name() {
+        return "cross-platform-deviation";
+    }
+
+    @Override
+    public boolean test(int id, double bid, double ask, long timestampMillis) {
+        int count = 0;
+        double sum = 0;
+        for (int sibling : siblingsOf(id)) {
+            if (rateBook.hasValue(sibling)) {
+                sum += (rateBook.bid(sibling) + rateBook.ask(sibling)) / 2;
+                count++;
+            }
+        }
+        if (count == 0) {
+            return true;
+        }
+        double reference = sum / count;
+        return reference == 0 || Math.abs((bid + ask) / 2 - reference) / Math.abs(reference) <= maxRatio;
+    }
+
+    private int[] siblingsOf(int id) {
+        int size = rateBook.size();
+        if (siblings[id] != null && siblingsComputedAt[id] == size) {
+            return siblings[id];
+        }
+
+        String rateName = rateBook.rateNameOf(id);
+        int[] found = new int[size];
+        int count = 0;
+        boolean complete = true;
+        for (int other = 0; other < size; other++) {
+            String otherRateName = rateBook.rateNameOf(other);
+            if (otherRateName == null) {
+                // Kaydi henuz tamamlanmamis id, sonraki tick'te tekrar bakilir
+                complete = false;
+            } else if (other != id && otherRateName.equals(rateName)) {
+                found[count++] = other;
+            }
+        }
+        int[] result = count == 0 ? NONE : Arrays.copyOf(found, count);
+        siblings[id] = result;
+        siblingsComputedAt[id] = complete ? size : -1;
+        return result;
+    }
+}
@@ -0,0 +1,18 @@
+package com.murat.mainapp.validation;
+
+/**
+ * Rejects ticks whose bid is above the ask (crossed market) and bids or asks which are not positive numbers.
+ */
+public class CrossedMarketValidator implements TickValidator {
+
+    @Override
+    public String name() {
+        return "crossed-market";
+    }
+
+    @Override
+    public boolean test(int id, double bid, double ask, long timestampMillis) {
+        // NaN karsilastirmalari false dondurur, NaN de reddedilir
+        return bid > 0 && ask > 0 && bid <= ask;
+    }
+}
@@ -0,0 +1,42 @@
+package com.murat.mainapp.validation;
+
+import com.murat.mainapp.ratebook.RateBook;
+
+/**
+ * Rejects a bid which moved more than {@code max-percent} from the previous accepted bid of the same platform.
+ *
+ * <p>The previous bid is read from the {@link RateBook}; the first tick of a pair, or a previous bid of 0, is
+ * always accepted.</p>
+ */
+public class PercentJumpValidator implements TickValidator {
+
+    private final RateBook rateBook;
+
+    private final double maxRatio;
+
+    /**
+     * @param rateBook the book holding the accepted rates
+     * @param maxPercent the largest accepted change in percent
+     */
+    public PercentJumpValidator(RateBook rateBook, double maxPercent) {
+        this.rateBook = rateBook;
+        this.maxRatio = maxPercent / 100;
+    }
+
+    @Override
+    public String name() {
+        return "percent-jump";
+    }
+
+    @Override
+    public boolean test(int id, double bid, double ask, long timestampMillis) {
+        if (!rateBook.hasValue(id)) {
+            return true;
+        }
+        double oldBid = rateBook.bid(id);
+        if (oldBid == 0) {
+            return true;
+        }
+        return Math.abs(bid - oldBid) / Math.abs(oldBid) <= maxRatio;
+    }
+}
@@ -0,0 +1,90 @@
+package com.murat.mainapp.validation;
+
+/**
+ * Mean and standard deviation of the last {@code size} values, kept in a primitive ring buffer.
+ *
+ * <p>Adding a value replaces the oldest one and updates the running sum and sum of squares, so both statistics cost
+ * O(1). The sums are recomputed from the buffer every time it wraps, so rounding errors of the subtractions do not
+ * accumulate.</p>
+ */
+public final class RollingWindow {
+
+    private final double[] values;
+
+    private int next;
+
+    private int count;
+
+    private double sum;
+
+    private double sumOfSquares;
+
+    /**
+     * @param size the number of values kept
+     */
+    public RollingWindow(int size) {
+        if (size < 2) {
+            throw new IllegalArgumentException("Window size must be at least 2: " + size);
+        }
+        this.values = new double[size];
+    }
+
+    /**
+     * Adds a value, dropping the oldest one if the window is full.
+     *
+     * @param value the value
+     */
+    public void add(double value) {
+        if (count == values.length) {
+            double oldest = values[next];
+            sum -= oldest;
+            sumOfSquares -= oldest * oldest;
+        } else {
+            count++;
+        }
+        values[next] = value;
+        sum += value;
+        sumOfSquares += value * value;
+
+        if (++next == values.length) {
+            next = 0;
+            recompute();
+        }
+    }
+
+    /**
+     * @return the number of values in the window
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * @return the mean of the values, {@code NaN} if the window is empty
+     */
+    public double mean() {
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    /**
+     * @return the population standard deviation of the values, {@code NaN} if the window is empty
+     */
+    public double standardDeviation() {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        double mean = sum / count;
+        return Math.sqrt(Math.max(0, sumOfSquares / count - mean * mean));
+    }
+
+    private void recompute() {
+        double newSum = 0;
+        double newSumOfSquares = 0;
+        for (int i = 0; i < count; i++) {
+            newSum += values[i];
+            newSumOfSquares += values[i] * values[i];
+        }
+        sum = newSum;
+        sumOfSquares = newSumOfSquares;
+    }
+}
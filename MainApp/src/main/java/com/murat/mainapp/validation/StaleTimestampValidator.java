@@ -0,0 +1,58 @@
+package com.murat.mainapp.validation;
+
+import java.util.Arrays;
+import java.util.TimeZone;
+
+/**
+ * Rejects ticks which are older than the last accepted tick of the pair, or older than {@code max-age-ms}.
+ *
+ * <p>Platforms send their local time without a zone, so the age is measured against the local time of MainApp.
+ * A {@code max-age-ms} of 0 only rejects out-of-order ticks, which suits recorded ticks replayed by
+ * {@link com.murat.mainapp.fetcher.ReplayDataFetcher} without {@code loop}. Ticks whose timestamp cannot be parsed
+ * are rejected.</p>
+ */
+public class StaleTimestampValidator implements TickValidator {
+
+    private final long maxAgeMillis;
+
+    /**
+     * Timestamp of the last accepted tick per pair
+     */
+    private final long[] lastTimestamps;
+
+    private final TimeZone timeZone = TimeZone.getDefault();
+
+    /**
+     * @param capacity the capacity of the rate book
+     * @param maxAgeMillis the largest accepted age, 0 to not check the age
+     */
+    public StaleTimestampValidator(int capacity, long maxAgeMillis) {
+        this.maxAgeMillis = maxAgeMillis;
+        this.lastTimestamps = new long[capacity];
+        Arrays.fill(lastTimestamps, Long.MIN_VALUE);
+    }
+
+    @Override
+    public String name() {
+        return "stale-timestamp";
+    }
+
+    @Override
+    public boolean test(int id, double bid, double ask, long timestampMillis) {
+        if (timestampMillis == Long.MIN_VALUE || timestampMillis < lastTimestamps[id]) {
+            return false;
+        }
+        if (maxAgeMillis <= 0) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        // Zaman damgalari yerel saat, UTC gibi okunuyor
+        long localNow = now + timeZone.getOffset(now);
+        return localNow - timestampMillis <= maxAgeMillis;
+    }
+
+    @Override
+    public void accepted(int id, double bid, double ask, long timestampMillis) {
+        lastTimestamps[id] = timestampMillis;
+    }
+}
@@ -0,0 +1,34 @@
+package com.murat.mainapp.validation;
+
+/**
+ * A check of the {@link TickValidatorChain}.
+ *
+ * <p>Validators keep their state per {@link com.murat.mainapp.ratebook.RateBook} id in primitive arrays, so a check
+ * costs the same whatever the number of pairs. The state of an id is only updated by the thread processing the ticks
+ * of that pair, i.e. the pipeline thread or the fetcher of the platform.</p>
+ */
+public interface TickValidator {
+
+    /**
+     * @return the type of the validator, used as the rejection reason
+     */
+    String name();
+
+    /**
+     * Checks a tick.
+     *
+     * @param id the rate book id of the platform - rate pair
+     * @param bid the bid of the tick
+     * @param ask the ask of the tick
+     * @param timestampMillis the timestamp of the tick as milliseconds since epoch (local time read as UTC), or
+     *                        {@link Long#MIN_VALUE} if it cannot be parsed
+     * @return {@code true} if the tick is valid
+     */
+    boolean test(int id, double bid, double ask, long timestampMillis);
+
+    /**
+     * Called after every validator of the chain accepted the tick, to update the state of the pair.
+     */
+    default void accepted(int id, double bid, double ask, long timestampMillis) {
+    }
+}
@@ -0,0 +1,197 @@
+package com.murat.mainapp.validation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.murat.mainapp.config.ConfigFiles;
+import com.murat.mainapp.config.ValidationConfig;
+import com.murat.mainapp.config.ValidatorConfig;
+import com.murat.mainapp.exception.ValidationConfigException;
+import com.murat.mainapp.logging.TickLogSampler;
+import com.murat.mainapp.ratebook.RateBook;
+import com.murat.ratecodec.serialization.RateMessageCodec;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Checks every raw rate with the {@link TickValidator}s configured for its rate name in {@code validation.yml}
+ * ({@code validation.file}), in order, until one of them rejects it.
+ *
+ * <p>Rates without their own chain use the {@code defaults} chain. The validators of a chain are shared by every
+ * platform, their state is kept per {@link RateBook} id. A rejection is not logged one by one: the first one and
+ * then one of every {@code validation.log.sample-rate} rejections is logged with the total count, the
+ * {@link com.murat.mainapp.coordinator.Coordinator} counts every rejection by platform and reason.</p>
+ */
+@Component
+public class TickValidatorChain {
+
+    private static final Logger logger = LogManager.getLogger(TickValidatorChain.class);
+
+    private final RateBook rateBook;
+
+    private final Chain defaults;
+
+    /**
+     * Rate name - its chain
+     */
+    private final Map<String, Chain> chains = new HashMap<>();
+
+    private final TickLogSampler rejectionLogSampler;
+
+    private final AtomicLong rejections = new AtomicLong();
+
+    /**
+     * The validators of a rate name.
+     *
+     * @param validators the validators, in order
+     * @param usesTimestamp {@code true} if a validator reads the timestamp, otherwise it is not parsed
+     */
+    private record Chain(TickValidator[] validators, boolean usesTimestamp) {
+    }
+
+    /**
+     * Constructs the chains from the configuration file.
+     *
+     * @param rateBook the book holding the accepted rates
+     * @param file the configuration, a file path or a classpath resource
+     * @param logSampleRate one of every {@code logSampleRate} rejections is logged
+     * @throws ValidationConfigException if the file cannot be read or is invalid
+     */
+    @Autowired
+    public TickValidatorChain(RateBook rateBook,
+                              @Value("${validation.file:validation.yml}") String file,
+                              @Value("${validation.log.sample-rate:100}") int logSampleRate) {
+        this(rateBook, load(file), logSampleRate);
+        logger.info("Tick validation loaded from {}, default chain {}, rates with their own chain {}",
+                file, names(defaults), chains.keySet());
+    }
+
+    /**
+     * Constructs the chains from a configuration.
+     *
+     * @param rateBook the book holding the accepted rates
+     * @param config the configuration
+     * @param logSampleRate one of every {@code logSampleRate} rejections is logged
+     * @throws ValidationConfigException if the configuration is invalid
+     */
+    public TickValidatorChain(RateBook rateBook, ValidationConfig config, int logSampleRate) {
+        this.rateBook = rateBook;
+        this.rejectionLogSampler = new TickLogSampler(logSampleRate);
+        this.defaults = create("defaults", config.getDefaults());
+        if (config.getRates() != null) {
+            config.getRates().forEach((rateName, validators) -> chains.put(rateName, create(rateName, validators)));
+        }
+    }
+
+    /**
+     * Checks a raw rate, and updates the state of the validators if it is accepted.
+     *
+     * @param id the rate book id of the platform - rate pair
+     * @param platformName the platform name
+     * @param rateName the rate name
+     * @param bid the bid
+     * @param ask the ask
+     * @param timestamp the timestamp
+     * @return {@code null} if the rate is valid, otherwise the name of the validator which rejected it
+     */
+    public String validate(int id, String platformName, String rateName, double bid, double ask, String timestamp) {
+        Chain chain = chains.getOrDefault(rateName, defaults);
+        long timestampMillis = chain.usesTimestamp() ? timestampMillis(timestamp) : Long.MIN_VALUE;
+
+        TickValidator[] validators = chain.validators();
+        for (TickValidator validator : validators) {
+            if (!validator.test(id, bid, ask, timestampMillis)) {
+                long total = rejections.incrementAndGet();
+                if (rejectionLogSampler.sample()) {
+                    logger.info("Rate {} of platform {} rejected by {}, bid {} ask {} timestamp {} ({} rejections so far)",
+                            rateName, platformName, validator.name(), bid, ask, timestamp, total);
+                }
+                return validator.name();
+            }
+        }
+        for (TickValidator validator : validators) {
+            validator.accepted(id, bid, ask, timestampMillis);
+        }
+        return null;
+    }
+
+    /**
+     * @return the number of rejected rates since start-up
+     */
+    public long getRejections() {
+        return rejections.get();
+    }
+
+    private Chain create(String chainName, List<ValidatorConfig> configs) {
+        if (configs == null) {
+            return new Chain(new TickValidator[0], false);
+        }
+        TickValidator[] validators = new TickValidator[configs.size()];
+        boolean usesTimestamp = false;
+        for (int i = 0; i < validators.length; i++) {
+            validators[i] = create(chainName, configs.get(i));
+            usesTimestamp |= validators[i] instanceof StaleTimestampValidator;
+        }
+        return new Chain(validators, usesTimestamp);
+    }
+
+    private TickValidator create(String chainName, ValidatorConfig config) {
+        Map<String, String> options = config.getOptions() == null ? Map.of() : config.getOptions();
+        String type = config.getType() == null ? "" : config.getType();
+        return switch (type) {
+            case "crossed-market" -> new CrossedMarketValidator();
+            case "percent-jump" -> new PercentJumpValidator(rateBook, number(chainName, options, "max-percent", 1));
+            case "z-score" -> new ZScoreValidator(rateBook.capacity(),
+                    (int) number(chainName, options, "window", 100),
+                    number(chainName, options, "max-z", 6),
+                    (int) number(chainName, options, "min-samples", 20));
+            case "stale-timestamp" -> new StaleTimestampValidator(rateBook.capacity(),
+                    (long) number(chainName, options, "max-age-ms", 0));
+            case "cross-platform-deviation" ->
+                    new CrossPlatformDeviationValidator(rateBook, number(chainName, options, "max-percent", 2));
+            default -> throw new ValidationConfigException("Unknown validator type '" + type + "' in chain " + chainName);
+        };
+    }
+
+    private static double number(String chainName, Map<String, String> options, String name, double defaultValue) {
+        String value = options.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new ValidationConfigException("Option " + name + " of chain " + chainName + " is not a number: " + value);
+        }
+    }
+
+    private static long timestampMillis(String timestamp) {
+        long nanos = RateMessageCodec.toEpochNanos(timestamp);
+        return nanos == Long.MIN_VALUE ? Long.MIN_VALUE : Math.floorDiv(nanos, 1_000_000L);
+    }
+
+    private static List<String> names(Chain chain) {
+        return Arrays.stream(chain.validators()).map(TickValidator::name).toList();
+    }
+
+    private static ValidationConfig load(String file) {
+        try (InputStream in = ConfigFiles.open(file)) {
+            if (in == null) {
+                throw new ValidationConfigException("Couldn't find the validation configuration " + file);
+            }
+            return new ObjectMapper(new YAMLFactory()).readValue(in, ValidationConfig.class);
+        } catch (IOException e) {
+            throw new ValidationConfigException("Couldn't read the validation configuration " + file + ": " + e.getMessage());
+        }
+    }
+}
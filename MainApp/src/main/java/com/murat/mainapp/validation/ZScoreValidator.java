@@ -0,0 +1,75 @@
+package com.murat.mainapp.validation;
+
+import java.util.Arrays;
+
+/**
+ * Rejects a tick whose relative mid price change is more than {@code max-z} standard deviations away from the
+ * mean change of the last {@code window} accepted ticks of the pair.
+ *
+ * <p>The changes are kept in one {@link RollingWindow} per pair, created on the first tick of the pair. Until the
+ * window holds {@code min-samples} changes, or while the price does not move at all, every tick is accepted.</p>
+ */
+public class ZScoreValidator implements TickValidator {
+
+    private final int windowSize;
+
+    private final double maxZ;
+
+    private final int minSamples;
+
+    private final RollingWindow[] windows;
+
+    /**
+     * Mid price of the last accepted tick per pair, {@code NaN} before the first one
+     */
+    private final double[] lastMids;
+
+    /**
+     * @param capacity the capacity of the rate book
+     * @param windowSize the number of changes kept per pair
+     * @param maxZ the largest accepted distance from the mean, in standard deviations
+     * @param minSamples the number of changes needed before ticks are rejected
+     */
+    public ZScoreValidator(int capacity, int windowSize, double maxZ, int minSamples) {
+        this.windowSize = windowSize;
+        this.maxZ = maxZ;
+        this.minSamples = Math.max(2, minSamples);
+        this.windows = new RollingWindow[capacity];
+        this.lastMids = new double[capacity];
+        Arrays.fill(lastMids, Double.NaN);
+    }
+
+    @Override
+    public String name() {
+        return "z-score";
+    }
+
+    @Override
+    public boolean test(int id, double bid, double ask, long timestampMillis) {
+        RollingWindow window = windows[id];
+        double lastMid = lastMids[id];
+        if (window == null || window.count() < minSamples || Double.isNaN(lastMid)) {
+            return true;
+        }
+        double standardDeviation = window.standardDeviation();
+        if (standardDeviation == 0) {
+            return true;
+        }
+        double change = ((bid + ask) / 2 - lastMid) / lastMid;
+        return Math.abs(change - window.mean()) / standardDeviation <= maxZ;
+    }
+
+    @Override
+    public void accepted(int id, double bid, double ask, long timestampMillis) {
+        double mid = (bid + ask) / 2;
+        double lastMid = lastMids[id];
+        if (!Double.isNaN(lastMid) && lastMid != 0) {
+            RollingWindow window = windows[id];
+            if (window == null) {
+                window = windows[id] = new RollingWindow(windowSize);
+            }
+            window.add((mid - lastMid) / lastMid);
+        }
+        lastMids[id] = mid;
+    }
+}
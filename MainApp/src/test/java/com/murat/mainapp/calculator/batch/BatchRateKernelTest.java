@@ -0,0 +1,97 @@
+package com.murat.mainapp.calculator.batch;
+
+import com.murat.mainapp.calculator.JavaRateCalculator;
+import com.murat.mainapp.model.Rate;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchRateKernelTest {
+
+    // Vektor uzunlugunun kati olmayan bir boyut, kuyruk da test edilir
+    private static final int COUNT = 37;
+
+    private final Random random = new Random(42);
+
+    private final double[] bids1 = prices(35);
+    private final double[] asks1 = prices(36);
+    private final double[] bids2 = prices(35);
+    private final double[] asks2 = prices(36);
+    private final double[] crossBids = prices(1.08);
+    private final double[] crossAsks = prices(1.09);
+
+    @Test
+    void vectorKernelIsUsedWhenAvailable() {
+        // surefire JVM'i --add-modules jdk.incubator.vector ile calisir
+        assertInstanceOf(VectorRateKernel.class, BatchRateKernels.best());
+    }
+
+    @Test
+    void vectorAndScalarKernelsGiveSameResults() {
+        BatchRateKernel scalar = new ScalarRateKernel();
+        BatchRateKernel vector = new VectorRateKernel();
+
+        assertSame(scalar, vector, kernel -> (b, a) -> kernel.average(bids1, asks1, bids2, asks2, b, a, COUNT));
+        assertSame(scalar, vector, kernel -> (b, a) -> kernel.cross(35.03, 36.015, crossBids, crossAsks, b, a, COUNT));
+        assertSame(scalar, vector, kernel -> (b, a) -> kernel.cross(bids1, asks1, crossBids, crossAsks, b, a, COUNT));
+        assertSame(scalar, vector, kernel -> (b, a) -> kernel.inverseCross(35.03, 36.015, crossBids, crossAsks, b, a, COUNT));
+    }
+
+    @Test
+    void matchesJavaRateCalculator() {
+        JavaRateCalculator calculator = new JavaRateCalculator();
+        BatchRateKernel kernel = BatchRateKernels.best();
+        double[] usdBids = new double[COUNT];
+        double[] usdAsks = new double[COUNT];
+        double[] eurBids = new double[COUNT];
+        double[] eurAsks = new double[COUNT];
+
+        kernel.average(bids1, asks1, bids2, asks2, usdBids, usdAsks, COUNT);
+        kernel.cross(usdBids, usdAsks, crossBids, crossAsks, eurBids, eurAsks, COUNT);
+
+        for (int i = 0; i < COUNT; i++) {
+            Rate usdTry = calculator.calculateUSDTRY(rate(bids1[i], asks1[i]), rate(bids2[i], asks2[i]));
+            Rate eurTry = calculator.calculateEURTRY(usdTry, rate(crossBids[i], crossAsks[i]), null);
+            assertEquals(usdTry.getBid(), usdBids[i]);
+            assertEquals(usdTry.getAsk(), usdAsks[i]);
+            assertEquals(eurTry.getBid(), eurBids[i]);
+            assertEquals(eurTry.getAsk(), eurAsks[i]);
+        }
+    }
+
+    private interface Call {
+        void run(double[] outBids, double[] outAsks);
+    }
+
+    private interface KernelCall {
+        Call with(BatchRateKernel kernel);
+    }
+
+    private static void assertSame(BatchRateKernel scalar, BatchRateKernel vector, KernelCall call) {
+        double[] scalarBids = new double[COUNT + 1];
+        double[] scalarAsks = new double[COUNT + 1];
+        double[] vectorBids = new double[COUNT + 1];
+        double[] vectorAsks = new double[COUNT + 1];
+
+        call.with(scalar).run(scalarBids, scalarAsks);
+        call.with(vector).run(vectorBids, vectorAsks);
+
+        assertArrayEquals(scalarBids, vectorBids);
+        assertArrayEquals(scalarAsks, vectorAsks);
+        assertEquals(0, vectorBids[COUNT], "count disindaki eleman yazilmaz");
+    }
+
+    private double[] prices(double around) {
+        double[] prices = new double[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            prices[i] = around * (1 + (random.nextDouble() - 0.5) / 100);
+        }
+        return prices;
+    }
+
+    private static Rate rate(double bid, double ask) {
+        return new Rate("RATE", bid, ask, "2024-12-16T16:07:16.504");
+    }
+}
@@ -0,0 +1,119 @@
+package com.murat.mainapp.calculator.formula;
+
+import com.murat.mainapp.calculator.JavaRateCalculator;
+import com.murat.mainapp.calculator.graph.CrossRateGraph;
+import com.murat.mainapp.config.CrossRateConfig;
+import com.murat.mainapp.calculator.graph.CrossRateType;
+import com.murat.mainapp.config.FormulaConfig;
+import com.murat.mainapp.exception.CrossRateConfigException;
+import com.murat.mainapp.exception.InvalidFormulaException;
+import com.murat.mainapp.model.Rate;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FormulaRateCalculatorTest {
+
+    @Test
+    void compilesOperatorsAndFunctions() {
+        assertEquals(7.0, eval("1 + 2 * 3"));
+        assertEquals(9.0, eval("(1 + 2) * 3"));
+        assertEquals(-1.5, eval("-(source.ask - source.bid) / 2 * 3"));
+        assertEquals(35.5, eval("mid(source)"));
+        assertEquals(1.0, eval("spread(source)"));
+        assertEquals(35.0, eval("min(source.bid, source.ask, 40)"));
+        assertEquals(36.0, eval("max(source.bid, source.ask)"));
+        assertEquals(35.0, eval("avg(source.bid, base.bid)"), "avg ignores NaN");
+        assertEquals(35.5 * 1.1, FormulaCompiler.compile("mid(source) * base.ask").evaluate(35, 36, 1.0, 1.1), 1e-12);
+
+        assertTrue(FormulaCompiler.compile("mid(base)").usesBase());
+        assertFalse(FormulaCompiler.compile("source.bid * 2").usesBase());
+    }
+
+    @Test
+    void averageEvaluatesEveryArgumentOnce() {
+        assertEquals(35.5, eval("avg(source.bid, base.ask, source.ask, base.bid)"));
+        assertTrue(Double.isNaN(eval("avg(base.bid, base.ask)")));
+
+        // Her seviye argumanlarini iki kez hesaplasaydi 2^40 degerlendirme gerekirdi
+        String nested = "source.bid";
+        for (int i = 0; i < 40; i++) {
+            nested = "avg(" + nested + ", base.bid)";
+        }
+        String formula = nested;
+        assertEquals(35.0, assertTimeoutPreemptively(Duration.ofSeconds(5), () -> eval(formula)));
+    }
+
+    @Test
+    void rejectsInvalidFormulas() {
+        assertThrows(InvalidFormulaException.class, () -> FormulaCompiler.compile("source.bid +"));
+        assertThrows(InvalidFormulaException.class, () -> FormulaCompiler.compile("source.mid"));
+        assertThrows(InvalidFormulaException.class, () -> FormulaCompiler.compile("foo(source.bid)"));
+        assertThrows(InvalidFormulaException.class, () -> FormulaCompiler.compile("(source.bid"));
+        assertThrows(InvalidFormulaException.class, () -> FormulaCompiler.compile("mid(source.bid)"));
+    }
+
+    @Test
+    void defaultFormulasMatchJavaRateCalculator() {
+        FormulaRateCalculator formulas = new FormulaRateCalculator();
+        JavaRateCalculator java = new JavaRateCalculator();
+
+        Rate usdTry = java.calculateUSDTRY(rate(35.02, 36.02), rate(35.04, 36.01));
+        assertRate(usdTry, formulas.calculateUSDTRY(rate(35.02, 36.02), rate(35.04, 36.01)));
+        assertRate(java.calculateEURTRY(usdTry, rate(1.0832, 1.2932), rate(1.0834, 1.2930)),
+                formulas.calculateEURTRY(usdTry, rate(1.0832, 1.2932), rate(1.0834, 1.2930)));
+        Rate gbpTry = formulas.calculateGBPTRY(usdTry, rate(1.2641, 1.2702), null);
+        assertEquals("GBPTRY", gbpTry.getRateName());
+        Rate expected = java.calculateGBPTRY(usdTry, rate(1.2641, 1.2702), null);
+        assertEquals(expected.getBid(), gbpTry.getBid(), 1e-12);
+        assertEquals(expected.getAsk(), gbpTry.getAsk(), 1e-12);
+    }
+
+    @Test
+    void graphUsesFormulas() {
+        Map<String, FormulaConfig> config = new HashMap<>();
+        config.put("EURTRY", new FormulaConfig("mid(base) * source.bid - 0.5", "mid(base) * source.ask + 0.5"));
+        FormulaRateCalculator calculator = new FormulaRateCalculator(config);
+
+        CrossRateGraph graph = CrossRateGraph.compile(List.of(
+                new CrossRateConfig("USDTRY", CrossRateType.AVERAGE, "USDTRY", null),
+                new CrossRateConfig("EURTRY", CrossRateType.CROSS, "EURUSD", "USDTRY")), calculator);
+        BitSet nodes = new BitSet();
+        graph.mark(graph.rateNames(), nodes);
+
+        Map<String, double[]> results = new HashMap<>();
+        graph.evaluate(nodes, (rateName, bidAsk) -> {
+            bidAsk[0] = rateName.equals("USDTRY") ? 35 : 1.1;
+            bidAsk[1] = rateName.equals("USDTRY") ? 36 : 1.2;
+            return true;
+        }, (rateName, bid, ask) -> results.put(rateName, new double[]{bid, ask}));
+
+        assertArrayEquals(new double[]{35, 36}, results.get("USDTRY"));
+        assertArrayEquals(new double[]{35.5 * 1.1 - 0.5, 35.5 * 1.2 + 0.5}, results.get("EURTRY"), 1e-12);
+
+        // USDTRY'nin base'i yok
+        config.put("USDTRY", new FormulaConfig("mid(base)", "source.ask"));
+        assertThrows(CrossRateConfigException.class, () -> CrossRateGraph.compile(List.of(
+                new CrossRateConfig("USDTRY", CrossRateType.AVERAGE, "USDTRY", null)), new FormulaRateCalculator(config)));
+    }
+
+    private static double eval(String formula) {
+        return FormulaCompiler.compile(formula).evaluate(35, 36, Double.NaN, Double.NaN);
+    }
+
+    private static Rate rate(double bid, double ask) {
+        return new Rate("RATE", bid, ask, "2024-12-16T16:07:16.504");
+    }
+
+    private static void assertRate(Rate expected, Rate actual) {
+        assertEquals(expected.getRateName(), actual.getRateName());
+        assertEquals(expected.getBid(), actual.getBid(), 1e-12);
+        assertEquals(expected.getAsk(), actual.getAsk(), 1e-12);
+    }
+}
@@ -0,0 +1,93 @@
+package com.murat.mainapp.calculator.graph;
+
+import com.murat.mainapp.config.CrossRateConfig;
+import com.murat.mainapp.exception.CrossRateConfigException;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrossRateGraphTest {
+
+    // Siralama bilerek karisik
+    private final CrossRateGraph graph = CrossRateGraph.compile(List.of(
+            new CrossRateConfig("EURTRY", CrossRateType.CROSS, "EURUSD", "USDTRY"),
+            new CrossRateConfig("JPYTRY", CrossRateType.INVERSE_CROSS, "USDJPY", "USDTRY"),
+            new CrossRateConfig("USDTRY", CrossRateType.AVERAGE, "USDTRY", null)));
+
+    private final Map<String, double[]> raw = new HashMap<>(Map.of(
+            "USDTRY", new double[]{34.2, 35.5},
+            "EURUSD", new double[]{1.0295, 1.043},
+            "USDJPY", new double[]{150.0, 151.0}));
+
+    private final RawRateSource source = (rateName, bidAsk) -> {
+        double[] value = raw.get(rateName);
+        if (value == null) {
+            return false;
+        }
+        bidAsk[0] = value[0];
+        bidAsk[1] = value[1];
+        return true;
+    };
+
+    @Test
+    void evaluatesBaseBeforeDependents() {
+        assertEquals("USDTRY", graph.rateNames().get(0));
+
+        Map<String, double[]> results = evaluate(graph.rateNames());
+
+        assertArrayEquals(new double[]{34.2, 35.5}, results.get("USDTRY"));
+        assertArrayEquals(new double[]{34.85 * 1.0295, 34.85 * 1.043}, results.get("EURTRY"), 1e-9);
+        assertArrayEquals(new double[]{34.85 / 151.0, 34.85 / 150.0}, results.get("JPYTRY"), 1e-9);
+    }
+
+    @Test
+    void evaluatesOnlyAffectedNodes() {
+        assertEquals(List.of("USDTRY", "EURTRY", "JPYTRY"), graph.affectedBy("USDTRY"));
+        assertEquals(List.of("EURTRY"), graph.affectedBy("EURUSD"));
+        assertEquals(List.of(), graph.affectedBy("GBPUSD"));
+
+        evaluate(graph.rateNames());
+        raw.put("EURUSD", new double[]{1.1, 1.2});
+
+        BitSet nodes = new BitSet();
+        graph.markAffected("EURUSD", nodes);
+        Map<String, double[]> results = evaluate(nodes);
+
+        // USDTRY tekrar hesaplanmaz, onceki degeri kullanilir
+        assertEquals(Set.of("EURTRY"), results.keySet());
+        assertArrayEquals(new double[]{34.85 * 1.1, 34.85 * 1.2}, results.get("EURTRY"), 1e-9);
+    }
+
+    @Test
+    void missingBaseInvalidatesDependents() {
+        raw.remove("USDTRY");
+
+        assertEquals(Set.of(), evaluate(graph.rateNames()).keySet());
+    }
+
+    @Test
+    void rejectsInvalidGraphs() {
+        assertThrows(CrossRateConfigException.class, () -> CrossRateGraph.compile(List.of(
+                new CrossRateConfig("A", CrossRateType.CROSS, "X", "B"),
+                new CrossRateConfig("B", CrossRateType.CROSS, "Y", "A"))));
+        assertThrows(CrossRateConfigException.class, () -> CrossRateGraph.compile(List.of(
+                new CrossRateConfig("EURTRY", CrossRateType.CROSS, "EURUSD", "USDTRY"))));
+        assertThrows(CrossRateConfigException.class, () -> CrossRateGraph.compile(List.of(
+                new CrossRateConfig("USDTRY", CrossRateType.AVERAGE, "USDTRY", null),
+                new CrossRateConfig("USDTRY", CrossRateType.AVERAGE, "USDTRY", null))));
+    }
+
+    private Map<String, double[]> evaluate(List<String> rateNames) {
+        BitSet nodes = new BitSet();
+        graph.mark(rateNames, nodes);
+        return evaluate(nodes);
+    }
+
+    private Map<String, double[]> evaluate(BitSet nodes) {
+        Map<String, double[]> results = new HashMap<>();
+        graph.evaluate(nodes, source, (rateName, bid, ask) -> results.put(rateName, new double[]{bid, ask}));
+        return results;
+    }
+}
@@ -0,0 +1,57 @@
+package com.murat.mainapp.coordinator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecalculationSchedulerTest {
+
+    // Testteki tum markDirty cagrilari rahatca sigsin diye genis bir pencere
+    private final RecalculationScheduler scheduler = new RecalculationScheduler(200_000);
+
+    private final BlockingQueue<Set<String>> drains = new LinkedBlockingQueue<>();
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void burstInsideTheWindowIsRecalculatedOnce() throws InterruptedException {
+        scheduler.addDependency("USDTRY", "USDTRY");
+        scheduler.addDependency("USDTRY", "EURTRY");
+        scheduler.addDependency("EURUSD", "EURTRY");
+        scheduler.addDependency("GBPUSD", "GBPTRY");
+        scheduler.setHandler(drains::add);
+
+        for (int i = 0; i < 1000; i++) {
+            scheduler.markDirty("USDTRY");
+            scheduler.markDirty("EURUSD");
+        }
+        scheduler.markDirty("GBPUSD");
+
+        assertEquals(Set.of("USDTRY", "EURTRY", "GBPTRY"), drains.poll(5, TimeUnit.SECONDS));
+        assertNull(drains.poll(400, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void markAfterADrainSchedulesTheNextOne() throws InterruptedException {
+        scheduler.addDependency("USDTRY", "USDTRY");
+        scheduler.addDependency("EURUSD", "EURTRY");
+        scheduler.setHandler(drains::add);
+
+        scheduler.markDirty("USDTRY");
+        assertEquals(Set.of("USDTRY"), drains.poll(5, TimeUnit.SECONDS));
+
+        scheduler.markDirty("EURUSD");
+        scheduler.markDirty("XAUUSD");
+        assertEquals(Set.of("EURTRY"), drains.poll(5, TimeUnit.SECONDS));
+        assertNull(drains.poll(400, TimeUnit.MILLISECONDS));
+    }
+}
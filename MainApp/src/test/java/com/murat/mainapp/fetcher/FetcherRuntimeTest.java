@@ -0,0 +1,56 @@
+package com.murat.mainapp.fetcher;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FetcherRuntimeTest {
+
+    private final FetcherRuntime runtime = new FetcherRuntime();
+
+    @Test
+    void runsScheduledTasksOnVirtualThreads() throws Exception {
+        CompletableFuture<Boolean> virtual = new CompletableFuture<>();
+        runtime.schedule(() -> virtual.complete(Thread.currentThread().isVirtual()), 1, TimeUnit.MILLISECONDS)
+                .get(1, TimeUnit.SECONDS);
+
+        assertTrue(virtual.getNow(false));
+    }
+
+    @Test
+    void cancelledTaskDoesNotRun() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CompletableFuture<Void> task = runtime.schedule(runs::incrementAndGet, 50, TimeUnit.MILLISECONDS);
+        task.cancel(false);
+
+        Thread.sleep(100);
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    void skipsPeriodsWhilePreviousRunIsBlocked() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ScheduledFuture<?> task = runtime.scheduleAtFixedRate(() -> {
+            runs.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 0, 5, TimeUnit.MILLISECONDS);
+
+        // Cevap vermeyen platform: ilk istek bitmeden yenisi baslamaz
+        Thread.sleep(100);
+        assertEquals(1, runs.get());
+
+        release.countDown();
+        task.cancel(false);
+    }
+}
@@ -0,0 +1,87 @@
+package com.murat.mainapp.fetcher;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenManagerTest {
+
+    private final FetcherRuntime runtime = new FetcherRuntime();
+    private final AtomicInteger requests = new AtomicInteger();
+    private JwtTokenManager manager;
+
+    @AfterEach
+    void close() {
+        manager.close();
+    }
+
+    @Test
+    void refreshesTheTokenBeforeItExpires() throws Exception {
+        // 2 saniyelik token, bitmesine 1.9 saniye kala yenilenir
+        manager = new JwtTokenManager(() -> token(2), runtime, Duration.ofMillis(1900));
+        String first = manager.start();
+
+        for (int i = 0; i < 100 && requests.get() < 2; i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(requests.get() >= 2);
+        assertNotEquals(first, manager.token());
+    }
+
+    @Test
+    void concurrentRejectionsShareOneTokenRequest() throws Exception {
+        manager = new JwtTokenManager(() -> token(3600), runtime, Duration.ofMinutes(1));
+        String rejected = manager.start();
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                manager.refresh(rejected);
+            }));
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(2, requests.get());
+        assertNotEquals(rejected, manager.token());
+    }
+
+    @Test
+    void keepsTheTokenWhenTheRefreshFails() {
+        manager = new JwtTokenManager(() -> {
+            if (requests.get() > 0) {
+                throw new IllegalStateException("platform down");
+            }
+            return token(3600);
+        }, runtime, Duration.ofMinutes(1));
+        String token = manager.start();
+
+        assertEquals(token, manager.refresh(token));
+        assertEquals(-1, JwtTokenManager.expiresAtMillis("not-a-jwt"));
+    }
+
+    private String token(long lifetimeSeconds) {
+        long exp = System.currentTimeMillis() / 1000 + lifetimeSeconds;
+        String claims = "{\"sub\":\"admin\",\"n\":" + requests.incrementAndGet() + ",\"exp\":" + exp + "}";
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString("{\"alg\":\"RS256\"}".getBytes(StandardCharsets.UTF_8)) + "."
+                + encoder.encodeToString(claims.getBytes(StandardCharsets.UTF_8)) + ".signature";
+    }
+}
@@ -0,0 +1,122 @@
+package com.murat.mainapp.fetcher;
+
+import com.murat.mainapp.callback.PlatformDataCallback;
+import com.murat.mainapp.model.Rate;
+import com.murat.mainapp.model.RateFields;
+import com.murat.mainapp.model.RateStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayDataFetcherTest {
+
+    @TempDir
+    Path dir;
+
+    private final RecordingCallback callback = new RecordingCallback();
+
+    @Test
+    void replaysSubscribedRatesOfItsPlatform() throws Exception {
+        ReplayDataFetcher fetcher = start(Map.of("speed", "max"), List.of(
+                "# PF1 ve PF2 ayni kayitta",
+                "PF1_USDTRY|35.02|36.02|2024-12-16T16:07:16.504",
+                "PF2_USDTRY|35.04|36.01|2024-12-16T16:07:16.512",
+                "PF1_GBPUSD|1.26|1.27|2024-12-16T16:07:16.600",
+                "PF1_USDTRY|35.03|36.03|2024-12-16T16:07:17.504",
+                "",
+                "PF1_EURUSD|1.08|1.29|2024-12-16T16:07:18.504"));
+
+        awaitEvents(3);
+        assertEquals(List.of("available USDTRY 35.02", "update USDTRY 35.03", "available EURUSD 1.08"), callback.events);
+        fetcher.disconnect("PF1", "admin", "admin");
+    }
+
+    @Test
+    void keepsTheRecordedPaceAtTheGivenSpeed() throws Exception {
+        long start = System.nanoTime();
+        start(Map.of("speed", "10"), List.of(
+                "PF1_USDTRY|35.02|36.02|2024-12-16T16:07:16.000",
+                "PF1_USDTRY|35.03|36.03|2024-12-16T16:07:16.500"));
+
+        awaitEvents(2);
+        // 500 ms'lik kayit 10 kat hizla en az 50 ms surer
+        assertTrue(System.nanoTime() - start >= 50_000_000L);
+    }
+
+    @Test
+    void rejectsInvalidSpeed() throws Exception {
+        start(Map.of("speed", "0"), List.of("PF1_USDTRY|35.02|36.02|2024-12-16T16:07:16.000"));
+
+        assertEquals(List.of("connect false"), callback.events);
+    }
+
+    private ReplayDataFetcher start(Map<String, String> options, List<String> lines) throws IOException {
+        Path file = Files.write(dir.resolve("ticks.txt"), lines);
+        Map<String, String> allOptions = new HashMap<>(options);
+        allOptions.put("file", file.toString());
+
+        ReplayDataFetcher fetcher = new ReplayDataFetcher();
+        fetcher.setCallback(callback);
+        fetcher.setPlatformName("PF1");
+        fetcher.setOptions(allOptions);
+        callback.onConnected = () -> {
+            fetcher.subscribe("PF1", "USDTRY");
+            fetcher.subscribe("PF1", "EURUSD");
+        };
+        fetcher.connect("PF1", "admin", "admin");
+        return fetcher;
+    }
+
+    private void awaitEvents(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (callback.events.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(count, callback.events.size(), callback.events.toString());
+    }
+
+    /**
+     * Subscribes from onConnect like the Coordinator and records the ticks.
+     */
+    private static class RecordingCallback implements PlatformDataCallback {
+
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private Runnable onConnected;
+
+        @Override
+        public void onConnect(String platformName, boolean status) {
+            if (status) {
+                onConnected.run();
+            } else {
+                events.add("connect false");
+            }
+        }
+
+        @Override
+        public void onDisconnect(String platformName, boolean status) {
+        }
+
+        @Override
+        public void onRateAvailable(String platformName, String rateName, Rate rate) {
+            events.add("available " + rateName + " " + rate.getBid());
+        }
+
+        @Override
+        public void onRateUpdate(String platformName, String rateName, RateFields rateFields) {
+            events.add("update " + rateName + " " + rateFields.getBid());
+        }
+
+        @Override
+        public void onRateStatus(String platformName, String rateName, RateStatus rateStatus) {
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.murat.mainapp.fetcher;
+
+import com.murat.mainapp.callback.PlatformDataCallback;
+import com.murat.mainapp.model.Rate;
+import com.murat.mainapp.model.RateFields;
+import com.murat.mainapp.model.RateStatus;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RestDataFetcherTest {
+
+    private final RecordingCallback callback = new RecordingCallback();
+    private final AtomicInteger eurRequests = new AtomicInteger();
+    private final AtomicInteger bulkRequests = new AtomicInteger();
+    private final AtomicInteger tokenRequests = new AtomicInteger();
+    private final List<String> bulkQueries = new CopyOnWriteArrayList<>();
+    private final List<String> streamResumeIds = Collections.synchronizedList(new ArrayList<>());
+    private HttpServer server;
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void pollsAsynchronouslyAndUnsubscribesUnknownRates() throws Exception {
+        startServer();
+        RestDataFetcher fetcher = connect(Map.of("client", "async", "initial-delay-ms", "0",
+                "poll-interval-ms", "20", "jitter-ms", "10"));
+
+        fetcher.subscribe("PF2", "USDTRY");
+        fetcher.subscribe("PF2", "EURUSD");
+
+        awaitEvents(3);
+        assertEquals("connect true", callback.events.get(0));
+        assertEquals("available USDTRY 35.0", callback.events.get(1));
+        assertEquals("update USDTRY 35.0", callback.events.get(2));
+
+        // 404 donen rate'in aboneligi iptal edilir, istek sayisi artmaz
+        Thread.sleep(100);
+        int requests = eurRequests.get();
+        Thread.sleep(100);
+        assertEquals(requests, eurRequests.get());
+        fetcher.disconnect("PF2", "admin", "admin");
+    }
+
+    @Test
+    void pollsAllRatesWithOneBulkRequest() throws Exception {
+        startServer();
+        RestDataFetcher fetcher = connect(Map.of("bulk", "true", "initial-delay-ms", "50", "poll-interval-ms", "20"));
+
+        fetcher.subscribe("PF2", "USDTRY");
+        fetcher.subscribe("PF2", "EURUSD");
+
+        awaitEvents(3);
+        Thread.sleep(100);
+        // Sonraki istekler ETag ile gonderilir ve degisiklik olmadigi icin 304 doner
+        assertEquals(List.of("connect true", "available USDTRY 35.0", "available EURUSD 1.08"), callback.events);
+        assertTrue(bulkRequests.get() > 1);
+        assertEquals(Set.of("PF2_USDTRY", "PF2_EURUSD"),
+                Set.of(bulkQueries.get(0).replace("pairs=", "").split("%2C")));
+        assertEquals(0, eurRequests.get());
+        fetcher.disconnect("PF2", "admin", "admin");
+    }
+
+    @Test
+    void resumesTheRateStreamAfterItIsClosed() throws Exception {
+        startServer();
+        RestDataFetcher fetcher = connect(Map.of("stream", "true", "reconnect-delay-ms", "10"));
+        fetcher.subscribe("PF2", "USDTRY");
+
+        awaitEvents(3);
+        // Ilk baglanti iki event'ten sonra kapanir, ikincisi son event id'si ile acilir
+        assertEquals(List.of("connect true", "available USDTRY 35.0", "update USDTRY 35.1"), callback.events);
+        assertEquals(Arrays.asList(null, "2"), new ArrayList<>(streamResumeIds).subList(0, 2));
+        fetcher.disconnect("PF2", "admin", "admin");
+    }
+
+    @Test
+    void retriesOnceWithANewTokenWhenRejected() throws Exception {
+        startServer();
+        RestDataFetcher fetcher = connect(Map.of("client", "async", "initial-delay-ms", "0", "poll-interval-ms", "1000"));
+        fetcher.subscribe("PF2", "GBPUSD");
+
+        awaitEvents(2);
+        assertEquals(List.of("connect true", "available GBPUSD 1.26"), callback.events);
+        assertEquals(2, tokenRequests.get());
+        fetcher.disconnect("PF2", "admin", "admin");
+    }
+
+    @Test
+    void rejectsInvalidOptions() throws Exception {
+        startServer();
+        connect(Map.of("poll-interval-ms", "often"));
+
+        assertEquals(List.of("connect false"), callback.events);
+    }
+
+    private void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/token", exchange ->
+                respond(exchange, 200, "test-token-" + tokenRequests.incrementAndGet()));
+        // Ilk token'in suresi dolmus gibi davranir
+        server.createContext("/api/rates/PF2_GBPUSD", exchange -> {
+            if ("Bearer test-token-1".equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+                respond(exchange, 401, "");
+            } else {
+                respond(exchange, 200, "{\"rateName\":\"PF2_GBPUSD\",\"bid\":1.26,\"ask\":1.27}");
+            }
+        });
+        server.createContext("/api/rates/PF2_USDTRY", exchange -> respond(exchange, 200,
+                "{\"rateName\":\"PF2_USDTRY\",\"bid\":35.0,\"ask\":36.0,\"timestamp\":\"2024-12-16T16:07:16.504\"}"));
+        server.createContext("/api/rates/PF2_EURUSD", exchange -> {
+            eurRequests.incrementAndGet();
+            respond(exchange, 404, "Invalid currency pair");
+        });
+        server.createContext("/api/rates", exchange -> {
+            bulkRequests.incrementAndGet();
+            bulkQueries.add(exchange.getRequestURI().getRawQuery());
+            exchange.getResponseHeaders().add("ETag", "\"2\"");
+            if ("\"2\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            respond(exchange, 200, "{\"sequence\":2,\"rates\":["
+                    + "{\"rateName\":\"PF2_USDTRY\",\"bid\":35.0,\"ask\":36.0,\"timestamp\":\"2024-12-16T16:07:16.504\"},"
+                    + "{\"rateName\":\"PF2_EURUSD\",\"bid\":1.08,\"ask\":1.1,\"timestamp\":\"2024-12-16T16:07:16.504\"}]}");
+        });
+        server.createContext("/api/rates/stream", exchange -> {
+            String lastEventId = exchange.getRequestHeaders().getFirst("Last-Event-ID");
+            streamResumeIds.add(lastEventId);
+            exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream out = exchange.getResponseBody();
+            if (lastEventId == null) {
+                out.write(("id:1\nevent:rate\ndata:{\"rateName\":\"PF2_EURUSD\",\"bid\":1.08,\"ask\":1.1}\n\n"
+                        + "id:2\nevent:rate\ndata:{\"rateName\":\"PF2_USDTRY\",\"bid\":35.0,\"ask\":36.0}\n\n")
+                        .getBytes(StandardCharsets.UTF_8));
+            } else {
+                out.write("id:3\nevent:rate\ndata:{\"rateName\":\"PF2_USDTRY\",\"bid\":35.1,\"ask\":36.1}\n\n"
+                        .getBytes(StandardCharsets.UTF_8));
+            }
+            exchange.close();
+        });
+        server.start();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    @Test
+    void bulkAndStreamTogetherAreRejected() throws Exception {
+        startServer();
+        RestDataFetcher fetcher = connect(Map.of("bulk", "true", "stream", "true"));
+
+        assertEquals(List.of("connect false"), callback.events);
+        assertEquals(0, tokenRequests.get());
+        fetcher.disconnect("PF2", "admin", "admin");
+    }
+
+    private RestDataFetcher connect(Map<String, String> options) {
+        RestDataFetcher fetcher = new RestDataFetcher();
+        fetcher.setCallback(callback);
+        fetcher.setBaseUrl("http://localhost:" + server.getAddress().getPort() + "/");
+        fetcher.setOptions(options);
+        fetcher.connect("PF2", "admin", "admin");
+        return fetcher;
+    }
+
+    private void awaitEvents(int count) throws InterruptedException {
+        for (int i = 0; i < 200 && callback.events.size() < count; i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static class RecordingCallback implements PlatformDataCallback {
+
+        final List<String> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onConnect(String platformName, boolean status) {
+            events.add("connect " + status);
+        }
+
+        @Override
+        public void onDisconnect(String platformName, boolean status) {
+        }
+
+        @Override
+        public void onRateAvailable(String platformName, String rateName, Rate rate) {
+            events.add("available " + rateName + " " + rate.getBid());
+        }
+
+        @Override
+        public void onRateUpdate(String platformName, String rateName, RateFields rateFields) {
+            events.add("update " + rateName + " " + rateFields.getBid());
+        }
+
+        @Override
+        public void onRateStatus(String platformName, String rateName, RateStatus rateStatus) {
+        }
+    }
+}
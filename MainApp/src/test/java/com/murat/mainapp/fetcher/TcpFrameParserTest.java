@@ -0,0 +1,77 @@
+package com.murat.mainapp.fetcher;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TcpFrameParserTest {
+
+    private final TcpFrameParser parser = new TcpFrameParser();
+
+    @Test
+    void parsesRateFrame() {
+        TcpFrame frame = parse("PF1_USDTRY|22:number:35.02312312312|25:number:36.02312312312|5:timestamp:2024-12-16T16:07:16.504");
+
+        assertEquals("PF1", frame.getPlatformName());
+        assertEquals("USDTRY", frame.getRateName());
+        assertEquals(35.02312312312, frame.getBid());
+        assertEquals(36.02312312312, frame.getAsk());
+        assertEquals("2024-12-16T16:07:16.504", frame.getTimestamp());
+    }
+
+    @Test
+    void internsNames() {
+        TcpFrame first = parse("PF1_EURUSD|22:number:1.08|25:number:1.29|5:timestamp:2024-12-16T16:07:16.504");
+        String rateName = first.getRateName();
+        TcpFrame second = parse("PF1_EURUSD|22:number:1.09|25:number:1.30|5:timestamp:2024-12-16T16:07:17.504");
+
+        assertSame(rateName, second.getRateName());
+    }
+
+    @Test
+    void rejectsServerMessages() {
+        assertFalse(parser.parse(bytes("Subscribed to PF1_USDTRY"), 0, 24, new TcpFrame()));
+        assertFalse(parser.parse(bytes("ERROR|Invalid request format"), 0, 28, new TcpFrame()));
+    }
+
+    @Test
+    void parsesDoublesLikeDoubleParseDouble() {
+        String[] values = {"0", "1", "-2.5", "35.02", "1.08321321321", "0.000123", "123456789012345",
+                "35.287347832874325", "1.0E-5", "36.28734783287432"};
+        for (String value : values) {
+            byte[] text = bytes(value);
+            double expected = Double.parseDouble(value);
+            assertEquals(expected, TcpFrameParser.parseDouble(text, 0, text.length), Math.ulp(expected), value);
+        }
+    }
+
+    @Test
+    void readsLinesAcrossBufferBoundaries() throws Exception {
+        String stream = "OK\r\nPF1_USDTRY|22:number:35.1|25:number:36.1|5:timestamp:2024-12-16T16:07:16.504\nlast";
+        TcpFrameReader reader = new TcpFrameReader(new ByteArrayInputStream(bytes(stream)), 4);
+
+        assertTrue(reader.readLine());
+        assertTrue(reader.lineEqualsIgnoreCase("ok"));
+        assertTrue(reader.readLine());
+        TcpFrame frame = new TcpFrame();
+        assertTrue(parser.parse(reader.buffer(), reader.lineStart(), reader.lineEnd(), frame));
+        assertEquals(36.1, frame.getAsk());
+        assertTrue(reader.readLine());
+        assertEquals("last", reader.lineAsString());
+        assertFalse(reader.readLine());
+    }
+
+    private TcpFrame parse(String line) {
+        TcpFrame frame = new TcpFrame();
+        byte[] text = bytes(line);
+        assertTrue(parser.parse(text, 0, text.length, frame));
+        return frame;
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.ISO_8859_1);
+    }
+}
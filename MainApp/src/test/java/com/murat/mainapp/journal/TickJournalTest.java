@@ -0,0 +1,97 @@
+package com.murat.mainapp.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsBackTicksAcrossSegments() throws IOException {
+        // Kucuk segmentler, birkac kez yeni segmente gecilir
+        TickJournal journal = new TickJournal(true, directory.toString(), 4096, 0);
+        for (int i = 0; i < 200; i++) {
+            if (i % 50 == 49) {
+                journal.appendRejected("PF2_EURUSD", 2.0 + i, 2.5 + i, "2024-12-16T16:07:16.504");
+            } else {
+                journal.appendAccepted("PF1_USDTRY", 35.0 + i, 36.0 + i, "2024-12-16T16:07:" + (10 + i % 50) + ".504");
+            }
+        }
+
+        List<JournalEntry> entries = readAll();
+        assertEquals(200, entries.size());
+        assertTrue(TickJournalReader.segmentFiles(directory).size() > 1);
+
+        JournalEntry first = entries.get(0);
+        assertTrue(first.isAccepted());
+        assertEquals("PF1_USDTRY", first.getKey());
+        assertEquals(35.0, first.getBid());
+        assertEquals(36.0, first.getAsk());
+        assertEquals("2024-12-16T16:07:10.504", first.getTimestamp());
+        assertTrue(first.getReceivedMillis() > 0);
+
+        JournalEntry rejected = entries.get(49);
+        assertFalse(rejected.isAccepted());
+        assertEquals("PF2_EURUSD|51.0|51.5|2024-12-16T16:07:16.504", rejected.toReplayLine());
+        assertEquals(233.0, entries.get(198).getBid());
+    }
+
+    @Test
+    void restartContinuesTheLastSegment() throws IOException {
+        new TickJournal(true, directory.toString(), 4096, 0).appendAccepted("PF1_USDTRY", 35, 36, "t1");
+        new TickJournal(true, directory.toString(), 4096, 0).appendAccepted("PF1_USDTRY", 37, 38, "t2");
+
+        assertEquals(1, TickJournalReader.segmentFiles(directory).size());
+        assertEquals(List.of("t1", "t2"), readAll().stream().map(JournalEntry::getTimestamp).toList());
+
+        // Segment boyutu degistiyse yeni segmente gecilir
+        new TickJournal(true, directory.toString(), 8192, 0).appendAccepted("PF1_USDTRY", 39, 40, "t3");
+        assertEquals(2, TickJournalReader.segmentFiles(directory).size());
+        assertEquals(List.of("t1", "t2", "t3"), readAll().stream().map(JournalEntry::getTimestamp).toList());
+    }
+
+    @Test
+    void oldSegmentsBeyondTheLimitAreDeleted() throws IOException {
+        TickJournal journal = new TickJournal(true, directory.toString(), 4096, 3);
+        for (int i = 0; i < 1000; i++) {
+            journal.appendAccepted("PF1_USDTRY", i, i + 1, "2024-12-16T16:07:16.504");
+        }
+
+        List<Path> segments = TickJournalReader.segmentFiles(directory);
+        assertEquals(3, segments.size());
+        assertTrue(TickJournalReader.segmentIndex(segments.get(0)) > 1);
+
+        // Kalan kayitlar en yenileridir
+        List<JournalEntry> entries = readAll();
+        assertEquals(999.0, entries.get(entries.size() - 1).getBid());
+        assertEquals(entries.get(0).getBid() + entries.size() - 1, entries.get(entries.size() - 1).getBid());
+    }
+
+    @Test
+    void disabledJournalWritesNothing() throws IOException {
+        new TickJournal(false, directory.resolve("off").toString(), 4096, 0).appendAccepted("PF1_USDTRY", 35, 36, "t1");
+
+        assertEquals(List.of(), TickJournalReader.segmentFiles(directory.resolve("off")));
+    }
+
+    private List<JournalEntry> readAll() throws IOException {
+        List<JournalEntry> entries = new ArrayList<>();
+        try (TickJournalReader reader = new TickJournalReader(directory)) {
+            JournalEntry entry = new JournalEntry();
+            while (reader.next(entry)) {
+                entries.add(new JournalEntry(entry.isAccepted(), entry.getKey(), entry.getBid(), entry.getAsk(),
+                        entry.getTimestamp(), entry.getReceivedMillis()));
+            }
+        }
+        return entries;
+    }
+}
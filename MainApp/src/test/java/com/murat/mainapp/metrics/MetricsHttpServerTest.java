@@ -0,0 +1,61 @@
+package com.murat.mainapp.metrics;
+
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetricsHttpServerTest {
+
+    private final PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+
+    private final RateMetrics rateMetrics = new RateMetrics(registry);
+
+    private final MetricsHttpServer server = new MetricsHttpServer(registry, true, 0);
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    void platformMetersAreCachedAndRecorded() {
+        RateMetrics.PlatformMeters meters = rateMetrics.platform("PF1");
+        meters.accepted(System.nanoTime());
+        meters.rejected("percent-jump").increment();
+        rateMetrics.rateBookRead(true);
+        rateMetrics.rateBookRead(false);
+        rateMetrics.rateBookRead(false);
+
+        assertTrue(meters == rateMetrics.platform("PF1"));
+        assertEquals(1, registry.get("rate.ticks").tag("platform", "PF1").counter().count());
+        assertEquals(1, registry.get("rate.rejected").tags("platform", "PF1", "reason", "percent-jump").counter().count());
+        assertEquals(1, registry.get("rate.pipeline.latency").tag("platform", "PF1").timer().count());
+        assertEquals(2, registry.get("ratebook.reads").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void scrapeServesPrometheusText() throws Exception {
+        rateMetrics.platform("PF2").accepted(System.nanoTime());
+        rateMetrics.connectionState("PF2", true);
+        rateMetrics.connectionState("PF2", false);
+        server.start();
+
+        HttpResponse<String> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + "/metrics")).build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("rate_ticks_total{platform=\"PF2\"} 1.0"), response.body());
+        assertTrue(response.body().contains("rate_pipeline_latency_seconds_bucket{platform=\"PF2\""));
+        assertTrue(response.body().contains("fetcher_connected{platform=\"PF2\"} 0.0"));
+    }
+}
@@ -0,0 +1,96 @@
+package com.murat.mainapp.pipeline;
+
+import com.murat.ratecodec.model.RateMessage;
+import com.murat.mainapp.service.KafkaProducerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TickPipelineTest {
+
+    private final KafkaProducerService kafkaProducerService = mock(KafkaProducerService.class);
+
+    private final TickPipeline pipeline = new TickPipeline(kafkaProducerService, true, 1024, "blocking");
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+    }
+
+    @Test
+    void ticksOfEveryFetcherAreHandledInOrderOnOneThread() throws InterruptedException {
+        int fetchers = 4;
+        int ticksPerFetcher = 10_000;
+        Map<String, List<Double>> received = new ConcurrentHashMap<>();
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        CountDownLatch done = new CountDownLatch(fetchers * ticksPerFetcher);
+        pipeline.start((event, endOfBatch) -> {
+            threads.add(Thread.currentThread().getName());
+            received.computeIfAbsent(event.getPlatformName(), k -> new ArrayList<>()).add(event.getBid());
+            done.countDown();
+        });
+
+        List<Thread> publishers = new ArrayList<>();
+        for (int f = 0; f < fetchers; f++) {
+            String platformName = "PF" + f;
+            publishers.add(Thread.ofVirtual().start(() -> {
+                for (int i = 0; i < ticksPerFetcher; i++) {
+                    pipeline.publishUpdate(platformName, "USDTRY", i, i + 1, "2024-12-16T16:07:16.504");
+                }
+            }));
+        }
+        for (Thread publisher : publishers) {
+            publisher.join();
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(Set.of("tick-pipeline"), threads);
+        for (int f = 0; f < fetchers; f++) {
+            List<Double> bids = received.get("PF" + f);
+            assertEquals(ticksPerFetcher, bids.size());
+            for (int i = 0; i < ticksPerFetcher; i++) {
+                assertEquals(i, bids.get(i));
+            }
+        }
+    }
+
+    @Test
+    void handlerMessagesAreSentByThePublishStage() throws InterruptedException {
+        Set<String> sendingThreads = new HashSet<>();
+        CountDownLatch sent = new CountDownLatch(2);
+        doAnswer(invocation -> {
+            synchronized (sendingThreads) {
+                sendingThreads.add(Thread.currentThread().getName());
+            }
+            sent.countDown();
+            return null;
+        }).when(kafkaProducerService).sendMessage(any());
+
+        pipeline.start((event, endOfBatch) -> {
+            if (event.getType() == TickEvent.Type.CALCULATE) {
+                pipeline.publish(new RateMessage(null, "USDTRY", 35, 36, "2024-12-16T16:07:16.504"));
+            } else {
+                pipeline.publish(new RateMessage(event.getPlatformName(), event.getRateName(), event.getBid(),
+                        event.getAsk(), event.getTimestamp()));
+            }
+        });
+        pipeline.publishAvailable("PF1", "USDTRY", 35, 36, "2024-12-16T16:07:16.504");
+        pipeline.requestCalculation();
+
+        assertTrue(sent.await(5, TimeUnit.SECONDS));
+        verify(kafkaProducerService).sendMessage(new RateMessage("PF1", "USDTRY", 35, 36, "2024-12-16T16:07:16.504"));
+        verify(kafkaProducerService).sendMessage(new RateMessage(null, "USDTRY", 35, 36, "2024-12-16T16:07:16.504"));
+        assertEquals(Set.of("kafka-publisher"), sendingThreads);
+    }
+}
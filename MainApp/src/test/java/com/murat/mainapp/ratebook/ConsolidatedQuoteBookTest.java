@@ -0,0 +1,96 @@
+package com.murat.mainapp.ratebook;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsolidatedQuoteBookTest {
+
+    private static final long MILLIS = 1_000_000;
+
+    @Test
+    void bestBidAndOfferComeFromDifferentPlatforms() {
+        ConsolidatedQuoteBook book = new ConsolidatedQuoteBook(4, 5000, 0);
+        book.update("PF1", "USDTRY", 35.00, 36.00, 0);
+        book.update("PF2", "USDTRY", 35.10, 36.20, 0);
+
+        ConsolidatedQuoteBook.Quote quote = book.get("USDTRY", 0);
+        assertEquals(35.10, quote.bestBid());
+        assertEquals("PF2", quote.bestBidPlatform());
+        assertEquals(36.00, quote.bestAsk());
+        assertEquals("PF1", quote.bestAskPlatform());
+        assertEquals(35.05, quote.bid(), 1e-12);
+        assertEquals(36.10, quote.ask(), 1e-12);
+        assertEquals(2, quote.platforms());
+        assertNull(book.get("EURUSD", 0));
+    }
+
+    @Test
+    void olderQuotesWeighLessAndExpire() {
+        ConsolidatedQuoteBook book = new ConsolidatedQuoteBook(4, 5000, 1000);
+        book.update("PF1", "USDTRY", 35.0, 36.0, 0);
+        book.update("PF2", "USDTRY", 38.0, 39.0, 1000 * MILLIS);
+
+        // PF1 bir yari omur daha eski, agirliklar 1/2 ve 1
+        double[] bidAsk = new double[2];
+        assertTrue(book.read("USDTRY", 1000 * MILLIS, bidAsk));
+        assertEquals(37.0, bidAsk[0], 1e-9);
+        assertEquals(38.0, bidAsk[1], 1e-9);
+
+        // Zaman gectikce oran degismez
+        assertTrue(book.read("USDTRY", 3000 * MILLIS, bidAsk));
+        assertEquals(37.0, bidAsk[0], 1e-9);
+
+        // PF1 max-age'i asti
+        assertTrue(book.read("USDTRY", 5500 * MILLIS, bidAsk));
+        assertEquals(38.0, bidAsk[0], 1e-9);
+        assertEquals(1, book.get("USDTRY", 5500 * MILLIS).platforms());
+
+        assertFalse(book.read("USDTRY", 7000 * MILLIS, bidAsk));
+    }
+
+    @Test
+    void removedPlatformIsLeftOut() {
+        ConsolidatedQuoteBook book = new ConsolidatedQuoteBook(4, 5000, 0);
+        book.update("PF1", "USDTRY", 35.0, 36.0, System.nanoTime());
+        book.update("PF2", "USDTRY", 35.2, 36.2, System.nanoTime());
+
+        book.removePlatform("PF2");
+
+        ConsolidatedQuoteBook.Quote quote = book.get("USDTRY", System.nanoTime());
+        assertEquals(1, quote.platforms());
+        assertEquals("PF1", quote.bestBidPlatform());
+        assertEquals(35.0, quote.bid());
+    }
+
+    @Test
+    void slowPlatformStaysInTheBookBetweenItsTicks() {
+        // application.properties varsayilanlari; PF1 30 sn'de bir, PF2 5 sn'de bir yayinlar
+        ConsolidatedQuoteBook book = new ConsolidatedQuoteBook(4, 65_000, 30_000);
+        double[] bidAsk = new double[2];
+        for (long millis = 0; millis <= 300_000; millis += 500) {
+            long now = millis * MILLIS;
+            if (millis % 30_000 == 0) {
+                book.update("PF1", "USDTRY", 35.0, 36.0, now);
+            }
+            if (millis % 5_000 == 2_500) {
+                book.update("PF2", "USDTRY", 38.0, 39.0, now);
+            }
+            if (millis < 2_500) {
+                continue;
+            }
+
+            ConsolidatedQuoteBook.Quote quote = book.get("USDTRY", now);
+            assertEquals(2, quote.platforms(), "at " + millis + " ms");
+            // PF1'in agirligi en eski halinde bile yeni bir quote'un yarisindan az degil
+            assertTrue(quote.bid() > 35.0 && quote.bid() <= 37.0, "at " + millis + " ms: " + quote.bid());
+            assertTrue(book.read("USDTRY", now, bidAsk));
+        }
+
+        // Bir tick kacirilirsa da PF1 kalir, iki tick kacirilinca cikar
+        book.update("PF2", "USDTRY", 38.0, 39.0, 360_000 * MILLIS);
+        assertEquals(2, book.get("USDTRY", 360_000 * MILLIS).platforms());
+        book.update("PF2", "USDTRY", 38.0, 39.0, 366_000 * MILLIS);
+        assertEquals(1, book.get("USDTRY", 366_000 * MILLIS).platforms());
+    }
+}
@@ -0,0 +1,116 @@
+package com.murat.mainapp.ratebook;
+
+import com.murat.mainapp.model.Rate;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateBookTest {
+
+    @Test
+    void updateAndReadRoundTrip() {
+        RateBook book = new RateBook(16);
+        int id = book.idOf("PF1", "USDTRY");
+
+        assertEquals(id, book.idOf("PF1", "USDTRY"));
+        assertNotEquals(id, book.idOf("PF2", "USDTRY"));
+        assertFalse(book.hasValue(id));
+        assertNull(book.get(id));
+
+        book.update(id, 35.02, 36.02, "2024-12-16T16:07:16.504");
+
+        Rate rate = book.get("PF1", "USDTRY");
+        assertEquals("USDTRY", rate.getRateName());
+        assertEquals(35.02, rate.getBid());
+        assertEquals(36.02, rate.getAsk());
+        assertEquals("2024-12-16T16:07:16.504", rate.getTimestamp());
+        assertTrue(book.hasValue(id));
+        assertEquals(35.02, book.bid(id));
+        assertEquals(36.02, book.ask(id));
+        assertEquals("PF1_USDTRY", book.keyOf(id));
+        assertEquals("PF1", book.platformOf(id));
+        assertEquals("USDTRY", book.rateNameOf(id));
+        assertEquals(2, book.size());
+    }
+
+    @Test
+    void takeFreshIsClearedUntilTheNextUpdate() {
+        RateBook book = new RateBook(16);
+        int id = book.idOf("PF1", "USDTRY");
+        assertFalse(book.takeFresh(id));
+
+        book.update(id, 35.02, 36.02, "2024-12-16T16:07:16.504");
+        book.update(id, 35.03, 36.03, "2024-12-16T16:07:16.604");
+        assertTrue(book.takeFresh(id));
+        assertFalse(book.takeFresh(id));
+
+        // Okumak fresh bayragini degistirmez
+        book.get(id);
+        assertFalse(book.takeFresh(id));
+
+        book.update(id, 35.04, 36.04, "2024-12-16T16:07:16.704");
+        assertTrue(book.takeFresh(id));
+    }
+
+    @Test
+    void registeringBeyondTheCapacityFails() {
+        RateBook book = new RateBook(2);
+        book.idOf("PF1", "USDTRY");
+        book.idOf("PF2", "USDTRY");
+
+        assertThrows(IllegalStateException.class, () -> book.idOf("PF1", "EURUSD"));
+        // Kayitli ciftler kullanilmaya devam eder
+        assertEquals(1, book.idOf("PF2", "USDTRY"));
+        assertEquals(2, book.size());
+    }
+
+    @Test
+    void readersNeverSeeAHalfWrittenRate() throws InterruptedException {
+        RateBook book = new RateBook(16);
+        int id = book.idOf("PF1", "USDTRY");
+        book.update(id, 0, 1, "0");
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> torn = new AtomicReference<>();
+
+        // Her yazimda bid, ask ve timestamp birbirinden turetilir
+        Thread writer = new Thread(() -> {
+            for (int i = 1; i <= 1_000_000; i++) {
+                book.update(id, i, i + 1, Integer.toString(i));
+            }
+            running.set(false);
+        });
+
+        Thread[] readers = new Thread[3];
+        for (int r = 0; r < readers.length; r++) {
+            readers[r] = new Thread(() -> {
+                Rate rate = new Rate();
+                double lastBid = 0;
+                while (running.get() && torn.get() == null) {
+                    book.read(id, rate);
+                    double bid = rate.getBid();
+                    if (rate.getAsk() != bid + 1 || !rate.getTimestamp().equals(Integer.toString((int) bid))
+                            || bid < lastBid) {
+                        torn.set(bid + " " + rate.getAsk() + " " + rate.getTimestamp());
+                    }
+                    lastBid = bid;
+                }
+            });
+        }
+
+        for (Thread reader : readers) {
+            reader.start();
+        }
+        writer.start();
+        writer.join();
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertNull(torn.get());
+        assertEquals(1_000_000, book.bid(id));
+    }
+}
@@ -0,0 +1,24 @@
+package com.murat.mainapp.ratebook;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisRateMirrorTest {
+
+    @Test
+    void shutdownWritesThePendingValues() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("raw_rates");
+        // Periyodik flush testte hic calismaz
+        RedisRateMirror mirror = new RedisRateMirror(cacheManager, 60_000);
+
+        mirror.mirror("raw_rates", "PF1_USDTRY", "first");
+        mirror.mirror("raw_rates", "PF1_USDTRY", "latest");
+        mirror.mirror("raw_rates", "PF2_USDTRY", "other");
+        mirror.shutdown();
+
+        assertEquals("latest", cacheManager.getCache("raw_rates").get("PF1_USDTRY").get());
+        assertEquals("other", cacheManager.getCache("raw_rates").get("PF2_USDTRY").get());
+    }
+}
@@ -0,0 +1,102 @@
+package com.murat.mainapp.service;
+
+import com.murat.mainapp.calculator.JavaRateCalculator;
+import com.murat.mainapp.calculator.graph.CrossRateFormula;
+import com.murat.mainapp.calculator.graph.CrossRateGraph;
+import com.murat.mainapp.calculator.graph.CrossRateType;
+import com.murat.mainapp.config.CrossRateConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CurrencyServiceTest {
+
+    private static final Map<String, double[]> RAW = Map.of(
+            "USDTRY", new double[]{34.2, 35.5},
+            "EURUSD", new double[]{1.0295, 1.043},
+            "GBPUSD", new double[]{1.25, 1.27});
+
+    /**
+     * AVERAGE dugumlerini sabit bir marjla hesaplar, digerleri {@link JavaRateCalculator} gibi
+     */
+    public static class MarginCalculator extends JavaRateCalculator {
+
+        @Override
+        public CrossRateFormula formulaOf(String rateName, CrossRateType type) {
+            if (type != CrossRateType.AVERAGE) {
+                return super.formulaOf(rateName, type);
+            }
+            return new CrossRateFormula() {
+                @Override
+                public boolean usesBase() {
+                    return false;
+                }
+
+                @Override
+                public boolean evaluate(double sourceBid, double sourceAsk, double baseBid, double baseAsk,
+                                        double[] bidAsk) {
+                    bidAsk[0] = sourceBid - 0.1;
+                    bidAsk[1] = sourceAsk + 0.1;
+                    return true;
+                }
+            };
+        }
+    }
+
+    @Test
+    void graphIsCalculatedByTheDefaultCalculator() {
+        Map<String, double[]> results = evaluate(JavaRateCalculator.class.getName());
+
+        assertArrayEquals(new double[]{34.2, 35.5}, results.get("USDTRY"), 1e-9);
+        assertArrayEquals(new double[]{34.85 * 1.0295, 34.85 * 1.043}, results.get("EURTRY"), 1e-9);
+        assertArrayEquals(new double[]{34.85 * 1.25, 34.85 * 1.27}, results.get("GBPTRY"), 1e-9);
+    }
+
+    @Test
+    void configuredCalculatorIsUsedForTheNodesAndTheirDependents() {
+        Map<String, double[]> results = evaluate(MarginCalculator.class.getName());
+
+        assertArrayEquals(new double[]{34.1, 35.6}, results.get("USDTRY"), 1e-9);
+        // EURTRY, degisen USDTRY'nin mid'ini kullanir (34.85)
+        assertArrayEquals(new double[]{34.85 * 1.0295, 34.85 * 1.043}, results.get("EURTRY"), 1e-9);
+    }
+
+    @Test
+    void formulasAreChosenByTheConfiguredTypeNotTheName() {
+        // Yeniden adlandirilmis ve yeni dugumler de tiplerinin formulunu alir
+        CrossRateGraph graph = CrossRateGraph.compile(List.of(
+                new CrossRateConfig("DOLAR", CrossRateType.AVERAGE, "USDTRY", null),
+                new CrossRateConfig("STERLIN", CrossRateType.CROSS, "GBPUSD", "DOLAR"),
+                new CrossRateConfig("EURTRY", CrossRateType.INVERSE_CROSS, "EURUSD", "DOLAR")), new MarginCalculator());
+
+        Map<String, double[]> results = evaluate(graph);
+
+        assertArrayEquals(new double[]{34.1, 35.6}, results.get("DOLAR"), 1e-9);
+        assertArrayEquals(new double[]{34.85 * 1.25, 34.85 * 1.27}, results.get("STERLIN"), 1e-9);
+        // Adi EURTRY olsa da tipi INVERSE_CROSS
+        assertArrayEquals(new double[]{34.85 / 1.043, 34.85 / 1.0295}, results.get("EURTRY"), 1e-9);
+    }
+
+    private static Map<String, double[]> evaluate(String calculatorClass) {
+        return evaluate(new CurrencyService(calculatorClass, "formulas.yml", "crossrates.yml").getCrossRateGraph());
+    }
+
+    private static Map<String, double[]> evaluate(CrossRateGraph graph) {
+        BitSet nodes = new BitSet();
+        graph.mark(graph.rateNames(), nodes);
+
+        Map<String, double[]> results = new HashMap<>();
+        graph.evaluate(nodes, (rateName, bidAsk) -> {
+            double[] value = RAW.get(rateName);
+            bidAsk[0] = value[0];
+            bidAsk[1] = value[1];
+            return true;
+        }, (rateName, bid, ask) -> results.put(rateName, new double[]{bid, ask}));
+        return results;
+    }
+}
@@ -0,0 +1,46 @@
+package com.murat.mainapp.service;
+
+import com.murat.ratecodec.model.RateMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class KafkaProducerServiceTest {
+
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, RateMessage> kafkaTemplate = mock(KafkaTemplate.class);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final KafkaProducerService service = new KafkaProducerService(kafkaTemplate, registry, "test-topic");
+
+    @Test
+    void sendIsKeyedByRateAndRecordsLatency() {
+        RateMessage message = new RateMessage("PF1", "USDTRY", 35.0, 36.0, "2024-12-16T16:07:16.504");
+        when(kafkaTemplate.send("test-topic", "PF1_USDTRY", message))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        service.sendMessage(message);
+
+        assertEquals(1, registry.get("rate.kafka.send").tag("rate", "PF1_USDTRY").timer().count());
+        assertEquals(0.0, registry.get("rate.kafka.send.in-flight").gauge().value());
+    }
+
+    @Test
+    void failedSendIsCounted() {
+        RateMessage message = new RateMessage(null, "EURTRY", 37.9, 38.1, "2024-12-16T16:07:16.504");
+        when(kafkaTemplate.send("test-topic", "EURTRY", message))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        service.sendMessage(message);
+
+        assertEquals(1.0, registry.get("rate.kafka.send.failures").tag("rate", "EURTRY").counter().count());
+        assertEquals(0, registry.get("rate.kafka.send").tag("rate", "EURTRY").timer().count());
+    }
+}
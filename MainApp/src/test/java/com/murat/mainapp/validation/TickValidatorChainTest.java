@@ -0,0 +1,94 @@
+package com.murat.mainapp.validation;
+
+import com.murat.mainapp.config.ValidationConfig;
+import com.murat.mainapp.config.ValidatorConfig;
+import com.murat.mainapp.exception.ValidationConfigException;
+import com.murat.mainapp.ratebook.RateBook;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickValidatorChainTest {
+
+    private static final String TIMESTAMP = "2024-12-16T16:07:16.504";
+
+    private final RateBook rateBook = new RateBook(16);
+
+    private TickValidatorChain chain(ValidatorConfig... validators) {
+        return new TickValidatorChain(rateBook, new ValidationConfig(List.of(validators), Map.of()), 1);
+    }
+
+    private String accept(TickValidatorChain chain, String platformName, double bid, double ask, String timestamp) {
+        int id = rateBook.idOf(platformName, "USDTRY");
+        String rejectedBy = chain.validate(id, platformName, "USDTRY", bid, ask, timestamp);
+        if (rejectedBy == null) {
+            rateBook.update(id, bid, ask, timestamp);
+        }
+        return rejectedBy;
+    }
+
+    @Test
+    void firstFailingValidatorIsTheReason() {
+        TickValidatorChain chain = chain(new ValidatorConfig("crossed-market", null),
+                new ValidatorConfig("percent-jump", Map.of("max-percent", "1")));
+
+        assertNull(accept(chain, "PF1", 35.0, 36.0, TIMESTAMP));
+        assertEquals("crossed-market", accept(chain, "PF1", 36.5, 36.0, TIMESTAMP));
+        assertEquals("crossed-market", accept(chain, "PF1", Double.NaN, 36.0, TIMESTAMP));
+        assertEquals("percent-jump", accept(chain, "PF1", 35.5, 36.5, TIMESTAMP));
+        assertNull(accept(chain, "PF1", 35.3, 36.3, TIMESTAMP));
+        assertEquals(3, chain.getRejections());
+    }
+
+    @Test
+    void zScoreRejectsOutliersOnceTheWindowIsWarm() {
+        TickValidatorChain chain = chain(new ValidatorConfig("z-score",
+                Map.of("window", "50", "max-z", "4", "min-samples", "20")));
+
+        // Kucuk, duzenli salinimlar
+        for (int i = 0; i < 60; i++) {
+            double mid = 35 + (i % 2 == 0 ? 0.001 : -0.001);
+            assertNull(accept(chain, "PF1", mid - 0.5, mid + 0.5, TIMESTAMP), "tick " + i);
+        }
+        assertEquals("z-score", accept(chain, "PF1", 35.2, 36.2, TIMESTAMP));
+        assertNull(accept(chain, "PF1", 34.5, 35.5, TIMESTAMP));
+    }
+
+    @Test
+    void staleAndCrossPlatformChecks() {
+        TickValidatorChain chain = chain(new ValidatorConfig("stale-timestamp", null),
+                new ValidatorConfig("cross-platform-deviation", Map.of("max-percent", "2")));
+
+        assertNull(accept(chain, "PF1", 35.0, 36.0, "2024-12-16T16:07:16.504"));
+        assertEquals("stale-timestamp", accept(chain, "PF1", 35.0, 36.0, "2024-12-16T16:07:16.503"));
+        assertEquals("stale-timestamp", accept(chain, "PF1", 35.0, 36.0, "not a timestamp"));
+
+        assertNull(accept(chain, "PF2", 35.2, 36.2, TIMESTAMP));
+        assertEquals("cross-platform-deviation", accept(chain, "PF3", 37.0, 38.0, TIMESTAMP));
+        assertNull(accept(chain, "PF3", 35.1, 36.1, TIMESTAMP));
+    }
+
+    @Test
+    void rollingWindowMatchesDirectStatistics() {
+        RollingWindow window = new RollingWindow(4);
+        double[] values = {1, 2, 3, 4, 5, 6, 7};
+        for (double value : values) {
+            window.add(value);
+        }
+
+        // Son dort deger: 4, 5, 6, 7
+        assertEquals(4, window.count());
+        assertEquals(5.5, window.mean(), 1e-12);
+        assertEquals(Math.sqrt(1.25), window.standardDeviation(), 1e-12);
+    }
+
+    @Test
+    void unknownValidatorIsAConfigurationError() {
+        assertThrows(ValidationConfigException.class, () -> chain(new ValidatorConfig("spread", null)));
+        assertThrows(ValidationConfigException.class,
+                () -> chain(new ValidatorConfig("percent-jump", Map.of("max-percent", "one"))));
+    }
+}
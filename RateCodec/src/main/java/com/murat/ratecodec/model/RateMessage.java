@@ -0,0 +1,61 @@
+package com.murat.ratecodec.model;
+
+import com.murat.ratecodec.serialization.RateMessageCodec;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+
+/**
+ * A rate as it is sent from MainApp to Kafka.
+ *
+ * <p>Raw rates carry the name of the platform they came from (e.g. {@code PF1}), calculated rates have no
+ * platform. The message is written to Kafka either in the legacy text format or in the compact binary format,
+ * see {@link RateMessageCodec}.</p>
+ *
+ * <p>{@link #toString()} returns the text format, so a message can be logged the same way in both formats. When
+ * a message is a log parameter, log4j2 calls {@link #formatTo(StringBuilder)} instead, which writes the text
+ * format into its reused buffer without allocating.</p>
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class RateMessage implements StringBuilderFormattable {
+
+    /**
+     * The platform of a raw rate (e.g. "PF1"), {@code null} for calculated rates.
+     */
+    private String platformName;
+
+    /**
+     * The name of the rate (e.g. "USDTRY").
+     */
+    private String rateName;
+
+    private double bid;
+
+    private double ask;
+
+    /**
+     * The time the rate was created, in {@code yyyy-MM-dd'T'HH:mm:ss.SSS} format.
+     */
+    private String timestamp;
+
+    /**
+     * @return the rate in the text format, e.g. {@code PF1_USDTRY|35.02|36.02|2024-12-16T16:07:16.504}
+     */
+    @Override
+    public String toString() {
+        return RateMessageCodec.toText(this);
+    }
+
+    /**
+     * Writes the text format into a log4j2 buffer.
+     *
+     * @param buffer the buffer
+     */
+    @Override
+    public void formatTo(StringBuilder buffer) {
+        RateMessageCodec.appendText(this, buffer);
+    }
+}
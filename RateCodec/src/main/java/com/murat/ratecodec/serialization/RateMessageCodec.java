@@ -0,0 +1,444 @@
+package com.murat.ratecodec.serialization;
+
+import com.murat.ratecodec.model.RateMessage;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Encodes and decodes {@link RateMessage}s for Kafka.
+ *
+ * <p>Two formats are supported:</p>
+ * <ul>
+ *   <li>{@link Format#TEXT} - the original pipe separated format, e.g.
+ *   {@code PF1_USDTRY|35.02|36.02|2024-12-16T16:07:16.504}, bid and ask rounded to 2 decimals.</li>
+ *   <li>{@link Format#BINARY} - a fixed layout of {@value #FIXED_LENGTH} bytes, big-endian:
+ *   <pre>
+ *   offset  size  field
+ *   0       1     magic (0xB1)
+ *   1       1     version (1)
+ *   2       1     platform id, 0 = no platform, 255 = name follows
+ *   3       1     symbol id, 255 = name follows
+ *   4       8     bid * 10^8 as long
+ *   12      8     ask * 10^8 as long
+ *   20      8     timestamp as nanoseconds since epoch, read as UTC; Long.MIN_VALUE if unknown
+ *   28      -     platform name, then symbol name, each as 1 byte length + UTF-8 bytes, only if escaped
+ *   </pre></li>
+ * </ul>
+ *
+ * <p>Text messages always start with a letter, so {@link #decode(byte[])} detects the format from the first byte
+ * and consumers accept both formats at the same time.</p>
+ *
+ * <p>MainApp, KafkaConsumer and KafkaConsumerOpensearch all use this class from the RateCodec module, so
+ * {@link #PLATFORMS} and {@link #SYMBOLS} are the same for the producer and the consumers. New entries may only be
+ * appended, since consumers still running an older build decode by index; names which are not in the tables are
+ * sent with the escape id.</p>
+ */
+public final class RateMessageCodec {
+
+    /**
+     * Wire formats selected with {@code rate.wire.format}.
+     */
+    public enum Format {
+        TEXT,
+        BINARY;
+
+        /**
+         * @param value {@code text} or {@code binary}, case-insensitive
+         * @return the matching format
+         * @throws IllegalArgumentException if the value is not a known format
+         */
+        public static Format of(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    public static final byte MAGIC = (byte) 0xB1;
+
+    public static final byte VERSION = 1;
+
+    public static final int FIXED_LENGTH = 28;
+
+    private static final int NO_PLATFORM = 0;
+
+    private static final int ESCAPE = 255;
+
+    private static final double SCALE = 1e8;
+
+    /**
+     * Platform ids, the id is the index + 1.
+     */
+    static final List<String> PLATFORMS = List.of("PF1", "PF2");
+
+    /**
+     * Symbol ids, the id is the index.
+     */
+    static final List<String> SYMBOLS = List.of("USDTRY", "EURUSD", "GBPUSD", "EURTRY", "GBPTRY");
+
+    /**
+     * 10000-01-01T00:00:00, later timestamps have more than 4 year digits.
+     */
+    private static final long MAX_FAST_EPOCH_SECOND = 253402300800L;
+
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS");
+
+    private RateMessageCodec() {
+    }
+
+    /**
+     * Encodes a message in the given format.
+     *
+     * @param message the message to encode
+     * @param format the wire format
+     * @return the encoded message
+     */
+    public static byte[] encode(RateMessage message, Format format) {
+        return format == Format.BINARY ? toBinary(message) : toText(message).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decodes a message in either format.
+     *
+     * @param data the encoded message
+     * @return the decoded message
+     * @throws IllegalArgumentException if the data is not a valid message
+     */
+    public static RateMessage decode(byte[] data) {
+        if (data.length > 0 && data[0] == MAGIC) {
+            return fromBinary(data);
+        }
+        return fromText(new String(data, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Bid and ask are rounded half up to 2 decimals with a {@code .} separator whatever the default locale.
+     *
+     * @return the message in the text format, e.g. {@code PF1_USDTRY|35.02|36.02|2024-12-16T16:07:16.504}
+     */
+    public static String toText(RateMessage message) {
+        StringBuilder buffer = new StringBuilder(64);
+        appendText(message, buffer);
+        return buffer.toString();
+    }
+
+    /**
+     * Appends the message in the text format without creating intermediate strings, used when a message is logged.
+     *
+     * <p>Bid and ask are rounded half up to 2 decimals with a {@code .} separator, like
+     * {@link #toText(RateMessage)}.</p>
+     *
+     * @param message the message
+     * @param buffer receives the text
+     */
+    public static void appendText(RateMessage message, StringBuilder buffer) {
+        if (message.getPlatformName() != null) {
+            buffer.append(message.getPlatformName()).append('_');
+        }
+        buffer.append(message.getRateName()).append('|');
+        appendTwoDecimals(message.getBid(), buffer);
+        buffer.append('|');
+        appendTwoDecimals(message.getAsk(), buffer);
+        buffer.append('|').append(message.getTimestamp());
+    }
+
+    /**
+     * Parses a message in the text format. A name like {@code PF1_USDTRY} is split into platform and rate name.
+     *
+     * @param text the message
+     * @return the decoded message
+     * @throws IllegalArgumentException if the text does not have four fields or bid/ask is not a number
+     */
+    public static RateMessage fromText(String text) {
+        int bidStart = text.indexOf('|') + 1;
+        int askStart = text.indexOf('|', bidStart) + 1;
+        int timestampStart = text.indexOf('|', askStart) + 1;
+        if (bidStart == 0 || askStart == 0 || timestampStart == 0) {
+            throw new IllegalArgumentException("Invalid rate message: " + text);
+        }
+
+        String name = text.substring(0, bidStart - 1);
+        int separator = name.indexOf('_');
+        String platformName = separator < 0 ? null : name.substring(0, separator);
+        String rateName = separator < 0 ? name : name.substring(separator + 1);
+
+        double bid = Double.parseDouble(text.substring(bidStart, askStart - 1));
+        double ask = Double.parseDouble(text.substring(askStart, timestampStart - 1));
+        return new RateMessage(platformName, rateName, bid, ask, text.substring(timestampStart));
+    }
+
+    /**
+     * @return the message in the binary format
+     * @throws IllegalArgumentException if bid or ask cannot be represented with 8 decimals
+     */
+    public static byte[] toBinary(RateMessage message) {
+        String platformName = message.getPlatformName();
+        int platformId = platformName == null ? NO_PLATFORM : idOf(PLATFORMS, platformName, 1);
+        int symbolId = idOf(SYMBOLS, message.getRateName(), 0);
+
+        byte[] platformBytes = platformId == ESCAPE ? nameBytes(platformName) : null;
+        byte[] symbolBytes = symbolId == ESCAPE ? nameBytes(message.getRateName()) : null;
+        int length = FIXED_LENGTH
+                + (platformBytes == null ? 0 : 1 + platformBytes.length)
+                + (symbolBytes == null ? 0 : 1 + symbolBytes.length);
+
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.put(MAGIC);
+        buffer.put(VERSION);
+        buffer.put((byte) platformId);
+        buffer.put((byte) symbolId);
+        buffer.putLong(toScaled(message.getBid()));
+        buffer.putLong(toScaled(message.getAsk()));
+        buffer.putLong(toEpochNanos(message.getTimestamp()));
+        if (platformBytes != null) {
+            buffer.put((byte) platformBytes.length).put(platformBytes);
+        }
+        if (symbolBytes != null) {
+            buffer.put((byte) symbolBytes.length).put(symbolBytes);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Parses a message in the binary format.
+     *
+     * @param data the encoded message
+     * @return the decoded message
+     * @throws IllegalArgumentException if the data is not a binary message of a supported version
+     */
+    public static RateMessage fromBinary(byte[] data) {
+        if (data.length < FIXED_LENGTH || data[0] != MAGIC) {
+            throw new IllegalArgumentException("Invalid binary rate message of " + data.length + " bytes");
+        }
+        if (data[1] != VERSION) {
+            throw new IllegalArgumentException("Unsupported rate message version " + data[1]);
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        int platformId = buffer.get(2) & 0xFF;
+        int symbolId = buffer.get(3) & 0xFF;
+        double bid = buffer.getLong(4) / SCALE;
+        double ask = buffer.getLong(12) / SCALE;
+        long epochNanos = buffer.getLong(20);
+
+        buffer.position(FIXED_LENGTH);
+        String platformName;
+        if (platformId == NO_PLATFORM) {
+            platformName = null;
+        } else if (platformId == ESCAPE) {
+            platformName = readName(buffer);
+        } else {
+            platformName = nameOf(PLATFORMS, platformId - 1);
+        }
+        String rateName = symbolId == ESCAPE ? readName(buffer) : nameOf(SYMBOLS, symbolId);
+
+        return new RateMessage(platformName, rateName, bid, ask, fromEpochNanos(epochNanos));
+    }
+
+    /**
+     * Converts a price to a long with 8 decimals. Rates are far below the limit of about 9.2 * 10^10.
+     */
+    static long toScaled(double value) {
+        double scaled = Math.rint(value * SCALE);
+        if (Double.isNaN(scaled) || Math.abs(scaled) >= 0x1p63) {
+            throw new IllegalArgumentException("Rate value out of range: " + value);
+        }
+        return (long) scaled;
+    }
+
+    /**
+     * Converts a {@code yyyy-MM-dd'T'HH:mm:ss[.fraction]} local date-time into nanoseconds since epoch,
+     * interpreting it as UTC.
+     *
+     * <p>The {@code yyyy-MM-dd'T'HH:mm:ss.SSS} format of the platforms is converted directly, other
+     * formats are parsed with {@link LocalDateTime#parse(CharSequence)}. This is the only conversion of tick
+     * timestamps in MainApp, its validators and the replay use it too.</p>
+     *
+     * @return nanoseconds since epoch, or {@link Long#MIN_VALUE} if the timestamp is missing or invalid
+     */
+    public static long toEpochNanos(String timestamp) {
+        if (timestamp == null || timestamp.isEmpty()) {
+            return Long.MIN_VALUE;
+        }
+        long millis = parseMillisTimestamp(timestamp);
+        if (millis != Long.MIN_VALUE) {
+            return millis * 1_000_000L;
+        }
+        try {
+            LocalDateTime dateTime = LocalDateTime.parse(timestamp);
+            return Math.addExact(Math.multiplyExact(dateTime.toEpochSecond(ZoneOffset.UTC), 1_000_000_000L),
+                    dateTime.getNano());
+        } catch (DateTimeParseException | ArithmeticException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Inverse of {@link #toEpochNanos(String)}. Millisecond timestamps are formatted like the platforms send them.
+     */
+    static String fromEpochNanos(long epochNanos) {
+        if (epochNanos == Long.MIN_VALUE) {
+            return "";
+        }
+        long epochSecond = Math.floorDiv(epochNanos, 1_000_000_000L);
+        int nanos = (int) Math.floorMod(epochNanos, 1_000_000_000L);
+        if (nanos % 1_000_000 == 0 && epochSecond >= 0 && epochSecond < MAX_FAST_EPOCH_SECOND) {
+            return formatMillisTimestamp(epochSecond, nanos / 1_000_000);
+        }
+        LocalDateTime dateTime = LocalDateTime.ofEpochSecond(epochSecond, nanos, ZoneOffset.UTC);
+        if (nanos % 1_000_000 == 0) {
+            return dateTime.format(TIMESTAMP_FORMATTER);
+        }
+        return dateTime.toString();
+    }
+
+    /**
+     * Parses {@code yyyy-MM-dd'T'HH:mm:ss.SSS} without {@link java.time}, which dominates the cost of a message.
+     *
+     * @return milliseconds since epoch, or {@link Long#MIN_VALUE} if the text has another format
+     */
+    private static long parseMillisTimestamp(String text) {
+        if (text.length() != 23
+                || text.charAt(4) != '-' || text.charAt(7) != '-' || text.charAt(10) != 'T'
+                || text.charAt(13) != ':' || text.charAt(16) != ':' || text.charAt(19) != '.') {
+            return Long.MIN_VALUE;
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 2);
+        int day = digits(text, 8, 2);
+        int hour = digits(text, 11, 2);
+        int minute = digits(text, 14, 2);
+        int second = digits(text, 17, 2);
+        int millis = digits(text, 20, 3);
+        if ((year | month | day | hour | minute | second | millis) < 0
+                || month < 1 || month > 12 || day < 1 || day > 31 || hour > 23 || minute > 59 || second > 59) {
+            return Long.MIN_VALUE;
+        }
+        long secondOfDay = hour * 3600L + minute * 60L + second;
+        return (epochDay(year, month, day) * 86400L + secondOfDay) * 1000L + millis;
+    }
+
+    private static void appendTwoDecimals(double value, StringBuilder buffer) {
+        if (!(Math.abs(value) < 1e10)) {
+            // NaN, sonsuz ya da olcekli long'a sigmayan degerler
+            buffer.append(String.format(Locale.ROOT, "%.2f", value));
+            return;
+        }
+        // 8 haneli olcekli degerden yarim yukari yuvarlanir, String.format gibi 1.005 -> 1.01
+        long scaled = toScaled(value);
+        long cents = (Math.abs(scaled) + 500_000) / 1_000_000;
+        if (scaled < 0 && cents != 0) {
+            buffer.append('-');
+        }
+        buffer.append(cents / 100).append('.');
+        long fraction = cents % 100;
+        if (fraction < 10) {
+            buffer.append('0');
+        }
+        buffer.append(fraction);
+    }
+
+    private static String formatMillisTimestamp(long epochSecond, int millis) {
+        long epochDay = epochSecond / 86400;
+        int secondOfDay = (int) (epochSecond % 86400);
+
+        // 1970-03-01'den itibaren 400 yillik donemler (epochDay'in tersi)
+        long zeroDay = epochDay + 719468;
+        long era = zeroDay / 146097;
+        int dayOfEra = (int) (zeroDay - era * 146097);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int monthIndex = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * monthIndex + 2) / 5 + 1;
+        int month = monthIndex < 10 ? monthIndex + 3 : monthIndex - 9;
+        int year = (int) (yearOfEra + era * 400) + (month <= 2 ? 1 : 0);
+
+        char[] chars = new char[23];
+        put(chars, 0, year, 4);
+        chars[4] = '-';
+        put(chars, 5, month, 2);
+        chars[7] = '-';
+        put(chars, 8, day, 2);
+        chars[10] = 'T';
+        put(chars, 11, secondOfDay / 3600, 2);
+        chars[13] = ':';
+        put(chars, 14, secondOfDay / 60 % 60, 2);
+        chars[16] = ':';
+        put(chars, 17, secondOfDay % 60, 2);
+        chars[19] = '.';
+        put(chars, 20, millis, 3);
+        return new String(chars);
+    }
+
+    /**
+     * Days since 1970-01-01 of a proleptic Gregorian date.
+     */
+    private static long epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+
+    /**
+     * @return the value of {@code count} digits, or {@code -1} if one of them is not a digit
+     */
+    private static int digits(String text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static void put(char[] chars, int start, int value, int count) {
+        for (int i = start + count - 1; i >= start; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static int idOf(List<String> names, String name, int offset) {
+        int index = names.indexOf(name);
+        return index < 0 ? ESCAPE : index + offset;
+    }
+
+    private static String nameOf(List<String> names, int index) {
+        if (index >= names.size()) {
+            throw new IllegalArgumentException("Unknown id " + index + ", the tables of the producer are newer");
+        }
+        return names.get(index);
+    }
+
+    private static byte[] nameBytes(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 255) {
+            throw new IllegalArgumentException("Name too long: " + name);
+        }
+        return bytes;
+    }
+
+    private static String readName(ByteBuffer buffer) {
+        if (!buffer.hasRemaining()) {
+            throw new IllegalArgumentException("Binary rate message is truncated");
+        }
+        int length = buffer.get() & 0xFF;
+        if (buffer.remaining() < length) {
+            throw new IllegalArgumentException("Binary rate message is truncated");
+        }
+        String name = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return name;
+    }
+}
@@ -0,0 +1,29 @@
+package com.murat.ratecodec.serialization;
+
+import com.murat.ratecodec.model.RateMessage;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Kafka {@link Deserializer} reading {@link RateMessage}s in either format of {@link RateMessageCodec}.
+ *
+ * <p>The format is detected per record, so a topic can contain text and binary messages while producers
+ * are switched from one format to the other.</p>
+ */
+public class RateMessageDeserializer implements Deserializer<RateMessage> {
+
+    /**
+     * @throws SerializationException if the record is not a valid rate message
+     */
+    @Override
+    public RateMessage deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return RateMessageCodec.decode(data);
+        } catch (IllegalArgumentException e) {
+            throw new SerializationException("Invalid rate message on " + topic, e);
+        }
+    }
+}
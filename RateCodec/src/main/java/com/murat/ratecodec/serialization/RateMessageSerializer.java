@@ -0,0 +1,43 @@
+package com.murat.ratecodec.serialization;
+
+import com.murat.ratecodec.model.RateMessage;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.util.Map;
+
+/**
+ * Kafka {@link Serializer} writing {@link RateMessage}s in the text or binary format of {@link RateMessageCodec}.
+ *
+ * <p>The format is given to the constructor, or read from the {@value #FORMAT_CONFIG} property when the
+ * serializer is created by Kafka from its class name. The default is {@link RateMessageCodec.Format#TEXT}.</p>
+ */
+public class RateMessageSerializer implements Serializer<RateMessage> {
+
+    public static final String FORMAT_CONFIG = "rate.wire.format";
+
+    private RateMessageCodec.Format format;
+
+    public RateMessageSerializer() {
+        this(RateMessageCodec.Format.TEXT);
+    }
+
+    /**
+     * @param format the format of the written messages
+     */
+    public RateMessageSerializer(RateMessageCodec.Format format) {
+        this.format = format;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        Object configured = configs.get(FORMAT_CONFIG);
+        if (configured != null) {
+            format = RateMessageCodec.Format.of(configured.toString());
+        }
+    }
+
+    @Override
+    public byte[] serialize(String topic, RateMessage message) {
+        return message == null ? null : RateMessageCodec.encode(message, format);
+    }
+}
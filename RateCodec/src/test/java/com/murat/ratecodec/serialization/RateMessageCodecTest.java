@@ -0,0 +1,99 @@
+package com.murat.ratecodec.serialization;
+
+import com.murat.ratecodec.model.RateMessage;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateMessageCodecTest {
+
+    @Test
+    void binaryRoundTripKeepsEightDecimals() {
+        RateMessage message = new RateMessage("PF1", "USDTRY", 35.02312312, 36.02312312, "2024-12-16T16:07:16.504");
+
+        byte[] data = RateMessageCodec.encode(message, RateMessageCodec.Format.BINARY);
+
+        assertEquals(RateMessageCodec.FIXED_LENGTH, data.length);
+        assertEquals(message, RateMessageCodec.decode(data));
+    }
+
+    @Test
+    void binaryEscapesUnknownNames() {
+        RateMessage message = new RateMessage("PF9", "CHFTRY", 38.5, 38.75, "2024-12-16T16:07:16.504");
+
+        RateMessage decoded = RateMessageCodec.decode(RateMessageCodec.toBinary(message));
+
+        assertEquals(message, decoded);
+    }
+
+    @Test
+    void calculatedRateHasNoPlatform() {
+        RateMessage message = new RateMessage(null, "EURTRY", 37.9, 38.1, "2024-12-16T16:07:16.000");
+
+        assertEquals(message, RateMessageCodec.decode(RateMessageCodec.toBinary(message)));
+    }
+
+    @Test
+    void textMessagesAreDetected() {
+        byte[] data = "PF2_USDTRY|34.80|35.10|2024-12-16T16:07:16.504".getBytes(StandardCharsets.UTF_8);
+
+        RateMessage decoded = RateMessageCodec.decode(data);
+
+        assertEquals("PF2", decoded.getPlatformName());
+        assertEquals("USDTRY", decoded.getRateName());
+        assertEquals(34.80, decoded.getBid());
+        assertEquals(35.10, decoded.getAsk());
+        assertEquals("2024-12-16T16:07:16.504", decoded.getTimestamp());
+    }
+
+    @Test
+    void unknownVersionIsRejected() {
+        byte[] data = RateMessageCodec.toBinary(new RateMessage("PF1", "USDTRY", 35, 36, ""));
+        data[1] = 2;
+
+        assertThrows(IllegalArgumentException.class, () -> RateMessageCodec.decode(data));
+    }
+
+    @Test
+    void timestampsMatchJavaTime() {
+        for (String timestamp : new String[]{"1970-01-01T00:00:00.000", "2024-02-29T23:59:59.999",
+                "2024-12-16T16:07:16.504", "2100-03-01T00:00:00.001", "1969-12-31T23:59:59.999"}) {
+            LocalDateTime dateTime = LocalDateTime.parse(timestamp);
+            long expected = dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + dateTime.getNano();
+
+            assertEquals(expected, RateMessageCodec.toEpochNanos(timestamp), timestamp);
+            assertEquals(timestamp, RateMessageCodec.fromEpochNanos(expected), timestamp);
+        }
+        assertEquals("2024-12-16T16:07:16.504123",
+                RateMessageCodec.fromEpochNanos(RateMessageCodec.toEpochNanos("2024-12-16T16:07:16.504123")));
+    }
+
+    @Test
+    void textIsRoundedHalfUpToTwoDecimals() {
+        assertEquals("PF1_USDTRY|35.02|36.02|2024-12-16T16:07:16.504", RateMessageCodec.toText(
+                new RateMessage("PF1", "USDTRY", 35.0231, 36.0231, "2024-12-16T16:07:16.504")));
+        assertEquals("EURTRY|1.01|0.00|2024-12-16T16:07:16.000", RateMessageCodec.toText(
+                new RateMessage(null, "EURTRY", 1.005, 0.004, "2024-12-16T16:07:16.000")));
+        assertEquals("PF2_GBPUSD|13.00|120.50|2024-12-16T16:07:16.001", RateMessageCodec.toText(
+                new RateMessage("PF2", "GBPUSD", 12.995, 120.5, "2024-12-16T16:07:16.001")));
+    }
+
+    @Test
+    void textDoesNotDependOnTheDefaultLocale() {
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            // tr_TR'de ondalik ayirici virguldur, parse edilemeyen "35,02" uretilmemeli
+            RateMessage message = new RateMessage("PF1", "USDTRY", 35.0231, Double.NaN, "2024-12-16T16:07:16.504");
+            assertEquals("PF1_USDTRY|35.02|NaN|2024-12-16T16:07:16.504", RateMessageCodec.toText(message));
+            assertEquals(35.02, RateMessageCodec.fromText("PF1_USDTRY|35.02|36.02|2024-12-16T16:07:16.504").getBid());
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+}
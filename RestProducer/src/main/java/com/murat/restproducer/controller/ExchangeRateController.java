@@ -1,15 +1,25 @@
 package com.murat.restproducer.controller;
 
 import com.murat.restproducer.model.ExchangeRate;
+import com.murat.restproducer.model.ExchangeRateBatch;
+import com.murat.restproducer.service.ExchangeRateStreamService;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import com.murat.restproducer.service.ExchangeRateService;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
 
 
 /**
  * REST controller for managing exchange rates for different currency pairs.
  *
- * <p>This controller provides an endpoint to retrieve the exchange rate for a given currency pair.
+ * <p>This controller provides an endpoint to retrieve the exchange rate for a given currency pair,
+ * a bulk endpoint to retrieve several currency pairs with one (authenticated) request and a server-sent event
+ * stream pushing every rate as it is generated.
  * It uses the {@link ExchangeRateService} to fetch the rate based on predefined logic.</p>
  *
  * @see ExchangeRateService
@@ -20,6 +30,17 @@ import com.murat.restproducer.service.ExchangeRateService;
 public class ExchangeRateController {
     private final ExchangeRateService exchangeRateService = new ExchangeRateService();
 
+    private final ExchangeRateStreamService exchangeRateStreamService;
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param exchangeRateStreamService the service pushing the rates to the stream clients
+     */
+    public ExchangeRateController(ExchangeRateStreamService exchangeRateStreamService) {
+        this.exchangeRateStreamService = exchangeRateStreamService;
+    }
+
 
     /**
      * Retrieves the exchange rate for a given currency pair.
@@ -34,15 +55,83 @@ public class ExchangeRateController {
      */
     @GetMapping("/{currencyPair}")
     public ExchangeRate getExchangeRate(@PathVariable String currencyPair) {
-        if(ExchangeRateService.USDTRYUpdates % 3 ==1)
-        {
-            return exchangeRateService.getRate(currencyPair,true);
+        return exchangeRateService.getRate(currencyPair, ExchangeRateService.isLargeRateDue());
+    }
+
+    /**
+     * Retrieves the exchange rates of several currency pairs in one response.
+     *
+     * <p>The request itself doesn't update any rate: it only reads the latest rates, which
+     * {@link ExchangeRateStreamService} generates for the requested pairs every {@code update.interval} milliseconds
+     * (the first request of a pair generates its first rate). A pair which reached its maximum number of updates
+     * keeps its last rate and an unknown pair is ignored.</p>
+     *
+     * <p>The response carries the highest sequence number of the returned rates as its {@code ETag}, or the one
+     * known by the client if no rate is returned. When the client sends it back in {@code If-None-Match} (or as the
+     * {@code since} parameter) only the pairs updated after it are returned, and {@code 304 Not Modified} if there
+     * is none.</p>
+     *
+     * @param pairs the currency pairs (e.g., "PF2_USDTRY,PF2_EURUSD")
+     * @param since the sequence number already known by the client, overrides {@code If-None-Match}
+     * @param ifNoneMatch the {@code ETag} of the previous response
+     * @return the {@link ExchangeRateBatch} of the updated pairs
+     */
+    @GetMapping
+    public ResponseEntity<ExchangeRateBatch> getExchangeRates(@RequestParam List<String> pairs,
+                                                              @RequestParam(required = false) Long since,
+                                                              @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        // Rate'ler istekten bagimsiz uretilir, boylece degismeyen ciftler cevaba girmez
+        exchangeRateStreamService.poll(pairs);
+
+        long known = since != null ? since : sequenceOf(ifNoneMatch);
+        // ETag donen rate'lerin en buyuk sequence'idir, hic rate donmezse istemcinin bildigi sequence kalir
+        long sequence = Math.max(known, 0);
+        List<ExchangeRate> rates = new ArrayList<>();
+        for (ExchangeRateService.SequencedRate updated : exchangeRateService.getRatesSince(pairs, known)) {
+            sequence = Math.max(sequence, updated.sequence());
+            rates.add(updated.rate());
+        }
+        String eTag = "\"" + sequence + "\"";
+
+        if (rates.isEmpty() && known >= 0) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).body(new ExchangeRateBatch(sequence, rates));
+    }
+
+    /**
+     * Streams the exchange rates of the given currency pairs as server-sent events named {@code rate}, each with
+     * the JSON {@link ExchangeRate} as data and its sequence number as id.
+     *
+     * <p>A client reconnecting with the {@code Last-Event-ID} header first receives the rates updated after it.</p>
+     *
+     * @param pairs the currency pairs (e.g., "PF2_USDTRY,PF2_EURUSD"), all pairs if missing
+     * @param lastEventId the id of the last event received before a reconnect
+     * @return the event stream
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamExchangeRates(@RequestParam(required = false) List<String> pairs,
+                                          @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return exchangeRateStreamService.subscribe(pairs, sequenceOf(lastEventId));
+    }
+
+    /**
+     * @return the sequence number of an {@code ETag} like {@code "42"} or {@code W/"42"} (or of an event id),
+     * {@code -1} if there is none
+     */
+    private static long sequenceOf(String eTag) {
+        if (eTag == null) {
+            return -1;
+        }
+        String value = eTag.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
         }
-        if(ExchangeRateService.EURUSDUpdates % 3 ==1)
-        {
-            return exchangeRateService.getRate(currencyPair,true);
+        try {
+            return Long.parseLong(value.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            return -1;
         }
-        return exchangeRateService.getRate(currencyPair,false);
     }
 
     /**
@@ -0,0 +1,29 @@
+package com.murat.restproducer.model;
+
+import java.util.List;
+
+/**
+ * Response of the bulk rate endpoint.
+ *
+ * <p>{@code sequence} is the highest sequence number of the returned rates, or the one given by the client if no
+ * rate is returned. Passing it back as {@code since} (or as the {@code If-None-Match} ETag) returns only the rates updated after it.</p>
+ */
+public class ExchangeRateBatch {
+
+    private final long sequence;
+    private final List<ExchangeRate> rates;
+
+    /**
+     * Constructs an {@code ExchangeRateBatch}.
+     *
+     * @param sequence the highest sequence number of {@code rates}
+     * @param rates    the requested rates updated after the sequence given by the client
+     */
+    public ExchangeRateBatch(long sequence, List<ExchangeRate> rates) {
+        this.sequence = sequence;
+        this.rates = rates;
+    }
+
+    public long getSequence() { return sequence; }
+    public List<ExchangeRate> getRates() { return rates; }
+}
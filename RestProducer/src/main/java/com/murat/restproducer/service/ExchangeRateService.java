@@ -5,9 +5,16 @@ import com.murat.restproducer.model.ExchangeRate;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Service class responsible for managing and generating exchange rate data.
@@ -38,6 +45,42 @@ public class ExchangeRateService {
 
     private static final Map<String,Double> exchangeLargeRates = new HashMap<>();
 
+    /**
+     * Guards {@link #sequence}, {@link #latestRates} and the notification of the {@link #listeners}, so rates get
+     * their sequence numbers, are stored and reach the listeners in the same order
+     */
+    private static final Object lock = new Object();
+
+    /**
+     * Sequence number of the latest rate update, every rate returned by {@link #getRate(String, boolean)} gets the next one
+     */
+    private static long sequence;
+
+    /** For storing latest returned rate and its sequence number
+     *  <p>Holds rateName-value pair, used by {@link #getRatesSince(Collection, long)}</p>
+     */
+    private static final Map<String, SequencedRate> latestRates = new HashMap<>();
+
+    /**
+     * A rate with the sequence number it got when it was returned.
+     *
+     * @param sequence the sequence number, also the {@code ETag} and event id of the rate
+     * @param rate the rate
+     */
+    public record SequencedRate(long sequence, ExchangeRate rate) {
+    }
+
+    /**
+     * Receives every rate returned by {@link #getRate(String, boolean)} with its sequence number
+     */
+    @FunctionalInterface
+    public interface RateListener {
+        void onRate(long sequence, ExchangeRate rate);
+    }
+
+    /** Listeners notified by {@link #record(ExchangeRate)}, e.g. the SSE stream clients */
+    private static final List<RateListener> listeners = new CopyOnWriteArrayList<>();
+
     // For generating random value
     private static final Random random = new Random();
 
@@ -117,7 +160,7 @@ public class ExchangeRateService {
             EURUSDUpdates++;
         }
         String timestamp = LocalDateTime.now().format(formatter);
-        return new ExchangeRate(currencyPair, bid, ask, timestamp);
+        return record(new ExchangeRate(currencyPair, bid, ask, timestamp));
     }
 
 
@@ -147,7 +190,102 @@ public class ExchangeRateService {
             EURUSDUpdates++;
         }
         String timestamp = LocalDateTime.now().format(formatter);
-        return new ExchangeRate(currencyPair, bid, ask, timestamp);
+        return record(new ExchangeRate(currencyPair, bid, ask, timestamp));
+    }
+
+    /**
+     * Returns the latest rates of the given currency pairs which were updated after a sequence number.
+     *
+     * <p>The rates are read at once, so every rate of these pairs with a sequence number up to the highest
+     * returned one is either returned or replaced by a newer one.</p>
+     *
+     * @param currencyPairs the rateNames of the rates (ex."PF2_USDTRY"), unknown ones are ignored
+     * @param since the sequence number already known by the client, {@code -1} for all rates
+     * @return the latest rates updated after {@code since} with their sequence numbers, in the order of
+     * {@code currencyPairs}
+     */
+    public List<SequencedRate> getRatesSince(Collection<String> currencyPairs, long since) {
+        List<SequencedRate> rates = new ArrayList<>(currencyPairs.size());
+        synchronized (lock) {
+            for (String currencyPair : currencyPairs) {
+                SequencedRate latest = latestRates.get(currencyPair);
+                if (latest != null && latest.sequence() > since) {
+                    rates.add(latest);
+                }
+            }
+        }
+        return rates;
+    }
+
+    /**
+     * Stores a returned rate as the latest one of its currency pair with the next sequence number
+     * and notifies the listeners.
+     *
+     * @param rate the returned rate
+     * @return the same rate
+     */
+    private ExchangeRate record(ExchangeRate rate) {
+        synchronized (lock) {
+            long rateSequence = ++sequence;
+            latestRates.put(rate.getRateName(), new SequencedRate(rateSequence, rate));
+            for (RateListener listener : listeners) {
+                listener.onRate(rateSequence, rate);
+            }
+        }
+        return rate;
+    }
+
+    /**
+     * Registers a listener notified of every rate returned from now on.
+     *
+     * <p>If {@code since} is not negative, the latest rates of {@code currencyPairs} updated after it are passed to
+     * the listener first, in sequence order. No rate is returned in between, so the listener receives every rate
+     * once and in sequence order.</p>
+     *
+     * @param listener the listener
+     * @param currencyPairs the currency pairs whose missed rates are passed to the listener
+     * @param since the sequence number already known by the listener, {@code -1} for none
+     */
+    public static void addListener(RateListener listener, Collection<String> currencyPairs, long since) {
+        synchronized (lock) {
+            if (since >= 0) {
+                List<SequencedRate> missed = new ArrayList<>();
+                for (String currencyPair : currencyPairs) {
+                    SequencedRate latest = latestRates.get(currencyPair);
+                    if (latest != null && latest.sequence() > since) {
+                        missed.add(latest);
+                    }
+                }
+                missed.sort(Comparator.comparingLong(SequencedRate::sequence));
+                missed.forEach(rate -> listener.onRate(rate.sequence(), rate.rate()));
+            }
+            listeners.add(listener);
+        }
+    }
+
+    /**
+     * Removes a listener registered with {@link #addListener(RateListener, Collection, long)}.
+     *
+     * @param listener the listener
+     */
+    public static void removeListener(RateListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @return the currency pairs of the service (ex."PF2_USDTRY")
+     */
+    public Set<String> getCurrencyPairs() {
+        return Collections.unmodifiableSet(exchangeRates.keySet());
+    }
+
+    /**
+     * If the update condition for USDTRY or EURUSD (based on the modulus operation) matches, the next rate is abnormal.
+     *
+     * @return the {@code isLargeRate} argument of the next {@link #getRate(String, boolean)} call
+     */
+    public static boolean isLargeRateDue() {
+        return USDTRYUpdates % 3 == 1 || EURUSDUpdates % 3 == 1;
     }
 
     /**
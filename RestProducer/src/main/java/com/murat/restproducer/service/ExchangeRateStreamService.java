@@ -0,0 +1,188 @@
+package com.murat.restproducer.service;
+
+import com.murat.restproducer.config.ConfigLoader;
+import com.murat.restproducer.model.ExchangeRate;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service class responsible for generating the streamed and polled exchange rates and pushing them to the clients
+ * of the server-sent event stream.
+ *
+ * <p>Every rate returned by {@link ExchangeRateService}, requested by a client or generated by this service,
+ * is sent to the subscribers of its currency pair as soon as it is created. Every {@code update.interval}
+ * milliseconds of {@code "config.properties"} this service generates a new rate for the pairs with a connected
+ * client and for the pairs registered by {@link #poll(Collection)}, so the rates read by the bulk endpoint change
+ * at this pace however often they are requested.</p>
+ *
+ * <p>Every event has the sequence number of the rate as its {@code id}. A client reconnecting with the
+ * {@code Last-Event-ID} header first receives the latest rates updated after that sequence, each with its own
+ * sequence number, so no update is lost while it was disconnected. Events reach a client in sequence order, so its
+ * last event id always covers every earlier rate.</p>
+ *
+ * @see ExchangeRateService
+ */
+@Service
+public class ExchangeRateStreamService {
+
+    /**
+     * Interval (ms) of the generated rates, read from {@code "config.properties"}
+     */
+    private static final long UPDATE_INTERVAL = Long.parseLong(ConfigLoader.getProperty("update.interval", "5000"));
+
+    private final ExchangeRateService exchangeRateService = new ExchangeRateService();
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    /**
+     * Pairs requested from the bulk endpoint, generated from then on like the subscribed ones
+     */
+    private final Set<String> polledPairs = ConcurrentHashMap.newKeySet();
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "rate-stream");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * A stream client, registered as a listener of {@link ExchangeRateService} which passes it the rates in
+     * sequence order.
+     */
+    private final class Subscriber implements ExchangeRateService.RateListener {
+
+        private final SseEmitter emitter;
+        private final Set<String> currencyPairs;
+
+        private Subscriber(SseEmitter emitter, Set<String> currencyPairs) {
+            this.emitter = emitter;
+            this.currencyPairs = currencyPairs;
+        }
+
+        @Override
+        public void onRate(long sequence, ExchangeRate rate) {
+            if (currencyPairs.contains(rate.getRateName())) {
+                send(this, sequence, rate);
+            }
+        }
+    }
+
+    /**
+     * Starts generating new rates.
+     */
+    @PostConstruct
+    public void start() {
+        executor.scheduleAtFixedRate(this::generateRates, UPDATE_INTERVAL, UPDATE_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops generating rates and closes the streams.
+     */
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+        subscribers.forEach(subscriber -> {
+            ExchangeRateService.removeListener(subscriber);
+            subscriber.emitter.complete();
+        });
+        subscribers.clear();
+    }
+
+    /**
+     * Opens a stream of the rates of the given currency pairs.
+     *
+     * @param currencyPairs the currency pairs (ex."PF2_USDTRY"), every pair of the service if null or empty
+     * @param lastEventId the {@code id} of the last event received by the client, {@code -1} for a new client
+     * @return the emitter of the stream, never times out
+     */
+    public SseEmitter subscribe(Collection<String> currencyPairs, long lastEventId) {
+        Set<String> pairs = currencyPairs == null || currencyPairs.isEmpty()
+                ? exchangeRateService.getCurrencyPairs() : new HashSet<>(currencyPairs);
+        SseEmitter emitter = new SseEmitter(0L);
+        Subscriber subscriber = new Subscriber(emitter, pairs);
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        subscribers.add(subscriber);
+
+        // Kaldigi yerden devam: baglanti yokken guncellenen rate'ler kendi id'leriyle, yeni rate'lerden once gonderilir
+        ExchangeRateService.addListener(subscriber, pairs, lastEventId);
+        return emitter;
+    }
+
+    /**
+     * Registers currency pairs read by the bulk endpoint, their rates are generated from now on every
+     * {@code update.interval} milliseconds. A pair without any rate yet gets its first one immediately.
+     *
+     * @param currencyPairs the currency pairs (ex."PF2_USDTRY"), unknown ones are ignored
+     */
+    public void poll(Collection<String> currencyPairs) {
+        Set<String> knownPairs = exchangeRateService.getCurrencyPairs();
+        for (String currencyPair : currencyPairs) {
+            if (!knownPairs.contains(currencyPair) || !polledPairs.add(currencyPair)) {
+                continue;
+            }
+            if (exchangeRateService.getRatesSince(List.of(currencyPair), -1).isEmpty()) {
+                generateRate(currencyPair);
+            }
+        }
+    }
+
+    /**
+     * @return the number of connected clients
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Generates a new rate for every pair with a subscriber or registered by {@link #poll(Collection)},
+     * {@link ExchangeRateService} passes it to the subscribers.
+     */
+    private void generateRates() {
+        Set<String> pairs = new HashSet<>(polledPairs);
+        subscribers.forEach(subscriber -> pairs.addAll(subscriber.currencyPairs));
+        pairs.forEach(this::generateRate);
+    }
+
+    private void generateRate(String currencyPair) {
+        try {
+            exchangeRateService.getRate(currencyPair, ExchangeRateService.isLargeRateDue());
+        } catch (IllegalArgumentException e) {
+            // Guncelleme siniri dolan cift icin yeni rate uretilmez
+        }
+    }
+
+    private void send(Subscriber subscriber, long sequence, ExchangeRate rate) {
+        try {
+            subscriber.emitter.send(SseEmitter.event()
+                    .id(String.valueOf(sequence))
+                    .name("rate")
+                    .data(rate, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            // Istemci baglantiyi kapatmis
+            remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        ExchangeRateService.removeListener(subscriber);
+    }
+}
@@ -0,0 +1,38 @@
+package com.murat.restproducer.controller;
+
+import com.murat.restproducer.model.ExchangeRate;
+import com.murat.restproducer.model.ExchangeRateBatch;
+import com.murat.restproducer.service.ExchangeRateStreamService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExchangeRateControllerTest {
+
+    @Test
+    void bulkRequestWithTheLastETagIsNotModifiedUntilANewRateIsGenerated() {
+        // Uretici baslatilmaz, istekler arasinda yeni rate uretilmez
+        ExchangeRateController controller = new ExchangeRateController(new ExchangeRateStreamService());
+        List<String> pairs = List.of("PF2_USDTRY", "PF2_EURUSD");
+
+        ResponseEntity<ExchangeRateBatch> first = controller.getExchangeRates(pairs, null, null);
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertEquals(2, first.getBody().getRates().size());
+        String eTag = first.getHeaders().getETag();
+        assertEquals("\"" + first.getBody().getSequence() + "\"", eTag);
+
+        ResponseEntity<ExchangeRateBatch> second = controller.getExchangeRates(pairs, null, eTag);
+        assertEquals(HttpStatus.NOT_MODIFIED, second.getStatusCode());
+        assertEquals(eTag, second.getHeaders().getETag());
+
+        // Tek rate istegi yalnizca o cifti gunceller
+        controller.getExchangeRate("PF2_USDTRY");
+        ResponseEntity<ExchangeRateBatch> third = controller.getExchangeRates(pairs, null, eTag);
+        assertEquals(HttpStatus.OK, third.getStatusCode());
+        assertEquals(List.of("PF2_USDTRY"), third.getBody().getRates().stream().map(ExchangeRate::getRateName).toList());
+    }
+}
@@ -0,0 +1,39 @@
+package com.murat.restproducer.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExchangeRateServiceTest {
+
+    private final ExchangeRateService service = new ExchangeRateService();
+
+    @Test
+    void listenerGetsMissedRatesWithTheirOwnSequenceBeforeNewOnes() {
+        service.getRate("PF2_EURUSD", false);
+        service.getRate("PF2_USDTRY", false);
+        List<ExchangeRateService.SequencedRate> latest =
+                service.getRatesSince(List.of("PF2_USDTRY", "PF2_EURUSD"), -1);
+        long usdTry = latest.get(0).sequence();
+        long eurUsd = latest.get(1).sequence();
+        assertTrue(usdTry > eurUsd);
+
+        List<String> events = new ArrayList<>();
+        ExchangeRateService.RateListener listener =
+                (sequence, rate) -> events.add(sequence + " " + rate.getRateName());
+        ExchangeRateService.addListener(listener, List.of("PF2_USDTRY", "PF2_EURUSD"), eurUsd - 1);
+        try {
+            service.getRate("PF2_EURUSD", false);
+        } finally {
+            ExchangeRateService.removeListener(listener);
+        }
+
+        // Kacirilan rate'ler sequence sirasiyla, kendi id'leriyle ve yeni rate'den once gelir
+        long next = service.getRatesSince(List.of("PF2_EURUSD"), -1).get(0).sequence();
+        assertEquals(List.of(eurUsd + " PF2_EURUSD", usdTry + " PF2_USDTRY", next + " PF2_EURUSD"), events);
+        assertTrue(next > usdTry);
+    }
+}
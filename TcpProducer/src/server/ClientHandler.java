@@ -5,17 +5,23 @@
 
 package server;
 
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import service.Subscriber;
 import service.SubscriberManager;
 
-public class ClientHandler {
+public class ClientHandler implements Subscriber {
 
     private Socket socket;
     private PrintWriter out;
+    private BufferedOutputStream frameOut;
     private BufferedReader in;
 
     public ClientHandler(Socket socket) {
@@ -31,7 +37,9 @@ public class ClientHandler {
     public void handleClient() {
         try {
             this.in = new BufferedReader(new InputStreamReader(this.socket.getInputStream()));
-            this.out = new PrintWriter(this.socket.getOutputStream(), true);
+            // Rate frame'leri out ile ayni tampona yazilir, flush() ile tek seferde gonderilir
+            this.frameOut = new BufferedOutputStream(this.socket.getOutputStream(), 8192);
+            this.out = new PrintWriter(new OutputStreamWriter(this.frameOut, StandardCharsets.UTF_8), true);
             this.out.println("Connecting To Server");
             this.out.println("Enter username");
             String username = this.in.readLine();
@@ -69,6 +77,7 @@ public class ClientHandler {
         } catch (IOException e) {
             e.printStackTrace();
         } finally {
+            SubscriberManager.unsubscribeAll(this);
             try {
                 this.socket.close();
             } catch (IOException e) {
@@ -78,6 +87,53 @@ public class ClientHandler {
 
     }
 
+    /**
+     * Sends a line to the client.
+     *
+     * @param line the line to send
+     */
+    @Override
+    public synchronized void sendLine(String line) {
+        this.out.println(line);
+    }
+
+    /**
+     * Buffers a rate frame, it is written to the socket on {@link #flush()}.
+     *
+     * @param frame the encoded frame, shared with other subscribers
+     */
+    @Override
+    public synchronized void sendFrame(ByteBuffer frame) {
+        try {
+            this.frameOut.write(frame.array(), frame.arrayOffset() + frame.position(), frame.remaining());
+        } catch (IOException e) {
+            // Baglanti kapandi, okuyan thread istemciyi temizler
+        }
+    }
+
+    /**
+     * Writes the buffered rate frames to the socket.
+     */
+    @Override
+    public synchronized void flush() {
+        try {
+            this.frameOut.flush();
+        } catch (IOException e) {
+            // Baglanti kapandi, okuyan thread istemciyi temizler
+        }
+    }
+
+    /**
+     * This method is used for handling clients request like {@code subscribe|PF1_USDTRY}
+     *
+     * @param command is the request which came from client
+     * @return boolean to decide if it is an exit request or not
+     * @see #handleCommand(String, Subscriber)
+     */
+    private boolean handleCommand(String command) {
+        return handleCommand(command, this);
+    }
+
     /**
      * This method is used for handling clients request like {@code subscribe|PF1_USDTRY}
      * <p>Calls {@link SubscriberManager}'s methods
@@ -85,23 +141,26 @@ public class ClientHandler {
      *
      * <p>If the command is {@code "exit"} this method returns true and client connection is closed.</p>
      *
+     * <p>Shared by the blocking {@link ClientHandler} and the non-blocking {@link NioConnection}.</p>
+     *
      * @param command is the request which came from client
+     * @param subscriber is the client which sent the request
      * @return boolean to decide if it is an exit request or not
      */
-    private boolean handleCommand(String command) {
+    static boolean handleCommand(String command, Subscriber subscriber) {
         boolean isExit = false;
         if (command.startsWith("subscribe|")) {
             String topic = command.substring(10).trim();
-            SubscriberManager.subscribe(topic, this.out);
+            SubscriberManager.subscribe(topic, subscriber);
         } else if (command.startsWith("unsubscribe|")) {
             String topic = command.substring(12).trim();
-            SubscriberManager.unsubscribe(topic, this.out);
+            SubscriberManager.unsubscribe(topic, subscriber);
         } else if (command.equals("exit")) {
             isExit = true;
 
 
         } else {
-            this.out.println("ERROR|Invalid request format");
+            subscriber.sendLine("ERROR|Invalid request format");
         }
 
         return isExit;
@@ -0,0 +1,273 @@
+package server;
+
+import config.ConfigLoader;
+import service.Subscriber;
+import service.SubscriberManager;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A single client connection served by a {@link NioWorker}.
+ *
+ * <p>Reading, protocol handling and writing to the channel happen on the worker thread. Other threads
+ * (e.g. the rate update thread) only append to the connection's write queue through {@link #sendLine(String)}
+ * and {@link #sendFrame(ByteBuffer)}.</p>
+ *
+ * <p>Rate frames are queued without waking up the worker; {@link #flush()} requests a single write for all frames
+ * of an update tick, and the worker sends the queued buffers with one gathering write.</p>
+ *
+ * <p>Back-pressure: if the client does not read fast enough and more than {@code nio.max.pending.bytes} are
+ * waiting in the write queue, new messages for this client are dropped instead of growing the queue without
+ * limit. Other clients are not affected by a slow reader.</p>
+ */
+public class NioConnection implements Subscriber {
+
+    private static final int MAX_PENDING_BYTES = ConfigLoader.getIntProperty("nio.max.pending.bytes", 1 << 20);
+
+    private static final int MAX_LINE_LENGTH = 1024;
+
+    private static final int MAX_GATHER_BUFFERS = 64;
+
+    /**
+     * Authentication steps of the protocol, same as {@link ClientHandler#handleClient()}
+     */
+    private enum State {
+        AWAIT_USERNAME,
+        AWAIT_PASSWORD,
+        READY
+    }
+
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final NioWorker worker;
+
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(1024);
+    private final byte[] lineBuffer = new byte[MAX_LINE_LENGTH];
+    private int lineLength = 0;
+
+    private State state = State.AWAIT_USERNAME;
+    private String username;
+
+    private final Queue<ByteBuffer> writeQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pendingBytes = new AtomicLong();
+    private final AtomicBoolean writeRequested = new AtomicBoolean(false);
+    private final AtomicLong droppedMessages = new AtomicLong();
+    private final ByteBuffer[] gatherBuffers = new ByteBuffer[MAX_GATHER_BUFFERS];
+
+    private volatile boolean closed = false;
+    private boolean closeAfterWrite = false;
+
+    NioConnection(SocketChannel channel, SelectionKey key, NioWorker worker) {
+        this.channel = channel;
+        this.key = key;
+        this.worker = worker;
+    }
+
+    /**
+     * Sends the first messages of the protocol.
+     */
+    void greet() {
+        sendLine("Connecting To Server");
+        sendLine("Enter username");
+    }
+
+    /**
+     * Queues a line to be written to the client by the worker thread.
+     *
+     * @param line the line to send
+     */
+    @Override
+    public void sendLine(String line) {
+        enqueue(ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8)), true);
+    }
+
+    /**
+     * Queues a rate frame, it is written after the next {@link #flush()}.
+     *
+     * @param frame the encoded frame, shared with other subscribers
+     */
+    @Override
+    public void sendFrame(ByteBuffer frame) {
+        // Paylasilan buffer'in pozisyonu degismesin diye her baglanti kendi kopyasini kullanir (icerik kopyalanmaz)
+        enqueue(frame.duplicate(), false);
+    }
+
+    /**
+     * Asks the worker to write the queued frames.
+     */
+    @Override
+    public void flush() {
+        if (!writeQueue.isEmpty() && writeRequested.compareAndSet(false, true)) {
+            worker.requestWrite(this);
+        }
+    }
+
+    /**
+     * Queues a buffer to be written to the client, or drops it if the client is too slow.
+     *
+     * @param buffer the data to send, must not be modified afterwards
+     * @param requestWrite whether to wake up the worker now or wait for {@link #flush()}
+     */
+    void enqueue(ByteBuffer buffer, boolean requestWrite) {
+        if (closed) {
+            return;
+        }
+
+        int size = buffer.remaining();
+        if (pendingBytes.get() + size > MAX_PENDING_BYTES) {
+            if (droppedMessages.getAndIncrement() == 0) {
+                System.out.println("Client " + channel.socket().getRemoteSocketAddress() + " is too slow, dropping messages");
+            }
+            return;
+        }
+
+        pendingBytes.addAndGet(size);
+        writeQueue.add(buffer);
+        if (requestWrite && writeRequested.compareAndSet(false, true)) {
+            worker.requestWrite(this);
+        }
+    }
+
+    /**
+     * Writes as much of the queue as the socket accepts. Called only by the worker thread.
+     */
+    void write() {
+        if (closed) {
+            return;
+        }
+        writeRequested.set(false);
+
+        try {
+            int count;
+            while ((count = collectQueued()) > 0) {
+                channel.write(gatherBuffers, 0, count);
+
+                int written = 0;
+                while (written < count && !gatherBuffers[written].hasRemaining()) {
+                    writeQueue.poll();
+                    pendingBytes.addAndGet(-gatherBuffers[written].limit());
+                    written++;
+                }
+                Arrays.fill(gatherBuffers, 0, count, null);
+
+                if (written < count) {
+                    // Soket tamponu dolu, yazilabilir oldugunda devam et
+                    key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+            }
+            key.interestOps(SelectionKey.OP_READ);
+
+            if (closeAfterWrite) {
+                close();
+            }
+        } catch (IOException e) {
+            close();
+        }
+    }
+
+    /**
+     * Copies the head of the write queue into {@link #gatherBuffers} without removing it.
+     *
+     * @return the number of buffers copied
+     */
+    private int collectQueued() {
+        int count = 0;
+        for (ByteBuffer buffer : writeQueue) {
+            if (count == MAX_GATHER_BUFFERS) {
+                break;
+            }
+            gatherBuffers[count++] = buffer;
+        }
+        return count;
+    }
+
+    /**
+     * Reads available bytes and handles every complete line. Called only by the worker thread.
+     */
+    void read() {
+        try {
+            int read = channel.read(readBuffer);
+            if (read < 0) {
+                close();
+                return;
+            }
+
+            readBuffer.flip();
+            while (readBuffer.hasRemaining() && !closed) {
+                byte b = readBuffer.get();
+                if (b == '\n') {
+                    int length = (lineLength > 0 && lineBuffer[lineLength - 1] == '\r') ? lineLength - 1 : lineLength;
+                    lineLength = 0;
+                    handleLine(new String(lineBuffer, 0, length, StandardCharsets.UTF_8));
+                } else if (lineLength == MAX_LINE_LENGTH) {
+                    System.out.println("Line too long, closing connection");
+                    close();
+                } else {
+                    lineBuffer[lineLength++] = b;
+                }
+            }
+            readBuffer.clear();
+        } catch (IOException e) {
+            close();
+        }
+    }
+
+    private void handleLine(String line) {
+        switch (state) {
+            case AWAIT_USERNAME -> {
+                username = line;
+                sendLine("Enter password");
+                state = State.AWAIT_PASSWORD;
+            }
+            case AWAIT_PASSWORD -> {
+                if (!"admin".equals(username) || !"admin".equals(line)) {
+                    sendLine("Invalid username or password");
+                    closeAfterWrite = true;
+                    return;
+                }
+                System.out.println("Client authorized");
+                sendLine("OK");
+                sendLine("To Exit : \"exit\"");
+                state = State.READY;
+            }
+            case READY -> {
+                System.out.println(line);
+                if (ClientHandler.handleCommand(line, this)) {
+                    close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the client's subscriptions and closes the channel. Called only by the worker thread.
+     */
+    void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        SubscriberManager.unsubscribeAll(this);
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        if (droppedMessages.get() > 0) {
+            System.out.println("Client disconnected, " + droppedMessages.get() + " messages dropped");
+        } else {
+            System.out.println("Client disconnected");
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package server;
+
+import config.ConfigLoader;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Non-blocking TCP server which serves many subscribers with a small number of threads.
+ *
+ * <p>The thread calling {@link #start()} only accepts connections. Accepted connections are assigned
+ * round-robin to {@link NioWorker}s, each of which multiplexes its connections on its own {@link Selector}.
+ * The number of workers is read from {@code nio.worker.threads}.</p>
+ *
+ * <p>Every connection follows the same protocol as {@link ClientHandler}: authentication first,
+ * then {@code subscribe|}, {@code unsubscribe|} and {@code exit} commands.</p>
+ *
+ * @see NioWorker
+ * @see NioConnection
+ */
+public class NioTcpServer {
+
+    private static final int WORKER_THREADS = ConfigLoader.getIntProperty("nio.worker.threads", 2);
+
+    private final int port;
+
+    private final NioWorker[] workers = new NioWorker[Math.max(1, WORKER_THREADS)];
+
+    /**
+     * @param port the port to listen to
+     */
+    public NioTcpServer(int port) {
+        this.port = port;
+    }
+
+    /**
+     * Starts the workers and accepts connections on the calling thread until the server socket is closed.
+     *
+     * @throws IOException if the server socket cannot be opened
+     */
+    public void start() throws IOException {
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new NioWorker();
+            Thread thread = new Thread(workers[i], "nio-worker-" + i);
+            thread.start();
+        }
+
+        try (Selector selector = Selector.open();
+             ServerSocketChannel serverChannel = ServerSocketChannel.open()) {
+            serverChannel.bind(new InetSocketAddress(port));
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+            System.out.println("TCP Server (nio, " + workers.length + " workers) listens to port " + port);
+
+            int next = 0;
+            while (serverChannel.isOpen()) {
+                selector.select();
+                selector.selectedKeys().clear();
+
+                SocketChannel channel;
+                while ((channel = serverChannel.accept()) != null) {
+                    channel.configureBlocking(false);
+                    channel.socket().setTcpNoDelay(true);
+                    workers[next].register(channel);
+                    next = (next + 1) % workers.length;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package server;
+
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Selector loop serving a subset of the {@link NioTcpServer}'s connections.
+ *
+ * <p>Other threads never touch the selector directly: new channels and write requests are queued
+ * with {@link #register(SocketChannel)} and {@link #requestWrite(NioConnection)} and the selector is woken
+ * up, so every {@link SelectionKey} is only changed by the worker thread.</p>
+ */
+public class NioWorker implements Runnable {
+
+    private final Selector selector;
+
+    private final Queue<SocketChannel> pendingChannels = new ConcurrentLinkedQueue<>();
+
+    private final Queue<NioConnection> pendingWrites = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @throws IOException if the selector cannot be opened
+     */
+    public NioWorker() throws IOException {
+        this.selector = Selector.open();
+    }
+
+    /**
+     * Hands an accepted channel to this worker.
+     *
+     * @param channel the accepted, non-blocking channel
+     */
+    public void register(SocketChannel channel) {
+        pendingChannels.add(channel);
+        selector.wakeup();
+    }
+
+    /**
+     * Asks the worker to write the queued data of a connection.
+     *
+     * @param connection the connection with queued data
+     */
+    void requestWrite(NioConnection connection) {
+        pendingWrites.add(connection);
+        selector.wakeup();
+    }
+
+    /**
+     * Runs the selector loop.
+     */
+    @Override
+    public void run() {
+        while (selector.isOpen()) {
+            try {
+                selector.select();
+                registerPendingChannels();
+                writePendingConnections();
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+
+                    NioConnection connection = (NioConnection) key.attachment();
+                    if (!key.isValid()) {
+                        connection.close();
+                        continue;
+                    }
+                    if (key.isReadable()) {
+                        connection.read();
+                    }
+                    if (key.isValid() && key.isWritable()) {
+                        connection.write();
+                    }
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void registerPendingChannels() {
+        SocketChannel channel;
+        while ((channel = pendingChannels.poll()) != null) {
+            try {
+                SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                NioConnection connection = new NioConnection(channel, key, this);
+                key.attach(connection);
+                System.out.println("Client connected");
+                connection.greet();
+            } catch (IOException e) {
+                e.printStackTrace();
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    private void writePendingConnections() {
+        NioConnection connection;
+        while ((connection = pendingWrites.poll()) != null) {
+            connection.write();
+        }
+    }
+}
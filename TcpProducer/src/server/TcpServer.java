@@ -12,6 +12,12 @@ public class TcpServer {
     private static final int PORT = 8081;
     private static final int UPDATE_INTERVAL = ConfigLoader.getIntProperty("update.interval", 30000);
 
+    /**
+     * {@code blocking} serves one client at a time on the accept thread,
+     * {@code nio} serves many clients with {@link NioTcpServer}
+     */
+    private static final String SERVER_MODE = ConfigLoader.getProperty("server.mode", "blocking");
+
     /**
      * This variable is used for counting number of updates to make an "abnormal" update
      */
@@ -35,8 +41,20 @@ public class TcpServer {
      * <p>Takes the connection request of a client, accepts it and then calls {@link ClientHandler}
      * class to handle client requests </p>
      *
+     * <p>If {@code server.mode} is {@code nio}, clients are served by {@link NioTcpServer} instead.</p>
+     *
      */
     public void start() {
+        if ("nio".equalsIgnoreCase(SERVER_MODE)) {
+            new Thread(this::updateRatesPeriodically).start();
+            try {
+                new NioTcpServer(PORT).start();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            return;
+        }
+
         try (ServerSocket serverSocket = new ServerSocket(PORT)) {
             System.out.println("TCP Server listens to port 8081");
 
@@ -74,7 +92,7 @@ public class TcpServer {
         while (updateCount < NUMBER_OF_UPDATES) {
             try{
                 Thread.sleep(UPDATE_INTERVAL);
-                if(SubscriberManager.subscriberCount != 0) {
+                if(SubscriberManager.subscriberCount.get() != 0) {
 
                     if(updateRateCount == 3) {
                         ExchangeRateManager.updateLargeRates();
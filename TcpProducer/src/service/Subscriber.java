@@ -0,0 +1,35 @@
+package service;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A client connection which can subscribe to currency rate topics through {@link SubscriberManager}.
+ *
+ * <p>Implemented by the blocking {@code server.ClientHandler} and by the non-blocking
+ * {@code server.NioConnection}, so that {@link SubscriberManager} does not depend on how the
+ * connection is served.</p>
+ */
+public interface Subscriber {
+
+    /**
+     * Sends a single line to the client. The line separator is appended by the implementation.
+     *
+     * @param line the line to send
+     */
+    void sendLine(String line);
+
+    /**
+     * Queues an already encoded rate frame, including its line separator, without sending it yet.
+     *
+     * <p>The same buffer is shared by every subscriber of the topic, so implementations must not change
+     * its content, position or limit. The frame is sent on the next {@link #flush()}.</p>
+     *
+     * @param frame the encoded frame
+     */
+    void sendFrame(ByteBuffer frame);
+
+    /**
+     * Sends the frames queued with {@link #sendFrame(ByteBuffer)}. Called once per update tick.
+     */
+    void flush();
+}
@@ -2,55 +2,61 @@ package service;
 
 import config.ConfigLoader;
 
-import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Manages subscriber registrations and notifications for currency rate topics.
  *
- * <p>This class maintains a mapping of currency rate topics to their subscribers (via {@link PrintWriter}),
+ * <p>This class maintains a mapping of currency rate topics to their subscribers (via {@link Subscriber}),
  * and provides functionality to subscribe, unsubscribe, and send notifications based on updates
  * from {@link ExchangeRateManager}.</p>
  *
  * <p>Each notification message includes the topic, current bid and ask prices, and a timestamp.
  * The system supports two update types: normal and large/abnormal updates.</p>
  *
+ * <p>Subscriptions may be changed by several connection threads while the update thread notifies
+ * subscribers, so the topic map and the subscriber lists are concurrent collections.</p>
+ *
  * @see ExchangeRateManager
  * @see ConfigLoader
  */
 public class SubscriberManager {
 
     /**
-     * Subscribers with rateName - PrintWriter pair
+     * Subscribers with rateName - Subscriber list pair
      */
-    private static final Map<String, List<PrintWriter>> subscribers = new HashMap<>();
+    private static final Map<String, CopyOnWriteArrayList<Subscriber>> subscribers = new ConcurrentHashMap<>();
     private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS");
     /**
      * Total number of active subscribers.
      * */
-    public static int subscriberCount = 0;
+    public static final AtomicInteger subscriberCount = new AtomicInteger();
 
     /**
      * Subscribes a client to a specific currency topic.
      *
      * @param topic the currency rateName to subscribe to
-     * @param out the output stream to send messages to the client
+     * @param subscriber the client to send messages to
      */
-    public static void subscribe(String topic, PrintWriter out) {
+    public static void subscribe(String topic, Subscriber subscriber) {
         if(!ConfigLoader.checkKey(topic)){
-            out.println("ERROR|Rate data not found for " + topic);
+            subscriber.sendLine("ERROR|Rate data not found for " + topic);
         }
         else {
-            if(!subscribers.containsKey(topic)){
-                subscribers.computeIfAbsent(topic, k -> new ArrayList<>()).add(out);
-                subscriberCount++;
-                out.println("Subscribed to " + topic);
+            if(subscribers.computeIfAbsent(topic, k -> new CopyOnWriteArrayList<>()).addIfAbsent(subscriber)){
+                subscriberCount.incrementAndGet();
+                subscriber.sendLine("Subscribed to " + topic);
                 System.out.println("subscribed to " + topic);
             }
             else{
-                out.println("INFO|You already have a subscription for " + topic);
+                subscriber.sendLine("INFO|You already have a subscription for " + topic);
             }
         }
     }
@@ -59,22 +65,34 @@ public class SubscriberManager {
      * Unsubscribes a client from a specific currency topic.
      *
      * @param topic the currency rate topic to unsubscribe from
-     * @param out the output stream associated with the client
+     * @param subscriber the client to unsubscribe
      */
-    public static void unsubscribe(String topic, PrintWriter out) {
+    public static void unsubscribe(String topic, Subscriber subscriber) {
         if(!ConfigLoader.checkKey(topic)){
-            out.println("ERROR|Rate data not found for " + topic);
+            subscriber.sendLine("ERROR|Rate data not found for " + topic);
         }
         else {
-            if(subscribers.containsKey(topic)){
-                subscribers.remove(topic);
-                subscribers.getOrDefault(topic, new ArrayList<>()).remove(out);
-                out.println("Unsubscribed from " + topic);
+            List<Subscriber> topicSubscribers = subscribers.get(topic);
+            if(topicSubscribers != null && topicSubscribers.remove(subscriber)){
+                subscriber.sendLine("Unsubscribed from " + topic);
                 System.out.println("Unsubscribed from " + topic);
-                subscriberCount--;
+                subscriberCount.decrementAndGet();
             }
             else{
-                out.println("INFO|You do not have subscription to " + topic);
+                subscriber.sendLine("INFO|You do not have subscription to " + topic);
+            }
+        }
+    }
+
+    /**
+     * Removes every subscription of a client. Called when the client connection is closed.
+     *
+     * @param subscriber the client whose connection is closed
+     */
+    public static void unsubscribeAll(Subscriber subscriber) {
+        for (List<Subscriber> topicSubscribers : subscribers.values()) {
+            if (topicSubscribers.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
             }
         }
     }
@@ -85,11 +103,24 @@ public class SubscriberManager {
      * <p>This method fetches either a normal or large/abnormal update from
      * {@link ExchangeRateManager}, constructs a message, and sends it to subscriber.</p>
      *
+     * <p>Each topic's frame is encoded once per tick and the same buffer is handed to all of its subscribers.
+     * Frames are only queued on the connections; every connection is flushed once after all topics are
+     * handled, so a client subscribed to several topics receives them with a single write.</p>
+     *
      * @param isLargeUpdate flag indicating whether the update is large
      */
     public static void
     notifySubscribers(boolean isLargeUpdate) {
-        for (Map.Entry<String, List<PrintWriter>> entry : subscribers.entrySet()) {
+        // Tick icinde tum frame'ler ayni zaman damgasini tasir
+        String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMATTER);
+        StringBuilder message = new StringBuilder(128);
+        Set<Subscriber> notified = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for (Map.Entry<String, CopyOnWriteArrayList<Subscriber>> entry : subscribers.entrySet()) {
+            List<Subscriber> topicSubscribers = entry.getValue();
+            if (topicSubscribers.isEmpty()) {
+                continue;
+            }
             String topic = entry.getKey();
             double rate = 0.0;
             if(isLargeUpdate){
@@ -98,19 +129,34 @@ public class SubscriberManager {
             else{
                 rate = ExchangeRateManager.getRate(topic);
             }
-            String message = "";
-            String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMATTER);
-            if(topic.startsWith("PF1_EURUSD")) {
-                message = topic + "|22:number:" + rate + "|25:number:" + (rate + 0.21)
-                        + "|5:timestamp:"+ timestamp;
-            }
-            else{
-                message = topic + "|22:number:" + rate + "|25:number:" + (rate + 1)
-                        + "|5:timestamp:"+ timestamp;
-            }
-            for (PrintWriter out : entry.getValue()) {
-                out.println(message);
+
+            ByteBuffer frame = encodeFrame(message, topic, rate, timestamp);
+            for (Subscriber subscriber : topicSubscribers) {
+                subscriber.sendFrame(frame);
+                notified.add(subscriber);
             }
         }
+
+        for (Subscriber subscriber : notified) {
+            subscriber.flush();
+        }
+    }
+
+    /**
+     * Encodes a rate frame like {@code PF1_USDTRY|22:number:35.02|25:number:36.02|5:timestamp:2024-12-16T16:07:16.504},
+     * followed by a line separator.
+     *
+     * @param message reusable builder, cleared before use
+     * @return the encoded frame, shared by all subscribers of the topic
+     */
+    static ByteBuffer encodeFrame(StringBuilder message, String topic, double rate, String timestamp) {
+        double spread = topic.startsWith("PF1_EURUSD") ? 0.21 : 1;
+        message.setLength(0);
+        message.append(topic)
+                .append("|22:number:").append(rate)
+                .append("|25:number:").append(rate + spread)
+                .append("|5:timestamp:").append(timestamp)
+                .append('\n');
+        return ByteBuffer.wrap(message.toString().getBytes(StandardCharsets.UTF_8));
     }
 }